@@ -0,0 +1,62 @@
+package com.petstore.benchmark;
+
+import com.petstore.client.ApiResult;
+import com.petstore.client.HttpTransport;
+import com.petstore.client.PetApiClient;
+import com.petstore.config.CacheConfig;
+import com.petstore.model.Pet;
+import com.petstore.server.PetstoreStandInServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка попадания в клиентский кэш getPetByIdResult: после первого чтения ответ
+ * отдается без сети и без разбора JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+    private static final long PET_COUNT = 10;
+
+    private PetstoreStandInServer server;
+    private PetApiClient cachedClient;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = PetstoreStandInServer.builder().build().start();
+        cachedClient = new PetApiClient(server.getBaseUrl(), HttpTransport.shared(),
+            CacheConfig.builder().petTtl(Duration.ofHours(1)).build());
+        for (long id = 1; id <= PET_COUNT; id++) {
+            cachedClient.getPetByIdResult(id).orElseThrow();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public ApiResult<Pet> cachedGetPetById() {
+        next = next % PET_COUNT + 1;
+        return cachedClient.getPetByIdResult(next);
+    }
+}
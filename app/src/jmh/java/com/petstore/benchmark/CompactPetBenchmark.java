@@ -0,0 +1,107 @@
+package com.petstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.Category;
+import com.petstore.model.CompactPet;
+import com.petstore.model.InternPool;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * {@link Pet} против {@link CompactPet} на выборке с несколькими десятками категорий и тегов
+ * и повторяющимися адресами фото. Перед замерами печатается, сколько кучи занимает 1M разобранных
+ * питомцев в каждом представлении; сами бенчмарки - время и аллокации разбора страницы из 1000.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Benchmark)
+public class CompactPetBenchmark {
+    private static final int PAGE = 1_000;
+    private static final int FOOTPRINT_PETS = 1_000_000;
+    private static final ObjectReader PET_LIST_READER = JacksonConfig.readerFor(JacksonConfig.PET_LIST);
+    private static final ObjectReader COMPACT_PET_LIST_READER = JacksonConfig.readerFor(
+        JacksonConfig.getObjectMapper().getTypeFactory().constructCollectionType(List.class, CompactPet.class));
+
+    @Param({"pet", "compact"})
+    public String representation;
+
+    private ObjectReader reader;
+    private byte[] page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        reader = "compact".equals(representation)
+            ? COMPACT_PET_LIST_READER.withAttribute(InternPool.class, new InternPool())
+            : PET_LIST_READER;
+        page = page(0);
+        printFootprint();
+    }
+
+    @Benchmark
+    public List<?> decodePage() throws IOException {
+        return reader.readValue(page);
+    }
+
+    private void printFootprint() throws IOException {
+        long before = usedHeap();
+        List<Object> pets = new ArrayList<>(FOOTPRINT_PETS);
+        for (int from = 0; from < FOOTPRINT_PETS; from += PAGE) {
+            pets.addAll(reader.<List<?>>readValue(page(from)));
+        }
+        long retained = usedHeap() - before;
+        Reference.reachabilityFence(pets);
+        System.out.printf("%n%s: %d pets retain %d MB, %d bytes per pet%n",
+            representation, pets.size(), retained >> 20, retained / pets.size());
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static byte[] page(int from) throws IOException {
+        List<Pet> pets = LongStream.range(from, from + PAGE).mapToObj(CompactPetBenchmark::pet).toList();
+        return JacksonConfig.writerFor(JacksonConfig.PET_LIST).writeValueAsBytes(pets);
+    }
+
+    /**
+     * 24 категории, 40 тегов и 200 адресов фото на всю выборку, имена уникальны
+     */
+    private static Pet pet(long id) {
+        return Pet.builder()
+            .id(id)
+            .category(new Category(id % 24, "category " + id % 24))
+            .name("pet " + id)
+            .photoUrls(List.of("https://photos.example.com/" + id % 200 + "/1.jpg",
+                "https://photos.example.com/" + (id + 1) % 200 + "/1.jpg"))
+            .tags(List.of(new Tag(id % 40, "tag " + id % 40), new Tag((id + 7) % 40, "tag " + (id + 7) % 40)))
+            .status(Pet.PetStatus.values()[(int) (id % 3)])
+            .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.petstore.benchmark;
+
+import com.petstore.client.HttpTransport;
+import com.petstore.client.PetApiClient;
+import com.petstore.config.CompressionConfig;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.Category;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import com.petstore.server.PetstoreStandInServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Цена и выигрыш gzip на реалистичных телах: большой ответ findByStatus и запись питомца
+ * с десятками photoUrls и тегов, без сжатия и со сжатием в обе стороны. Размеры тел на проводе
+ * печатаются при запуске, время и выделение памяти на вызов - результаты бенчмарка.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+    private static final int PETS = 500;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private PetstoreStandInServer server;
+    private HttpTransport transport;
+    private PetApiClient petApiClient;
+    private Pet pet;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        server = PetstoreStandInServer.builder().compression(gzip).build().start();
+        CompressionConfig compression = gzip ? CompressionConfig.gzip(1024) : CompressionConfig.defaults();
+        transport = new HttpTransport(TransportConfig.builder().compression(compression).build());
+        petApiClient = new PetApiClient(server.getBaseUrl(), transport);
+        for (int i = 0; i < PETS; i++) {
+            petApiClient.createPet(pet(1_000_000L + i));
+        }
+        pet = pet(2_000_000L);
+        printWireSize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transport.close();
+        server.close();
+    }
+
+    /**
+     * Потоковое чтение через {@link java.net.http.HttpClient}: разбор ответа RestAssured стоит
+     * на порядок больше и заслонил бы цену распаковки
+     */
+    @Benchmark
+    public long streamPetsByStatus() {
+        try (Stream<Pet> pets = petApiClient.streamPetsByStatus("available")) {
+            return pets.count();
+        }
+    }
+
+    @Benchmark
+    public int createPet() {
+        return petApiClient.createPet(pet).getStatusCode();
+    }
+
+    private static Pet pet(long id) {
+        return Pet.builder()
+            .id(id)
+            .name("pet-" + id)
+            .category(new Category(id % 8, "category-" + id % 8))
+            .status(Pet.PetStatus.AVAILABLE)
+            .photoUrls(IntStream.range(0, 20).mapToObj(i -> "https://photos.example.com/pets/" + id + "/" + i + ".jpg")
+                .toList())
+            .tags(IntStream.range(0, 5).mapToObj(i -> new Tag((long) i, "tag-" + i)).toList())
+            .build();
+    }
+
+    private void printWireSize() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/pet/findByStatus?status=available"))
+            .header("Accept-Encoding", "gzip")
+            .build();
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+        System.out.printf("%nfindByStatus response: %d bytes on the wire, Content-Encoding %s%n",
+            response.body().length, response.headers().firstValue("Content-Encoding").orElse("identity"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.petstore.benchmark;
+
+import com.petstore.client.ApiResult;
+import com.petstore.client.HttpTransport;
+import com.petstore.client.PetApiClient;
+import com.petstore.client.StoreApiClient;
+import com.petstore.config.Http2Config;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.Pet;
+import com.petstore.server.PetstoreStandInServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Опрос неизменного ресурса, как это делают дашборды: остатки и питомец по id без условных
+ * запросов и с ETag/Last-Modified. Через RestAssured (http1) и через {@link java.net.http.HttpClient} (h2c).
+ * После прогона печатается доля ответов 304.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConditionalGetBenchmark {
+    @Param({"false", "true"})
+    public boolean conditional;
+
+    @Param({"http1", "h2c"})
+    public String protocol;
+
+    private PetstoreStandInServer server;
+    private HttpTransport transport;
+    private StoreApiClient storeApiClient;
+    private PetApiClient petApiClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = PetstoreStandInServer.builder().build().start();
+        transport = new HttpTransport(TransportConfig.builder()
+            .conditionalReads(conditional)
+            .http2("h2c".equals(protocol) ? Http2Config.of(1, 100) : Http2Config.disabled())
+            .build());
+        storeApiClient = new StoreApiClient(server.getBaseUrl(), transport);
+        petApiClient = new PetApiClient(server.getBaseUrl(), transport);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n304 responses: inventory %d, pet %d%n",
+            storeApiClient.getNotModifiedCount(), petApiClient.getNotModifiedCount());
+        transport.close();
+        server.close();
+    }
+
+    @Benchmark
+    public ApiResult<Map<String, Integer>> pollInventory() {
+        return storeApiClient.getInventoryResult();
+    }
+
+    @Benchmark
+    public ApiResult<Pet> pollPetById() {
+        return petApiClient.getPetByIdResult(1L);
+    }
+}
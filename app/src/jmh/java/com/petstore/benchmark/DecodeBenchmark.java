@@ -0,0 +1,90 @@
+package com.petstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.Category;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.common.mapper.TypeRef;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Стоимость разбора ответа: универсальное отображение RestAssured ({@code response.as(...)})
+ * против кэшированного {@link ObjectReader} из {@link JacksonConfig}, читающего байты тела.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecodeBenchmark {
+    private static final ObjectReader PET_READER = JacksonConfig.readerFor(Pet.class);
+    private static final ObjectReader PET_LIST_READER = JacksonConfig.readerFor(JacksonConfig.PET_LIST);
+
+    private Response petResponse;
+    private Response petListResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Pet> pets = LongStream.rangeClosed(1, 100).mapToObj(DecodeBenchmark::pet).toList();
+        petResponse = response(JacksonConfig.writerFor(Pet.class).writeValueAsBytes(pets.get(0)));
+        petListResponse = response(JacksonConfig.writerFor(JacksonConfig.PET_LIST).writeValueAsBytes(pets));
+    }
+
+    @Benchmark
+    public Pet petViaRestAssuredMapping() {
+        return petResponse.as(Pet.class);
+    }
+
+    @Benchmark
+    public Pet petViaCachedReader() throws IOException {
+        return PET_READER.readValue(petResponse.asByteArray());
+    }
+
+    @Benchmark
+    public List<Pet> petListViaRestAssuredMapping() {
+        return petListResponse.as(new TypeRef<List<Pet>>() { });
+    }
+
+    @Benchmark
+    public List<Pet> petListViaCachedReader() throws IOException {
+        return PET_LIST_READER.readValue(petListResponse.asByteArray());
+    }
+
+    private static Response response(byte[] body) {
+        return new ResponseBuilder()
+            .setStatusCode(200)
+            .setContentType(ContentType.JSON)
+            .setBody(body)
+            .build();
+    }
+
+    private static Pet pet(long id) {
+        return Pet.builder()
+            .id(id)
+            .category(Category.builder().id(id % 4).name("category " + id % 4).build())
+            .name("pet " + id)
+            .photoUrls(List.of("http://test.com/" + id + "/1.jpg", "http://test.com/" + id + "/2.jpg"))
+            .tags(List.of(Tag.builder().id(1L).name("tag1").build(), Tag.builder().id(2L).name("tag2").build()))
+            .status(Pet.PetStatus.values()[(int) (id % 3)])
+            .build();
+    }
+}
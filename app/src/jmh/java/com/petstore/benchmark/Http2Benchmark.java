@@ -0,0 +1,91 @@
+package com.petstore.benchmark;
+
+import com.petstore.client.HttpTransport;
+import com.petstore.client.PetApiAsyncClient;
+import com.petstore.client.PetApiClient;
+import com.petstore.config.Http2Config;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.Pet;
+import com.petstore.server.PetstoreStandInServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP/1.1 с пулом keep-alive соединений против HTTP/2 (h2c) с двумя мультиплексированными
+ * соединениями при высокой конкуренции: типизированные чтения из 64 потоков и пачки по 256
+ * асинхронных чтений. Число соединений, открытых за прогон, печатается при остановке.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Http2Benchmark {
+    private static final int BURST = 256;
+
+    @Param({"http1", "h2c"})
+    public String protocol;
+
+    private PetstoreStandInServer server;
+    private HttpTransport transport;
+    private PetApiClient petApiClient;
+    private PetApiAsyncClient petApiAsyncClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = PetstoreStandInServer.builder().build().start();
+        TransportConfig.TransportConfigBuilder config = TransportConfig.builder();
+        if (protocol.equals("h2c")) {
+            config.http2(Http2Config.of(2, 128));
+        }
+        transport = new HttpTransport(config.build());
+        petApiClient = new PetApiClient(server.getBaseUrl(), transport);
+        petApiAsyncClient = new PetApiAsyncClient(server.getBaseUrl(), transport);
+        // первые запросы поднимают h2c на каждом соединении
+        for (int i = 0; i < 4; i++) {
+            petApiAsyncClient.getPetById(1L).join();
+        }
+        server.resetRequestCounts();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s: %d client connections%n", protocol, server.getConnectionCount());
+        transport.close();
+        server.close();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Pet getPetByIdResult() {
+        return petApiClient.getPetByIdResult(1L).getBody();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BURST)
+    public Object asyncBurst() {
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[BURST];
+        for (int i = 0; i < BURST; i++) {
+            calls[i] = petApiAsyncClient.getPetById(1L);
+        }
+        return CompletableFuture.allOf(calls).join();
+    }
+}
@@ -0,0 +1,43 @@
+package com.petstore.benchmark;
+
+import com.petstore.client.metrics.MetricsRegistry;
+import com.petstore.client.metrics.OperationMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость записи одного вызова в метрики операции из одного и из многих потоков;
+ * с {@code -prof gc} видно, что запись не выделяет памяти
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    private final OperationMetrics metrics = new MetricsRegistry().operation("pet.getById");
+
+    @Benchmark
+    @Threads(1)
+    public void recordSingleThread() {
+        metrics.record(200, 0, 512, ThreadLocalRandom.current().nextLong(100_000, 50_000_000));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void record16Threads() {
+        metrics.record(200, 0, 512, ThreadLocalRandom.current().nextLong(100_000, 50_000_000));
+    }
+}
@@ -0,0 +1,153 @@
+package com.petstore.benchmark;
+
+import com.petstore.analytics.PetFilter;
+import com.petstore.analytics.PetTable;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.Category;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Отчетные агрегации по каталогу: {@link PetTable} против списка {@link Pet} после findByStatus.
+ * Оба заполняются разбором одного и того же JSON; перед замерами печатается занятая куча
+ * и direct память. Для десятков миллионов строк запускать только таблицу:
+ * {@code -p representation=table -p rows=20000000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Benchmark)
+public class PetTableBenchmark {
+    private static final int PAGE = 10_000;
+    private static final PetFilter SOLD_WITH_TAG = PetFilter.all().status(Pet.PetStatus.SOLD).tag(7);
+
+    @Param({"table", "pojo"})
+    public String representation;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private PetTable table;
+    private List<Pet> pets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        long heapBefore = usedHeap();
+        long directBefore = directMemory();
+        if ("table".equals(representation)) {
+            table = new PetTable();
+            for (int from = 0; from < rows; from += PAGE) {
+                table.appendJson(new ByteArrayInputStream(page(from)));
+            }
+        } else {
+            pets = new ArrayList<>(rows);
+            for (int from = 0; from < rows; from += PAGE) {
+                pets.addAll(JacksonConfig.readerFor(JacksonConfig.PET_LIST).<List<Pet>>readValue(page(from)));
+            }
+        }
+        System.out.printf("%n%s, %d rows: heap +%d MB, direct +%d MB%n", representation, rows,
+            (usedHeap() - heapBefore) >> 20, (directMemory() - directBefore) >> 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (table != null) {
+            table.close();
+        }
+    }
+
+    @Benchmark
+    public Map<Pet.PetStatus, Long> countByStatus() {
+        if (table != null) {
+            return table.countByStatus(PetFilter.all());
+        }
+        Map<Pet.PetStatus, Long> counts = new EnumMap<>(Pet.PetStatus.class);
+        for (Pet pet : pets) {
+            counts.merge(pet.getStatus(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public Map<Long, Long> countByCategoryOfSoldWithTag() {
+        if (table != null) {
+            return table.countByCategory(SOLD_WITH_TAG);
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        for (Pet pet : pets) {
+            if (pet.getStatus() == Pet.PetStatus.SOLD && hasTag(pet, 7)) {
+                counts.merge(pet.getCategory().getId(), 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static boolean hasTag(Pet pet, long tagId) {
+        for (Tag tag : pet.getTags()) {
+            if (tag.getId() == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long directMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> "direct".equals(pool.getName()))
+            .mapToLong(BufferPoolMXBean::getMemoryUsed)
+            .sum();
+    }
+
+    private static byte[] page(int from) throws IOException {
+        List<Pet> page = LongStream.range(from, from + PAGE).mapToObj(PetTableBenchmark::pet).toList();
+        return JacksonConfig.writerFor(JacksonConfig.PET_LIST).writeValueAsBytes(page);
+    }
+
+    /**
+     * 24 категории и 40 тегов на весь каталог
+     */
+    private static Pet pet(long id) {
+        return Pet.builder()
+            .id(id)
+            .category(new Category(id % 24, "category " + id % 24))
+            .name("pet " + id)
+            .photoUrls(List.of("https://photos.example.com/" + id + "/1.jpg"))
+            .tags(List.of(new Tag(id % 40, "tag " + id % 40), new Tag((id + 7) % 40, "tag " + (id + 7) % 40)))
+            .status(Pet.PetStatus.values()[(int) (id % 3)])
+            .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.petstore.benchmark;
+
+import com.petstore.client.resilience.RateLimiter;
+import com.petstore.client.resilience.TokenBucket;
+import com.petstore.config.RateLimit;
+import com.petstore.config.RateLimitConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость взятия разрешения клиентского лимита под конкуренцией потоков: корзина без блокировок
+ * против классической корзины под {@code synchronized}. Лимит заведомо выше достижимой скорости,
+ * поэтому меряется только путь взятия разрешения, а не ожидание.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+    private static final RateLimit UNREACHABLE = RateLimit.of(1e9, 1_000_000);
+
+    private final TokenBucket lockFree = new TokenBucket(UNREACHABLE);
+    private final SynchronizedBucket synchronizedBucket = new SynchronizedBucket(UNREACHABLE);
+    private final RateLimiter limiter = new RateLimiter(RateLimitConfig.builder().limit("/store", UNREACHABLE).build());
+
+    @Benchmark
+    @Threads(1)
+    public boolean lockFreeSingleThread() {
+        return lockFree.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean lockFree16Threads() {
+        return lockFree.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean synchronizedSingleThread() {
+        return synchronizedBucket.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean synchronized16Threads() {
+        return synchronizedBucket.tryAcquire();
+    }
+
+    /**
+     * Полный путь клиента: выбор корзины группы по операции и взятие разрешения
+     */
+    @Benchmark
+    @Threads(16)
+    public long limiterReserve16Threads() {
+        return limiter.reserve("POST /store/order");
+    }
+
+    /**
+     * Классическая корзина с пополнением по времени под монитором, для сравнения
+     */
+    private static final class SynchronizedBucket {
+        private final double permitsPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        SynchronizedBucket(RateLimit limit) {
+            this.permitsPerNano = limit.getPermitsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = limit.getBurst();
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
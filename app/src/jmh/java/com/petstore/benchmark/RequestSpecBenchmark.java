@@ -0,0 +1,57 @@
+package com.petstore.benchmark;
+
+import com.petstore.client.HttpTransport;
+import com.petstore.config.ApiConfig;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Стоимость построения запроса на каждый вызов клиента: {@code given().spec(...)} поверх
+ * общей спецификации, как в BaseApiClient, без отправки по сети.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestSpecBenchmark {
+    private RequestSpecification requestSpec;
+
+    @Setup
+    public void setUp() {
+        requestSpec = new RequestSpecBuilder()
+            .setBaseUri(ApiConfig.BASE_URL)
+            .setContentType(ContentType.JSON)
+            .setConfig(HttpTransport.shared().getRestAssuredConfig())
+            .build();
+    }
+
+    @Benchmark
+    public RequestSpecification givenSpec() {
+        return given().spec(requestSpec);
+    }
+
+    @Benchmark
+    public RequestSpecification givenSpecWithPathAndHeader() {
+        return given()
+            .spec(requestSpec)
+            .pathParam("petId", 1L)
+            .header("api_key", "special-key");
+    }
+}
@@ -0,0 +1,115 @@
+package com.petstore.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.Category;
+import com.petstore.model.Order;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import com.petstore.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация и десериализация моделей через {@link JacksonConfig#getObjectMapper()}
+ * и путь {@code JsonNode.toString()}, которым TestPetLoader отдает тела питомцев.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private final ObjectMapper objectMapper = JacksonConfig.getObjectMapper();
+
+    private Pet pet;
+    private Order order;
+    private User user;
+    private byte[] petJson;
+    private byte[] orderJson;
+    private byte[] userJson;
+    private JsonNode petsData;
+
+    @Setup
+    public void setUp() throws IOException {
+        pet = Pet.builder()
+            .id(42L)
+            .category(Category.builder().id(1L).name("Dogs").build())
+            .name("doggie")
+            .photoUrls(List.of("http://test.com/photo1.jpg", "http://test.com/photo2.jpg"))
+            .tags(List.of(Tag.builder().id(1L).name("tag1").build(), Tag.builder().id(2L).name("tag2").build()))
+            .status(Pet.PetStatus.AVAILABLE)
+            .build();
+        order = new Order();
+        order.setId(1L);
+        order.setPetId(42L);
+        order.setQuantity(1);
+        order.setShipDate("2024-03-20T10:00:00Z");
+        order.setStatus("placed");
+        order.setComplete(true);
+        user = User.builder()
+            .id(1L)
+            .username("testuser")
+            .firstName("Test")
+            .lastName("User")
+            .email("test@test.com")
+            .password("testpass")
+            .phone("1234567890")
+            .userStatus(1)
+            .build();
+
+        petJson = objectMapper.writeValueAsBytes(pet);
+        orderJson = objectMapper.writeValueAsBytes(order);
+        userJson = objectMapper.writeValueAsBytes(user);
+        petsData = objectMapper.readTree("{\"testPet\":" + new String(petJson) + "}");
+    }
+
+    @Benchmark
+    public byte[] serializePet() throws IOException {
+        return objectMapper.writeValueAsBytes(pet);
+    }
+
+    @Benchmark
+    public Pet deserializePet() throws IOException {
+        return objectMapper.readValue(petJson, Pet.class);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws IOException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order deserializeOrder() throws IOException {
+        return objectMapper.readValue(orderJson, Order.class);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws IOException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User deserializeUser() throws IOException {
+        return objectMapper.readValue(userJson, User.class);
+    }
+
+    @Benchmark
+    public String jsonNodeToString() {
+        return petsData.get("testPet").toString();
+    }
+}
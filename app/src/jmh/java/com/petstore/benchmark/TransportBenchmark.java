@@ -0,0 +1,60 @@
+package com.petstore.benchmark;
+
+import com.petstore.client.HttpTransport;
+import com.petstore.client.PetApiClient;
+import com.petstore.config.TransportConfig;
+import com.petstore.server.PetstoreStandInServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросов в секунду через синхронный клиент к локальному stand-in серверу
+ * с пулом keep-alive соединений и без него (новое соединение на каждый запрос).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TransportBenchmark {
+    @Param({"true", "false"})
+    public boolean pooling;
+
+    private PetstoreStandInServer server;
+    private HttpTransport transport;
+    private PetApiClient petApiClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = PetstoreStandInServer.builder().build().start();
+        transport = new HttpTransport(TransportConfig.builder().pooling(pooling).build());
+        petApiClient = new PetApiClient(server.getBaseUrl(), transport);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transport.close();
+        server.close();
+    }
+
+    @Benchmark
+    public int getPetById() {
+        return petApiClient.getPetById(1L).getStatusCode();
+    }
+}
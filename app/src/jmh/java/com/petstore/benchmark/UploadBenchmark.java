@@ -0,0 +1,93 @@
+package com.petstore.benchmark;
+
+import com.petstore.client.HttpTransport;
+import com.petstore.client.PetApiClient;
+import com.petstore.config.TransportConfig;
+import com.petstore.server.PetstoreStandInServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузок файла размером {@code sizeMb} в секунду (МБ/с = ops/s * sizeMb) разными способами:
+ * RestAssured с {@code java.io.File}, отображенный файл, прямой буфер и поток (chunked).
+ * Выделение памяти на загрузку смотреть через {@code -prof gc}; stand-in сервер работает в той же
+ * JVM, поэтому его доля (разбор multipart) входит в gc.alloc.rate.norm одинаково для всех вариантов.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UploadBenchmark {
+    private static final String OAUTH2_TOKEN = "benchmark";
+
+    @Param({"8"})
+    public int sizeMb;
+
+    private PetstoreStandInServer server;
+    private HttpTransport transport;
+    private PetApiClient petApiClient;
+    private Path image;
+    private ByteBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = PetstoreStandInServer.builder().build().start();
+        transport = new HttpTransport(TransportConfig.builder().build());
+        petApiClient = new PetApiClient(server.getBaseUrl(), transport);
+        byte[] content = new byte[sizeMb * 1024 * 1024];
+        new Random(42).nextBytes(content);
+        image = Files.createTempFile("upload-benchmark", ".jpg");
+        Files.write(image, content);
+        buffer = ByteBuffer.allocateDirect(content.length).put(content).flip();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        transport.close();
+        server.close();
+        Files.deleteIfExists(image);
+    }
+
+    @Benchmark
+    public int restAssuredFile() {
+        return petApiClient.uploadImageWithOAuth(1L, "benchmark", image.toString(), OAUTH2_TOKEN).getStatusCode();
+    }
+
+    @Benchmark
+    public int mappedPath() {
+        return petApiClient.uploadImage(1L, "benchmark", image, OAUTH2_TOKEN).getCode();
+    }
+
+    @Benchmark
+    public int directBuffer() {
+        return petApiClient.uploadImage(1L, "benchmark", "buffer.jpg", buffer, OAUTH2_TOKEN).getCode();
+    }
+
+    @Benchmark
+    public int inputStream() throws IOException {
+        try (InputStream in = Files.newInputStream(image)) {
+            return petApiClient.uploadImage(1L, "benchmark", "stream.jpg", in, OAUTH2_TOKEN).getCode();
+        }
+    }
+}
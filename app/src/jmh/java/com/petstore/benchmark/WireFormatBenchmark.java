@@ -0,0 +1,144 @@
+package com.petstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.petstore.config.JacksonConfig;
+import com.petstore.config.WireFormat;
+import com.petstore.model.Category;
+import com.petstore.model.Order;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import com.petstore.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Кодирование и разбор тел Pet, списка из 100 Pet, Order и User в JSON, Smile и CBOR теми же
+ * кэшированными читателями и писателями, что у клиентов. Размеры тел печатаются при запуске.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+    @Param({"JSON", "SMILE", "CBOR"})
+    public WireFormat format;
+
+    private ObjectWriter petWriter;
+    private ObjectReader petReader;
+    private ObjectWriter petListWriter;
+    private ObjectReader petListReader;
+    private ObjectWriter orderWriter;
+    private ObjectReader orderReader;
+    private ObjectWriter userWriter;
+    private ObjectReader userReader;
+
+    private Pet pet;
+    private List<Pet> pets;
+    private Order order;
+    private User user;
+    private byte[] petBytes;
+    private byte[] petListBytes;
+    private byte[] orderBytes;
+    private byte[] userBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        petWriter = JacksonConfig.writerFor(format, Pet.class);
+        petReader = JacksonConfig.readerFor(format, Pet.class);
+        petListWriter = JacksonConfig.writerFor(format, JacksonConfig.PET_LIST);
+        petListReader = JacksonConfig.readerFor(format, JacksonConfig.PET_LIST);
+        orderWriter = JacksonConfig.writerFor(format, Order.class);
+        orderReader = JacksonConfig.readerFor(format, Order.class);
+        userWriter = JacksonConfig.writerFor(format, User.class);
+        userReader = JacksonConfig.readerFor(format, User.class);
+
+        pet = pet(1);
+        pets = LongStream.rangeClosed(1, 100).mapToObj(WireFormatBenchmark::pet).toList();
+        order = new Order();
+        order.setId(1L);
+        order.setPetId(1L);
+        order.setQuantity(3);
+        order.setShipDate("2024-01-15T10:30:00.000+0000");
+        order.setStatus("placed");
+        order.setComplete(false);
+        user = User.builder().id(1L).username("user1").firstName("First").lastName("Last")
+            .email("user1@example.com").password("secret").phone("+1-555-0100").userStatus(1).build();
+
+        petBytes = petWriter.writeValueAsBytes(pet);
+        petListBytes = petListWriter.writeValueAsBytes(pets);
+        orderBytes = orderWriter.writeValueAsBytes(order);
+        userBytes = userWriter.writeValueAsBytes(user);
+        System.out.printf("%n%s payload bytes: pet %d, 100 pets %d, order %d, user %d%n",
+            format, petBytes.length, petListBytes.length, orderBytes.length, userBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodePet() throws IOException {
+        return petWriter.writeValueAsBytes(pet);
+    }
+
+    @Benchmark
+    public Pet decodePet() throws IOException {
+        return petReader.readValue(petBytes);
+    }
+
+    @Benchmark
+    public byte[] encodePetList() throws IOException {
+        return petListWriter.writeValueAsBytes(pets);
+    }
+
+    @Benchmark
+    public List<Pet> decodePetList() throws IOException {
+        return petListReader.readValue(petListBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeOrder() throws IOException {
+        return orderWriter.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order decodeOrder() throws IOException {
+        return orderReader.readValue(orderBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeUser() throws IOException {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User decodeUser() throws IOException {
+        return userReader.readValue(userBytes);
+    }
+
+    private static Pet pet(long id) {
+        return Pet.builder()
+            .id(id)
+            .category(new Category(id % 4, "category " + id % 4))
+            .name("pet " + id)
+            .photoUrls(IntStream.rangeClosed(1, 3).mapToObj(i -> "https://photos.example.com/" + id + "/" + i + ".jpg")
+                .toList())
+            .tags(List.of(new Tag(1L, "tag1"), new Tag(2L, "tag2")))
+            .status(Pet.PetStatus.values()[(int) (id % 3)])
+            .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.petstore.analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Столбец значений фиксированной ширины вне кучи: direct {@link ByteBuffer} блоками по {@link #CHUNK}
+ * элементов. Рост добавляет блок без копирования прежних, поэтому размер столбца не ограничен
+ * 2 ГБ одного буфера, а в куче остается только массив ссылок на блоки.
+ */
+final class Column {
+    static final int CHUNK_SHIFT = 20;
+    static final int CHUNK = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK - 1;
+
+    private final int width;
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private long size;
+
+    /**
+     * @param width ширина элемента в байтах: 1, 4 или 8
+     */
+    Column(int width) {
+        this.width = width;
+    }
+
+    long size() {
+        return size;
+    }
+
+    int chunkCount() {
+        return (int) ((size + CHUNK - 1) >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Блок с элементами {@code [index * CHUNK, index * CHUNK + chunkLength(index))}; смещение элемента - {@code i * width}
+     */
+    ByteBuffer chunk(int index) {
+        return chunks[index];
+    }
+
+    int chunkLength(int index) {
+        return (int) Math.min(CHUNK, size - ((long) index << CHUNK_SHIFT));
+    }
+
+    void appendByte(byte value) {
+        ensureCapacity().put(offset(size++), value);
+    }
+
+    void appendInt(int value) {
+        ensureCapacity().putInt(offset(size++), value);
+    }
+
+    void appendLong(long value) {
+        ensureCapacity().putLong(offset(size++), value);
+    }
+
+    byte getByte(long index) {
+        return chunkOf(index).get(offset(index));
+    }
+
+    int getInt(long index) {
+        return chunkOf(index).getInt(offset(index));
+    }
+
+    long getLong(long index) {
+        return chunkOf(index).getLong(offset(index));
+    }
+
+    /**
+     * Отбрасывает элементы с индекса {@code size}; блоки остаются для следующих добавлений
+     */
+    void truncate(long size) {
+        if (size < this.size) {
+            this.size = Math.max(0, size);
+        }
+    }
+
+    /**
+     * Отпускает блоки; память вернется, когда сборщик соберет сами буферы
+     */
+    void release() {
+        chunks = new ByteBuffer[0];
+        size = 0;
+    }
+
+    private ByteBuffer chunkOf(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return chunks[(int) (index >>> CHUNK_SHIFT)];
+    }
+
+    private int offset(long index) {
+        return (int) (index & CHUNK_MASK) * width;
+    }
+
+    private ByteBuffer ensureCapacity() {
+        int chunk = (int) (size >>> CHUNK_SHIFT);
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            chunks[chunk] = ByteBuffer.allocateDirect(CHUNK * width).order(ByteOrder.nativeOrder());
+        }
+        return chunks[chunk];
+    }
+}
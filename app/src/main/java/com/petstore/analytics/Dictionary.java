@@ -0,0 +1,93 @@
+package com.petstore.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Словарь id категорий или тегов: каждому id выдается плотный код 0, 1, 2... в порядке появления.
+ * Открытая адресация по примитивным long, без упаковки на поиск. Имя запоминается по первому
+ * появлению id. Размер пропорционален числу различных id, а не строк таблицы.
+ */
+final class Dictionary {
+    private long[] keys = new long[16];
+    private int[] slots = new int[16];
+    private long[] ids = new long[8];
+    private String[] names = new String[8];
+    private int size;
+
+    Dictionary() {
+        Arrays.fill(slots, -1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Код id или -1, если такого id нет
+     */
+    int find(long id) {
+        int mask = slots.length - 1;
+        for (int i = mix(id) & mask; ; i = (i + 1) & mask) {
+            int code = slots[i];
+            if (code < 0 || keys[i] == id) {
+                return code;
+            }
+        }
+    }
+
+    /**
+     * Код id, новый id получает следующий код
+     */
+    int encode(long id, String name) {
+        int mask = slots.length - 1;
+        int i = mix(id) & mask;
+        for (; slots[i] >= 0; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                return slots[i];
+            }
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            names = Arrays.copyOf(names, size * 2);
+        }
+        ids[size] = id;
+        names[size] = name;
+        keys[i] = id;
+        slots[i] = size;
+        if (++size * 2 > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    /**
+     * id по коду, {@link PetTable#NO_ID} для объектов без id
+     */
+    long id(int code) {
+        return ids[code];
+    }
+
+    String name(int code) {
+        return names[code];
+    }
+
+    private void rehash() {
+        keys = new long[slots.length * 2];
+        slots = new int[keys.length];
+        Arrays.fill(slots, -1);
+        int mask = slots.length - 1;
+        for (int code = 0; code < size; code++) {
+            int i = mix(ids[code]) & mask;
+            while (slots[i] >= 0) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = ids[code];
+            slots[i] = code;
+        }
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
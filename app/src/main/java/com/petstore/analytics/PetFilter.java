@@ -0,0 +1,53 @@
+package com.petstore.analytics;
+
+import com.petstore.model.Pet;
+
+/**
+ * Неизменяемый фильтр строк {@link PetTable}: статус, id категории и id тега. Не заданные условия
+ * пропускают любые строки, заданные объединяются через И. Id категории и тега переводятся в коды
+ * словаря один раз на проход, поэтому сравнение в цикле идет по примитивам.
+ */
+public final class PetFilter {
+    private static final PetFilter ALL = new PetFilter(null, false, 0, false, 0);
+
+    final Pet.PetStatus status;
+    final boolean byCategory;
+    final long categoryId;
+    final boolean byTag;
+    final long tagId;
+
+    private PetFilter(Pet.PetStatus status, boolean byCategory, long categoryId, boolean byTag, long tagId) {
+        this.status = status;
+        this.byCategory = byCategory;
+        this.categoryId = categoryId;
+        this.byTag = byTag;
+        this.tagId = tagId;
+    }
+
+    public static PetFilter all() {
+        return ALL;
+    }
+
+    public PetFilter status(Pet.PetStatus status) {
+        return new PetFilter(status, byCategory, categoryId, byTag, tagId);
+    }
+
+    public PetFilter category(long categoryId) {
+        return new PetFilter(status, true, categoryId, byTag, tagId);
+    }
+
+    public PetFilter tag(long tagId) {
+        return new PetFilter(status, byCategory, categoryId, true, tagId);
+    }
+
+    boolean isAll() {
+        return status == null && !byCategory && !byTag;
+    }
+
+    @Override
+    public String toString() {
+        return "PetFilter{status=" + status
+            + (byCategory ? ", category=" + categoryId : "")
+            + (byTag ? ", tag=" + tagId : "") + "}";
+    }
+}
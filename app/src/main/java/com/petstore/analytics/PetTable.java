@@ -0,0 +1,383 @@
+package com.petstore.analytics;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.Category;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Столбцовая таблица питомцев вне кучи для аналитики по большим каталогам: id - примитивный long,
+ * статус - байт, категория и теги - коды словарей id. Таблица заполняется прямо из потокового
+ * разбора JSON без объектов {@link Pet}, а проходы, группировки и фильтры не создают объектов
+ * на строку. В куче остаются только словари (по числу различных категорий и тегов) и ссылки
+ * на блоки столбцов, поэтому куча не растет с числом строк.
+ * <p>
+ * Имя и фото питомца в таблицу не попадают. Заполнение не потокобезопасно; заполненную таблицу
+ * можно читать из нескольких потоков.
+ */
+public final class PetTable implements AutoCloseable {
+    /**
+     * id питомца, категории или тега, которого не было в данных
+     */
+    public static final long NO_ID = Long.MIN_VALUE;
+
+    private static final Pet.PetStatus[] STATUSES = Pet.PetStatus.values();
+    private static final byte NO_STATUS = -1;
+    private static final byte ANY_STATUS = -2;
+    private static final int NONE = -1;
+    private static final int ANY = -2;
+
+    private final Column ids = new Column(Long.BYTES);
+    private final Column statuses = new Column(Byte.BYTES);
+    private final Column categories = new Column(Integer.BYTES);
+    /**
+     * Конец тегов строки в {@link #tagCodes}; начало - конец предыдущей строки
+     */
+    private final Column tagEnds = new Column(Integer.BYTES);
+    private final Column tagCodes = new Column(Integer.BYTES);
+    private final Dictionary categoryDictionary = new Dictionary();
+    private final Dictionary tagDictionary = new Dictionary();
+
+    public long size() {
+        return ids.size();
+    }
+
+    /**
+     * Добавляет питомцев из JSON массива, как его отдает findByStatus, разбирая поток по токенам.
+     * Поток закрывается. Строка, на которой разбор оборвался, не добавляется.
+     *
+     * @return число добавленных строк
+     */
+    public long appendJson(InputStream in) throws IOException {
+        long before = size();
+        try (JsonParser p = JacksonConfig.getObjectMapper().createParser(in)) {
+            if (p.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(p, "Expected JSON array but got " + p.currentToken());
+            }
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                appendRow(p);
+            }
+            if (!p.hasToken(JsonToken.END_ARRAY)) {
+                throw new JsonParseException(p, "Expected pet object but got " + p.currentToken());
+            }
+        }
+        return size() - before;
+    }
+
+    public void add(Pet pet) {
+        int tagStart = (int) tagCodes.size();
+        if (pet.getTags() != null) {
+            for (Tag tag : pet.getTags()) {
+                if (tag != null) {
+                    tagCodes.appendInt(tagDictionary.encode(idOf(tag.getId()), tag.getName()));
+                }
+            }
+        }
+        Category category = pet.getCategory();
+        commitRow(idOf(pet.getId()),
+            pet.getStatus() == null ? NO_STATUS : (byte) pet.getStatus().ordinal(),
+            category == null ? NONE : categoryDictionary.encode(idOf(category.getId()), category.getName()),
+            tagStart);
+    }
+
+    public long id(long row) {
+        return ids.getLong(row);
+    }
+
+    public Pet.PetStatus status(long row) {
+        byte status = statuses.getByte(row);
+        return status < 0 ? null : STATUSES[status];
+    }
+
+    /**
+     * id категории строки или {@link #NO_ID}, если категории нет
+     */
+    public long categoryId(long row) {
+        int category = categories.getInt(row);
+        return category < 0 ? NO_ID : categoryDictionary.id(category);
+    }
+
+    public long[] tagIds(long row) {
+        int start = tagStart(row);
+        long[] tagIds = new long[tagEnds.getInt(row) - start];
+        for (int i = 0; i < tagIds.length; i++) {
+            tagIds[i] = tagDictionary.id(tagCodes.getInt(start + i));
+        }
+        return tagIds;
+    }
+
+    /**
+     * Различные категории таблицы: id и имя по первому появлению
+     */
+    public Map<Long, String> categories() {
+        return entries(categoryDictionary);
+    }
+
+    public Map<Long, String> tags() {
+        return entries(tagDictionary);
+    }
+
+    public long count(PetFilter filter) {
+        if (filter.isAll()) {
+            return size();
+        }
+        long[] count = new long[1];
+        scan(filter, row -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Число строк по статусам; строки без статуса не считаются
+     */
+    public Map<Pet.PetStatus, Long> countByStatus(PetFilter filter) {
+        long[] counts = new long[STATUSES.length];
+        if (filter.isAll()) {
+            for (int chunk = 0; chunk < statuses.chunkCount(); chunk++) {
+                ByteBuffer column = statuses.chunk(chunk);
+                for (int i = 0, length = statuses.chunkLength(chunk); i < length; i++) {
+                    int status = column.get(i);
+                    if (status >= 0) {
+                        counts[status]++;
+                    }
+                }
+            }
+        } else {
+            scan(filter, row -> {
+                byte status = statuses.getByte(row);
+                if (status >= 0) {
+                    counts[status]++;
+                }
+            });
+        }
+        Map<Pet.PetStatus, Long> result = new EnumMap<>(Pet.PetStatus.class);
+        for (Pet.PetStatus status : STATUSES) {
+            if (counts[status.ordinal()] > 0) {
+                result.put(status, counts[status.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Число строк по id категорий; строки без категории не считаются
+     */
+    public Map<Long, Long> countByCategory(PetFilter filter) {
+        long[] counts = new long[categoryDictionary.size()];
+        scan(filter, row -> {
+            int category = categories.getInt(row);
+            if (category >= 0) {
+                counts[category]++;
+            }
+        });
+        return byId(categoryDictionary, counts);
+    }
+
+    /**
+     * Число строк с каждым тегом; строка считается для каждого своего тега
+     */
+    public Map<Long, Long> countByTag(PetFilter filter) {
+        long[] counts = new long[tagDictionary.size()];
+        scan(filter, row -> {
+            for (int i = tagStart(row), end = tagEnds.getInt(row); i < end; i++) {
+                counts[tagCodes.getInt(i)]++;
+            }
+        });
+        return byId(tagDictionary, counts);
+    }
+
+    /**
+     * Передает id подходящих строк в порядке добавления
+     */
+    public void forEachId(PetFilter filter, LongConsumer action) {
+        scan(filter, row -> action.accept(ids.getLong(row)));
+    }
+
+    /**
+     * Отпускает память столбцов; direct буферы вернут ее, когда их соберет сборщик мусора
+     */
+    @Override
+    public void close() {
+        ids.release();
+        statuses.release();
+        categories.release();
+        tagEnds.release();
+        tagCodes.release();
+    }
+
+    private void appendRow(JsonParser p) throws IOException {
+        int tagStart = (int) tagCodes.size();
+        long id = NO_ID;
+        byte status = NO_STATUS;
+        int category = NONE;
+        try {
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                if (p.nextToken() == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "id" -> id = p.getValueAsLong();
+                    case "status" -> status = statusCode(p);
+                    case "category" -> category = readEntry(p, categoryDictionary);
+                    case "tags" -> readTags(p);
+                    default -> p.skipChildren();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            tagCodes.truncate(tagStart);
+            throw e;
+        }
+        commitRow(id, status, category, tagStart);
+    }
+
+    private void readTags(JsonParser p) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            throw new JsonParseException(p, "Expected tags array but got " + p.currentToken());
+        }
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (!p.hasToken(JsonToken.VALUE_NULL)) {
+                tagCodes.appendInt(readEntry(p, tagDictionary));
+            }
+        }
+    }
+
+    /**
+     * Код категории или тега {@code {"id": ..., "name": ...}}. Имя читается в строку, только если id
+     * еще не встречался, поэтому повторные категории и теги разбираются без аллокаций.
+     */
+    private static int readEntry(JsonParser p, Dictionary dictionary) throws IOException {
+        if (!p.isExpectedStartObjectToken()) {
+            throw new JsonParseException(p, "Expected category or tag object but got " + p.currentToken());
+        }
+        long id = NO_ID;
+        String name = null;
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            if (p.nextToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> id = p.getValueAsLong();
+                case "name" -> {
+                    if (id == NO_ID || dictionary.find(id) < 0) {
+                        name = p.getText();
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return dictionary.encode(id, name);
+    }
+
+    /**
+     * Код статуса по тексту токена без создания строки
+     */
+    private static byte statusCode(JsonParser p) throws IOException {
+        char[] text = p.getTextCharacters();
+        int offset = p.getTextOffset();
+        int length = p.getTextLength();
+        for (Pet.PetStatus status : STATUSES) {
+            if (equalsIgnoreCase(status.getValue(), text, offset, length)) {
+                return (byte) status.ordinal();
+            }
+        }
+        throw new JsonParseException(p, "Unknown pet status: " + p.getText());
+    }
+
+    private static boolean equalsIgnoreCase(String value, char[] text, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(text[offset + i]) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void commitRow(long id, byte status, int category, int tagStart) {
+        if (tagCodes.size() > Integer.MAX_VALUE) {
+            tagCodes.truncate(tagStart);
+            throw new IllegalStateException("PetTable holds at most " + Integer.MAX_VALUE + " tags");
+        }
+        ids.appendLong(id);
+        statuses.appendByte(status);
+        categories.appendInt(category);
+        tagEnds.appendInt((int) tagCodes.size());
+    }
+
+    private int tagStart(long row) {
+        return row == 0 ? 0 : tagEnds.getInt(row - 1);
+    }
+
+    /**
+     * Проходит строки блоками столбцов, сравнивая коды фильтра с байтами и int столбцов напрямую
+     */
+    private void scan(PetFilter filter, LongConsumer visitor) {
+        byte status = filter.status == null ? ANY_STATUS : (byte) filter.status.ordinal();
+        int category = filter.byCategory ? categoryDictionary.find(filter.categoryId) : ANY;
+        int tag = filter.byTag ? tagDictionary.find(filter.tagId) : ANY;
+        if (category == NONE || tag == NONE) {
+            return;
+        }
+        for (int chunk = 0; chunk < ids.chunkCount(); chunk++) {
+            ByteBuffer statusColumn = statuses.chunk(chunk);
+            ByteBuffer categoryColumn = categories.chunk(chunk);
+            long base = (long) chunk << Column.CHUNK_SHIFT;
+            for (int i = 0, length = ids.chunkLength(chunk); i < length; i++) {
+                if (status != ANY_STATUS && statusColumn.get(i) != status) {
+                    continue;
+                }
+                if (category != ANY && categoryColumn.getInt(i * Integer.BYTES) != category) {
+                    continue;
+                }
+                if (tag != ANY && !hasTag(base + i, tag)) {
+                    continue;
+                }
+                visitor.accept(base + i);
+            }
+        }
+    }
+
+    private boolean hasTag(long row, int tag) {
+        for (int i = tagStart(row), end = tagEnds.getInt(row); i < end; i++) {
+            if (tagCodes.getInt(i) == tag) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long idOf(Long id) {
+        return id == null ? NO_ID : id;
+    }
+
+    private static Map<Long, String> entries(Dictionary dictionary) {
+        Map<Long, String> entries = new LinkedHashMap<>();
+        for (int code = 0; code < dictionary.size(); code++) {
+            entries.put(dictionary.id(code), dictionary.name(code));
+        }
+        return entries;
+    }
+
+    private static Map<Long, Long> byId(Dictionary dictionary, long[] counts) {
+        Map<Long, Long> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(dictionary.id(code), counts[code]);
+            }
+        }
+        return result;
+    }
+}
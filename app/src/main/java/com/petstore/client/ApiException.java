@@ -0,0 +1,28 @@
+package com.petstore.client;
+
+import com.petstore.model.ApiResponse;
+
+/**
+ * Ответ API с кодом вне диапазона 2xx
+ */
+public class ApiException extends RuntimeException {
+    private final int statusCode;
+    private final ApiResponse error;
+
+    public ApiException(int statusCode, ApiResponse error) {
+        super("API returned " + statusCode + (error != null && error.getMessage() != null ? ": " + error.getMessage() : ""));
+        this.statusCode = statusCode;
+        this.error = error;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Тело ответа об ошибке, если сервер вернул его в формате ApiResponse
+     */
+    public ApiResponse getError() {
+        return error;
+    }
+}
@@ -0,0 +1,84 @@
+package com.petstore.client;
+
+import com.petstore.model.ApiResponse;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Типизированный результат вызова API: статус, заголовки и тело, разобранное сразу в модель.
+ * Для ответов вне 2xx тело отсутствует, а разобранная ошибка доступна через {@link #getError()}.
+ *
+ * @param <T> тип тела успешного ответа
+ */
+public class ApiResult<T> {
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final T body;
+    private final ApiResponse error;
+
+    /**
+     * @param headers заголовки ответа; ожидается карта без учета регистра имен
+     */
+    public ApiResult(int statusCode, Map<String, List<String>> headers, T body, ApiResponse error) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.error = error;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    public T getBody() {
+        return body;
+    }
+
+    public ApiResponse getError() {
+        return error;
+    }
+
+    /**
+     * Тело успешного ответа или {@link ApiException} с кодом и ошибкой сервера
+     */
+    public T orElseThrow() {
+        if (!isSuccessful()) {
+            throw new ApiException(statusCode, error);
+        }
+        return body;
+    }
+
+    /**
+     * Независимая копия для раздачи нескольким вызывающим: тело копирует {@code copyBody}, ошибка копируется,
+     * заголовки - в неизменяемую карту
+     */
+    ApiResult<T> copy(UnaryOperator<T> copyBody) {
+        Map<String, List<String>> headersCopy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach((name, values) -> headersCopy.put(name, List.copyOf(values)));
+        return new ApiResult<>(statusCode, Collections.unmodifiableMap(headersCopy),
+            body == null ? null : copyBody.apply(body),
+            error == null ? null : new ApiResponse(error.getCode(), error.getType(), error.getMessage()));
+    }
+
+    @Override
+    public String toString() {
+        return "ApiResult{statusCode=" + statusCode + ", body=" + body + ", error=" + error + '}';
+    }
+}
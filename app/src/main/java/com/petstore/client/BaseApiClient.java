@@ -1,30 +1,331 @@
 package com.petstore.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.petstore.client.metrics.MetricsRegistry;
+import com.petstore.client.metrics.OperationMetrics;
+import com.petstore.config.ApiConfig;
 import com.petstore.config.JacksonConfig;
+import com.petstore.config.WireFormat;
+import com.petstore.model.ApiResponse;
+import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.config.ObjectMapperConfig;
-import io.restassured.config.RestAssuredConfig;
-import io.restassured.filter.log.LogDetail;
 import io.restassured.http.ContentType;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Базовый клиент API. Экземпляры неизменяемы и могут использоваться из нескольких потоков:
+ * общая спецификация только читается, а состояние вызова живет в отдельном запросе {@link #request()}.
+ * Соединения берутся из общего {@link HttpTransport}.
+ */
 public abstract class BaseApiClient {
-    private static final String BASE_URL = "https://petstore.swagger.io/v2";
+    static {
+        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    }
+
+    private final String baseUrl;
+    private final HttpTransport transport;
     private final RequestSpecification requestSpec;
+    private final ConditionalReads conditionalReads;
+    private final WireFormat wireFormat;
 
     protected BaseApiClient() {
-        RestAssuredConfig config = RestAssuredConfig.config()
-            .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
-                .jackson2ObjectMapperFactory((cls, charset) -> JacksonConfig.getObjectMapper()));
-
-        requestSpec = new RequestSpecBuilder()
-            .setBaseUri(BASE_URL)
-            .setContentType(ContentType.JSON)
-            .setConfig(config)
+        this(ApiConfig.BASE_URL);
+    }
+
+    protected BaseApiClient(String baseUrl) {
+        this(baseUrl, HttpTransport.shared());
+    }
+
+    protected BaseApiClient(String baseUrl, HttpTransport transport) {
+        this.baseUrl = baseUrl;
+        this.transport = transport;
+        wireFormat = transport.getConfig().getWireFormat();
+        RequestSpecBuilder spec = new RequestSpecBuilder().setBaseUri(baseUrl);
+        if (wireFormat == WireFormat.JSON) {
+            spec.setContentType(ContentType.JSON);
+        } else {
+            spec.setContentType(wireFormat.getContentType()).setAccept(wireFormat.getAccept());
+        }
+        requestSpec = spec
+            .setConfig(transport.getRestAssuredConfig())
+            .addFilter(transport.getMetrics().filter(this::metricName))
+            .addFilter(transport.getResilience().operationFilter())
+            .addFilter(transport.inFlightFilter())
+            .addFilter(transport.loggingFilter())
             .build();
+        conditionalReads = ConditionalReads.create(transport.getConfig().isConditionalReads());
+    }
+
+    protected String getBaseUrl() {
+        return baseUrl;
+    }
+
+    protected HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Метрики по операциям; общие для всех синхронных клиентов транспорта
+     */
+    public MetricsRegistry getMetrics() {
+        return transport.getMetrics();
+    }
+
+    /**
+     * Имя операции в метриках по методу и шаблону пути, например {@code "pet.getById"}.
+     * Клиенты переопределяют его для своих путей; по умолчанию это метод и путь.
+     */
+    protected String metricName(String method, String path) {
+        return method + " " + path;
+    }
+
+    /**
+     * Число типизированных чтений клиента, на которые сервер ответил 304 и тело не передавалось.
+     * Растет только при {@link com.petstore.config.TransportConfig#isConditionalReads()}.
+     */
+    public long getNotModifiedCount() {
+        return conditionalReads.notModifiedCount();
     }
 
     protected RequestSpecification getRequestSpec() {
         return requestSpec;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Новый запрос на основе общей спецификации. Параметры, тело и заголовки вызова
+     * задаются только на нем, поэтому клиент можно разделять между потоками.
+     */
+    protected RequestSpecification request() {
+        return given().spec(requestSpec);
+    }
+
+    /**
+     * Выполняет GET и отдает тело ответа потоком, не буферизуя его целиком, как это делает
+     * RestAssured. Сжатое тело распаковывается по мере чтения. Ответ вне 2xx дочитывается
+     * и бросается как {@link ApiException}. Поток должен закрыть вызывающий.
+     */
+    protected InputStream openStream(String pathAndQuery) {
+        HttpRequest request = transport.compression().negotiate(HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery)))
+            .timeout(transport.getConfig().getReadTimeout())
+            .header("Accept", ApiConfig.CONTENT_TYPE)
+            .GET()
+            .build();
+        int query = pathAndQuery.indexOf('?');
+        HttpResponse<InputStream> response;
+        try {
+            response = transport.getResilience().execute("GET", query < 0 ? pathAndQuery : pathAndQuery.substring(0, query),
+                true, () -> {
+                    try {
+                        return transport.executeAsync(
+                            () -> transport.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())).join();
+                    } catch (CompletionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof RuntimeException runtime) {
+                            throw runtime;
+                        }
+                        throw cause instanceof IOException io ? io : new IOException(cause);
+                    }
+                }, HttpResponse::statusCode, BaseApiClient::discard);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open " + request.uri(), e);
+        }
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            try (InputStream body = Compression.decode(response)) {
+                throw new ApiException(status, decodeError(body.readAllBytes()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read error response of " + request.uri(), e);
+            }
+        }
+        try {
+            return Compression.decode(response);
+        } catch (IOException e) {
+            try {
+                response.body().close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException("Cannot decode response of " + request.uri(), e);
+        }
+    }
+
+    /**
+     * Идемпотентное чтение типизированного метода. При включенном хеджировании запрос идет через
+     * {@link Hedger} транспорта, при включенном HTTP/2 - через мультиплексированные соединения
+     * транспорта, иначе обычным вызовом RestAssured {@code call}. При
+     * {@link com.petstore.config.TransportConfig#isConditionalReads()} запрос условный, см. {@link ConditionalReads}.
+     *
+     * @param operation     метод и шаблон пути, например {@code "GET /pet/{petId}"}; по нему считаются задержки
+     * @param pathAndQuery  путь с подставленными параметрами относительно базового URL
+     * @param copy          копия тела, которую хранят и отдают на 304 условные чтения
+     * @param call          вызов RestAssured с дополнительными заголовками условного запроса
+     */
+    protected <T> ApiResult<T> idempotentRead(String operation, String pathAndQuery, ObjectReader reader,
+                                              UnaryOperator<T> copy, Function<Map<String, String>, Response> call) {
+        return idempotentRead(operation, pathAndQuery, Map.of(), reader, copy, call);
+    }
+
+    /**
+     * То же с заголовками вызова, например учетными данными; {@code call} добавляет их сам
+     */
+    protected <T> ApiResult<T> idempotentRead(String operation, String pathAndQuery, Map<String, String> headers,
+                                              ObjectReader reader, UnaryOperator<T> copy,
+                                              Function<Map<String, String>, Response> call) {
+        String key = ConditionalReads.key(pathAndQuery, headers);
+        ConditionalReads.Validated<T> previous = conditionalReads.lookup(key);
+        Map<String, String> validators = previous == null ? Map.of() : previous.headers();
+        Hedger hedger = transport.hedger();
+        if (!hedger.isEnabled() && !transport.isHttp2()) {
+            Response response = call.apply(validators);
+            return conditionalReads.complete(key, previous, response.getStatusCode(), () -> toResult(response, reader), copy);
+        }
+        HttpRequest.Builder builder = transport.compression().negotiate(HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery)))
+            .timeout(transport.getConfig().getReadTimeout())
+            .header("Accept", wireFormat.getAccept())
+            .GET();
+        headers.forEach(builder::header);
+        validators.forEach(builder::header);
+        HttpRequest request = builder.build();
+        OperationMetrics metrics = transport.getMetrics()
+            .operation(metricName(request.method(), operation.substring(operation.indexOf(' ') + 1)));
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = read(operation, request);
+        } catch (RuntimeException e) {
+            metrics.record(OperationMetrics.NO_RESPONSE, 0, 0, System.nanoTime() - start);
+            throw e;
+        }
+        metrics.record(response.statusCode(), 0, response.body().length, System.nanoTime() - start);
+        return conditionalReads.complete(key, previous, response.statusCode(), () -> {
+            Map<String, List<String>> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            responseHeaders.putAll(response.headers().map());
+            return toResult(response.statusCode(), responseHeaders, response.body(), reader);
+        }, copy);
+    }
+
+    /**
+     * Чтение в обход RestAssured, через {@link Hedger} или HTTP/2, с повторами и выключателем операции
+     * {@link HttpTransport#getResilience()}, как у обычных вызовов; хедж - часть одной попытки
+     */
+    private HttpResponse<byte[]> read(String operation, HttpRequest request) {
+        Hedger hedger = transport.hedger();
+        try {
+            return transport.getResilience().execute(request.method(), operation.substring(operation.indexOf(' ') + 1),
+                true, () -> {
+                    try {
+                        return hedger.isEnabled() ? hedger.execute(operation, request) : transport.send(operation, request);
+                    } catch (UncheckedIOException e) {
+                        throw e.getCause();
+                    }
+                }, HttpResponse::statusCode, response -> { });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + request.uri(), e);
+        }
+    }
+
+    private static void discard(HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException ignored) {
+            // ответ все равно отбрасывается
+        }
+    }
+
+    /**
+     * Ждет результата асинхронного вызова; исключения отдаются без обертки {@link CompletionException}
+     */
+    protected static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new UncheckedIOException(cause instanceof IOException io ? io : new IOException(cause));
+        }
+    }
+
+    protected static String encode(Object value) {
+        return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * Сериализует тело запроса заранее подготовленным {@link ObjectWriter} JSON в формат
+     * {@link com.petstore.config.TransportConfig#getWireFormat()} транспорта
+     */
+    protected byte[] toBody(Object body, ObjectWriter writer) {
+        try {
+            return JacksonConfig.writerFor(wireFormat, writer).writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Разбирает тело ответа прямо из байтов кэшированным {@link ObjectReader}, минуя
+     * универсальное отображение RestAssured. Формат тела берется из Content-Type ответа.
+     * Тело ошибки разбирается как {@link ApiResponse}.
+     */
+    protected static <T> ApiResult<T> toResult(Response response, ObjectReader reader) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : response.getHeaders()) {
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>(1)).add(header.getValue());
+        }
+        return toResult(response.getStatusCode(), headers, response.asByteArray(), reader);
+    }
+
+    private static <T> ApiResult<T> toResult(int status, Map<String, List<String>> headers, byte[] content,
+                                             ObjectReader reader) {
+        List<String> contentType = headers.get("Content-Type");
+        WireFormat format = WireFormat.fromContentType(contentType == null ? null : contentType.get(0));
+        if (status < 200 || status >= 300) {
+            return new ApiResult<>(status, headers, null, decodeError(format, content));
+        }
+        try {
+            T body = content.length == 0 ? null : JacksonConfig.readerFor(format, reader).readValue(content);
+            return new ApiResult<>(status, headers, body, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode response body", e);
+        }
+    }
+
+    static ApiResponse decodeError(byte[] content) {
+        return decodeError(WireFormat.JSON, content);
+    }
+
+    static ApiResponse decodeError(WireFormat format, byte[] content) {
+        try {
+            return JacksonConfig.readerFor(format, ApiResponse.class).readValue(content);
+        } catch (IOException e) {
+            return new ApiResponse(null, "error", new String(content, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.petstore.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.petstore.config.ApiConfig;
+import com.petstore.config.JacksonConfig;
+import com.petstore.config.WireFormat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Базовый асинхронный клиент API поверх неблокирующего {@link java.net.http.HttpClient}
+ * общего {@link HttpTransport}. Ни один поток не ждет ответа: результат приходит в
+ * {@link CompletableFuture}, ответы вне 2xx завершают его с {@link ApiException}.
+ * Тела читаются и пишутся кэшированными читателями и писателями {@link JacksonConfig}.
+ * Запросы проходят через повторы и выключатели {@link HttpTransport#getResilience()} транспорта.
+ */
+public abstract class BaseAsyncApiClient {
+    private final String baseUrl;
+    private final HttpTransport transport;
+    private final String basePath;
+    private final WireFormat wireFormat;
+
+    protected BaseAsyncApiClient() {
+        this(ApiConfig.BASE_URL);
+    }
+
+    protected BaseAsyncApiClient(String baseUrl) {
+        this(baseUrl, HttpTransport.shared());
+    }
+
+    protected BaseAsyncApiClient(String baseUrl, HttpTransport transport) {
+        this.baseUrl = baseUrl;
+        this.transport = transport;
+        String path = URI.create(baseUrl).getPath();
+        this.basePath = path != null ? path : "";
+        this.wireFormat = transport.getConfig().getWireFormat();
+    }
+
+    protected HttpRequest.Builder request(String path) {
+        return transport.compression().negotiate(HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(transport.getConfig().getReadTimeout())
+            .header("Content-Type", wireFormat.getContentType())
+            .header("Accept", wireFormat.getAccept()));
+    }
+
+    /**
+     * Тело в формате {@link com.petstore.config.TransportConfig#getWireFormat()} транспорта
+     */
+    protected HttpRequest.BodyPublisher jsonBody(Object body) {
+        return jsonBody(body, JacksonConfig.writerFor(body.getClass()));
+    }
+
+    protected HttpRequest.BodyPublisher jsonBody(Object body, ObjectWriter writer) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(
+                JacksonConfig.writerFor(wireFormat, writer).writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Тело-массив, которое сериализуется поэлементно прямо в запрос по мере отправки,
+     * без промежуточного массива байт со всем телом. Всегда JSON: запросу с таким телом
+     * нужен Content-Type {@link ApiConfig#CONTENT_TYPE}.
+     */
+    protected HttpRequest.BodyPublisher jsonArrayBody(Iterable<?> elements, ObjectWriter elementWriter) {
+        return HttpRequest.BodyPublishers.ofInputStream(() -> new JsonArrayInputStream(elements.iterator(), elementWriter));
+    }
+
+    protected <T> CompletableFuture<T> send(HttpRequest request, Class<T> type) {
+        return send(request, JacksonConfig.readerFor(type), true);
+    }
+
+    protected <T> CompletableFuture<T> send(HttpRequest request, TypeReference<T> type) {
+        return send(request, JacksonConfig.readerFor(type), true);
+    }
+
+    /**
+     * @param repeatable можно ли отправить тело запроса повторно; тело из однократного потока - нельзя,
+     *                   и такой запрос не повторяется
+     */
+    protected <T> CompletableFuture<T> send(HttpRequest request, Class<T> type, boolean repeatable) {
+        return send(request, JacksonConfig.readerFor(type), repeatable);
+    }
+
+    /**
+     * Шаблон пути запроса, по которому выбираются лимит, политика повторов и выключатель, такой же,
+     * как у синхронного клиента, например {@code "/pet/{petId}"} для {@code "/pet/5"}. Клиенты
+     * переопределяют его для путей с параметрами; по умолчанию это сам путь.
+     */
+    protected String pathTemplate(String path) {
+        return path;
+    }
+
+    private <T> CompletableFuture<T> send(HttpRequest original, ObjectReader reader, boolean repeatable) {
+        return decoded(call(original, repeatable), reader);
+    }
+
+    /**
+     * Отправляет запрос через {@link com.petstore.client.resilience.Resilience#executeAsync}: ожидание
+     * разрешения клиентского лимита и паузы перед повторами не занимают вызывающий поток, запрос
+     * просто откладывается. Тело сжимается, если это разрешает {@link com.petstore.config.CompressionConfig}
+     * транспорта. Окончательный ответ отдается без разбора, например чтобы записать в метрики его статус
+     * и длину; разбор - {@link #decoded(CompletableFuture, Class)}.
+     */
+    protected CompletableFuture<HttpResponse<byte[]>> call(HttpRequest original, boolean repeatable) {
+        HttpRequest request = transport.compression().compress(original);
+        return transport.getResilience()
+            .executeAsync(request.method(), operation(request), repeatable, () -> exchange(request),
+                HttpResponse::statusCode, response -> { });
+    }
+
+    /**
+     * Тело ответа вызова {@link #call(HttpRequest, boolean)}, как у {@link #send(HttpRequest, Class)}
+     */
+    protected <T> CompletableFuture<T> decoded(CompletableFuture<HttpResponse<byte[]>> call, Class<T> type) {
+        return decoded(call, JacksonConfig.readerFor(type));
+    }
+
+    private static <T> CompletableFuture<T> decoded(CompletableFuture<HttpResponse<byte[]>> call, ObjectReader reader) {
+        CompletableFuture<T> result = call.thenApply(response -> decode(response, reader));
+        // отмена результата доходит до вызова: снимает его с очереди лимита или прерывает обмен
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> exchange(HttpRequest request) {
+        return transport.executeAsync(() -> {
+            long start = System.nanoTime();
+            return transport.sendAsync(request, Compression.ofByteArray())
+                .whenComplete((response, error) -> transport.loggingFilter().logExchange(request, response, error, start));
+        });
+    }
+
+    private String operation(HttpRequest request) {
+        String path = request.uri().getPath();
+        if (path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        return request.method() + " " + pathTemplate(path);
+    }
+
+    /**
+     * Тело ответа 2xx в формате его Content-Type; иной статус - {@link ApiException}
+     */
+    static <T> T decode(HttpResponse<byte[]> response, ObjectReader reader) {
+        int status = response.statusCode();
+        WireFormat format = WireFormat.fromContentType(response.headers().firstValue("Content-Type").orElse(null));
+        if (status < 200 || status >= 300) {
+            throw new ApiException(status, BaseApiClient.decodeError(format, response.body()));
+        }
+        try {
+            return JacksonConfig.readerFor(format, reader).readValue(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode response of " + response.uri(), e);
+        }
+    }
+
+    protected static String encode(Object value) {
+        return BaseApiClient.encode(value);
+    }
+}
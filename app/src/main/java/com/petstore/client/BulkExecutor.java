@@ -0,0 +1,129 @@
+package com.petstore.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Конвейер пакетной операции: держит в полете не больше {@code concurrency} асинхронных вызовов
+ * и берет следующий элемент, как только завершился предыдущий. Потоки не блокируются, а вход
+ * читается лениво, а итог успешного элемента не держит его вход, поэтому в памяти одновременно
+ * находятся только элементы в полете, итоги и входы неуспешных элементов.
+ */
+final class BulkExecutor<I, O> {
+    private final Iterator<? extends I> items;
+    private final Function<I, CompletableFuture<O>> call;
+    private final int concurrency;
+    private final Consumer<BulkProgress> progress;
+    private final List<BulkResult.Item<I, O>> results = new ArrayList<>();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final CompletableFuture<BulkResult<I, O>> done = new CompletableFuture<>();
+    private long startNanos;
+    private int nextIndex;
+
+    BulkExecutor(Iterator<? extends I> items, Function<I, CompletableFuture<O>> call, int concurrency,
+                 Consumer<BulkProgress> progress) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+        }
+        this.items = items;
+        this.call = call;
+        this.concurrency = concurrency;
+        this.progress = progress;
+    }
+
+    CompletableFuture<BulkResult<I, O>> start() {
+        startNanos = System.nanoTime();
+        workers.set(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            next();
+        }
+        return done;
+    }
+
+    /**
+     * Запускает вызовы для следующих элементов; уже завершенные обрабатываются в цикле,
+     * а не рекурсией, чтобы длинная серия мгновенных ошибок не переполнила стек
+     */
+    private void next() {
+        while (true) {
+            I item;
+            int index;
+            synchronized (items) {
+                try {
+                    if (!items.hasNext()) {
+                        item = null;
+                        index = -1;
+                    } else {
+                        item = items.next();
+                        index = nextIndex++;
+                    }
+                } catch (RuntimeException e) {
+                    done.completeExceptionally(e);
+                    return;
+                }
+            }
+            if (index < 0) {
+                if (workers.decrementAndGet() == 0) {
+                    finish();
+                }
+                return;
+            }
+            CompletableFuture<O> future;
+            try {
+                future = call.apply(item);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            if (!future.isDone()) {
+                future.whenComplete((value, error) -> {
+                    record(index, item, value, error);
+                    next();
+                });
+                return;
+            }
+            future.whenComplete((value, error) -> record(index, item, value, error));
+        }
+    }
+
+    private void record(int index, I item, O value, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        synchronized (results) {
+            results.add(cause == null
+                ? new BulkResult.Item<>(index, null, value, null)
+                : new BulkResult.Item<>(index, item, null, cause));
+        }
+        if (cause != null) {
+            failed.incrementAndGet();
+        }
+        long count = completed.incrementAndGet();
+        try {
+            progress.accept(new BulkProgress(count, failed.get(), elapsed()));
+        } catch (RuntimeException ignored) {
+            // ошибка слушателя не должна останавливать пакет
+        }
+    }
+
+    private void finish() {
+        List<BulkResult.Item<I, O>> ordered;
+        synchronized (results) {
+            ordered = new ArrayList<>(results);
+        }
+        ordered.sort(Comparator.comparingInt(BulkResult.Item::getIndex));
+        done.complete(new BulkResult<>(ordered, elapsed()));
+    }
+
+    private Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,51 @@
+package com.petstore.client;
+
+import java.time.Duration;
+
+/**
+ * Снимок хода пакетной операции, передается слушателю после каждого завершенного элемента
+ */
+public class BulkProgress {
+    private final long completed;
+    private final long failed;
+    private final Duration elapsed;
+
+    BulkProgress(long completed, long failed, Duration elapsed) {
+        this.completed = completed;
+        this.failed = failed;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Завершенных элементов, включая неуспешные
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Завершенных элементов в секунду с начала операции
+     */
+    public double getThroughput() {
+        return perSecond(completed, elapsed);
+    }
+
+    static double perSecond(long count, Duration elapsed) {
+        long nanos = elapsed.toNanos();
+        return nanos > 0 ? count * 1_000_000_000.0 / nanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkProgress{completed=" + completed + ", failed=" + failed + ", elapsed=" + elapsed.toMillis()
+            + "ms, throughput=" + String.format("%.1f", getThroughput()) + "/s}";
+    }
+}
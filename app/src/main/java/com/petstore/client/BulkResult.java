@@ -0,0 +1,106 @@
+package com.petstore.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Итог пакетной операции: результат по каждому элементу в порядке входа, время и пропускная
+ * способность. Ошибка одного элемента не прерывает пакет, а попадает в его {@link Item}.
+ *
+ * @param <I> тип входного элемента
+ * @param <O> тип результата элемента
+ */
+public class BulkResult<I, O> {
+    private final List<Item<I, O>> items;
+    private final long failed;
+    private final Duration elapsed;
+
+    BulkResult(List<Item<I, O>> items, Duration elapsed) {
+        this.items = List.copyOf(items);
+        this.failed = items.stream().filter(item -> !item.isSuccessful()).count();
+        this.elapsed = elapsed;
+    }
+
+    public List<Item<I, O>> getItems() {
+        return items;
+    }
+
+    public long getSucceeded() {
+        return items.size() - failed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public Stream<Item<I, O>> failures() {
+        return items.stream().filter(item -> !item.isSuccessful());
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Обработанных элементов в секунду
+     */
+    public double getThroughput() {
+        return BulkProgress.perSecond(items.size(), elapsed);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{succeeded=" + getSucceeded() + ", failed=" + failed + ", elapsed=" + elapsed.toMillis()
+            + "ms, throughput=" + String.format("%.1f", getThroughput()) + "/s}";
+    }
+
+    /**
+     * Результат одного элемента: значение при успехе или ошибка
+     */
+    public static class Item<I, O> {
+        private final int index;
+        private final I input;
+        private final O value;
+        private final Throwable error;
+
+        Item(int index, I input, O value, Throwable error) {
+            this.index = index;
+            this.input = input;
+            this.value = value;
+            this.error = error;
+        }
+
+        /**
+         * Порядковый номер элемента во входной последовательности, с нуля
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Вход неуспешного элемента, чтобы его можно было повторить; у успешного - null,
+         * иначе итог держал бы в памяти весь вход пакета
+         */
+        public I getInput() {
+            return input;
+        }
+
+        public O getValue() {
+            return value;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{index=" + index + (error == null ? ", value=" + value : ", error=" + error) + '}';
+        }
+    }
+}
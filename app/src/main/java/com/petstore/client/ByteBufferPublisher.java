@@ -0,0 +1,222 @@
+package com.petstore.client;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Тело запроса из срезов готового буфера или из файла, читаемого по частям. Срезы буфера не копируются:
+ * HTTP клиент получает представления исходной памяти и пишет их в сокет как есть.
+ * Каждая подписка (повтор, редирект) читает источник заново.
+ */
+final class ByteBufferPublisher implements Flow.Publisher<ByteBuffer> {
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final Supplier<Chunks> source;
+
+    private ByteBufferPublisher(Supplier<Chunks> source) {
+        this.source = source;
+    }
+
+    /**
+     * Срезы оставшейся части {@code buffer}; позиция самого буфера не меняется
+     */
+    static ByteBufferPublisher ofBuffer(ByteBuffer buffer, int chunkSize) {
+        ByteBuffer content = buffer.asReadOnlyBuffer();
+        return new ByteBufferPublisher(() -> new BufferChunks(content.duplicate(), chunkSize));
+    }
+
+    /**
+     * Файл, читаемый по спросу подписчика частями по {@code chunkSize} байт; в памяти только
+     * запрошенные, но еще не отправленные части
+     */
+    static ByteBufferPublisher ofFile(Path file, int chunkSize) {
+        return new ByteBufferPublisher(() -> new FileChunks(file, chunkSize));
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Chunks chunks;
+        try {
+            chunks = source.get();
+        } catch (UncheckedIOException e) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(e.getCause());
+            return;
+        }
+        subscriber.onSubscribe(new ChunkSubscription(chunks, subscriber));
+    }
+
+    /**
+     * Источник срезов; {@code null} - данные закончились
+     */
+    private interface Chunks extends AutoCloseable {
+        ByteBuffer next() throws IOException;
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Отдает срезы по спросу подписчика. Вызовы {@code request} из разных потоков сводятся
+     * к одному циклу выдачи, поэтому onNext никогда не вызывается параллельно.
+     */
+    private static final class ChunkSubscription implements Flow.Subscription {
+        private final Chunks chunks;
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean done;
+
+        ChunkSubscription(Chunks chunks, Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.chunks = chunks;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                finish(new IllegalArgumentException("Non-positive request: " + n));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            drain();
+        }
+
+        private void drain() {
+            if (pending.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!done && demand.get() > 0) {
+                    ByteBuffer chunk;
+                    try {
+                        chunk = chunks.next();
+                    } catch (IOException | RuntimeException e) {
+                        finish(e);
+                        break;
+                    }
+                    if (chunk == null) {
+                        finish(null);
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(chunk);
+                }
+                if (done) {
+                    chunks.close();
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void finish(Throwable error) {
+            if (done) {
+                return;
+            }
+            done = true;
+            chunks.close();
+            if (error != null) {
+                subscriber.onError(error);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+    }
+
+    private static final class BufferChunks implements Chunks {
+        private final ByteBuffer content;
+        private final int chunkSize;
+
+        BufferChunks(ByteBuffer content, int chunkSize) {
+            this.content = content;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public ByteBuffer next() {
+            if (!content.hasRemaining()) {
+                return null;
+            }
+            int length = Math.min(chunkSize, content.remaining());
+            ByteBuffer chunk = content.slice(content.position(), length);
+            content.position(content.position() + length);
+            return chunk;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Каждая часть читается в новый буфер кучи. Отображение файла в память освобождается только
+     * сборкой мусора, а общий переиспользуемый буфер нельзя: HTTP клиент вправе держать ранее
+     * выданные части, пока их не отправит, например в ожидании окна HTTP/2.
+     */
+    private static final class FileChunks implements Chunks {
+        private final Path file;
+        private final FileChannel channel;
+        private final long size;
+        private final int chunkSize;
+        private long position;
+
+        FileChunks(Path file, int chunkSize) {
+            this.file = file;
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+                this.size = channel.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public ByteBuffer next() throws IOException {
+            if (position >= size) {
+                return null;
+            }
+            ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(chunkSize, size - position));
+            while (chunk.hasRemaining()) {
+                if (channel.read(chunk, position + chunk.position()) < 0) {
+                    throw new EOFException("File shrank while uploading: " + file);
+                }
+            }
+            position += chunk.capacity();
+            return chunk.flip();
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // файл только читался, закрытие ничего не теряет
+            }
+        }
+    }
+}
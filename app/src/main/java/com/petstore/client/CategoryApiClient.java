@@ -1,23 +1,21 @@
 package com.petstore.client;
 
 import com.petstore.config.ApiConfig;
-import com.petstore.model.Category;
-import io.restassured.RestAssured;
-import io.restassured.response.Response;
-import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static io.restassured.RestAssured.given;
-
-public class CategoryApiClient {
+public class CategoryApiClient extends BaseApiClient {
     private static final Logger log = LoggerFactory.getLogger(CategoryApiClient.class);
-    private final RequestSpecification requestSpec;
 
     public CategoryApiClient() {
-        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
-        this.requestSpec = given()
-                .baseUri(ApiConfig.BASE_URL)
-                .contentType(ApiConfig.CONTENT_TYPE);
+        this(ApiConfig.BASE_URL);
+    }
+
+    public CategoryApiClient(String baseUrl) {
+        super(baseUrl);
+    }
+
+    public CategoryApiClient(String baseUrl, HttpTransport transport) {
+        super(baseUrl, transport);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package com.petstore.client;
+
+import com.petstore.config.CompressionConfig;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.message.BasicHeader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Сжатие тел по {@link CompressionConfig} для обоих путей транспорта: перехватчик Apache HttpClient
+ * для синхронных клиентов (сжатые ответы им распаковывает сам RestAssured) и обертки запросов
+ * и ответов {@link java.net.http.HttpClient} для асинхронных клиентов, хеджирования и потоковых чтений.
+ */
+final class Compression {
+    static final String CONTENT_ENCODING = "Content-Encoding";
+    static final String ACCEPT_ENCODING = "Accept-Encoding";
+    static final String GZIP = "gzip";
+    private static final String SUPPORTED_ENCODINGS = "gzip, deflate";
+
+    private final CompressionConfig config;
+
+    Compression(CompressionConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Добавляет к запросу {@code Accept-Encoding}, если клиенты принимают сжатые ответы
+     */
+    HttpRequest.Builder negotiate(HttpRequest.Builder builder) {
+        return config.isAcceptCompressed() ? builder.header(ACCEPT_ENCODING, SUPPORTED_ENCODINGS) : builder;
+    }
+
+    /**
+     * Запрос с телом, сжимаемым gzip при отправке, или сам {@code request}, если сжимать не нужно
+     */
+    HttpRequest compress(HttpRequest request) {
+        HttpRequest.BodyPublisher body = request.bodyPublisher().orElse(null);
+        if (body == null || request.headers().firstValue(CONTENT_ENCODING).isPresent()
+            || !shouldCompress(request.headers().firstValue("Content-Type").orElse(null), body.contentLength())) {
+            return request;
+        }
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+            .method(request.method(), new GzipBodyPublisher(body, config.getLevel()))
+            .header(CONTENT_ENCODING, GZIP)
+            .build();
+    }
+
+    /**
+     * Перехватчик, заменяющий тело запроса Apache HttpClient на сжимаемое при записи в соединение.
+     * Должен стоять перед RequestContent, чтобы тот выставил chunked вместо исходной длины.
+     */
+    HttpRequestInterceptor requestInterceptor() {
+        return (request, context) -> {
+            if (!(request instanceof HttpEntityEnclosingRequest enclosing) || request.containsHeader(CONTENT_ENCODING)) {
+                return;
+            }
+            HttpEntity entity = enclosing.getEntity();
+            Header contentType = request.getFirstHeader("Content-Type");
+            if (entity == null || !shouldCompress(contentType != null ? contentType.getValue() : null,
+                entity.getContentLength())) {
+                return;
+            }
+            enclosing.setEntity(new GzipEntity(entity, config.getLevel()));
+            request.setHeader(CONTENT_ENCODING, GZIP);
+        };
+    }
+
+    private boolean shouldCompress(String contentType, long contentLength) {
+        if (!config.isCompressRequests() || contentLength == 0) {
+            return false;
+        }
+        if (contentType != null && contentType.regionMatches(true, 0, "multipart/", 0, 10)) {
+            return false;
+        }
+        return contentLength < 0 || contentLength >= config.getMinRequestSize();
+    }
+
+    /**
+     * Тело ответа массивом байт, распакованным по {@code Content-Encoding}
+     */
+    static HttpResponse.BodyHandler<byte[]> ofByteArray() {
+        return info -> {
+            String encoding = encoding(info.headers());
+            if (encoding == null) {
+                return HttpResponse.BodySubscribers.ofByteArray();
+            }
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), body -> {
+                try (InputStream in = decoder(encoding, new ByteArrayInputStream(body))) {
+                    return in.readAllBytes();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot decode " + encoding + " response", e);
+                }
+            });
+        };
+    }
+
+    /**
+     * Поток тела ответа, распаковываемый по мере чтения
+     */
+    static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        String encoding = encoding(response.headers());
+        return encoding == null ? response.body() : decoder(encoding, response.body());
+    }
+
+    private static String encoding(HttpHeaders headers) {
+        String encoding = headers.firstValue(CONTENT_ENCODING).map(value -> value.trim().toLowerCase(Locale.ROOT))
+            .orElse("");
+        return encoding.isEmpty() || encoding.equals("identity") ? null : encoding;
+    }
+
+    private static InputStream decoder(String encoding, InputStream in) throws IOException {
+        return switch (encoding) {
+            case GZIP, "x-gzip" -> new GZIPInputStream(in);
+            case "deflate" -> new InflaterInputStream(in);
+            default -> {
+                in.close();
+                throw new IOException("Unsupported Content-Encoding: " + encoding);
+            }
+        };
+    }
+
+    /**
+     * Тело Apache HttpClient, сжимаемое gzip прямо в поток соединения. Повторяемо, если
+     * повторяемо исходное, поэтому не мешает повторам {@link com.petstore.client.resilience.Resilience}.
+     */
+    private static final class GzipEntity extends HttpEntityWrapper {
+        private final int level;
+
+        GzipEntity(HttpEntity entity, int level) {
+            super(entity);
+            this.level = level;
+        }
+
+        @Override
+        public Header getContentEncoding() {
+            return new BasicHeader(CONTENT_ENCODING, GZIP);
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public boolean isChunked() {
+            return true;
+        }
+
+        @Override
+        public InputStream getContent() {
+            throw new UnsupportedOperationException("Compressed body can only be written");
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            // как и GzipCompressingEntity, закрывает поток тела: соединение при этом остается открытым
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+                {
+                    def.setLevel(level);
+                }
+            }) {
+                wrappedEntity.writeTo(gzip);
+            }
+        }
+    }
+}
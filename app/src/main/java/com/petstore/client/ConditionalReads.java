@@ -0,0 +1,98 @@
+package com.petstore.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Валидаторы (ETag и Last-Modified) успешных типизированных чтений по ресурсам. Повторное чтение
+ * ресурса уходит условным запросом с If-None-Match и If-Modified-Since; на 304 возвращается
+ * копия ранее разобранного результата без повторного разбора тела. Хранится собственная копия
+ * результата, поэтому изменения тела вызывающим не попадают ни в сохраненный, ни в последующие ответы. В отличие от {@link ReadCache}
+ * каждое чтение идет в сеть, поэтому изменения на сервере видны сразу.
+ * Без включенных условных чтений вызов выполняется как есть.
+ */
+final class ConditionalReads {
+    private static final long MAXIMUM_SIZE = 10_000;
+
+    private final Cache<String, Validated<?>> validated;
+    private final LongAdder notModified = new LongAdder();
+
+    private ConditionalReads(Cache<String, Validated<?>> validated) {
+        this.validated = validated;
+    }
+
+    static ConditionalReads create(boolean enabled) {
+        return new ConditionalReads(enabled ? Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).build() : null);
+    }
+
+    /**
+     * Ключ ресурса: путь с запросом и заголовки вызова, чтобы ответы под разными учетными данными не смешивались
+     */
+    static String key(String pathAndQuery, Map<String, String> headers) {
+        return headers.isEmpty() ? pathAndQuery : pathAndQuery + ' ' + new TreeMap<>(headers);
+    }
+
+    /**
+     * Сохраненные валидаторы ресурса или {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    <T> Validated<T> lookup(String key) {
+        return validated == null ? null : (Validated<T>) validated.getIfPresent(key);
+    }
+
+    /**
+     * Результат чтения по статусу ответа: на 304 - копия результата {@code previous}, иначе разобранный
+     * {@code decode}. Копия успешного результата с валидаторами запоминается, 404 и 410 забывают ресурс.
+     *
+     * @param copy копия тела результата
+     */
+    <T> ApiResult<T> complete(String key, Validated<T> previous, int status, Supplier<ApiResult<T>> decode,
+                              UnaryOperator<T> copy) {
+        if (status == 304 && previous != null) {
+            notModified.increment();
+            return previous.result().copy(copy);
+        }
+        ApiResult<T> result = decode.get();
+        if (validated == null) {
+            return result;
+        }
+        String etag = result.getHeader("ETag");
+        String lastModified = result.getHeader("Last-Modified");
+        if (result.isSuccessful() && (etag != null || lastModified != null)) {
+            validated.put(key, new Validated<>(etag, lastModified, result.copy(copy)));
+        } else if (result.isSuccessful() || status == 404 || status == 410) {
+            validated.invalidate(key);
+        }
+        return result;
+    }
+
+    /**
+     * Число чтений, завершившихся 304 без передачи и разбора тела
+     */
+    long notModifiedCount() {
+        return notModified.sum();
+    }
+
+    record Validated<T>(String etag, String lastModified, ApiResult<T> result) {
+        /**
+         * Заголовки условного запроса
+         */
+        Map<String, String> headers() {
+            Map<String, String> headers = new LinkedHashMap<>(2);
+            if (etag != null) {
+                headers.put("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+            return headers;
+        }
+    }
+}
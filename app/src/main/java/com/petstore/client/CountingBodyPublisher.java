@@ -0,0 +1,57 @@
+package com.petstore.client;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Тело запроса, которое считает свои байты по мере отправки: длина тела из потока заранее
+ * неизвестна, а повтор отправляет тело еще раз. Счет общий для всех подписок.
+ */
+final class CountingBodyPublisher implements HttpRequest.BodyPublisher {
+    private final HttpRequest.BodyPublisher source;
+    private final LongAdder published = new LongAdder();
+
+    CountingBodyPublisher(HttpRequest.BodyPublisher source) {
+        this.source = source;
+    }
+
+    /**
+     * Байты, переданные клиенту HTTP по всем подпискам
+     */
+    long published() {
+        return published.sum();
+    }
+
+    @Override
+    public long contentLength() {
+        return source.contentLength();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        source.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                published.add(item.remaining());
+                subscriber.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+}
@@ -0,0 +1,187 @@
+package com.petstore.client;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Тело запроса, сжимаемое gzip по мере отправки: срезы исходного тела проходят через
+ * {@link Deflater} по одному, так что ни исходное, ни сжатое тело целиком в памяти не лежит.
+ * Длина сжатого тела заранее неизвестна, поэтому оно уходит chunked.
+ * Каждая подписка (повтор, редирект) сжимает исходное тело заново.
+ */
+final class GzipBodyPublisher implements HttpRequest.BodyPublisher {
+    private static final int OUTPUT_SIZE = 16 * 1024;
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final HttpRequest.BodyPublisher source;
+    private final int level;
+
+    GzipBodyPublisher(HttpRequest.BodyPublisher source, int level) {
+        this.source = source;
+        this.level = level;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        GzipSubscription subscription = new GzipSubscription(subscriber, level);
+        subscriber.onSubscribe(subscription);
+        source.subscribe(subscription);
+    }
+
+    /**
+     * Подписка получателя и одновременно подписчик исходного тела. Исходный срез запрашивается,
+     * только когда получатель ждет данных, а готовых сжатых буферов нет; сжатие идет в потоке
+     * источника, выдача получателю сводится к одному циклу, как в {@link ByteBufferPublisher}.
+     */
+    private static final class GzipSubscription implements Flow.Subscription, Flow.Subscriber<ByteBuffer> {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final Queue<ByteBuffer> ready = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private ByteBuffer output = ByteBuffer.allocate(OUTPUT_SIZE).put(HEADER);
+        private volatile Flow.Subscription upstream;
+        private volatile boolean awaiting;
+        private volatile boolean upstreamDone;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+        private boolean done;
+
+        GzipSubscription(Flow.Subscriber<? super ByteBuffer> subscriber, int level) {
+            this.subscriber = subscriber;
+            this.deflater = new Deflater(level, true);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Non-positive request: " + n);
+                cancel();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            drain();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            if (cancelled) {
+                subscription.cancel();
+            }
+            drain();
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            crc.update(item.duplicate());
+            deflater.setInput(item);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+            awaiting = false;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            deflater.end();
+            error = throwable;
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt((int) crc.getValue())
+                .putInt((int) deflater.getBytesRead())
+                .flip();
+            deflater.end();
+            if (output.remaining() < trailer.remaining()) {
+                emitOutput();
+            }
+            output.put(trailer);
+            emitOutput();
+            upstreamDone = true;
+            drain();
+        }
+
+        private void deflate() {
+            deflater.deflate(output);
+            if (!output.hasRemaining()) {
+                emitOutput();
+            }
+        }
+
+        private void emitOutput() {
+            ready.add(output.flip());
+            output = ByteBuffer.allocate(OUTPUT_SIZE);
+        }
+
+        private void drain() {
+            if (pending.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!done) {
+                    if (cancelled || error != null) {
+                        done = true;
+                        ready.clear();
+                        if (error != null) {
+                            subscriber.onError(error);
+                        }
+                        break;
+                    }
+                    if (demand.get() > 0 && !ready.isEmpty()) {
+                        demand.decrementAndGet();
+                        subscriber.onNext(ready.poll());
+                        continue;
+                    }
+                    if (ready.isEmpty() && upstreamDone) {
+                        done = true;
+                        subscriber.onComplete();
+                        break;
+                    }
+                    Flow.Subscription subscription = upstream;
+                    if (demand.get() > 0 && ready.isEmpty() && !awaiting && subscription != null) {
+                        awaiting = true;
+                        subscription.request(1);
+                        continue;
+                    }
+                    break;
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.petstore.client;
+
+import com.petstore.config.HedgingConfig;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Хеджированные чтения транспорта по {@link HedgingConfig}. Вызывающий поток отправляет запрос
+ * и ждет его не дольше задержки хеджа; если ответа нет и бюджет позволяет, отправляется второй
+ * запрос, и поток ждет первый окончательный ответ из двух: 5xx одного не отменяет другой.
+ * Проигравший отменяется, что закрывает его обмен.
+ * Хедж не ждет ни места в лимите запросов в полете, ни разрешения клиентского лимита: если их нет,
+ * он просто не отправляется.
+ * Ошибка первого запроса до истечения задержки не хеджируется: хедж борется с задержкой, а не со сбоями.
+ */
+final class Hedger {
+    private static final long SCALE = 1000;
+
+    private final HedgingConfig config;
+    private final HttpTransport transport;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final long maxTokens;
+    private final long callTokens;
+    private final AtomicLong tokens;
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    Hedger(HedgingConfig config, HttpTransport transport) {
+        this.config = config;
+        this.transport = transport;
+        this.maxTokens = config.getBudgetMaxTokens() * SCALE;
+        this.callTokens = Math.round(config.getBudgetRatio() * SCALE);
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Выполняет идемпотентный запрос операции {@code operation} с хеджированием. Это одна попытка
+     * {@link com.petstore.client.resilience.Resilience#execute}: разрешение клиентского лимита для первого
+     * запроса уже взято ею, хедж берет свое сам.
+     */
+    HttpResponse<byte[]> execute(String operation, HttpRequest request) {
+        LatencyWindow window = latencies.computeIfAbsent(operation, key -> new LatencyWindow(config.getWindowSize()));
+        deposit();
+        CompletableFuture<HttpResponse<byte[]>> primary = send(operation, request, window, true);
+        try {
+            return primary.get(hedgeDelayNanos(window), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // первый запрос медленнее обычного, дальше решает бюджет
+        } catch (ExecutionException e) {
+            throw failure(request, e.getCause());
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw failure(request, new InterruptedIOException("Interrupted while waiting for " + request.uri()));
+        }
+        if (!tryWithdraw()) {
+            return await(request, primary);
+        }
+        CompletableFuture<HttpResponse<byte[]>> hedge = send(operation, request, window, false);
+        if (hedge == null) {
+            deposit(SCALE);
+            return await(request, primary);
+        }
+        hedgesSent.increment();
+        CompletableFuture<HttpResponse<byte[]>> winner = firstSuccessful(primary, hedge);
+        try {
+            HttpResponse<byte[]> response = await(request, winner);
+            if (hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == response) {
+                hedgesWon.increment();
+            }
+            return response;
+        } finally {
+            primary.cancel(true);
+            hedge.cancel(true);
+        }
+    }
+
+    long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * Отправляет запрос. Хедж ({@code primary == false}) не ждет: сначала берется место в лимите
+     * запросов в полете, затем разрешение клиентского лимита, и без любого из них возвращается {@code null}
+     */
+    private CompletableFuture<HttpResponse<byte[]>> send(String operation, HttpRequest request, LatencyWindow window,
+                                                         boolean primary) {
+        // отменять нужно исходный future JDK клиента: отмена производного не прерывает обмен
+        CompletableFuture<HttpResponse<byte[]>> exchange = new CompletableFuture<>();
+        Supplier<CompletableFuture<HttpResponse<byte[]>>> call = () -> {
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<byte[]>> sent = transport.sendAsync(request, Compression.ofByteArray());
+            exchange.whenComplete((response, error) -> {
+                if (error instanceof CancellationException) {
+                    sent.cancel(true);
+                    // отмененный проигравший шел не меньше этого времени; без замера хвост пропал бы из окна
+                    window.record(System.nanoTime() - start);
+                }
+            });
+            return sent.whenComplete((response, error) -> {
+                if (error == null) {
+                    window.record(System.nanoTime() - start);
+                }
+                if (!exchange.isCancelled()) {
+                    transport.loggingFilter().logExchange(request, response, error, start);
+                }
+                if (error != null) {
+                    exchange.completeExceptionally(error);
+                } else {
+                    exchange.complete(response);
+                }
+            });
+        };
+        if (primary) {
+            transport.executeAsync(call);
+        } else if (transport.tryExecuteAsync(() -> transport.getRateLimiter().tryAcquire(operation), call) == null) {
+            return null;
+        }
+        return exchange;
+    }
+
+    private long hedgeDelayNanos(LatencyWindow window) {
+        long percentile = window.percentile(config.getPercentile(), config.getMinSamples());
+        if (percentile < 0) {
+            return config.getInitialDelay().toNanos();
+        }
+        return Math.max(config.getMinDelay().toNanos(), Math.min(config.getMaxDelay().toNanos(), percentile));
+    }
+
+    private void deposit() {
+        deposit(callTokens);
+    }
+
+    private void deposit(long amount) {
+        if (tokens.get() >= maxTokens) {
+            return;
+        }
+        tokens.getAndUpdate(current -> Math.min(maxTokens, current + amount));
+    }
+
+    private boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * Первый окончательный ответ из двух: 2xx, 304 или ошибка клиента, которую повтор не исправит.
+     * Ответ 5xx, 408 или 429 одной попытки не решает исход, пока идет другая; если окончательного
+     * ответа нет ни у одной, отдается полученный последним, а если ответа нет ни у одной - ошибка.
+     */
+    private static CompletableFuture<HttpResponse<byte[]>> firstSuccessful(
+            CompletableFuture<HttpResponse<byte[]>> first, CompletableFuture<HttpResponse<byte[]>> second) {
+        CompletableFuture<HttpResponse<byte[]>> winner = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(2);
+        AtomicReference<HttpResponse<byte[]>> fallback = new AtomicReference<>();
+        for (CompletableFuture<HttpResponse<byte[]>> attempt : Arrays.asList(first, second)) {
+            attempt.whenComplete((response, error) -> {
+                if (error == null && isFinal(response.statusCode())) {
+                    winner.complete(response);
+                    return;
+                }
+                if (error == null) {
+                    fallback.set(response);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    HttpResponse<byte[]> last = fallback.get();
+                    if (last != null) {
+                        winner.complete(last);
+                    } else {
+                        winner.completeExceptionally(error);
+                    }
+                }
+            });
+        }
+        return winner;
+    }
+
+    private static boolean isFinal(int status) {
+        return status < 500 && status != 408 && status != 429;
+    }
+
+    private static HttpResponse<byte[]> await(HttpRequest request, CompletableFuture<HttpResponse<byte[]>> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw failure(request, e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw failure(request, new InterruptedIOException("Interrupted while waiting for " + request.uri()));
+        }
+    }
+
+    private static RuntimeException failure(HttpRequest request, Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new UncheckedIOException("Cannot read " + request.uri(),
+            cause instanceof IOException io ? io : new IOException(cause));
+    }
+
+    /**
+     * Кольцо последних задержек операции. Перцентиль нужен каждому вызову, а сортировка окна
+     * дорогая, поэтому он пересчитывается не чаще, чем раз в шестнадцатую часть окна новых замеров.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private final int refresh;
+        private int next;
+        private int size;
+        private long percentile = -1;
+        private int stale;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[Math.max(1, capacity)];
+            this.refresh = Math.max(1, samples.length / 16);
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            if (size < samples.length) {
+                size++;
+            }
+            stale++;
+        }
+
+        /**
+         * Перцентиль в наносекундах или -1, пока замеров меньше {@code minSamples}
+         */
+        long percentile(double percentile, int minSamples) {
+            long[] sorted;
+            synchronized (this) {
+                if (size == 0 || size < minSamples) {
+                    return -1;
+                }
+                if (this.percentile >= 0 && stale < refresh) {
+                    return this.percentile;
+                }
+                sorted = Arrays.copyOf(samples, size);
+                stale = 0;
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            long value = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+            synchronized (this) {
+                this.percentile = value;
+            }
+            return value;
+        }
+    }
+}
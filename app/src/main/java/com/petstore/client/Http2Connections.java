@@ -0,0 +1,145 @@
+package com.petstore.client;
+
+import com.petstore.config.Http2Config;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Несколько HTTP/2 соединений по {@link Http2Config}. {@link HttpClient} держит одно HTTP/2
+ * соединение на сервер, поэтому каждое соединение - отдельный клиент. Запрос уходит в следующее
+ * по кругу соединение со свободным потоком; если свободных нет, встает в очередь и уходит в первый
+ * освободившийся поток любого соединения. Вызывающий поток при этом не блокируется.
+ * <p>
+ * Поток считается занятым до получения ответа, то есть для тел, читаемых потоком, только до заголовков.
+ */
+final class Http2Connections {
+    private final HttpClient[] clients;
+    /**
+     * Свободные потоки по соединениям; {@code null} - без ограничения
+     */
+    private final int[] streams;
+    /**
+     * Запросы, ждущие потока; future завершается номером соединения, чей поток ему передан
+     */
+    private final ArrayDeque<CompletableFuture<Integer>> waiters = new ArrayDeque<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    Http2Connections(Http2Config config, Duration connectTimeout) {
+        int connections = Math.max(1, config.getConnections());
+        clients = new HttpClient[connections];
+        streams = config.getMaxStreamsPerConnection() > 0 ? new int[connections] : null;
+        for (int i = 0; i < connections; i++) {
+            clients[i] = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .version(HttpClient.Version.HTTP_2)
+                .build();
+            if (streams != null) {
+                streams[i] = config.getMaxStreamsPerConnection();
+            }
+        }
+    }
+
+    HttpClient first() {
+        return clients[0];
+    }
+
+    /**
+     * Отправляет запрос. Если поток свободен, возвращается исходный future {@link HttpClient}, чтобы
+     * его отмена прерывала обмен; иначе - future, отмена которого снимает запрос с очереди или
+     * прерывает уже начатый обмен.
+     */
+    <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        int start = Math.floorMod(next.getAndIncrement(), clients.length);
+        if (streams == null) {
+            return clients[start].sendAsync(request, handler);
+        }
+        CompletableFuture<Integer> stream = acquire(start);
+        if (stream.isDone()) {
+            return send(stream.join(), request, handler);
+        }
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        result.whenComplete((response, error) -> stream.cancel(false));
+        stream.thenAccept(connection -> {
+            if (result.isDone()) {
+                release(connection);
+                return;
+            }
+            CompletableFuture<HttpResponse<T>> sent;
+            try {
+                sent = send(connection, request, handler);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    sent.cancel(true);
+                }
+            });
+            sent.whenComplete((response, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Свободный поток, начиная с соединения {@code start}, или место в очереди
+     */
+    private synchronized CompletableFuture<Integer> acquire(int start) {
+        for (int i = 0; i < clients.length; i++) {
+            int connection = (start + i) % clients.length;
+            if (streams[connection] > 0) {
+                streams[connection]--;
+                return CompletableFuture.completedFuture(connection);
+            }
+        }
+        CompletableFuture<Integer> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    /**
+     * Передает поток первому ждущему, а если ждущих нет, возвращает его соединению.
+     * Future ждущего завершается вне блокировки: его продолжение сразу отправляет запрос.
+     */
+    private void release(int connection) {
+        while (true) {
+            CompletableFuture<Integer> waiter;
+            synchronized (this) {
+                waiter = waiters.poll();
+                if (waiter == null) {
+                    streams[connection]++;
+                    return;
+                }
+            }
+            // отмененный ждущий потока не берет, поток достается следующему
+            if (waiter.complete(connection)) {
+                return;
+            }
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(int connection, HttpRequest request,
+                                                        HttpResponse.BodyHandler<T> handler) {
+        CompletableFuture<HttpResponse<T>> future;
+        try {
+            future = clients[connection].sendAsync(request, handler);
+        } catch (RuntimeException e) {
+            release(connection);
+            throw e;
+        }
+        future.whenComplete((response, error) -> release(connection));
+        return future;
+    }
+}
@@ -0,0 +1,399 @@
+package com.petstore.client;
+
+import com.petstore.client.metrics.MetricsRegistry;
+import com.petstore.client.resilience.RateLimiter;
+import com.petstore.client.resilience.Resilience;
+import com.petstore.config.JacksonConfig;
+import com.petstore.config.TransportConfig;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import org.apache.http.ConnectionReuseStrategy;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.AuthenticationStrategy;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.RedirectStrategy;
+import org.apache.http.client.RequestDirector;
+import org.apache.http.client.UserTokenHandler;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoutePlanner;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpProcessor;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Общий HTTP транспорт для всех клиентов API: один пул keep-alive соединений для синхронных
+ * клиентов на RestAssured, один {@link HttpClient} для асинхронных и общий лимит запросов в полете.
+ * Экземпляр потокобезопасен и рассчитан на то, чтобы его разделяли все клиенты процесса.
+ */
+@SuppressWarnings("deprecation") // RestAssured поддерживает только AbstractHttpClient из API HttpClient 4.2
+public class HttpTransport implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(HttpTransport.class);
+    private static final Duration MIN_EVICTION_PERIOD = Duration.ofSeconds(1);
+    private static volatile HttpTransport shared;
+
+    private final TransportConfig config;
+    private final PoolingClientConnectionManager connectionManager;
+    private final ScheduledExecutorService idleEvictor;
+    private final RestAssuredConfig restAssuredConfig;
+    private final HttpClient httpClient;
+    private final Http2Connections http2;
+    private final InFlightLimit inFlight;
+    private final LoggingFilter loggingFilter;
+    private final Resilience resilience;
+    private final Hedger hedger;
+    private final Compression compression;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    public HttpTransport(TransportConfig config) {
+        this.config = config;
+        this.inFlight = config.getMaxInFlight() > 0 ? new InFlightLimit(config.getMaxInFlight()) : null;
+        this.loggingFilter = new LoggingFilter(config.getLogging());
+        this.resilience = new Resilience(config.getResilience(), new RateLimiter(config.getRateLimit()));
+        this.compression = new Compression(config.getCompression());
+
+        HttpClientConfig httpClientConfig;
+        if (config.isPooling()) {
+            connectionManager = new PoolingClientConnectionManager();
+            connectionManager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRoute());
+            connectionManager.setMaxTotal(config.getMaxConnectionsTotal());
+            DefaultHttpClient pooledClient = newApacheClient(connectionManager);
+            httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> pooledClient)
+                .reuseHttpClientInstance();
+            idleEvictor = startIdleEvictor(connectionManager, config.getIdleTimeout());
+        } else {
+            connectionManager = null;
+            idleEvictor = null;
+            httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> newApacheClient(null))
+                .dontReuseHttpClientInstance();
+        }
+        restAssuredConfig = RestAssuredConfig.config()
+            .httpClient(httpClientConfig)
+            .decoderConfig(config.getCompression().isAcceptCompressed()
+                ? DecoderConfig.decoderConfig()
+                : DecoderConfig.decoderConfig().noContentDecoders())
+            .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
+                .jackson2ObjectMapperFactory((cls, charset) -> JacksonConfig.getObjectMapper()));
+
+        if (config.getHttp2().isEnabled()) {
+            http2 = new Http2Connections(config.getHttp2(), config.getConnectTimeout());
+            httpClient = http2.first();
+        } else {
+            http2 = null;
+            httpClient = HttpClient.newBuilder()
+                .connectTimeout(config.getConnectTimeout())
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        }
+        hedger = new Hedger(config.getHedging(), this);
+    }
+
+    /**
+     * Транспорт по умолчанию, общий для клиентов, созданных без явного транспорта
+     */
+    public static HttpTransport shared() {
+        HttpTransport transport = shared;
+        if (transport == null) {
+            synchronized (HttpTransport.class) {
+                transport = shared;
+                if (transport == null) {
+                    transport = new HttpTransport(TransportConfig.defaults());
+                    shared = transport;
+                }
+            }
+        }
+        return transport;
+    }
+
+    public TransportConfig getConfig() {
+        return config;
+    }
+
+    public RestAssuredConfig getRestAssuredConfig() {
+        return restAssuredConfig;
+    }
+
+    /**
+     * Клиент асинхронных запросов; при включенном HTTP/2 - клиент первого из соединений,
+     * сами клиенты API распределяют запросы по всем через {@link #sendAsync}
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    boolean isHttp2() {
+        return http2 != null;
+    }
+
+    /**
+     * Отправляет запрос через {@link HttpClient} транспорта, при HTTP/2 - в соединение со свободным
+     * потоком. Возвращается исходный future клиента: его отмена прерывает обмен.
+     */
+    <T> CompletableFuture<HttpResponse<T>> sendAsync(java.net.http.HttpRequest request,
+                                                     HttpResponse.BodyHandler<T> handler) {
+        return http2 != null ? http2.sendAsync(request, handler) : httpClient.sendAsync(request, handler);
+    }
+
+    /**
+     * Одна попытка синхронного чтения операции {@code operation} через {@link HttpClient} с учетом лимита
+     * запросов в полете и логирования. Клиентский лимит, повторы и выключатели - забота вызывающего,
+     * см. {@link Resilience#execute}.
+     */
+    HttpResponse<byte[]> send(String operation, java.net.http.HttpRequest request) {
+        return BaseApiClient.join(executeAsync(() -> {
+            long start = System.nanoTime();
+            return sendAsync(request, Compression.ofByteArray())
+                .whenComplete((response, error) -> loggingFilter.logExchange(request, response, error, start));
+        }));
+    }
+
+    /**
+     * Повторы и выключатели синхронных и асинхронных клиентов транспорта, в том числе текущие состояния выключателей
+     */
+    public Resilience getResilience() {
+        return resilience;
+    }
+
+    /**
+     * Фильтр логирования обменов, общий для синхронных и асинхронных клиентов транспорта
+     */
+    LoggingFilter loggingFilter() {
+        return loggingFilter;
+    }
+
+    /**
+     * Метрики по операциям всех синхронных клиентов транспорта
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Клиентские лимиты запросов, общие для синхронных и асинхронных клиентов транспорта
+     */
+    public RateLimiter getRateLimiter() {
+        return resilience.getRateLimiter();
+    }
+
+    /**
+     * Хеджирование идемпотентных чтений; бюджет хеджей и замеры задержек общие для клиентов транспорта
+     */
+    Hedger hedger() {
+        return hedger;
+    }
+
+    /**
+     * Сжатие тел запросов и согласование сжатых ответов
+     */
+    Compression compression() {
+        return compression;
+    }
+
+    /**
+     * Фильтр RestAssured, ограничивающий число одновременных синхронных запросов; ждет места, блокируя поток
+     */
+    Filter inFlightFilter() {
+        return (requestSpec, responseSpec, context) -> {
+            if (inFlight != null) {
+                inFlight.acquire().join();
+            }
+            try {
+                return context.next(requestSpec, responseSpec);
+            } finally {
+                release();
+            }
+        };
+    }
+
+    /**
+     * Запускает асинхронный вызов, когда есть свободное место в лимите запросов в полете. Если места нет,
+     * вызов встает в очередь и запускается освободившим место обменом, а вызывающий поток сразу получает
+     * future; его отмена снимает вызов с очереди или отменяет уже запущенный.
+     */
+    <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        if (inFlight == null) {
+            return call.get();
+        }
+        CompletableFuture<Void> slot = inFlight.acquire();
+        if (slot.isDone()) {
+            return start(call);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.whenComplete((value, error) -> slot.cancel(false));
+        slot.thenAccept(ignored -> {
+            if (result.isDone()) {
+                release();
+                return;
+            }
+            CompletableFuture<T> started;
+            try {
+                started = start(call);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    started.cancel(true);
+                }
+            });
+            started.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Как {@link #executeAsync}, но без ожидания: если лимит запросов в полете исчерпан или
+     * {@code admit}, проверяемый уже с местом, отказал, вызов не запускается и возвращается {@code null}.
+     * Так разрешение, которое берет {@code admit}, не тратится на вызов, которому не нашлось места.
+     */
+    <T> CompletableFuture<T> tryExecuteAsync(BooleanSupplier admit, Supplier<CompletableFuture<T>> call) {
+        if (inFlight != null && !inFlight.tryAcquire()) {
+            return null;
+        }
+        boolean admitted;
+        try {
+            admitted = admit.getAsBoolean();
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+        if (!admitted) {
+            release();
+            return null;
+        }
+        return start(call);
+    }
+
+    /**
+     * Запускает вызов, место которого уже взято, и возвращает место по его завершении
+     */
+    private <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+        return future.whenComplete((result, error) -> release());
+    }
+
+    private void release() {
+        if (inFlight != null) {
+            inFlight.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (idleEvictor != null) {
+            idleEvictor.shutdownNow();
+        }
+        if (connectionManager != null) {
+            connectionManager.shutdown();
+        }
+    }
+
+    private DefaultHttpClient newApacheClient(PoolingClientConnectionManager manager) {
+        DefaultHttpClient client = new ResilientHttpClient(manager);
+        client.addRequestInterceptor(compression.requestInterceptor(), 0);
+        HttpParams params = client.getParams();
+        HttpConnectionParams.setConnectionTimeout(params, (int) config.getConnectTimeout().toMillis());
+        HttpConnectionParams.setSoTimeout(params, (int) config.getReadTimeout().toMillis());
+        params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, config.getConnectTimeout().toMillis());
+        return client;
+    }
+
+    private static ScheduledExecutorService startIdleEvictor(PoolingClientConnectionManager manager, Duration idleTimeout) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "petstore-idle-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(idleTimeout.toMillis() / 2, MIN_EVICTION_PERIOD.toMillis());
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                manager.closeExpiredConnections();
+                manager.closeIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                log.warn("Idle connection eviction failed: {}", e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    /**
+     * Клиент, чьи запросы проходят через {@link Resilience}: повтор отправляет тот же запрос
+     * целиком, с заголовками и телом, которые уже собрал RestAssured
+     */
+    private class ResilientHttpClient extends DefaultHttpClient {
+        ResilientHttpClient(ClientConnectionManager manager) {
+            super(manager);
+        }
+
+        @Override
+        protected RequestDirector createClientRequestDirector(
+                HttpRequestExecutor requestExec, ClientConnectionManager conman, ConnectionReuseStrategy reustrat,
+                ConnectionKeepAliveStrategy kastrat, HttpRoutePlanner rouplan, HttpProcessor httpProcessor,
+                HttpRequestRetryHandler retryHandler, RedirectStrategy redirectStrategy,
+                AuthenticationStrategy targetAuthStrategy, AuthenticationStrategy proxyAuthStrategy,
+                UserTokenHandler userTokenHandler, HttpParams params) {
+            // директор одноразовый: после освобождения соединения им нельзя отправить запрос снова
+            Supplier<RequestDirector> directors = () -> super.createClientRequestDirector(requestExec, conman,
+                reustrat, kastrat, rouplan, httpProcessor, retryHandler, redirectStrategy, targetAuthStrategy,
+                proxyAuthStrategy, userTokenHandler, params);
+            return (target, request, context) -> resilience.execute(
+                request.getRequestLine().getMethod(),
+                request.getRequestLine().getUri(),
+                isRepeatable(request),
+                () -> {
+                    try {
+                        return directors.get().execute(target, request, context);
+                    } catch (HttpException e) {
+                        throw new ClientProtocolException(e);
+                    }
+                },
+                response -> response.getStatusLine().getStatusCode(),
+                response -> EntityUtils.consumeQuietly(response.getEntity()));
+        }
+
+        private static boolean isRepeatable(HttpRequest request) {
+            return !(request instanceof HttpEntityEnclosingRequest enclosing)
+                || enclosing.getEntity() == null
+                || enclosing.getEntity().isRepeatable();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.petstore.client;
+
+import java.nio.file.Path;
+
+/**
+ * Одно изображение пакетной загрузки: питомец, файл и необязательные метаданные
+ */
+public class ImageUpload {
+    private final long petId;
+    private final Path image;
+    private final String additionalMetadata;
+
+    private ImageUpload(long petId, Path image, String additionalMetadata) {
+        this.petId = petId;
+        this.image = image;
+        this.additionalMetadata = additionalMetadata;
+    }
+
+    public static ImageUpload of(long petId, Path image) {
+        return new ImageUpload(petId, image, "");
+    }
+
+    public static ImageUpload of(long petId, Path image, String additionalMetadata) {
+        return new ImageUpload(petId, image, additionalMetadata);
+    }
+
+    public long getPetId() {
+        return petId;
+    }
+
+    public Path getImage() {
+        return image;
+    }
+
+    public String getAdditionalMetadata() {
+        return additionalMetadata;
+    }
+
+    @Override
+    public String toString() {
+        return "ImageUpload{petId=" + petId + ", image=" + image + "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.petstore.client;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Лимит запросов в полете транспорта. Место выдается future: асинхронный вызов ждет его, не занимая
+ * поток, синхронный фильтр RestAssured - блокируясь на нем. Освободившееся место достается первому
+ * в очереди, поэтому синхронные и асинхронные вызовы обслуживаются по порядку.
+ */
+final class InFlightLimit {
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int available;
+
+    InFlightLimit(int limit) {
+        this.available = limit;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (available > 0) {
+            available--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Уже завершенный future, если место свободно, иначе место в очереди; отмена future снимает его с очереди
+     */
+    synchronized CompletableFuture<Void> acquire() {
+        if (available > 0) {
+            available--;
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    /**
+     * Передает место первому ждущему; его future завершается вне блокировки, и продолжение сразу отправляет запрос
+     */
+    void release() {
+        while (true) {
+            CompletableFuture<Void> waiter;
+            synchronized (this) {
+                waiter = waiters.poll();
+                if (waiter == null) {
+                    available++;
+                    return;
+                }
+            }
+            // отмененный ждущий места не берет, оно достается следующему
+            if (waiter.complete(null)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.petstore.client;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Тело запроса в виде JSON массива, которое сериализуется по одному элементу по мере чтения:
+ * HTTP клиент тянет байты, и только тогда следующий элемент превращается в JSON. В памяти
+ * находится лишь текущий элемент, а не весь массив.
+ */
+class JsonArrayInputStream extends InputStream {
+    private final Iterator<?> elements;
+    private final ObjectWriter writer;
+    private final Buffer buffer = new Buffer();
+    private int position;
+    private boolean started;
+    private boolean finished;
+
+    JsonArrayInputStream(Iterator<?> elements, ObjectWriter writer) {
+        this.elements = elements;
+        this.writer = writer;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer.array()[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int read = 0;
+        while (read < length && fill()) {
+            int count = Math.min(length - read, buffer.size() - position);
+            System.arraycopy(buffer.array(), position, target, offset + read, count);
+            position += count;
+            read += count;
+        }
+        return read == 0 ? -1 : read;
+    }
+
+    /**
+     * Готовит следующую порцию байт, если текущая дочитана; false - массив закончился
+     */
+    private boolean fill() throws IOException {
+        if (position < buffer.size()) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        buffer.reset();
+        position = 0;
+        if (!started) {
+            started = true;
+            buffer.write('[');
+        }
+        if (elements.hasNext()) {
+            if (buffer.size() == 0) {
+                buffer.write(',');
+            }
+            writer.writeValue(buffer, elements.next());
+        } else {
+            buffer.write(']');
+            finished = true;
+        }
+        return true;
+    }
+
+    /**
+     * Переиспользуемый буфер с доступом к внутреннему массиву без копирования
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(512);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.petstore.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Итератор по элементам JSON массива, читающий поток по одному объекту: в памяти держится
+ * только текущий элемент, первый доступен до прихода последнего байта. Закрытие итератора
+ * закрывает поток.
+ */
+class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+    private final InputStream in;
+    private final JsonParser parser;
+    private final ObjectReader reader;
+    private JsonToken next;
+
+    JsonArrayIterator(InputStream in, ObjectReader reader) {
+        this.in = in;
+        this.reader = reader;
+        try {
+            parser = reader.createParser(in);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected JSON array but got " + parser.currentToken());
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Cannot start reading JSON array", e);
+        }
+    }
+
+    /**
+     * Поток элементов; его нужно закрыть, если он не дочитан до конца
+     */
+    static <T> Stream<T> stream(InputStream in, ObjectReader reader) {
+        JsonArrayIterator<T> iterator = new JsonArrayIterator<>(in, reader);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(iterator::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = parser.nextToken();
+            } catch (IOException e) {
+                closeQuietly();
+                throw new UncheckedIOException("Cannot read JSON array element", e);
+            }
+            if (next == null || next == JsonToken.END_ARRAY) {
+                close();
+            }
+        }
+        return next != null && next != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            T value = reader.readValue(parser);
+            next = null;
+            return value;
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Cannot decode JSON array element", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        try {
+            if (parser != null) {
+                parser.close();
+            }
+            in.close();
+        } catch (IOException ignored) {
+            // поток уже не нужен
+        }
+    }
+}
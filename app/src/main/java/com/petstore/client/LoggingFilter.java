@@ -0,0 +1,233 @@
+package com.petstore.client;
+
+import com.petstore.config.LoggingConfig;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Фильтр RestAssured, логирующий HTTP обмены по {@link LoggingConfig}: только медленные или
+ * неуспешные, с выборкой 1 из N, с обрезкой тел и скрытием учетных данных. Сообщение
+ * форматируется лениво, только если запись действительно попадет в лог, а при выключенном
+ * логгере фильтр просто передает запрос дальше.
+ * <p>
+ * Тот же формат используют асинхронные клиенты через {@link #logExchange}.
+ */
+public class LoggingFilter implements Filter {
+    private static final Logger log = LoggerFactory.getLogger("com.petstore.client.http");
+    private static final String REDACTED = "***";
+
+    private final LoggingConfig config;
+    private final long slowThresholdNanos;
+    private final Set<String> redactedHeaders;
+    private final Pattern redactedQuery;
+    private final Pattern redactedJson;
+
+    public LoggingFilter(LoggingConfig config) {
+        this.config = config;
+        this.slowThresholdNanos = config.getSlowThreshold().toNanos();
+        this.redactedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        this.redactedHeaders.addAll(config.getRedactedHeaders());
+        String names = config.getRedactedParameters().stream()
+            .map(Pattern::quote)
+            .collect(Collectors.joining("|"));
+        this.redactedQuery = names.isEmpty() ? null : Pattern.compile("([?&](?:" + names + ")=)[^&#]*");
+        this.redactedJson = names.isEmpty() ? null : Pattern.compile("(\"(?:" + names + ")\"\\s*:\\s*)\"(?:[^\"\\\\]|\\\\.)*\"");
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext context) {
+        if (!isActive()) {
+            return context.next(requestSpec, responseSpec);
+        }
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = context.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            record(requestSpec.getMethod(), requestSpec.getURI(), -1, System.nanoTime() - start, e,
+                () -> formatHeaders(requestSpec.getHeaders()), requestSpec::getBody, () -> null);
+            throw e;
+        }
+        record(requestSpec.getMethod(), requestSpec.getURI(), response.getStatusCode(), System.nanoTime() - start, null,
+            () -> formatHeaders(requestSpec.getHeaders()), requestSpec::getBody, response::asByteArray);
+        return response;
+    }
+
+    /**
+     * Логирует обмен асинхронного клиента; тело запроса JDK клиента недоступно и не пишется
+     */
+    void logExchange(HttpRequest request, HttpResponse<byte[]> response, Throwable error, long startNanos) {
+        if (!isActive()) {
+            return;
+        }
+        record(request.method(), request.uri().toString(), response != null ? response.statusCode() : -1,
+            System.nanoTime() - startNanos, error, () -> formatHeaders(request.headers().map()), () -> null,
+            () -> response != null ? response.body() : null);
+    }
+
+    private boolean isActive() {
+        return config.getMode() != LoggingConfig.Mode.OFF && log.isWarnEnabled();
+    }
+
+    private void record(String method, String uri, int status, long elapsedNanos, Throwable error,
+                        Supplier<String> requestHeaders, Supplier<Object> requestBody, Supplier<Object> responseBody) {
+        boolean failed = error != null || status < 200 || status >= 400;
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        boolean warn = switch (config.getMode()) {
+            case ALL, SLOW_OR_FAILED -> failed || slow;
+            case FAILED -> failed;
+            case OFF -> false;
+        };
+        if (warn) {
+            log.warn("{}", new Exchange(method, uri, status, elapsedNanos, error, requestHeaders, requestBody, responseBody));
+        } else if (config.getMode() == LoggingConfig.Mode.ALL && log.isInfoEnabled() && sampled()) {
+            log.info("{}", new Exchange(method, uri, status, elapsedNanos, null, requestHeaders, requestBody, responseBody));
+        }
+    }
+
+    private boolean sampled() {
+        int rate = config.getSampleRate();
+        return rate <= 1 || ThreadLocalRandom.current().nextInt(rate) == 0;
+    }
+
+    private String formatHeaders(Iterable<Header> headers) {
+        StringBuilder sb = new StringBuilder();
+        for (Header header : headers) {
+            appendHeader(sb, header.getName(), header.getValue());
+        }
+        return sb.toString();
+    }
+
+    private String formatHeaders(Map<String, List<String>> headers) {
+        StringBuilder sb = new StringBuilder();
+        headers.forEach((name, values) -> values.forEach(value -> appendHeader(sb, name, value)));
+        return sb.toString();
+    }
+
+    private void appendHeader(StringBuilder sb, String name, String value) {
+        if (!sb.isEmpty()) {
+            sb.append(", ");
+        }
+        sb.append(name).append('=').append(redactedHeaders.contains(name) ? REDACTED : value);
+    }
+
+    private String redact(Pattern pattern, String text, String replacement) {
+        if (pattern == null || text == null) {
+            return text;
+        }
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? matcher.replaceAll(replacement) : text;
+    }
+
+    /**
+     * Учетные данные скрываются во всем теле до обрезки, иначе значение, пересекающее границу,
+     * попало бы в лог своим началом. Обрезка идет по границе символа, не разрезая UTF-8 последовательность.
+     */
+    private String formatBody(Object body) {
+        if (body == null) {
+            return null;
+        }
+        String text;
+        int length;
+        if (body instanceof byte[] bytes) {
+            length = bytes.length;
+            text = new String(bytes, StandardCharsets.UTF_8);
+        } else {
+            text = String.valueOf(body);
+            length = text.length();
+        }
+        if (length == 0) {
+            return null;
+        }
+        text = redact(redactedJson, text, "$1\"" + REDACTED + "\"");
+        int end = utf8Prefix(text, config.getMaxBodyLength());
+        return end < text.length() ? text.substring(0, end) + "... [" + length + " total]" : text;
+    }
+
+    /**
+     * Длина самого длинного префикса из целых символов, который занимает в UTF-8 не больше limit байт
+     */
+    private static int utf8Prefix(String text, int limit) {
+        int bytes = 0;
+        int i = 0;
+        while (i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            bytes += codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (bytes > limit) {
+                break;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return i;
+    }
+
+    /**
+     * Сообщение о обмене; строка собирается только в {@link #toString()}, то есть когда
+     * бэкенд логирования действительно пишет запись
+     */
+    private final class Exchange {
+        private final String method;
+        private final String uri;
+        private final int status;
+        private final long elapsedNanos;
+        private final Throwable error;
+        private final Supplier<String> requestHeaders;
+        private final Supplier<Object> requestBody;
+        private final Supplier<Object> responseBody;
+
+        Exchange(String method, String uri, int status, long elapsedNanos, Throwable error,
+                 Supplier<String> requestHeaders, Supplier<Object> requestBody, Supplier<Object> responseBody) {
+            this.method = method;
+            this.uri = uri;
+            this.status = status;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+            this.requestHeaders = requestHeaders;
+            this.requestBody = requestBody;
+            this.responseBody = responseBody;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(128)
+                .append(method).append(' ').append(redact(redactedQuery, uri, "$1" + REDACTED))
+                .append(" -> ").append(status < 0 ? "no response" : String.valueOf(status))
+                .append(" in ").append(elapsedNanos / 1_000_000).append(" ms");
+            if (error != null) {
+                sb.append(" (").append(error.getClass().getSimpleName()).append(": ").append(error.getMessage()).append(')');
+            }
+            if (log.isDebugEnabled()) {
+                sb.append("\n  request headers: ").append(requestHeaders.get());
+                String request = formatBody(requestBody.get());
+                if (request != null) {
+                    sb.append("\n  request body: ").append(request);
+                }
+                String response = formatBody(responseBody.get());
+                if (response != null) {
+                    sb.append("\n  response body: ").append(response);
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
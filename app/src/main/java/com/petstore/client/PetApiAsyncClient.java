@@ -0,0 +1,283 @@
+package com.petstore.client;
+
+import com.petstore.config.ApiConfig;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.ApiResponse;
+import com.petstore.model.Pet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Асинхронный аналог {@link PetApiClient}
+ */
+public class PetApiAsyncClient extends BaseAsyncApiClient {
+    private static final Logger log = LoggerFactory.getLogger(PetApiAsyncClient.class);
+    private static final String PET_PATH = "/pet";
+
+    public PetApiAsyncClient() {
+        this(ApiConfig.BASE_URL);
+    }
+
+    public PetApiAsyncClient(String baseUrl) {
+        super(baseUrl);
+    }
+
+    public PetApiAsyncClient(String baseUrl, HttpTransport transport) {
+        super(baseUrl, transport);
+    }
+
+    @Override
+    protected String pathTemplate(String path) {
+        if (!path.startsWith(PET_PATH + "/") || path.equals(PET_PATH + "/findByStatus")) {
+            return path;
+        }
+        int end = path.indexOf('/', PET_PATH.length() + 1);
+        return PET_PATH + "/{petId}" + (end < 0 ? "" : path.substring(end));
+    }
+
+    public CompletableFuture<Pet> getPetById(long petId) {
+        log.debug("Getting pet by ID: {}", petId);
+        return send(request(PET_PATH + "/" + petId).GET().build(), Pet.class);
+    }
+
+    public CompletableFuture<Pet> createPet(Pet pet) {
+        log.debug("Creating new pet: {}", pet.getName());
+        return send(request(PET_PATH).POST(jsonBody(pet)).build(), Pet.class);
+    }
+
+    /**
+     * Создает питомцев конвейером: в полете не больше {@code concurrency} запросов, следующий
+     * уходит сразу по завершении предыдущего. Ошибка отдельного питомца не прерывает пакет
+     * и видна в его элементе результата.
+     */
+    public CompletableFuture<BulkResult<Pet, Pet>> createPets(Iterable<? extends Pet> pets, int concurrency) {
+        return createPets(pets, concurrency, progress -> { });
+    }
+
+    /**
+     * То же, что {@link #createPets(Iterable, int)}, с уведомлением {@code progress} после каждого
+     * завершенного питомца. Слушатель вызывается из потоков HTTP клиента и должен быть быстрым.
+     */
+    public CompletableFuture<BulkResult<Pet, Pet>> createPets(Iterable<? extends Pet> pets, int concurrency,
+                                                             Consumer<BulkProgress> progress) {
+        log.debug("Creating pets in bulk with concurrency {}", concurrency);
+        return new BulkExecutor<Pet, Pet>(pets.iterator(), this::createPet, concurrency, progress).start()
+            .whenComplete((result, error) -> log.debug("Bulk pet creation finished: {}", result));
+    }
+
+    public CompletableFuture<Pet> updatePet(Pet pet) {
+        log.debug("Updating pet: {}", pet.getId());
+        return send(request(PET_PATH).PUT(jsonBody(pet)).build(), Pet.class);
+    }
+
+    public CompletableFuture<ApiResponse> deletePet(long petId) {
+        log.debug("Deleting pet by ID: {}", petId);
+        return send(request(PET_PATH + "/" + petId).DELETE().build(), ApiResponse.class);
+    }
+
+    public CompletableFuture<List<Pet>> findPetsByStatus(String status) {
+        log.debug("Finding pets by status: {}", status);
+        return send(request(PET_PATH + "/findByStatus?status=" + encode(status)).GET().build(), JacksonConfig.PET_LIST);
+    }
+
+    public CompletableFuture<ApiResponse> uploadImageWithOAuth(long petId, String additionalMetadata,
+                                                               String imagePath, String oauthToken) {
+        return uploadImage(petId, additionalMetadata, Path.of(imagePath), oauthToken);
+    }
+
+    /**
+     * Загружает файл, читая его по частям по мере отправки: в памяти не весь файл,
+     * а длина тела известна заранее
+     */
+    public CompletableFuture<ApiResponse> uploadImage(long petId, String additionalMetadata, Path image,
+                                                      String oauthToken) {
+        HttpRequest.BodyPublisher content;
+        try {
+            content = imageContent(image);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return uploadImage(petId, additionalMetadata, image.getFileName().toString(), content, true, oauthToken);
+    }
+
+    /**
+     * Загружает содержимое потока по мере чтения, chunked, так как длина заранее неизвестна.
+     * Поток читается один раз и закрывается клиентом, поэтому такой запрос не повторяется.
+     */
+    public CompletableFuture<ApiResponse> uploadImage(long petId, String additionalMetadata, String fileName,
+                                                      InputStream image, String oauthToken) {
+        return uploadImage(petId, additionalMetadata, fileName, imageContent(image), false, oauthToken);
+    }
+
+    /**
+     * Загружает оставшуюся часть буфера срезами без копирования; позиция буфера не меняется.
+     * Прямой буфер уходит в сокет, минуя кучу.
+     */
+    public CompletableFuture<ApiResponse> uploadImage(long petId, String additionalMetadata, String fileName,
+                                                      ByteBuffer image, String oauthToken) {
+        return uploadImage(petId, additionalMetadata, fileName, imageContent(image), true, oauthToken);
+    }
+
+    /**
+     * Содержимое файла, читаемое по частям по мере отправки, с длиной, известной заранее
+     */
+    static HttpRequest.BodyPublisher imageContent(Path image) throws IOException {
+        return HttpRequest.BodyPublishers.fromPublisher(
+            ByteBufferPublisher.ofFile(image, ByteBufferPublisher.DEFAULT_CHUNK_SIZE), Files.size(image));
+    }
+
+    /**
+     * Содержимое потока неизвестной длины; отправить его можно только один раз
+     */
+    static HttpRequest.BodyPublisher imageContent(InputStream image) {
+        return HttpRequest.BodyPublishers.ofInputStream(() -> image);
+    }
+
+    /**
+     * Оставшаяся часть буфера срезами без копирования
+     */
+    static HttpRequest.BodyPublisher imageContent(ByteBuffer image) {
+        return HttpRequest.BodyPublishers.fromPublisher(
+            ByteBufferPublisher.ofBuffer(image, ByteBufferPublisher.DEFAULT_CHUNK_SIZE), image.remaining());
+    }
+
+    /**
+     * Загружает изображения конвейером, не больше {@code concurrency} загрузок одновременно,
+     * см. {@link #createPets(Iterable, int, Consumer)}. Каждый файл передается потоком, поэтому
+     * память не зависит ни от размера файлов, ни от их числа.
+     */
+    public CompletableFuture<BulkResult<ImageUpload, ApiResponse>> uploadImages(Iterable<? extends ImageUpload> uploads,
+                                                                               String oauthToken, int concurrency,
+                                                                               Consumer<BulkProgress> progress) {
+        log.debug("Uploading images in bulk with concurrency {}", concurrency);
+        return new BulkExecutor<ImageUpload, ApiResponse>(uploads.iterator(),
+                upload -> uploadImage(upload.getPetId(), upload.getAdditionalMetadata(), upload.getImage(), oauthToken),
+                concurrency, progress)
+            .start()
+            .whenComplete((result, error) -> log.debug("Bulk image upload finished: {}", result));
+    }
+
+    public CompletableFuture<BulkResult<ImageUpload, ApiResponse>> uploadImages(Iterable<? extends ImageUpload> uploads,
+                                                                               String oauthToken, int concurrency) {
+        return uploadImages(uploads, oauthToken, concurrency, progress -> { });
+    }
+
+    private CompletableFuture<ApiResponse> uploadImage(long petId, String additionalMetadata, String fileName,
+                                                       HttpRequest.BodyPublisher content, boolean repeatable,
+                                                       String oauthToken) {
+        return decoded(uploadImageResponse(petId, additionalMetadata, fileName, content, repeatable, oauthToken),
+            ApiResponse.class);
+    }
+
+    /**
+     * Загрузка с окончательным ответом без разбора, см. {@link #call(HttpRequest, boolean)}.
+     * Части multipart собираются вручную, поэтому переводы строк в имени файла и метаданных
+     * отклоняются, а кавычка в имени кодируется как %22, как это делают браузеры: иначе значение
+     * могло бы закрыть кавычки или добавить свои заголовки части
+     */
+    CompletableFuture<HttpResponse<byte[]>> uploadImageResponse(long petId, String additionalMetadata,
+                                                                String fileName, HttpRequest.BodyPublisher content,
+                                                                boolean repeatable, String oauthToken) {
+        if (hasLineBreak(fileName) || hasLineBreak(additionalMetadata)) {
+            return CompletableFuture.failedFuture(
+                new IllegalArgumentException("File name and additionalMetadata must not contain CR or LF"));
+        }
+        log.debug("Uploading image {} for pet ID {} using OAuth2 token", fileName, petId);
+        String boundary = "petstore-" + UUID.randomUUID();
+        String head = "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"additionalMetadata\"\r\n\r\n"
+            + additionalMetadata + "\r\n"
+            + "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName.replace("\"", "%22") + "\"\r\n"
+            + "Content-Type: application/octet-stream\r\n\r\n";
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.concat(
+            HttpRequest.BodyPublishers.ofString(head),
+            content,
+            HttpRequest.BodyPublishers.ofString("\r\n--" + boundary + "--\r\n"));
+        return call(request(PET_PATH + "/" + petId + "/uploadImage")
+            .setHeader("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .header("Authorization", "Bearer " + oauthToken)
+            .POST(body)
+            .build(), repeatable);
+    }
+
+    private static boolean hasLineBreak(String value) {
+        return value != null && (value.indexOf('\r') >= 0 || value.indexOf('\n') >= 0);
+    }
+
+    /**
+     * Тело - готовая строка JSON, см. {@link PetApiClient#addNewPetWithOAuth(String, String)}
+     */
+    public CompletableFuture<Pet> addNewPetWithOAuth(String pet, String token) {
+        log.debug("Adding new pet with OAuth token");
+        return send(request(PET_PATH)
+            .setHeader("Content-Type", ApiConfig.CONTENT_TYPE)
+            .header("Authorization", "Bearer " + token)
+            .POST(HttpRequest.BodyPublishers.ofString(pet))
+            .build(), Pet.class);
+    }
+
+    public CompletableFuture<Pet> updatePetWithOAuth(String pet, String token) {
+        log.debug("Updating pet with OAuth token");
+        return send(request(PET_PATH)
+            .setHeader("Content-Type", ApiConfig.CONTENT_TYPE)
+            .header("Authorization", "Bearer " + token)
+            .PUT(HttpRequest.BodyPublishers.ofString(pet))
+            .build(), Pet.class);
+    }
+
+    public CompletableFuture<ApiResponse> deletePetWithAuth(long petId, String apiKey) {
+        log.debug("Deleting pet with ID {} using API key", petId);
+        return send(request(PET_PATH + "/" + petId)
+            .header("api_key", apiKey)
+            .DELETE()
+            .build(), ApiResponse.class);
+    }
+
+    /**
+     * Поле со значением {@code null} не отправляется, и сервер оставляет его прежним, как у {@link PetApiClient}
+     */
+    public CompletableFuture<ApiResponse> updatePetWithFormData(long petId, String name, String status) {
+        log.debug("Updating pet with ID {} using form data", petId);
+        StringJoiner form = new StringJoiner("&");
+        if (name != null) {
+            form.add("name=" + encode(name));
+        }
+        if (status != null) {
+            form.add("status=" + encode(status));
+        }
+        return send(request(PET_PATH + "/" + petId)
+            .setHeader("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(form.toString()))
+            .build(), ApiResponse.class);
+    }
+
+    public CompletableFuture<ApiResponse> deletePetWithOAuth(long petId, String oauthToken) {
+        log.debug("Deleting pet with ID {} using OAuth2 token", petId);
+        return send(request(PET_PATH + "/" + petId)
+            .header("Authorization", "Bearer " + oauthToken)
+            .DELETE()
+            .build(), ApiResponse.class);
+    }
+
+    public CompletableFuture<Pet> getPetByIdWithAuth(long petId, String apiKey) {
+        log.debug("Getting pet with ID {} using API key", petId);
+        return send(request(PET_PATH + "/" + petId)
+            .header("api_key", apiKey)
+            .GET()
+            .build(), Pet.class);
+    }
+}
@@ -3,46 +3,113 @@ package com.petstore.client;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.petstore.analytics.PetTable;
+import com.petstore.client.metrics.OperationMetrics;
 import com.petstore.config.ApiConfig;
+import com.petstore.config.CacheConfig;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.ApiResponse;
+import com.petstore.model.Category;
+import com.petstore.model.CompactPet;
+import com.petstore.model.InternPool;
 import com.petstore.model.Pet;
+import com.petstore.model.Tag;
 
-import io.restassured.RestAssured;
-import static io.restassured.RestAssured.given;
 import io.restassured.response.Response;
-import io.restassured.specification.RequestSpecification;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class PetApiClient extends BaseApiClient {
     private static final Logger log = LoggerFactory.getLogger(PetApiClient.class);
     private static final String PET_PATH = "/pet";
-    private final RequestSpecification requestSpec;
+    private static final ObjectReader PET_READER = JacksonConfig.readerFor(Pet.class);
+    private static final ObjectReader PET_LIST_READER = JacksonConfig.readerFor(JacksonConfig.PET_LIST);
+    private static final ObjectReader COMPACT_PET_READER = JacksonConfig.readerFor(CompactPet.class);
+    private static final ObjectReader API_RESPONSE_READER = JacksonConfig.readerFor(ApiResponse.class);
+    private static final ObjectWriter PET_WRITER = JacksonConfig.writerFor(Pet.class);
+
+    private final ReadCache<Long, Pet> petCache;
+    private final SingleFlight<Long, ApiResult<Pet>> petReads;
+    private final ObjectReader compactPetReader;
 
     public PetApiClient() {
-        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
-        this.requestSpec = given()
-                .baseUri(ApiConfig.BASE_URL)
-                .contentType(ApiConfig.CONTENT_TYPE);
+        this(ApiConfig.BASE_URL);
+    }
+
+    public PetApiClient(String baseUrl) {
+        this(baseUrl, HttpTransport.shared());
+    }
+
+    public PetApiClient(String baseUrl, HttpTransport transport) {
+        this(baseUrl, transport, null);
+    }
+
+    /**
+     * Клиент с кэшем {@link #getPetByIdResult}; записи через этот же клиент сбрасывают
+     * закэшированного питомца. {@code null} - без кэша.
+     */
+    public PetApiClient(String baseUrl, HttpTransport transport, CacheConfig cacheConfig) {
+        super(baseUrl, transport);
+        petCache = ReadCache.create(cacheConfig, cacheConfig != null ? cacheConfig.getPetTtl() : null,
+            PetApiClient::copyOf);
+        petReads = SingleFlight.create(transport.getConfig().isCoalesceReads(),
+            result -> result.copy(PetApiClient::copyOf));
+        compactPetReader = COMPACT_PET_READER.withAttribute(InternPool.class, new InternPool());
+    }
+
+    @Override
+    protected String metricName(String method, String path) {
+        return switch (path) {
+            case PET_PATH -> "POST".equals(method) ? "pet.create" : "pet.update";
+            case PET_PATH + "/{petId}" -> switch (method) {
+                case "GET" -> "pet.getById";
+                case "POST" -> "pet.updateWithForm";
+                default -> "pet.delete";
+            };
+            case PET_PATH + "/findByStatus" -> "pet.findByStatus";
+            case PET_PATH + "/{petId}/uploadImage" -> "pet.uploadImage";
+            default -> super.metricName(method, path);
+        };
     }
 
     public Response getPetById(Long petId) {
-        log.info("Getting pet by ID: {}", petId);
-        return given()
-            .spec(getRequestSpec())
+        return getPetById(petId, Map.of());
+    }
+
+    private Response getPetById(Long petId, Map<String, String> headers) {
+        log.debug("Getting pet by ID: {}", petId);
+        return request()
+            .headers(headers)
             .get(PET_PATH + "/{petId}", petId);
     }
 
     public Response createPet(Pet pet) {
-        log.info("Creating new pet: {}", pet);
+        log.debug("Creating new pet: {}", pet);
         try {
-            Response response = requestSpec
-                    .body(pet)
+            Response response = request()
+                    .body(toBody(pet, PET_WRITER))
                     .when()
-                    .post(ApiConfig.PET_ENDPOINT)
+                    .post(PET_PATH)
                     .then()
                     .extract()
                     .response();
-            log.info("Create pet response status: {}", response.getStatusCode());
+            log.debug("Create pet response status: {}", response.getStatusCode());
+            petCache.invalidate(pet.getId());
             return response;
         } catch (Exception e) {
             log.error("Error creating pet: {}", e.getMessage());
@@ -50,17 +117,34 @@ public class PetApiClient extends BaseApiClient {
         }
     }
 
+    /**
+     * Создает питомцев конвейером через асинхронный клиент на том же транспорте и ждет
+     * завершения всего пакета, см. {@link PetApiAsyncClient#createPets(Iterable, int, Consumer)}
+     */
+    public BulkResult<Pet, Pet> createPets(Iterable<? extends Pet> pets, int concurrency, Consumer<BulkProgress> progress) {
+        BulkResult<Pet, Pet> result = async()
+            .createPets(pets, concurrency, progress)
+            .join();
+        petCache.invalidateAll();
+        return result;
+    }
+
+    public BulkResult<Pet, Pet> createPets(Iterable<? extends Pet> pets, int concurrency) {
+        return createPets(pets, concurrency, progress -> { });
+    }
+
     public Response updatePet(Pet pet) {
-        log.info("Updating pet: {}", pet);
+        log.debug("Updating pet: {}", pet);
         try {
-            Response response = requestSpec
-                    .body(pet)
+            Response response = request()
+                    .body(toBody(pet, PET_WRITER))
                     .when()
-                    .put(ApiConfig.PET_ENDPOINT)
+                    .put(PET_PATH)
                     .then()
                     .extract()
                     .response();
-            log.info("Update pet response status: {}", response.getStatusCode());
+            log.debug("Update pet response status: {}", response.getStatusCode());
+            petCache.invalidate(pet.getId());
             return response;
         } catch (Exception e) {
             log.error("Error updating pet: {}", e.getMessage());
@@ -69,16 +153,17 @@ public class PetApiClient extends BaseApiClient {
     }
 
     public Response deletePet(Long petId) {
-        log.info("Deleting pet by ID: {}", petId);
+        log.debug("Deleting pet by ID: {}", petId);
         try {
-            Response response = requestSpec
+            Response response = request()
                     .pathParam("petId", petId)
                     .when()
-                    .delete(ApiConfig.PET_ENDPOINT + "/{petId}")
+                    .delete(PET_PATH + "/{petId}")
                     .then()
                     .extract()
                     .response();
-            log.info("Delete pet response status: {}", response.getStatusCode());
+            log.debug("Delete pet response status: {}", response.getStatusCode());
+            petCache.invalidate(petId);
             return response;
         } catch (Exception e) {
             log.error("Error deleting pet: {}", e.getMessage());
@@ -87,70 +172,266 @@ public class PetApiClient extends BaseApiClient {
     }
 
     public Response findPetsByStatus(String status) {
-        log.info("Finding pets by status: {}", status);
-        return given()
-            .spec(getRequestSpec())
+        log.debug("Finding pets by status: {}", status);
+        return request()
             .queryParam("status", status)
             .get(PET_PATH + "/findByStatus");
     }
 
+    /**
+     * Поиск по статусу без материализации ответа: питомцы разбираются по одному по мере
+     * чтения тела. Поток держит соединение, поэтому его нужно закрыть (try-with-resources).
+     */
+    public Stream<Pet> streamPetsByStatus(String status) {
+        log.debug("Streaming pets by status: {}", status);
+        return JsonArrayIterator.stream(openStream(PET_PATH + "/findByStatus?status=" + encode(status)), PET_READER);
+    }
+
+    /**
+     * Передает каждого найденного питомца в {@code action} по мере чтения ответа
+     */
+    public void forEachPetByStatus(String status, Consumer<? super Pet> action) {
+        try (Stream<Pet> pets = streamPetsByStatus(status)) {
+            pets.forEach(action);
+        }
+    }
+
+    /**
+     * Поиск по статусу в компактном представлении для больших выборок: питомцы разбираются по одному
+     * в {@link CompactPet}, а категории, теги и адреса фото разделяются через общий для всех вызовов
+     * клиента {@link InternPool}. Поток нужно закрыть, как и у {@link #streamPetsByStatus}.
+     */
+    public Stream<CompactPet> streamCompactPetsByStatus(String status) {
+        log.debug("Streaming compact pets by status: {}", status);
+        return JsonArrayIterator.stream(openStream(PET_PATH + "/findByStatus?status=" + encode(status)),
+            compactPetReader);
+    }
+
+    /**
+     * Все найденные по статусу питомцы в компактном представлении, см. {@link #streamCompactPetsByStatus}
+     *
+     * @throws ApiException если сервер ответил ошибкой
+     */
+    public List<CompactPet> findCompactPetsByStatus(String status) {
+        try (Stream<CompactPet> pets = streamCompactPetsByStatus(status)) {
+            return pets.toList();
+        }
+    }
+
+    /**
+     * Дописывает найденных по статусу питомцев в столбцовую таблицу прямо из потока ответа,
+     * без объектов {@link Pet}; несколько статусов можно собрать в одну таблицу
+     *
+     * @return число добавленных строк
+     * @throws ApiException если сервер ответил ошибкой
+     */
+    public long appendPetsByStatus(String status, PetTable table) {
+        log.debug("Loading pets by status into table: {}", status);
+        try {
+            return table.appendJson(openStream(PET_PATH + "/findByStatus?status=" + encode(status)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read pets by status " + status, e);
+        }
+    }
+
     public Response uploadImageWithOAuth(Long petId, String additionalMetadata, String imagePath, String oauthToken) {
-        log.info("Uploading image for pet ID {} using OAuth2 token", petId);
-        return getRequestSpec()
+        log.debug("Uploading image for pet ID {} using OAuth2 token", petId);
+        return request()
+            .contentType("multipart/form-data")
             .header("Authorization", "Bearer " + oauthToken)
             .multiPart("additionalMetadata", additionalMetadata)
             .multiPart("file", new File(imagePath))
             .post(PET_PATH + "/{petId}/uploadImage", petId);
     }
 
+    /**
+     * Потоковая загрузка файла без чтения целиком в память через асинхронный клиент на том же транспорте,
+     * см. {@link PetApiAsyncClient#uploadImage(long, String, Path, String)}. Повторы и выключатель у нее
+     * общие с асинхронным клиентом, а метрики пишутся в {@code pet.uploadImage}, как у вызовов RestAssured.
+     *
+     * @throws ApiException если сервер ответил ошибкой
+     */
+    public ApiResponse uploadImage(Long petId, String additionalMetadata, Path image, String oauthToken) {
+        HttpRequest.BodyPublisher content;
+        try {
+            content = PetApiAsyncClient.imageContent(image);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return upload(petId, additionalMetadata, image.getFileName().toString(), content, true, oauthToken);
+    }
+
+    /**
+     * Загрузка содержимого потока по мере чтения, chunked
+     */
+    public ApiResponse uploadImage(Long petId, String additionalMetadata, String fileName, InputStream image,
+                                   String oauthToken) {
+        return upload(petId, additionalMetadata, fileName, PetApiAsyncClient.imageContent(image), false, oauthToken);
+    }
+
+    /**
+     * Загрузка оставшейся части буфера без копирования
+     */
+    public ApiResponse uploadImage(Long petId, String additionalMetadata, String fileName, ByteBuffer image,
+                                   String oauthToken) {
+        return upload(petId, additionalMetadata, fileName, PetApiAsyncClient.imageContent(image), true, oauthToken);
+    }
+
+    /**
+     * Ждет загрузки и записывает в метрики операции статус и длину ответа, а отправленными -
+     * байты файла, переданные по мере отправки, в том числе повторами
+     */
+    private ApiResponse upload(Long petId, String additionalMetadata, String fileName, HttpRequest.BodyPublisher content,
+                               boolean repeatable, String oauthToken) {
+        OperationMetrics metrics = getMetrics().operation(metricName("POST", PET_PATH + "/{petId}/uploadImage"));
+        CountingBodyPublisher counted = new CountingBodyPublisher(content);
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = join(async().uploadImageResponse(petId, additionalMetadata, fileName, counted, repeatable,
+                oauthToken));
+        } catch (RuntimeException e) {
+            metrics.record(OperationMetrics.NO_RESPONSE, counted.published(), 0, System.nanoTime() - start);
+            throw e;
+        }
+        metrics.record(response.statusCode(), counted.published(), response.body().length, System.nanoTime() - start);
+        return BaseAsyncApiClient.decode(response, API_RESPONSE_READER);
+    }
+
+    /**
+     * Загружает изображения конвейером и ждет завершения всего пакета,
+     * см. {@link PetApiAsyncClient#uploadImages(Iterable, String, int, Consumer)}
+     */
+    public BulkResult<ImageUpload, ApiResponse> uploadImages(Iterable<? extends ImageUpload> uploads, String oauthToken,
+                                                             int concurrency) {
+        return async().uploadImages(uploads, oauthToken, concurrency).join();
+    }
+
+    /**
+     * Тело - готовая строка JSON, поэтому Content-Type всегда {@link ApiConfig#CONTENT_TYPE},
+     * каким бы ни был формат транспорта
+     */
     public Response addNewPetWithOAuth(String pet, String token) {
-        log.info("Adding new pet with OAuth token");
-        return given()
-            .spec(getRequestSpec())
+        log.debug("Adding new pet with OAuth token");
+        Response response = request()
             .auth()
             .oauth2(token)
+            .contentType(ApiConfig.CONTENT_TYPE)
             .body(pet)
             .post(PET_PATH);
+        petCache.invalidateAll();
+        return response;
     }
 
     public Response updatePetWithOAuth(String pet, String token) {
-        log.info("Updating pet with OAuth token");
-        return given()
-            .spec(getRequestSpec())
+        log.debug("Updating pet with OAuth token");
+        Response response = request()
             .auth()
             .oauth2(token)
+            .contentType(ApiConfig.CONTENT_TYPE)
             .body(pet)
             .put(PET_PATH);
+        petCache.invalidateAll();
+        return response;
     }
 
     public Response deletePetWithAuth(Long petId, String apiKey) {
-        log.info("Deleting pet with ID {} using API key", petId);
-        return given()
-            .spec(getRequestSpec())
+        log.debug("Deleting pet with ID {} using API key", petId);
+        Response response = request()
             .header("api_key", apiKey)
             .delete(PET_PATH + "/{petId}", petId);
+        petCache.invalidate(petId);
+        return response;
     }
 
     public Response updatePetWithFormData(Long petId, String name, String status) {
-        log.info("Updating pet with ID {} using form data", petId);
-        return given()
-            .spec(getRequestSpec())
+        log.debug("Updating pet with ID {} using form data", petId);
+        Response response = request()
+            .contentType("application/x-www-form-urlencoded")
             .formParam("name", name)
             .formParam("status", status)
             .post(PET_PATH + "/{petId}", petId);
+        petCache.invalidate(petId);
+        return response;
     }
 
     public Response deletePetWithOAuth(Long petId, String oauthToken) {
-        log.info("Deleting pet with ID {} using OAuth2 token", petId);
-        return getRequestSpec()
+        log.debug("Deleting pet with ID {} using OAuth2 token", petId);
+        Response response = request()
             .header("Authorization", "Bearer " + oauthToken)
             .delete(PET_PATH + "/{petId}", petId);
+        petCache.invalidate(petId);
+        return response;
     }
 
     public Response getPetByIdWithAuth(Long petId, String apiKey) {
-        log.info("Getting pet with ID {} using API key", petId);
-        return getRequestSpec()
+        log.debug("Getting pet with ID {} using API key", petId);
+        return request()
             .header("api_key", apiKey)
             .get(PET_PATH + "/{petId}", petId);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Питомец по id; при включенном кэше повторные чтения до истечения TTL обходятся без сети,
+     * а при {@link com.petstore.config.TransportConfig#isCoalesceReads()} одновременные чтения
+     * одного id разделяют один запрос. При {@link com.petstore.config.TransportConfig#getHedging()}
+     * медленный запрос хеджируется.
+     */
+    public ApiResult<Pet> getPetByIdResult(Long petId) {
+        return petCache.get(petId, id -> petReads.execute(id, () ->
+            idempotentRead("GET /pet/{petId}", PET_PATH + "/" + encode(id), PET_READER, PetApiClient::copyOf,
+                validators -> getPetById(id, validators))));
+    }
+
+    public ApiResult<Pet> createPetResult(Pet pet) {
+        return toResult(createPet(pet), PET_READER);
+    }
+
+    public ApiResult<Pet> updatePetResult(Pet pet) {
+        return toResult(updatePet(pet), PET_READER);
+    }
+
+    public ApiResult<ApiResponse> deletePetResult(Long petId) {
+        return toResult(deletePet(petId), API_RESPONSE_READER);
+    }
+
+    public ApiResult<List<Pet>> findPetsByStatusResult(String status) {
+        return toResult(findPetsByStatus(status), PET_LIST_READER);
+    }
+
+    public ApiResult<ApiResponse> updatePetWithFormDataResult(Long petId, String name, String status) {
+        return toResult(updatePetWithFormData(petId, name, status), API_RESPONSE_READER);
+    }
+
+    public ApiResult<Pet> getPetByIdWithAuthResult(Long petId, String apiKey) {
+        return toResult(getPetByIdWithAuth(petId, apiKey), PET_READER);
+    }
+
+    private PetApiAsyncClient async() {
+        return new PetApiAsyncClient(getBaseUrl(), getTransport());
+    }
+
+    /**
+     * Счетчики попаданий, промахов и вытеснений кэша; пустые, если кэш выключен
+     */
+    public CacheStats getCacheStats() {
+        return petCache.stats();
+    }
+
+    private static Pet copyOf(Pet pet) {
+        Category category = pet.getCategory();
+        List<Tag> tags = null;
+        if (pet.getTags() != null) {
+            tags = new ArrayList<>(pet.getTags().size());
+            for (Tag tag : pet.getTags()) {
+                tags.add(tag == null ? null : new Tag(tag.getId(), tag.getName()));
+            }
+        }
+        return new Pet(pet.getId(),
+            category == null ? null : new Category(category.getId(), category.getName()),
+            pet.getName(),
+            pet.getPhotoUrls() == null ? null : new ArrayList<>(pet.getPhotoUrls()),
+            tags,
+            pet.getStatus());
+    }
+}
@@ -0,0 +1,101 @@
+package com.petstore.client;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.petstore.config.CacheConfig;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through кэш успешных типизированных ответов клиента. Ответы вне 2xx не кэшируются.
+ * Без {@link CacheConfig} кэш выключен и каждый вызов идет в сеть.
+ * <p>
+ * Кэш асинхронный: в карте лежит future загрузки, а сама загрузка идет в вызывающем потоке вне
+ * блокировок карты, поэтому медленное чтение не задерживает ни другие ключи, ни сброс своего.
+ * Одновременные промахи одного ключа ждут одну загрузку. {@link #invalidate} убирает и незавершенную
+ * загрузку, так что ответ, прочитанный до записи, не переживает сброс.
+ * Модели изменяемые, поэтому каждый вызывающий получает свою копию тела, а не общий экземпляр из кэша.
+ */
+final class ReadCache<K, V> {
+    private final AsyncCache<K, ApiResult<V>> cache;
+    private final UnaryOperator<V> copy;
+
+    private ReadCache(AsyncCache<K, ApiResult<V>> cache, UnaryOperator<V> copy) {
+        this.cache = cache;
+        this.copy = copy;
+    }
+
+    /**
+     * @param copy глубокая копия тела, которую получает каждый вызывающий
+     */
+    static <K, V> ReadCache<K, V> create(CacheConfig config, Duration ttl, UnaryOperator<V> copy) {
+        if (config == null) {
+            return new ReadCache<>(null, copy);
+        }
+        return new ReadCache<>(Caffeine.newBuilder()
+            .maximumSize(config.getMaximumSize())
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync(), copy);
+    }
+
+    /**
+     * Загрузку выполняет вызывающий, чья future попала в кэш; неуспешный ответ завершает ее {@code null},
+     * что убирает запись, и ждавшие загружают ключ заново
+     */
+    ApiResult<V> get(K key, Function<K, ApiResult<V>> loader) {
+        if (cache == null) {
+            return loader.apply(key);
+        }
+        while (true) {
+            CompletableFuture<ApiResult<V>> own = new CompletableFuture<>();
+            CompletableFuture<ApiResult<V>> entry = cache.get(key, (k, executor) -> own);
+            ApiResult<V> cached;
+            if (entry == own) {
+                ApiResult<V> loaded;
+                try {
+                    loaded = loader.apply(key);
+                } catch (RuntimeException | Error e) {
+                    own.completeExceptionally(e);
+                    throw e;
+                }
+                if (!loaded.isSuccessful()) {
+                    own.complete(null);
+                    return loaded;
+                }
+                cached = new ApiResult<>(loaded.getStatusCode(), Collections.unmodifiableMap(loaded.getHeaders()),
+                    loaded.getBody(), loaded.getError());
+                own.complete(cached);
+            } else {
+                cached = BaseApiClient.join(entry);
+                if (cached == null) {
+                    continue;
+                }
+            }
+            V body = cached.getBody();
+            return new ApiResult<>(cached.getStatusCode(), cached.getHeaders(), body == null ? null : copy.apply(body),
+                cached.getError());
+        }
+    }
+
+    void invalidate(K key) {
+        if (cache != null && key != null) {
+            cache.synchronous().invalidate(key);
+        }
+    }
+
+    void invalidateAll() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.synchronous().stats();
+    }
+}
@@ -0,0 +1,68 @@
+package com.petstore.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Склеивает одновременные одинаковые вызовы: первый по ключу выполняет запрос, остальные
+ * ждут его результата вместо собственного запроса. Завершенный вызов сразу убирается,
+ * поэтому следующий после него идет в сеть заново. Без включенного склеивания вызов
+ * выполняется как есть.
+ * <p>
+ * Результат изменяемый, поэтому первый вызывающий получает свой результат, а каждый ждавший - свою копию.
+ */
+final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight;
+    private final UnaryOperator<V> copy;
+
+    private SingleFlight(ConcurrentMap<K, CompletableFuture<V>> inFlight, UnaryOperator<V> copy) {
+        this.inFlight = inFlight;
+        this.copy = copy;
+    }
+
+    /**
+     * @param copy глубокая копия результата для каждого ждавшего
+     */
+    static <K, V> SingleFlight<K, V> create(boolean enabled, UnaryOperator<V> copy) {
+        return new SingleFlight<>(enabled ? new ConcurrentHashMap<>() : null, copy);
+    }
+
+    V execute(K key, Supplier<V> call) {
+        if (inFlight == null) {
+            return call.get();
+        }
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, own);
+        if (leader != null) {
+            return copy.apply(await(leader));
+        }
+        try {
+            V value = call.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
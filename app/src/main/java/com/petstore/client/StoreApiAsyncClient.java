@@ -0,0 +1,72 @@
+package com.petstore.client;
+
+import com.petstore.config.ApiConfig;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.ApiResponse;
+import com.petstore.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронный аналог {@link StoreApiClient}
+ */
+public class StoreApiAsyncClient extends BaseAsyncApiClient {
+    private static final Logger log = LoggerFactory.getLogger(StoreApiAsyncClient.class);
+    private static final String STORE_PATH = "/store";
+
+    public StoreApiAsyncClient() {
+        this(ApiConfig.BASE_URL);
+    }
+
+    public StoreApiAsyncClient(String baseUrl) {
+        super(baseUrl);
+    }
+
+    public StoreApiAsyncClient(String baseUrl, HttpTransport transport) {
+        super(baseUrl, transport);
+    }
+
+    @Override
+    protected String pathTemplate(String path) {
+        return path.startsWith(STORE_PATH + "/order/") ? STORE_PATH + "/order/{orderId}" : path;
+    }
+
+    public CompletableFuture<Map<String, Integer>> getInventory() {
+        log.debug("Getting store inventory");
+        return send(request(STORE_PATH + "/inventory").GET().build(), JacksonConfig.INVENTORY);
+    }
+
+    public CompletableFuture<Map<String, Integer>> getInventoryWithAuth(String apiKey) {
+        log.debug("Getting store inventory with API key");
+        return send(request(STORE_PATH + "/inventory")
+            .header("api_key", apiKey)
+            .GET()
+            .build(), JacksonConfig.INVENTORY);
+    }
+
+    public CompletableFuture<Map<String, Integer>> getInventoryWithOAuth(String token) {
+        log.debug("Getting store inventory with OAuth token");
+        return send(request(STORE_PATH + "/inventory")
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build(), JacksonConfig.INVENTORY);
+    }
+
+    public CompletableFuture<Order> placeOrder(Order order) {
+        log.debug("Placing order for pet: {}", order);
+        return send(request(STORE_PATH + "/order").POST(jsonBody(order)).build(), Order.class);
+    }
+
+    public CompletableFuture<Order> getOrderById(long orderId) {
+        log.debug("Getting order by ID: {}", orderId);
+        return send(request(STORE_PATH + "/order/" + orderId).GET().build(), Order.class);
+    }
+
+    public CompletableFuture<ApiResponse> deleteOrder(long orderId) {
+        log.debug("Deleting order by ID: {}", orderId);
+        return send(request(STORE_PATH + "/order/" + orderId).DELETE().build(), ApiResponse.class);
+    }
+}
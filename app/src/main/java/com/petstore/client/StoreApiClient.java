@@ -1,59 +1,188 @@
 package com.petstore.client;
 
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.petstore.config.ApiConfig;
+import com.petstore.config.CacheConfig;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.ApiResponse;
 import com.petstore.model.Order;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static io.restassured.RestAssured.given;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class StoreApiClient extends BaseApiClient {
     private static final Logger log = LoggerFactory.getLogger(StoreApiClient.class);
     private static final String STORE_PATH = "/store";
+    private static final ObjectReader ORDER_READER = JacksonConfig.readerFor(Order.class);
+    private static final ObjectReader INVENTORY_READER = JacksonConfig.readerFor(JacksonConfig.INVENTORY);
+    private static final ObjectReader API_RESPONSE_READER = JacksonConfig.readerFor(ApiResponse.class);
+    private static final ObjectWriter ORDER_WRITER = JacksonConfig.writerFor(Order.class);
+
+    private final ReadCache<Long, Order> orderCache;
+    private final SingleFlight<Long, ApiResult<Order>> orderReads;
+    private final SingleFlight<String, ApiResult<Map<String, Integer>>> inventoryReads;
+
+    public StoreApiClient() {
+        this(ApiConfig.BASE_URL);
+    }
+
+    public StoreApiClient(String baseUrl) {
+        this(baseUrl, HttpTransport.shared());
+    }
+
+    public StoreApiClient(String baseUrl, HttpTransport transport) {
+        this(baseUrl, transport, null);
+    }
+
+    /**
+     * Клиент с кэшем {@link #getOrderByIdResult}; размещение и удаление заказа через этот же
+     * клиент сбрасывают закэшированный заказ. {@code null} - без кэша.
+     */
+    public StoreApiClient(String baseUrl, HttpTransport transport, CacheConfig cacheConfig) {
+        super(baseUrl, transport);
+        orderCache = ReadCache.create(cacheConfig, cacheConfig != null ? cacheConfig.getOrderTtl() : null,
+            StoreApiClient::copyOf);
+        orderReads = SingleFlight.create(transport.getConfig().isCoalesceReads(),
+            result -> result.copy(StoreApiClient::copyOf));
+        inventoryReads = SingleFlight.create(transport.getConfig().isCoalesceReads(),
+            result -> result.copy(LinkedHashMap::new));
+    }
+
+    @Override
+    protected String metricName(String method, String path) {
+        return switch (path) {
+            case STORE_PATH + "/inventory" -> "store.getInventory";
+            case STORE_PATH + "/order" -> "store.placeOrder";
+            case STORE_PATH + "/order/{orderId}" -> "GET".equals(method) ? "store.getOrderById" : "store.deleteOrder";
+            default -> super.metricName(method, path);
+        };
+    }
 
     public Response getInventory() {
-        log.info("Getting store inventory");
-        return given()
-            .spec(getRequestSpec())
-            .get(STORE_PATH + "/inventory");
+        log.debug("Getting store inventory");
+        return inventory(Map.of());
     }
 
     public Response getInventoryWithAuth(String apiKey) {
-        log.info("Getting store inventory with API key: {}", apiKey);
-        return given()
-            .spec(getRequestSpec())
-            .header("api_key", apiKey)
-            .get(STORE_PATH + "/inventory");
+        log.debug("Getting store inventory with API key");
+        return inventory(Map.of("api_key", apiKey));
     }
 
     public Response getInventoryWithOAuth(String token) {
-        log.info("Getting store inventory with OAuth token: {}", token);
-        return given()
-            .spec(getRequestSpec())
+        log.debug("Getting store inventory with OAuth token");
+        return request()
             .auth()
             .oauth2(token)
             .get(STORE_PATH + "/inventory");
     }
 
+    private Response inventory(Map<String, String> headers) {
+        return request()
+            .headers(headers)
+            .get(STORE_PATH + "/inventory");
+    }
+
     public Response placeOrder(Order order) {
-        log.info("Placing order for pet: {}", order);
-        return given()
-            .spec(getRequestSpec())
-            .body(order)
+        log.debug("Placing order for pet: {}", order);
+        Response response = request()
+            .body(toBody(order, ORDER_WRITER))
             .post(STORE_PATH + "/order");
+        orderCache.invalidate(order.getId());
+        return response;
     }
 
     public Response getOrderById(Long orderId) {
-        log.info("Getting order by ID: {}", orderId);
-        return given()
-            .spec(getRequestSpec())
+        return getOrderById(orderId, Map.of());
+    }
+
+    private Response getOrderById(Long orderId, Map<String, String> headers) {
+        log.debug("Getting order by ID: {}", orderId);
+        return request()
+            .headers(headers)
             .get(STORE_PATH + "/order/{orderId}", orderId);
     }
 
     public Response deleteOrder(Long orderId) {
-        log.info("Deleting order by ID: {}", orderId);
-        return given()
-            .spec(getRequestSpec())
+        log.debug("Deleting order by ID: {}", orderId);
+        Response response = request()
             .delete(STORE_PATH + "/order/{orderId}", orderId);
+        orderCache.invalidate(orderId);
+        return response;
+    }
+
+    /**
+     * Остатки по статусам; при {@link com.petstore.config.TransportConfig#isCoalesceReads()}
+     * одновременные вызовы разделяют один запрос, а при {@link com.petstore.config.TransportConfig#getHedging()}
+     * медленный запрос хеджируется
+     */
+    public ApiResult<Map<String, Integer>> getInventoryResult() {
+        return inventoryReads.execute("inventory", () -> inventoryResult(Map.of()));
+    }
+
+    public ApiResult<Map<String, Integer>> getInventoryWithAuthResult(String apiKey) {
+        return inventoryResult(Map.of("api_key", apiKey));
+    }
+
+    /**
+     * Остатки с OAuth токеном; токен уходит заголовком Authorization, как и у {@link #getInventoryWithOAuth}
+     */
+    public ApiResult<Map<String, Integer>> getInventoryWithOAuthResult(String token) {
+        return inventoryResult(Map.of("Authorization", "Bearer " + token));
+    }
+
+    /**
+     * Остатки под заголовками вызова; при {@link com.petstore.config.TransportConfig#isConditionalReads()}
+     * валидаторы запоминаются отдельно для каждого набора учетных данных
+     */
+    private ApiResult<Map<String, Integer>> inventoryResult(Map<String, String> headers) {
+        return idempotentRead("GET /store/inventory", STORE_PATH + "/inventory", headers, INVENTORY_READER,
+            LinkedHashMap::new,
+            validators -> {
+                Map<String, String> all = new LinkedHashMap<>(headers);
+                all.putAll(validators);
+                return inventory(all);
+            });
+    }
+
+    public ApiResult<Order> placeOrderResult(Order order) {
+        return toResult(placeOrder(order), ORDER_READER);
+    }
+
+    /**
+     * Заказ по id; при включенном кэше повторные чтения до истечения TTL обходятся без сети,
+     * а при {@link com.petstore.config.TransportConfig#getHedging()} медленный запрос хеджируется
+     */
+    public ApiResult<Order> getOrderByIdResult(Long orderId) {
+        return orderCache.get(orderId, id -> orderReads.execute(id, () ->
+            idempotentRead("GET /store/order/{orderId}", STORE_PATH + "/order/" + encode(id), ORDER_READER,
+                StoreApiClient::copyOf,
+                validators -> getOrderById(id, validators))));
+    }
+
+    public ApiResult<ApiResponse> deleteOrderResult(Long orderId) {
+        return toResult(deleteOrder(orderId), API_RESPONSE_READER);
+    }
+
+    /**
+     * Счетчики попаданий, промахов и вытеснений кэша; пустые, если кэш выключен
+     */
+    public CacheStats getCacheStats() {
+        return orderCache.stats();
+    }
+
+    private static Order copyOf(Order order) {
+        Order copy = new Order();
+        copy.setId(order.getId());
+        copy.setPetId(order.getPetId());
+        copy.setQuantity(order.getQuantity());
+        copy.setShipDate(order.getShipDate());
+        copy.setStatus(order.getStatus());
+        copy.setComplete(order.getComplete());
+        return copy;
     }
-} 
\ No newline at end of file
+}
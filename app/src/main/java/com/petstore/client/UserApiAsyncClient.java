@@ -0,0 +1,141 @@
+package com.petstore.client;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.petstore.config.ApiConfig;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.ApiResponse;
+import com.petstore.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Асинхронный аналог {@link UserApiClient}
+ */
+public class UserApiAsyncClient extends BaseAsyncApiClient {
+    private static final Logger log = LoggerFactory.getLogger(UserApiAsyncClient.class);
+    private static final String USER_PATH = "/user";
+    private static final ObjectWriter USER_WRITER = JacksonConfig.writerFor(User.class);
+
+    public UserApiAsyncClient() {
+        this(ApiConfig.BASE_URL);
+    }
+
+    public UserApiAsyncClient(String baseUrl) {
+        super(baseUrl);
+    }
+
+    public UserApiAsyncClient(String baseUrl, HttpTransport transport) {
+        super(baseUrl, transport);
+    }
+
+    @Override
+    protected String pathTemplate(String path) {
+        return switch (path) {
+            case USER_PATH, USER_PATH + "/createWithList", USER_PATH + "/createWithArray", USER_PATH + "/login",
+                 USER_PATH + "/logout" -> path;
+            default -> path.startsWith(USER_PATH + "/") ? USER_PATH + "/{username}" : path;
+        };
+    }
+
+    public CompletableFuture<ApiResponse> createUsersWithList(List<User> users) {
+        log.debug("Creating {} users with list", users.size());
+        return send(request(USER_PATH + "/createWithList").POST(jsonBody(users)).build(), ApiResponse.class);
+    }
+
+    /**
+     * Создает пользователей порциями по {@code chunkSize} через createWithList, держа в полете не
+     * больше {@code concurrency} порций. Источник читается лениво, а каждая порция сериализуется
+     * прямо в тело запроса, поэтому память ограничена размером порции, умноженным на параллельность.
+     * Неуспешная порция не прерывает остальные и видна в своем элементе результата.
+     */
+    public CompletableFuture<BulkResult<List<User>, ApiResponse>> createUsersInChunks(Iterator<? extends User> users,
+                                                                                     int chunkSize, int concurrency,
+                                                                                     Consumer<BulkProgress> progress) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        log.debug("Creating users in chunks of {} with concurrency {}", chunkSize, concurrency);
+        return new BulkExecutor<List<User>, ApiResponse>(chunks(users, chunkSize), this::createUsersChunk,
+            concurrency, progress).start();
+    }
+
+    public CompletableFuture<BulkResult<List<User>, ApiResponse>> createUsersInChunks(Stream<? extends User> users,
+                                                                                     int chunkSize, int concurrency) {
+        return createUsersInChunks(users.iterator(), chunkSize, concurrency, progress -> { })
+            .whenComplete((result, error) -> users.close());
+    }
+
+    private CompletableFuture<ApiResponse> createUsersChunk(List<User> chunk) {
+        return send(request(USER_PATH + "/createWithList")
+                .setHeader("Content-Type", ApiConfig.CONTENT_TYPE)
+                .POST(jsonArrayBody(chunk, USER_WRITER))
+                .build(),
+            ApiResponse.class);
+    }
+
+    private static Iterator<List<User>> chunks(Iterator<? extends User> users, int chunkSize) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return users.hasNext();
+            }
+
+            @Override
+            public List<User> next() {
+                if (!users.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<User> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && users.hasNext()) {
+                    chunk.add(users.next());
+                }
+                return chunk;
+            }
+        };
+    }
+
+    public CompletableFuture<User> getUserByUsername(String username) {
+        log.debug("Getting user by username: {}", username);
+        return send(request(USER_PATH + "/" + encode(username)).GET().build(), User.class);
+    }
+
+    public CompletableFuture<ApiResponse> updateUser(String username, User user) {
+        log.debug("Updating user: {}", username);
+        return send(request(USER_PATH + "/" + encode(username)).PUT(jsonBody(user)).build(), ApiResponse.class);
+    }
+
+    public CompletableFuture<ApiResponse> deleteUser(String username) {
+        log.debug("Deleting user: {}", username);
+        return send(request(USER_PATH + "/" + encode(username)).DELETE().build(), ApiResponse.class);
+    }
+
+    public CompletableFuture<ApiResponse> login(String username, String password) {
+        log.debug("Logging in user: {}", username);
+        return send(request(USER_PATH + "/login?username=" + encode(username) + "&password=" + encode(password))
+            .GET()
+            .build(), ApiResponse.class);
+    }
+
+    public CompletableFuture<ApiResponse> logout() {
+        log.debug("Logging out user");
+        return send(request(USER_PATH + "/logout").GET().build(), ApiResponse.class);
+    }
+
+    public CompletableFuture<ApiResponse> createUsersWithArray(User[] users) {
+        log.debug("Creating {} users with array", users.length);
+        return send(request(USER_PATH + "/createWithArray").POST(jsonBody(users)).build(), ApiResponse.class);
+    }
+
+    public CompletableFuture<ApiResponse> createUser(User user) {
+        log.debug("Creating user: {}", user.getUsername());
+        return send(request(USER_PATH).POST(jsonBody(user)).build(), ApiResponse.class);
+    }
+}
@@ -1,36 +1,83 @@
 package com.petstore.client;
 
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.petstore.config.ApiConfig;
+import com.petstore.config.CacheConfig;
+import com.petstore.config.JacksonConfig;
 import com.petstore.model.User;
 import com.petstore.model.ApiResponse;
-import io.restassured.RestAssured;
 import io.restassured.response.Response;
-import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-import static io.restassured.RestAssured.given;
-
-public class UserApiClient {
+public class UserApiClient extends BaseApiClient {
     private static final Logger log = LoggerFactory.getLogger(UserApiClient.class);
-    private final RequestSpecification requestSpec;
+    private static final ObjectReader USER_READER = JacksonConfig.readerFor(User.class);
+    private static final ObjectReader API_RESPONSE_READER = JacksonConfig.readerFor(ApiResponse.class);
+    private static final ObjectWriter USER_WRITER = JacksonConfig.writerFor(User.class);
+    private static final ObjectWriter USER_LIST_WRITER = JacksonConfig.writerFor(JacksonConfig.USER_LIST);
+    private static final ObjectWriter USER_ARRAY_WRITER = JacksonConfig.writerFor(User[].class);
+
+    private final ReadCache<String, User> userCache;
+    private final SingleFlight<String, ApiResult<User>> userReads;
 
     public UserApiClient() {
-        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
-        this.requestSpec = given()
-                .baseUri(ApiConfig.BASE_URL)
-                .contentType(ApiConfig.CONTENT_TYPE);
+        this(ApiConfig.BASE_URL);
+    }
+
+    public UserApiClient(String baseUrl) {
+        this(baseUrl, HttpTransport.shared());
+    }
+
+    public UserApiClient(String baseUrl, HttpTransport transport) {
+        this(baseUrl, transport, null);
+    }
+
+    /**
+     * Клиент с кэшем {@link #getUserByUsernameResult}; создание, изменение и удаление
+     * пользователя через этот же клиент сбрасывают закэшированную запись. {@code null} - без кэша.
+     */
+    public UserApiClient(String baseUrl, HttpTransport transport, CacheConfig cacheConfig) {
+        super(baseUrl, transport);
+        userCache = ReadCache.create(cacheConfig, cacheConfig != null ? cacheConfig.getUserTtl() : null,
+            UserApiClient::copyOf);
+        userReads = SingleFlight.create(transport.getConfig().isCoalesceReads(),
+            result -> result.copy(UserApiClient::copyOf));
+    }
+
+    @Override
+    protected String metricName(String method, String path) {
+        return switch (path) {
+            case "/user" -> "user.create";
+            case "/user/createWithList" -> "user.createWithList";
+            case "/user/createWithArray" -> "user.createWithArray";
+            case "/user/login" -> "user.login";
+            case "/user/logout" -> "user.logout";
+            case "/user/{username}" -> switch (method) {
+                case "GET" -> "user.getByUsername";
+                case "PUT" -> "user.update";
+                default -> "user.delete";
+            };
+            default -> super.metricName(method, path);
+        };
     }
 
     public Response createUsersWithList(List<User> users) {
-        log.info("Creating users with list: {}", users);
+        log.debug("Creating {} users with list", users.size());
         try {
-            Response response = requestSpec
-                    .body(users)
+            Response response = request()
+                    .body(toBody(users, USER_LIST_WRITER))
                     .post("/user/createWithList");
-            log.info("Create users with list response: {}", response.asPrettyString());
+            log.debug("Create users with list response status: {}", response.getStatusCode());
+            users.forEach(user -> userCache.invalidate(user.getUsername()));
             return response;
         } catch (Exception e) {
             log.error("Error creating users with list: {}", e.getMessage());
@@ -38,13 +85,38 @@ public class UserApiClient {
         }
     }
 
+    /**
+     * Порционное потоковое создание пользователей через асинхронный клиент на том же транспорте,
+     * см. {@link UserApiAsyncClient#createUsersInChunks(Iterator, int, int, Consumer)}
+     */
+    public BulkResult<List<User>, ApiResponse> createUsersInChunks(Iterator<? extends User> users, int chunkSize,
+                                                                  int concurrency, Consumer<BulkProgress> progress) {
+        BulkResult<List<User>, ApiResponse> result = new UserApiAsyncClient(getBaseUrl(), getTransport())
+            .createUsersInChunks(users, chunkSize, concurrency, progress)
+            .join();
+        userCache.invalidateAll();
+        return result;
+    }
+
+    public BulkResult<List<User>, ApiResponse> createUsersInChunks(Stream<? extends User> users, int chunkSize,
+                                                                  int concurrency) {
+        try (users) {
+            return createUsersInChunks(users.iterator(), chunkSize, concurrency, progress -> { });
+        }
+    }
+
     public Response getUserByUsername(String username) {
-        log.info("Getting user by username: {}", username);
+        return getUserByUsername(username, Map.of());
+    }
+
+    private Response getUserByUsername(String username, Map<String, String> headers) {
+        log.debug("Getting user by username: {}", username);
         try {
-            Response response = requestSpec
+            Response response = request()
+                    .headers(headers)
                     .pathParam("username", username)
                     .get("/user/{username}");
-            log.info("Get user response: {}", response.asPrettyString());
+            log.debug("Get user response status: {}", response.getStatusCode());
             return response;
         } catch (Exception e) {
             log.error("Error getting user: {}", e.getMessage());
@@ -53,13 +125,15 @@ public class UserApiClient {
     }
 
     public Response updateUser(String username, User user) {
-        log.info("Updating user: {} with data: {}", username, user);
+        log.debug("Updating user: {}", username);
         try {
-            Response response = requestSpec
+            Response response = request()
                     .pathParam("username", username)
-                    .body(user)
+                    .body(toBody(user, USER_WRITER))
                     .put("/user/{username}");
-            log.info("Update user response: {}", response.asPrettyString());
+            log.debug("Update user response status: {}", response.getStatusCode());
+            userCache.invalidate(username);
+            userCache.invalidate(user.getUsername());
             return response;
         } catch (Exception e) {
             log.error("Error updating user: {}", e.getMessage());
@@ -68,16 +142,17 @@ public class UserApiClient {
     }
 
     public Response deleteUser(String username) {
-        log.info("Deleting user: {}", username);
+        log.debug("Deleting user: {}", username);
         try {
-            Response response = requestSpec
+            Response response = request()
                     .pathParam("username", username)
                     .when()
                     .delete("/user/{username}")
                     .then()
                     .extract()
                     .response();
-            log.info("Delete user response: {}", response.asPrettyString());
+            log.debug("Delete user response status: {}", response.getStatusCode());
+            userCache.invalidate(username);
             return response;
         } catch (Exception e) {
             log.error("Error deleting user: {}", e.getMessage());
@@ -86,13 +161,13 @@ public class UserApiClient {
     }
 
     public Response login(String username, String password) {
-        log.info("Logging in user: {}", username);
+        log.debug("Logging in user: {}", username);
         try {
-            Response response = requestSpec
+            Response response = request()
                     .queryParam("username", username)
                     .queryParam("password", password)
                     .get("/user/login");
-            log.info("Login response: {}", response.asPrettyString());
+            log.debug("Login response status: {}", response.getStatusCode());
             return response;
         } catch (Exception e) {
             log.error("Error logging in: {}", e.getMessage());
@@ -101,11 +176,11 @@ public class UserApiClient {
     }
 
     public Response logout() {
-        log.info("Logging out user");
+        log.debug("Logging out user");
         try {
-            Response response = requestSpec
+            Response response = request()
                     .get("/user/logout");
-            log.info("Logout response: {}", response.asPrettyString());
+            log.debug("Logout response status: {}", response.getStatusCode());
             return response;
         } catch (Exception e) {
             log.error("Error logging out: {}", e.getMessage());
@@ -114,12 +189,15 @@ public class UserApiClient {
     }
 
     public Response createUsersWithArray(User[] users) {
-        log.info("Creating users with array: {}", (Object) users);
+        log.debug("Creating {} users with array", users.length);
         try {
-            Response response = requestSpec
-                    .body(users)
+            Response response = request()
+                    .body(toBody(users, USER_ARRAY_WRITER))
                     .post("/user/createWithArray");
-            log.info("Create users with array response: {}", response.asPrettyString());
+            log.debug("Create users with array response status: {}", response.getStatusCode());
+            for (User user : users) {
+                userCache.invalidate(user.getUsername());
+            }
             return response;
         } catch (Exception e) {
             log.error("Error creating users with array: {}", e.getMessage());
@@ -128,16 +206,55 @@ public class UserApiClient {
     }
 
     public Response createUser(User user) {
-        log.info("Creating user: {}", user);
+        log.debug("Creating user: {}", user.getUsername());
         try {
-            Response response = requestSpec
-                    .body(user)
+            Response response = request()
+                    .body(toBody(user, USER_WRITER))
                     .post("/user");
-            log.info("Create user response: {}", response.asPrettyString());
+            log.debug("Create user response status: {}", response.getStatusCode());
+            userCache.invalidate(user.getUsername());
             return response;
         } catch (Exception e) {
             log.error("Error creating user: {}", e.getMessage());
             throw e;
         }
     }
-} 
\ No newline at end of file
+
+    public ApiResult<ApiResponse> createUserResult(User user) {
+        return toResult(createUser(user), API_RESPONSE_READER);
+    }
+
+    /**
+     * Пользователь по имени; при включенном кэше повторные чтения до истечения TTL обходятся без сети,
+     * а при {@link com.petstore.config.TransportConfig#getHedging()} медленный запрос хеджируется
+     */
+    public ApiResult<User> getUserByUsernameResult(String username) {
+        return userCache.get(username, name -> userReads.execute(name, () ->
+            idempotentRead("GET /user/{username}", "/user/" + encode(name), USER_READER, UserApiClient::copyOf,
+                validators -> getUserByUsername(name, validators))));
+    }
+
+    public ApiResult<ApiResponse> updateUserResult(String username, User user) {
+        return toResult(updateUser(username, user), API_RESPONSE_READER);
+    }
+
+    public ApiResult<ApiResponse> deleteUserResult(String username) {
+        return toResult(deleteUser(username), API_RESPONSE_READER);
+    }
+
+    public ApiResult<ApiResponse> loginResult(String username, String password) {
+        return toResult(login(username, password), API_RESPONSE_READER);
+    }
+
+    /**
+     * Счетчики попаданий, промахов и вытеснений кэша; пустые, если кэш выключен
+     */
+    public CacheStats getCacheStats() {
+        return userCache.stats();
+    }
+
+    private static User copyOf(User user) {
+        return new User(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(),
+            user.getEmail(), user.getPassword(), user.getPhone(), user.getUserStatus());
+    }
+}
@@ -0,0 +1,95 @@
+package com.petstore.client.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гистограмма задержек в духе HdrHistogram: до 64 мкс корзины по одной микросекунде, дальше
+ * на каждую степень двойки 32 корзины, то есть относительная погрешность не больше ~3%.
+ * Задержки больше ~9.5 часов попадают в последнюю корзину.
+ * <p>
+ * Запись - инкремент одной ячейки без выделения памяти. Счетчики разбиты на полосы по потокам,
+ * чтобы одновременные записи из разных потоков реже били в одну строку кэша.
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_BITS = 6;
+    private static final int LINEAR = 1 << LINEAR_BITS;
+    private static final int SUB_BUCKETS = LINEAR / 2;
+    private static final int MAX_MSB = 35;
+    static final int BUCKETS = LINEAR + (MAX_MSB - LINEAR_BITS + 1) * SUB_BUCKETS;
+    private static final int MAX_STRIPES = 4;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    public LatencyHistogram() {
+        int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+        stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+        stripeMask = stripeCount - 1;
+    }
+
+    @SuppressWarnings("deprecation") // Thread.threadId() появился только в Java 19
+    public void record(long nanos) {
+        int stripe = (int) (Thread.currentThread().getId() * 0x9E3779B9L >>> 16) & stripeMask;
+        stripes[stripe].incrementAndGet(index(TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Счетчики всех полос, сложенные по корзинам
+     */
+    long[] counts() {
+        long[] counts = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return counts;
+    }
+
+    static int index(long micros) {
+        if (micros < LINEAR) {
+            return (int) Math.max(0, micros);
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(micros);
+        if (msb > MAX_MSB) {
+            return BUCKETS - 1;
+        }
+        int shift = msb - LINEAR_BITS + 1;
+        return LINEAR + (msb - LINEAR_BITS) * SUB_BUCKETS + (int) (micros >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Наибольшее значение в микросекундах, попадающее в корзину {@code index}
+     */
+    static long highestValue(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int octave = (index - LINEAR) / SUB_BUCKETS;
+        long sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = octave + 1;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Значение квантиля {@code quantile} в микросекундах по сложенным счетчикам
+     */
+    static long valueAt(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(counts.length - 1);
+    }
+}
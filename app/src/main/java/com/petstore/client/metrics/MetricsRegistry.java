@@ -0,0 +1,184 @@
+package com.petstore.client.metrics;
+
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.MultiPartSpecification;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+/**
+ * Метрики клиентов одного транспорта по операциям: число запросов, ошибки по кодам, отправленные
+ * и полученные байты и гистограмма задержек. Операции заводятся при первом вызове; снимок
+ * доступен как объекты ({@link #snapshot()}) или в текстовом формате Prometheus ({@link #toText()}).
+ */
+public class MetricsRegistry {
+    private static final String PREFIX = "petstore_client_";
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    /**
+     * Метрики операции {@code operation}, например {@code "pet.getById"}
+     */
+    public OperationMetrics operation(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        return metrics != null ? metrics : operations.computeIfAbsent(operation, OperationMetrics::new);
+    }
+
+    /**
+     * Фильтр RestAssured, записывающий каждый вызов под именем, которое {@code naming} дает
+     * по методу и шаблону пути запроса. Задержка считается от входа в фильтр до ответа, то есть
+     * вместе с повторами и ожиданием лимитов, как ее видит вызывающий.
+     */
+    public Filter filter(BiFunction<String, String, String> naming) {
+        return (requestSpec, responseSpec, context) -> {
+            OperationMetrics metrics = operation(naming.apply(requestSpec.getMethod(), requestSpec.getUserDefinedPath()));
+            long start = System.nanoTime();
+            Response response = null;
+            try {
+                response = context.next(requestSpec, responseSpec);
+                return response;
+            } finally {
+                // finally, а не catch: RestAssured пробрасывает и проверяемые исключения вроде ConnectException
+                long elapsed = System.nanoTime() - start;
+                if (response != null) {
+                    metrics.record(response.getStatusCode(), requestBytes(requestSpec), responseBytes(response), elapsed);
+                } else {
+                    metrics.record(OperationMetrics.NO_RESPONSE, requestBytes(requestSpec), 0, elapsed);
+                }
+            }
+        };
+    }
+
+    /**
+     * Снимок всех операций, упорядоченный по имени
+     */
+    public Map<String, OperationSnapshot> snapshot() {
+        Map<String, OperationSnapshot> snapshot = new TreeMap<>();
+        operations.forEach((name, metrics) -> snapshot.put(name, metrics.snapshot()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Метрики в текстовом формате Prometheus (text exposition 0.0.4); задержки - summary в секундах
+     */
+    public String toText() {
+        Map<String, OperationSnapshot> snapshot = snapshot();
+        StringBuilder sb = new StringBuilder(256 + snapshot.size() * 512);
+        header(sb, "requests_total", "counter", "Calls per operation");
+        snapshot.values().forEach(s -> sample(sb, "requests_total", s, null, s.getRequests()));
+        header(sb, "errors_total", "counter", "Failed calls per operation and status, status 0 means no response");
+        snapshot.values().forEach(s -> s.getErrors().forEach((status, count) ->
+            sample(sb, "errors_total", s, "status=\"" + status + "\"", count)));
+        header(sb, "bytes_sent_total", "counter", "Request body bytes per operation");
+        snapshot.values().forEach(s -> sample(sb, "bytes_sent_total", s, null, s.getBytesSent()));
+        header(sb, "bytes_received_total", "counter", "Response body bytes per operation");
+        snapshot.values().forEach(s -> sample(sb, "bytes_received_total", s, null, s.getBytesReceived()));
+        header(sb, "latency_seconds", "summary", "Call latency per operation");
+        for (OperationSnapshot s : snapshot.values()) {
+            for (double quantile : QUANTILES) {
+                sample(sb, "latency_seconds", s, "quantile=\"" + quantile + "\"", seconds(s.getLatency(quantile).toNanos()));
+            }
+            sample(sb, "latency_seconds_sum", s, null, seconds(s.getTotalLatency().toNanos()));
+            sample(sb, "latency_seconds_count", s, null, s.getRequests());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Забывает все операции, например между прогонами нагрузки
+     */
+    public void reset() {
+        operations.clear();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n')
+            .append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, OperationSnapshot snapshot, String label, Object value) {
+        sb.append(PREFIX).append(name).append("{operation=\"");
+        escape(sb, snapshot.getOperation());
+        sb.append('"');
+        if (label != null) {
+            sb.append(',').append(label);
+        }
+        sb.append("} ").append(value).append('\n');
+    }
+
+    private static void escape(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '"' -> sb.append("\\\"");
+                case '\n' -> sb.append("\\n");
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.6f", nanos / 1e9);
+    }
+
+    private static long requestBytes(FilterableRequestSpecification requestSpec) {
+        long total = bodyBytes(requestSpec.getBody());
+        for (MultiPartSpecification part : requestSpec.getMultiPartParams()) {
+            total += bodyBytes(part.getContent());
+        }
+        return total;
+    }
+
+    private static long bodyBytes(Object body) {
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (body instanceof String text) {
+            return utf8Length(text);
+        }
+        if (body instanceof File file) {
+            return file.length();
+        }
+        return 0;
+    }
+
+    private static long responseBytes(Response response) {
+        String length = response.getHeader("Content-Length");
+        if (length != null) {
+            try {
+                return Long.parseLong(length);
+            } catch (NumberFormatException e) {
+                // дальше длина берется из тела
+            }
+        }
+        return response.asByteArray().length;
+    }
+
+    private static long utf8Length(String text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,79 @@
+package com.petstore.client.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики одной операции. Все счетчики полосатые ({@link LongAdder}, {@link LatencyHistogram}),
+ * запись не выделяет памяти; исключение - первый ответ с новым кодом ошибки, для которого
+ * один раз создается счетчик.
+ */
+public final class OperationMetrics {
+    /**
+     * Код вместо статуса, если ответа нет: сетевая ошибка, таймаут, отказ выключателя или лимита
+     */
+    public static final int NO_RESPONSE = 0;
+    private static final int MAX_STATUS = 599;
+
+    private final String operation;
+    private final LongAdder requests = new LongAdder();
+    private final AtomicReferenceArray<LongAdder> errors = new AtomicReferenceArray<>(MAX_STATUS + 1);
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * @param status ответ сервера или {@link #NO_RESPONSE}; ошибкой считается отсутствие ответа и коды от 400
+     */
+    public void record(int status, long sent, long received, long nanos) {
+        requests.increment();
+        if (status == NO_RESPONSE || status >= 400) {
+            int index = status < 0 || status > MAX_STATUS ? NO_RESPONSE : status;
+            LongAdder counter = errors.get(index);
+            if (counter == null) {
+                errors.compareAndSet(index, null, new LongAdder());
+                counter = errors.get(index);
+            }
+            counter.increment();
+        }
+        if (sent > 0) {
+            bytesSent.add(sent);
+        }
+        if (received > 0) {
+            bytesReceived.add(received);
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        latency.record(nanos);
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public OperationSnapshot snapshot() {
+        Map<Integer, Long> errorCounts = new TreeMap<>();
+        for (int status = 0; status <= MAX_STATUS; status++) {
+            LongAdder counter = errors.get(status);
+            if (counter != null) {
+                errorCounts.put(status, counter.sum());
+            }
+        }
+        long[] counts = latency.counts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return new OperationSnapshot(operation, requests.sum(), errorCounts, bytesSent.sum(), bytesReceived.sum(),
+            total, totalNanos.sum(), maxNanos.get(), counts);
+    }
+}
@@ -0,0 +1,93 @@
+package com.petstore.client.metrics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Снимок метрик операции на момент вызова {@link OperationMetrics#snapshot()}. Счетчики
+ * читаются без остановки записи, поэтому между собой они согласованы лишь приблизительно.
+ */
+public final class OperationSnapshot {
+    private final String operation;
+    private final long requests;
+    private final Map<Integer, Long> errors;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final long latencyCount;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] latencyCounts;
+
+    OperationSnapshot(String operation, long requests, Map<Integer, Long> errors, long bytesSent, long bytesReceived,
+                      long latencyCount, long totalNanos, long maxNanos, long[] latencyCounts) {
+        this.operation = operation;
+        this.requests = requests;
+        this.errors = Collections.unmodifiableMap(errors);
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.latencyCount = latencyCount;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.latencyCounts = latencyCounts;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Число ошибок по коду ответа; {@link OperationMetrics#NO_RESPONSE} - вызовы без ответа
+     */
+    public Map<Integer, Long> getErrors() {
+        return errors;
+    }
+
+    public long getErrorCount() {
+        long total = 0;
+        for (long count : errors.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public Duration getTotalLatency() {
+        return Duration.ofNanos(totalNanos);
+    }
+
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxNanos);
+    }
+
+    public Duration getP50() {
+        return getLatency(0.5);
+    }
+
+    public Duration getP99() {
+        return getLatency(0.99);
+    }
+
+    public Duration getP999() {
+        return getLatency(0.999);
+    }
+
+    /**
+     * Задержка квантиля {@code quantile} с точностью корзины гистограммы, но не больше максимума
+     */
+    public Duration getLatency(double quantile) {
+        long micros = LatencyHistogram.valueAt(latencyCounts, latencyCount, quantile);
+        return Duration.ofNanos(Math.min(maxNanos, micros * 1000 + 999));
+    }
+}
@@ -0,0 +1,145 @@
+package com.petstore.client.resilience;
+
+import com.petstore.config.ResilienceConfig;
+
+/**
+ * Автоматический выключатель одной операции со скользящим окном последних вызовов.
+ * Замкнут - вызовы идут; разомкнут - отклоняются сразу; после паузы полуоткрыт и пропускает
+ * несколько пробных вызовов: их успех замыкает выключатель, любая неудача снова размыкает.
+ * <p>
+ * Каждая смена состояния начинает новое поколение, и итог вызова учитывается, только если вызов
+ * начат в текущем поколении: медленный вызов, начатый при замкнутом выключателе, не займет
+ * и не освободит место пробного вызова.
+ */
+public final class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String operation;
+    private final ResilienceConfig config;
+    private final CircuitBreakerListener listener;
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAtNanos;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(String operation, ResilienceConfig config, CircuitBreakerListener listener) {
+        this.operation = operation;
+        this.config = config;
+        this.listener = listener;
+        this.window = new boolean[Math.max(1, config.getBreakerWindowSize())];
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Разрешение на вызов: поколение, в котором вызов начат, для {@link #onSuccess}
+     * и {@link #onFailure}, или -1, если вызов нужно отклонить
+     */
+    long tryAcquire() {
+        State from;
+        long permit;
+        synchronized (this) {
+            from = state;
+            if (state == State.CLOSED) {
+                return generation;
+            }
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAtNanos < config.getBreakerOpenDuration().toNanos()) {
+                    return -1;
+                }
+                state = State.HALF_OPEN;
+                generation++;
+                halfOpenInFlight = 0;
+                halfOpenSuccesses = 0;
+            }
+            if (halfOpenInFlight >= config.getBreakerHalfOpenCalls()) {
+                return -1;
+            }
+            halfOpenInFlight++;
+            permit = generation;
+        }
+        if (from != State.HALF_OPEN) {
+            listener.onStateChange(operation, from, State.HALF_OPEN);
+        }
+        return permit;
+    }
+
+    void onSuccess(long permit) {
+        record(permit, false);
+    }
+
+    void onFailure(long permit) {
+        record(permit, true);
+    }
+
+    private void record(long permit, boolean failure) {
+        State from;
+        State to;
+        synchronized (this) {
+            if (permit != generation) {
+                return;
+            }
+            from = state;
+            if (state == State.HALF_OPEN) {
+                halfOpenInFlight--;
+                if (failure) {
+                    open();
+                } else if (++halfOpenSuccesses >= config.getBreakerHalfOpenCalls()) {
+                    close();
+                }
+            } else if (state == State.CLOSED) {
+                append(failure);
+                if (windowCount >= config.getBreakerMinimumCalls()
+                    && windowFailures >= config.getBreakerFailureRateThreshold() * windowCount) {
+                    open();
+                }
+            }
+            to = state;
+        }
+        if (from != to) {
+            listener.onStateChange(operation, from, to);
+        }
+    }
+
+    private void append(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        generation++;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        generation++;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
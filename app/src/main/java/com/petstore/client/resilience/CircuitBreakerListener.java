@@ -0,0 +1,12 @@
+package com.petstore.client.resilience;
+
+/**
+ * Наблюдатель смены состояний автоматического выключателя
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+    /**
+     * @param operation операция выключателя, например {@code "GET /pet/{petId}"}
+     */
+    void onStateChange(String operation, CircuitBreaker.State from, CircuitBreaker.State to);
+}
@@ -0,0 +1,17 @@
+package com.petstore.client.resilience;
+
+/**
+ * Вызов отклонен без запроса к серверу: выключатель операции разомкнут
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+    private final String operation;
+
+    public CircuitBreakerOpenException(String operation) {
+        super("Circuit breaker is open for " + operation);
+        this.operation = operation;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+}
@@ -0,0 +1,18 @@
+package com.petstore.client.resilience;
+
+/**
+ * Вызов отклонен без запроса к серверу: разрешения клиентского лимита не появится в пределах
+ * допустимого ожидания
+ */
+public class RateLimitExceededException extends RuntimeException {
+    private final String operation;
+
+    public RateLimitExceededException(String operation) {
+        super("Client rate limit exceeded for " + operation);
+        this.operation = operation;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+}
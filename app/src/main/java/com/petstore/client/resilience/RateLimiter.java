@@ -0,0 +1,98 @@
+package com.petstore.client.resilience;
+
+import com.petstore.config.RateLimitConfig;
+
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Клиентские лимиты запросов транспорта по {@link RateLimitConfig}. Корзины создаются заранее,
+ * поэтому выбор корзины - чтение неизменяемой карты, а взятие разрешения - CAS в {@link TokenBucket}.
+ * Операция без своего лимита и без лимита группы не ограничивается.
+ */
+public class RateLimiter {
+    private final Map<String, TokenBucket> buckets;
+    private final long maxWaitNanos;
+
+    public RateLimiter(RateLimitConfig config) {
+        Map<String, TokenBucket> buckets = new HashMap<>();
+        config.getLimits().forEach((key, limit) -> buckets.put(key, new TokenBucket(limit)));
+        this.buckets = Collections.unmodifiableMap(buckets);
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+    }
+
+    public static RateLimiter none() {
+        return new RateLimiter(RateLimitConfig.none());
+    }
+
+    /**
+     * Ждет разрешения для операции не дольше {@link RateLimitConfig#getMaxWait()}
+     *
+     * @param operation метод и путь, например {@code "POST /store/order"}
+     * @throws RateLimitExceededException если разрешения не дождаться в пределах ожидания
+     */
+    public void acquire(String operation) throws InterruptedIOException {
+        long wait = reserve(operation);
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for rate limit of " + operation);
+            }
+        }
+    }
+
+    /**
+     * Резервирует разрешение без ожидания в вызывающем потоке, для асинхронной отправки
+     *
+     * @return через сколько наносекунд можно отправить запрос
+     * @throws RateLimitExceededException если ждать пришлось бы дольше {@link RateLimitConfig#getMaxWait()}
+     */
+    public long reserve(String operation) {
+        TokenBucket bucket = bucketFor(operation);
+        if (bucket == null) {
+            return 0;
+        }
+        long wait = bucket.tryReserve(maxWaitNanos);
+        if (wait < 0) {
+            throw new RateLimitExceededException(operation);
+        }
+        return wait;
+    }
+
+    /**
+     * Берет свободное разрешение, если оно есть прямо сейчас
+     */
+    public boolean tryAcquire(String operation) {
+        TokenBucket bucket = bucketFor(operation);
+        return bucket == null || bucket.tryAcquire();
+    }
+
+    /**
+     * Корзина операции: своя или ее группы; {@code null}, если операция не ограничена
+     */
+    public TokenBucket bucketFor(String operation) {
+        if (buckets.isEmpty()) {
+            return null;
+        }
+        TokenBucket bucket = buckets.get(operation);
+        return bucket != null ? bucket : buckets.get(group(operation));
+    }
+
+    private static String group(String operation) {
+        int start = operation.indexOf('/');
+        if (start < 0) {
+            return operation;
+        }
+        int end = operation.indexOf('/', start + 1);
+        int query = operation.indexOf('?', start + 1);
+        if (query >= 0 && (end < 0 || query < end)) {
+            end = query;
+        }
+        return end < 0 ? operation.substring(start) : operation.substring(start, end);
+    }
+}
@@ -0,0 +1,341 @@
+package com.petstore.client.resilience;
+
+import com.petstore.config.ResilienceConfig;
+import com.petstore.config.RetryPolicy;
+import io.restassured.filter.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Повторы с экспоненциальной задержкой и джиттером, общий бюджет повторов и выключатели по операциям
+ * для одного транспорта. Синхронный вызов оборачивается в {@link #execute}; операцию (метод и шаблон пути)
+ * сообщает фильтр {@link #operationFilter()}, выполняющийся в том же потоке до отправки запроса.
+ * Асинхронный вызов оборачивается в {@link #executeAsync} с явной операцией. Бюджет и выключатели
+ * у обоих общие, поэтому синхронный и асинхронный клиенты одной операции видят одно состояние.
+ * Перед каждой попыткой, включая повторы, берется разрешение клиентского лимита {@link RateLimiter}.
+ */
+public class Resilience {
+    private static final Logger log = LoggerFactory.getLogger(Resilience.class);
+    private static final ThreadLocal<String> OPERATION = new ThreadLocal<>();
+
+    private final ResilienceConfig config;
+    private final RetryBudget budget;
+    private final CircuitBreakerListener listener;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
+
+    public Resilience(ResilienceConfig config) {
+        this(config, RateLimiter.none());
+    }
+
+    public Resilience(ResilienceConfig config, RateLimiter rateLimiter) {
+        this.config = config;
+        this.rateLimiter = rateLimiter;
+        this.budget = new RetryBudget(config.getRetryBudgetMaxTokens(), config.getRetryBudgetTokenRatio());
+        CircuitBreakerListener userListener = config.getBreakerListener();
+        this.listener = (operation, from, to) -> {
+            log.warn("Circuit breaker for {} changed from {} to {}", operation, from, to);
+            userListener.onStateChange(operation, from, to);
+        };
+    }
+
+    /**
+     * Одна попытка вызова
+     */
+    @FunctionalInterface
+    public interface Attempt<R> {
+        R call() throws IOException;
+    }
+
+    /**
+     * Фильтр RestAssured, запоминающий операцию текущего запроса для выбора политики и выключателя
+     */
+    public Filter operationFilter() {
+        return (requestSpec, responseSpec, context) -> {
+            String previous = OPERATION.get();
+            OPERATION.set(requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath());
+            try {
+                return context.next(requestSpec, responseSpec);
+            } finally {
+                if (previous == null) {
+                    OPERATION.remove();
+                } else {
+                    OPERATION.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Выполняет вызов с повторами по политике операции. Ответ с кодом из политики повторяется,
+     * пока есть попытки и бюджет, а промежуточные ответы отдаются в {@code discard}, чтобы
+     * освободить соединение. Последний ответ возвращается как есть.
+     *
+     * @param method     HTTP метод
+     * @param path       путь запроса; используется как операция, если ее не сообщил фильтр
+     * @param repeatable можно ли отправить тело запроса повторно
+     * @throws CircuitBreakerOpenException если выключатель операции разомкнут
+     * @throws RateLimitExceededException если разрешения лимита не дождаться
+     */
+    public <R> R execute(String method, String path, boolean repeatable, Attempt<R> attempt,
+                         ToIntFunction<R> statusOf, Consumer<R> discard) throws IOException {
+        String operation = OPERATION.get();
+        if (operation == null || !operation.startsWith(method + " ")) {
+            operation = method + " " + path;
+        }
+        if (!config.isEnabled()) {
+            rateLimiter.acquire(operation);
+            return attempt.call();
+        }
+        RetryPolicy policy = policyFor(method, operation);
+        int maxAttempts = repeatable ? policy.getMaxAttempts() : 1;
+        CircuitBreaker breaker = breakers.computeIfAbsent(operation, key -> new CircuitBreaker(key, config, listener));
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            // разрешение берется до выключателя, чтобы ожидание или отказ лимита не заняли пробный вызов
+            rateLimiter.acquire(operation);
+            long permit = breaker.tryAcquire();
+            if (permit < 0) {
+                throw new CircuitBreakerOpenException(operation);
+            }
+            R result;
+            try {
+                result = attempt.call();
+            } catch (IOException e) {
+                breaker.onFailure(permit);
+                budget.onFailure();
+                if (!policy.isRetryOnIoErrors() || !canRetry(attemptNumber, maxAttempts)) {
+                    throw e;
+                }
+                log.debug("Retrying {} after {} (attempt {})", operation, e.toString(), attemptNumber);
+                backoff(policy, attemptNumber);
+                continue;
+            } catch (RuntimeException | Error e) {
+                breaker.onFailure(permit);
+                throw e;
+            }
+            int status = statusOf.applyAsInt(result);
+            if (status >= 500) {
+                breaker.onFailure(permit);
+            } else {
+                breaker.onSuccess(permit);
+            }
+            if (!policy.getRetryStatuses().contains(status)) {
+                budget.onSuccess();
+                return result;
+            }
+            budget.onFailure();
+            if (!canRetry(attemptNumber, maxAttempts)) {
+                return result;
+            }
+            log.debug("Retrying {} after status {} (attempt {})", operation, status, attemptNumber);
+            discard.accept(result);
+            backoff(policy, attemptNumber);
+        }
+    }
+
+    /**
+     * Асинхронный {@link #execute}: ни ожидание разрешения лимита, ни пауза перед повтором не занимают поток,
+     * следующая попытка просто откладывается. Ошибка попытки с {@link IOException} считается сбоем
+     * ввода-вывода и повторяется по политике, остальные ошибки отдаются сразу.
+     * Отмена возвращенного future отменяет текущую попытку и прекращает повторы.
+     *
+     * @param operation метод и шаблон пути, например {@code "GET /pet/{petId}"}
+     * @param attempt   отправляет одну попытку
+     */
+    public <R> CompletableFuture<R> executeAsync(String method, String operation, boolean repeatable,
+                                                 Supplier<CompletableFuture<R>> attempt, ToIntFunction<R> statusOf,
+                                                 Consumer<R> discard) {
+        AsyncCall<R> call;
+        if (!config.isEnabled()) {
+            call = new AsyncCall<>(operation, RetryPolicy.none(), 1, null, attempt, statusOf, discard);
+        } else {
+            RetryPolicy policy = policyFor(method, operation);
+            call = new AsyncCall<>(operation, policy, repeatable ? policy.getMaxAttempts() : 1,
+                breakers.computeIfAbsent(operation, key -> new CircuitBreaker(key, config, listener)),
+                attempt, statusOf, discard);
+        }
+        call.attempt(1);
+        return call.result;
+    }
+
+    /**
+     * Выключатели по операциям; карта только для чтения и отражает текущее состояние
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableMap(breakers);
+    }
+
+    public CircuitBreaker.State getCircuitBreakerState(String operation) {
+        CircuitBreaker breaker = breakers.get(operation);
+        return breaker != null ? breaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    private RetryPolicy policyFor(String method, String operation) {
+        RetryPolicy policy = config.getOperationRetries().get(operation);
+        if (policy != null) {
+            return policy;
+        }
+        return config.getIdempotentMethods().contains(method) ? config.getDefaultRetry() : RetryPolicy.none();
+    }
+
+    private boolean canRetry(int attemptNumber, int maxAttempts) {
+        return attemptNumber < maxAttempts && budget.canRetry();
+    }
+
+    private static void backoff(RetryPolicy policy, int attemptNumber) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(backoffNanos(policy, attemptNumber));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+
+    private static long backoffNanos(RetryPolicy policy, int attemptNumber) {
+        long ceiling = Math.min(policy.getMaxBackoff().toNanos(),
+            policy.getInitialBackoff().toNanos() << Math.min(attemptNumber - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    private static void after(long nanos, Runnable action) {
+        if (nanos <= 0) {
+            action.run();
+        } else {
+            CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS).execute(action);
+        }
+    }
+
+    /**
+     * Состояние одного асинхронного вызова; попытки идут строго друг за другом, следующая
+     * запускается из завершения предыдущей. {@code breaker == null} - повторы и выключатели выключены.
+     */
+    private final class AsyncCall<R> {
+        private final String operation;
+        private final RetryPolicy policy;
+        private final int maxAttempts;
+        private final CircuitBreaker breaker;
+        private final Supplier<CompletableFuture<R>> attempt;
+        private final ToIntFunction<R> statusOf;
+        private final Consumer<R> discard;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        AsyncCall(String operation, RetryPolicy policy, int maxAttempts, CircuitBreaker breaker,
+                  Supplier<CompletableFuture<R>> attempt, ToIntFunction<R> statusOf, Consumer<R> discard) {
+            this.operation = operation;
+            this.policy = policy;
+            this.maxAttempts = maxAttempts;
+            this.breaker = breaker;
+            this.attempt = attempt;
+            this.statusOf = statusOf;
+            this.discard = discard;
+        }
+
+        void attempt(int attemptNumber) {
+            if (result.isDone()) {
+                return;
+            }
+            long wait;
+            try {
+                wait = rateLimiter.reserve(operation);
+            } catch (RateLimitExceededException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            // разрешение берется до выключателя, чтобы ожидание или отказ лимита не заняли пробный вызов
+            after(wait, () -> send(attemptNumber));
+        }
+
+        private void send(int attemptNumber) {
+            if (result.isDone()) {
+                return;
+            }
+            long permit = breaker != null ? breaker.tryAcquire() : 0;
+            if (permit < 0) {
+                result.completeExceptionally(new CircuitBreakerOpenException(operation));
+                return;
+            }
+            CompletableFuture<R> sent;
+            try {
+                sent = attempt.get();
+            } catch (RuntimeException | Error e) {
+                onFailure(permit);
+                result.completeExceptionally(e);
+                return;
+            }
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    sent.cancel(true);
+                }
+            });
+            sent.whenComplete((value, error) -> complete(attemptNumber, permit, value, error));
+        }
+
+        private void complete(int attemptNumber, long permit, R value, Throwable error) {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                onFailure(permit);
+                if (breaker != null && cause instanceof IOException) {
+                    budget.onFailure();
+                    if (policy.isRetryOnIoErrors() && canRetry(attemptNumber, maxAttempts)) {
+                        log.debug("Retrying {} after {} (attempt {})", operation, cause.toString(), attemptNumber);
+                        retry(attemptNumber);
+                        return;
+                    }
+                }
+                result.completeExceptionally(cause);
+                return;
+            }
+            if (breaker == null) {
+                result.complete(value);
+                return;
+            }
+            int status = statusOf.applyAsInt(value);
+            if (status >= 500) {
+                breaker.onFailure(permit);
+            } else {
+                breaker.onSuccess(permit);
+            }
+            if (!policy.getRetryStatuses().contains(status)) {
+                budget.onSuccess();
+                result.complete(value);
+                return;
+            }
+            budget.onFailure();
+            if (!canRetry(attemptNumber, maxAttempts) || result.isDone()) {
+                result.complete(value);
+                return;
+            }
+            log.debug("Retrying {} after status {} (attempt {})", operation, status, attemptNumber);
+            discard.accept(value);
+            retry(attemptNumber);
+        }
+
+        private void onFailure(long permit) {
+            if (breaker != null) {
+                breaker.onFailure(permit);
+            }
+        }
+
+        private void retry(int attemptNumber) {
+            after(backoffNanos(policy, attemptNumber), () -> attempt(attemptNumber + 1));
+        }
+    }
+}
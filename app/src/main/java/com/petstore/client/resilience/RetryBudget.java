@@ -0,0 +1,36 @@
+package com.petstore.client.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Бюджет повторов в тысячных долях жетона: неудача списывает жетон, успех возвращает часть,
+ * повтор разрешен, пока жетонов больше половины максимума
+ */
+final class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final long maxTokens;
+    private final long successTokens;
+    private final AtomicLong tokens;
+
+    RetryBudget(int maxTokens, double tokenRatio) {
+        this.maxTokens = maxTokens * SCALE;
+        this.successTokens = Math.round(tokenRatio * SCALE);
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    void onSuccess() {
+        if (tokens.get() >= maxTokens) {
+            return;
+        }
+        tokens.getAndUpdate(current -> Math.min(maxTokens, current + successTokens));
+    }
+
+    void onFailure() {
+        tokens.getAndUpdate(current -> Math.max(0, current - SCALE));
+    }
+
+    boolean canRetry() {
+        return tokens.get() > maxTokens / 2;
+    }
+}
@@ -0,0 +1,63 @@
+package com.petstore.client.resilience;
+
+import com.petstore.config.RateLimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Маркерная корзина без блокировок в виде GCRA: все состояние - одно время, когда корзина снова
+ * станет полной, и разрешение берется одним CAS. Разрешение можно зарезервировать наперед
+ * ({@link #tryReserve}): вызывающий получает, сколько ждать, и ждет сам, не удерживая общее состояние.
+ */
+public final class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(RateLimit limit) {
+        if (limit.getPermitsPerSecond() <= 0 || limit.getBurst() < 1) {
+            throw new IllegalArgumentException("Rate limit must allow at least one permit: " + limit);
+        }
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / limit.getPermitsPerSecond()));
+        this.toleranceNanos = intervalNanos * (limit.getBurst() - 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Резервирует разрешение, если его придется ждать не дольше {@code maxWaitNanos}
+     *
+     * @return сколько наносекунд ждать до отправки, 0 - можно сразу; -1 - не зарезервировано
+     */
+    public long tryReserve(long maxWaitNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = theoreticalArrival.get();
+            long start = arrival - now > 0 ? arrival : now;
+            long wait = start - toleranceNanos - now;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + intervalNanos)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Берет свободное разрешение без ожидания
+     */
+    public boolean tryAcquire() {
+        return tryReserve(0) == 0;
+    }
+
+    /**
+     * Ждет разрешения сколько потребуется
+     */
+    public void acquire() throws InterruptedException {
+        long wait = tryReserve(Long.MAX_VALUE);
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.petstore.config;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Настройки клиентского кэша чтений getPetById, getOrderById и getUserByUsername.
+ * Размер ограничивает каждый кэш по отдельности; вытеснение учитывает частоту обращений (W-TinyLFU).
+ */
+@Value
+@Builder
+public class CacheConfig {
+    @Builder.Default
+    long maximumSize = 10_000;
+
+    @Builder.Default
+    Duration petTtl = Duration.ofSeconds(30);
+
+    @Builder.Default
+    Duration orderTtl = Duration.ofSeconds(30);
+
+    @Builder.Default
+    Duration userTtl = Duration.ofMinutes(1);
+
+    public static CacheConfig defaults() {
+        return CacheConfig.builder().build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.petstore.config;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.zip.Deflater;
+
+/**
+ * Сжатие тел запросов и ответов клиентов.
+ * <p>
+ * Ответы: клиенты объявляют {@code Accept-Encoding: gzip, deflate} и распаковывают сжатые ответы
+ * на лету. Сервер сам решает, сжимать ли ответ, поэтому согласование включено по умолчанию.
+ * Запросы: тела JSON не короче {@link #minRequestSize} байт сжимаются gzip потоком при отправке
+ * и уходят с {@code Content-Encoding: gzip}. Сервер должен уметь такие тела распаковывать,
+ * поэтому сжатие запросов нужно включать явно. Multipart загрузки не сжимаются.
+ */
+@Value
+@Builder
+public class CompressionConfig {
+    /**
+     * Просить и распаковывать сжатые ответы
+     */
+    @Builder.Default
+    boolean acceptCompressed = true;
+
+    /**
+     * Сжимать тела запросов
+     */
+    @Builder.Default
+    boolean compressRequests = false;
+
+    /**
+     * Тела короче не сжимаются: выигрыш меньше заголовка gzip и затрат CPU.
+     * Тела неизвестной длины (потоковые массивы) сжимаются всегда.
+     */
+    @Builder.Default
+    int minRequestSize = 1024;
+
+    /**
+     * Уровень сжатия тел запросов от {@link Deflater#BEST_SPEED} до {@link Deflater#BEST_COMPRESSION}
+     */
+    @Builder.Default
+    int level = Deflater.BEST_SPEED;
+
+    public static CompressionConfig defaults() {
+        return CompressionConfig.builder().build();
+    }
+
+    /**
+     * Сжатие запросов от {@code minRequestSize} байт и согласование сжатых ответов
+     */
+    public static CompressionConfig gzip(int minRequestSize) {
+        return CompressionConfig.builder().compressRequests(true).minRequestSize(minRequestSize).build();
+    }
+}
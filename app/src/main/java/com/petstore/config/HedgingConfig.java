@@ -0,0 +1,65 @@
+package com.petstore.config;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Настройки хеджирования идемпотентных чтений getPetByIdResult, getInventoryResult,
+ * getOrderByIdResult и getUserByUsernameResult: если первый запрос не ответил за задержку, равную перцентилю
+ * {@link #percentile} недавних задержек операции, отправляется второй такой же запрос.
+ * Побеждает первый успешный ответ, проигравший отменяется.
+ * <p>
+ * Хеджированные чтения идут через {@link java.net.http.HttpClient} транспорта с тем же логированием,
+ * лимитом запросов в полете и клиентским лимитом {@link RateLimitConfig}. Пара из первого запроса и хеджа -
+ * одна попытка повторов {@link ResilienceConfig}, и ее исход учитывает выключатель операции.
+ */
+@Value
+@Builder
+public class HedgingConfig {
+    @Builder.Default
+    boolean enabled = false;
+
+    /**
+     * Перцентиль задержек операции, после которого отправляется хедж
+     */
+    @Builder.Default
+    double percentile = 0.95;
+
+    /**
+     * Задержка хеджа, пока по операции набрано меньше {@link #minSamples} замеров
+     */
+    @Builder.Default
+    Duration initialDelay = Duration.ofMillis(100);
+
+    @Builder.Default
+    Duration minDelay = Duration.ofMillis(5);
+
+    @Builder.Default
+    Duration maxDelay = Duration.ofSeconds(1);
+
+    /**
+     * Сколько последних замеров задержки операции учитывается в перцентиле
+     */
+    @Builder.Default
+    int windowSize = 100;
+
+    @Builder.Default
+    int minSamples = 20;
+
+    /**
+     * Бюджет хеджей транспорта: каждый хеджируемый вызов добавляет {@link #budgetRatio} жетона,
+     * хедж тратит целый жетон, запас не больше {@link #budgetMaxTokens}. Так хеджи добавляют не
+     * больше {@code budgetRatio} запросов сверх обычной нагрузки, даже когда медленно все.
+     */
+    @Builder.Default
+    double budgetRatio = 0.1;
+
+    @Builder.Default
+    int budgetMaxTokens = 10;
+
+    public static HedgingConfig defaults() {
+        return HedgingConfig.builder().build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.petstore.config;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * HTTP/2 транспорт: запросы мультиплексируются потоками поверх нескольких соединений с сервером
+ * вместо соединения на каждый одновременный запрос. Для http:// адресов соединение поднимается
+ * через h2c (Upgrade), если сервер его не поддерживает, остается HTTP/1.1.
+ * <p>
+ * Действует для запросов через {@link java.net.http.HttpClient}: асинхронных клиентов, потоковых
+ * чтений и типизированных идемпотентных чтений синхронных клиентов (getPetByIdResult,
+ * getOrderByIdResult и т.п.), которые при включенном HTTP/2 идут в обход RestAssured.
+ * Остальные вызовы RestAssured остаются на HTTP/1.1: Apache HttpClient 4 не умеет HTTP/2.
+ */
+@Value
+@Builder
+public class Http2Config {
+    @Builder.Default
+    boolean enabled = false;
+
+    /**
+     * Число соединений, между которыми по кругу распределяются запросы
+     */
+    @Builder.Default
+    int connections = 2;
+
+    /**
+     * Максимум одновременных потоков на соединение, 0 - без клиентского ограничения
+     * (остается лимит SETTINGS_MAX_CONCURRENT_STREAMS сервера). Запрос, которому не нашлось
+     * свободного потока ни в одном соединении, ждет его, как при лимите запросов в полете.
+     */
+    @Builder.Default
+    int maxStreamsPerConnection = 100;
+
+    public static Http2Config disabled() {
+        return Http2Config.builder().build();
+    }
+
+    public static Http2Config of(int connections, int maxStreamsPerConnection) {
+        return Http2Config.builder()
+            .enabled(true)
+            .connections(connections)
+            .maxStreamsPerConnection(maxStreamsPerConnection)
+            .build();
+    }
+}
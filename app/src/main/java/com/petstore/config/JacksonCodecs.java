@@ -0,0 +1,71 @@
+package com.petstore.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Кэш неизменяемых читателей и писателей одного {@link ObjectMapper} по формату {@link WireFormat} и типу.
+ * Перевод на фабрику формата создает новый объект, поэтому на каждый запрос его делать нельзя:
+ * здесь читатель и писатель каждого формата строятся один раз на тип.
+ */
+public final class JacksonCodecs {
+    private final ObjectMapper mapper;
+    private final Map<WireFormat, ConcurrentMap<JavaType, ObjectReader>> readers = new EnumMap<>(WireFormat.class);
+    private final Map<WireFormat, ConcurrentMap<JavaType, ObjectWriter>> writers = new EnumMap<>(WireFormat.class);
+    /**
+     * Тип кэшированного писателя JSON: у {@link ObjectWriter}, в отличие от читателя, его не узнать
+     */
+    private final ConcurrentMap<ObjectWriter, JavaType> writerTypes = new ConcurrentHashMap<>();
+
+    public JacksonCodecs(ObjectMapper mapper) {
+        this.mapper = mapper;
+        for (WireFormat format : WireFormat.values()) {
+            readers.put(format, new ConcurrentHashMap<>());
+            writers.put(format, new ConcurrentHashMap<>());
+        }
+    }
+
+    public ObjectReader readerFor(WireFormat format, JavaType type) {
+        return readers.get(format).computeIfAbsent(type, key -> format == WireFormat.JSON
+            ? mapper.readerFor(key)
+            : format.reader(readerFor(WireFormat.JSON, key)));
+    }
+
+    /**
+     * Читатель формата для читателя JSON. Для читателя из этого кэша - тоже кэшированный;
+     * прочие, например с атрибутами, переводятся на формат при каждом вызове.
+     */
+    public ObjectReader readerFor(WireFormat format, ObjectReader jsonReader) {
+        JavaType type = jsonReader.getValueType();
+        if (format == WireFormat.JSON || type == null || readers.get(WireFormat.JSON).get(type) != jsonReader) {
+            return format.reader(jsonReader);
+        }
+        return readerFor(format, type);
+    }
+
+    public ObjectWriter writerFor(WireFormat format, JavaType type) {
+        return writers.get(format).computeIfAbsent(type, key -> {
+            if (format != WireFormat.JSON) {
+                return format.writer(writerFor(WireFormat.JSON, key));
+            }
+            ObjectWriter writer = mapper.writerFor(key);
+            writerTypes.put(writer, key);
+            return writer;
+        });
+    }
+
+    /**
+     * Писатель формата для писателя JSON, см. {@link #readerFor(WireFormat, ObjectReader)}
+     */
+    public ObjectWriter writerFor(WireFormat format, ObjectWriter jsonWriter) {
+        JavaType type = writerTypes.get(jsonWriter);
+        return type == null ? format.writer(jsonWriter) : writerFor(format, type);
+    }
+}
@@ -1,18 +1,107 @@
 package com.petstore.config;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.petstore.model.ApiResponse;
+import com.petstore.model.Order;
+import com.petstore.model.Pet;
+import com.petstore.model.User;
+
+import java.util.List;
+import java.util.Map;
 
 public class JacksonConfig {
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final JacksonCodecs codecs = new JacksonCodecs(objectMapper);
+
+    public static final TypeReference<List<Pet>> PET_LIST = new TypeReference<>() { };
+    public static final TypeReference<Map<String, Integer>> INVENTORY = new TypeReference<>() { };
+    public static final TypeReference<List<User>> USER_LIST = new TypeReference<>() { };
 
     static {
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+        // Читатели и писатели моделей API создаются заранее, чтобы первый вызов не платил за их построение
+        for (Class<?> model : List.of(Pet.class, Order.class, User.class, ApiResponse.class)) {
+            readerFor(model);
+            writerFor(model);
+        }
+        readerFor(PET_LIST);
+        readerFor(INVENTORY);
+        writerFor(USER_LIST);
     }
 
     public static ObjectMapper getObjectMapper() {
         return objectMapper;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Кэшированный неизменяемый {@link ObjectReader} для типа: без повторного поиска десериализатора
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return readerFor(objectMapper.constructType(type));
+    }
+
+    public static ObjectReader readerFor(TypeReference<?> type) {
+        return readerFor(objectMapper.getTypeFactory().constructType(type));
+    }
+
+    public static ObjectReader readerFor(JavaType type) {
+        return codecs.readerFor(WireFormat.JSON, type);
+    }
+
+    /**
+     * Кэшированный читатель типа для формата {@link WireFormat}; для JSON это тот же читатель, что выше
+     */
+    public static ObjectReader readerFor(WireFormat format, Class<?> type) {
+        return codecs.readerFor(format, objectMapper.constructType(type));
+    }
+
+    public static ObjectReader readerFor(WireFormat format, TypeReference<?> type) {
+        return codecs.readerFor(format, objectMapper.getTypeFactory().constructType(type));
+    }
+
+    /**
+     * Кэшированный читатель формата для кэшированного читателя JSON, например из поля клиента;
+     * читатель с атрибутами переводится на формат при каждом вызове
+     */
+    public static ObjectReader readerFor(WireFormat format, ObjectReader jsonReader) {
+        return codecs.readerFor(format, jsonReader);
+    }
+
+    /**
+     * Кэшированный неизменяемый {@link ObjectWriter} для типа
+     */
+    public static ObjectWriter writerFor(Class<?> type) {
+        return writerFor(objectMapper.constructType(type));
+    }
+
+    public static ObjectWriter writerFor(TypeReference<?> type) {
+        return writerFor(objectMapper.getTypeFactory().constructType(type));
+    }
+
+    public static ObjectWriter writerFor(JavaType type) {
+        return codecs.writerFor(WireFormat.JSON, type);
+    }
+
+    /**
+     * Кэшированный писатель типа для формата {@link WireFormat}; для JSON это тот же писатель, что выше
+     */
+    public static ObjectWriter writerFor(WireFormat format, Class<?> type) {
+        return codecs.writerFor(format, objectMapper.constructType(type));
+    }
+
+    public static ObjectWriter writerFor(WireFormat format, TypeReference<?> type) {
+        return codecs.writerFor(format, objectMapper.getTypeFactory().constructType(type));
+    }
+
+    public static ObjectWriter writerFor(WireFormat format, ObjectWriter jsonWriter) {
+        return codecs.writerFor(format, jsonWriter);
+    }
+}
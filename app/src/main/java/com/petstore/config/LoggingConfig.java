@@ -0,0 +1,60 @@
+package com.petstore.config;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Настройки логирования HTTP обменов клиентов, см. {@link com.petstore.client.LoggingFilter}.
+ * Записи пишутся в логгер com.petstore.client.http; тела запросов и ответов добавляются,
+ * только когда для него включен DEBUG.
+ */
+@Value
+@Builder
+public class LoggingConfig {
+    public enum Mode {
+        /** Все обмены: медленные и неуспешные всегда, остальные с учетом выборки */
+        ALL,
+        /** Только медленные и неуспешные обмены */
+        SLOW_OR_FAILED,
+        /** Только неуспешные обмены */
+        FAILED,
+        OFF
+    }
+
+    @Builder.Default
+    Mode mode = Mode.SLOW_OR_FAILED;
+
+    /**
+     * В режиме ALL логируется каждый N-й успешный быстрый обмен (случайная выборка 1 из N)
+     */
+    @Builder.Default
+    int sampleRate = 1;
+
+    @Builder.Default
+    Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Тела длиннее обрезаются до этого числа байт
+     */
+    @Builder.Default
+    int maxBodyLength = 1024;
+
+    /**
+     * Заголовки, значения которых не попадают в лог (без учета регистра)
+     */
+    @Builder.Default
+    Set<String> redactedHeaders = Set.of("api_key", "Authorization", "Cookie", "Set-Cookie");
+
+    /**
+     * Параметры запроса и поля JSON тел, значения которых не попадают в лог
+     */
+    @Builder.Default
+    Set<String> redactedParameters = Set.of("password", "api_key");
+
+    public static LoggingConfig defaults() {
+        return LoggingConfig.builder().build();
+    }
+}
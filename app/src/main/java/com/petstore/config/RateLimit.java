@@ -0,0 +1,21 @@
+package com.petstore.config;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Лимит запросов маркерной корзины: устойчивая скорость и сколько запросов можно отправить
+ * подряд после простоя
+ */
+@Value
+@Builder
+public class RateLimit {
+    double permitsPerSecond;
+
+    @Builder.Default
+    int burst = 1;
+
+    public static RateLimit of(double permitsPerSecond, int burst) {
+        return RateLimit.builder().permitsPerSecond(permitsPerSecond).burst(burst).build();
+    }
+}
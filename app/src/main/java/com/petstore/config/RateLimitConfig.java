@@ -0,0 +1,35 @@
+package com.petstore.config;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Клиентские лимиты запросов транспорта.
+ * <p>
+ * Ключ лимита - группа по первому сегменту пути, например {@code "/store"}, или операция как метод
+ * и шаблон пути, например {@code "POST /store/order"} или {@code "GET /pet/{petId}"}. Шаблон один
+ * у синхронных и асинхронных клиентов, поэтому ключ операции с параметрами в пути ограничивает и те и другие.
+ * Лимит операции важнее лимита группы; у каждого ключа своя корзина, общая для всех клиентов транспорта.
+ */
+@Value
+@Builder
+public class RateLimitConfig {
+    @Singular
+    Map<String, RateLimit> limits;
+
+    /**
+     * Сколько вызов может ждать разрешения; если ждать пришлось бы дольше, он сразу завершается
+     * {@link com.petstore.client.resilience.RateLimitExceededException}. {@link Duration#ZERO} -
+     * неблокирующий режим: только свободные разрешения.
+     */
+    @Builder.Default
+    Duration maxWait = Duration.ofSeconds(30);
+
+    public static RateLimitConfig none() {
+        return RateLimitConfig.builder().build();
+    }
+}
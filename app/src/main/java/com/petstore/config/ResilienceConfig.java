@@ -0,0 +1,82 @@
+package com.petstore.config;
+
+import com.petstore.client.resilience.CircuitBreakerListener;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Настройки повторов и автоматических выключателей синхронных клиентов.
+ * <p>
+ * Операция задается как метод и шаблон пути клиента, например {@code "POST /pet"} или
+ * {@code "GET /user/{username}"}. Для нее берется политика из {@link #operationRetries}, иначе
+ * {@link #defaultRetry} для идемпотентных методов, иначе повторов нет. На каждую операцию свой выключатель.
+ */
+@Value
+@Builder
+public class ResilienceConfig {
+    @Builder.Default
+    boolean enabled = true;
+
+    @Builder.Default
+    RetryPolicy defaultRetry = RetryPolicy.defaults();
+
+    @Builder.Default
+    Set<String> idempotentMethods = Set.of("GET", "DELETE", "HEAD", "OPTIONS");
+
+    @Singular
+    Map<String, RetryPolicy> operationRetries;
+
+    /**
+     * Бюджет повторов транспорта (как retry throttling в gRPC): каждая неудача списывает жетон,
+     * каждый успех возвращает {@link #retryBudgetTokenRatio}; повторы разрешены, пока жетонов
+     * больше половины. Так при массовых сбоях повторы сами затухают и не умножают нагрузку.
+     */
+    @Builder.Default
+    int retryBudgetMaxTokens = 10;
+
+    @Builder.Default
+    double retryBudgetTokenRatio = 0.1;
+
+    /**
+     * Доля ответов 5xx и сетевых ошибок в окне, при которой выключатель размыкается
+     */
+    @Builder.Default
+    double breakerFailureRateThreshold = 0.5;
+
+    @Builder.Default
+    int breakerWindowSize = 20;
+
+    /**
+     * Минимум вызовов в окне, прежде чем доля ошибок учитывается
+     */
+    @Builder.Default
+    int breakerMinimumCalls = 10;
+
+    /**
+     * Сколько выключатель остается разомкнутым, прежде чем пропустить пробные вызовы
+     */
+    @Builder.Default
+    Duration breakerOpenDuration = Duration.ofSeconds(10);
+
+    @Builder.Default
+    int breakerHalfOpenCalls = 1;
+
+    /**
+     * Слушатель смены состояний выключателей; вызывается синхронно и должен быть быстрым
+     */
+    @Builder.Default
+    CircuitBreakerListener breakerListener = (operation, from, to) -> { };
+
+    public static ResilienceConfig defaults() {
+        return ResilienceConfig.builder().build();
+    }
+
+    public static ResilienceConfig disabled() {
+        return ResilienceConfig.builder().enabled(false).build();
+    }
+}
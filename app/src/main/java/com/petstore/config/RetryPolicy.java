@@ -0,0 +1,44 @@
+package com.petstore.config;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Политика повторов одной операции: число попыток, экспоненциальная задержка с полным
+ * джиттером (случайная пауза от нуля до текущей границы) и ответы, после которых имеет смысл повторять.
+ */
+@Value
+@Builder
+public class RetryPolicy {
+    /**
+     * Всего попыток, включая первую; 1 - без повторов
+     */
+    @Builder.Default
+    int maxAttempts = 3;
+
+    @Builder.Default
+    Duration initialBackoff = Duration.ofMillis(100);
+
+    @Builder.Default
+    Duration maxBackoff = Duration.ofSeconds(2);
+
+    @Builder.Default
+    Set<Integer> retryStatuses = Set.of(429, 502, 503, 504);
+
+    /**
+     * Повторять после обрыва соединения или таймаута
+     */
+    @Builder.Default
+    boolean retryOnIoErrors = true;
+
+    public static RetryPolicy defaults() {
+        return RetryPolicy.builder().build();
+    }
+
+    public static RetryPolicy none() {
+        return RetryPolicy.builder().maxAttempts(1).build();
+    }
+}
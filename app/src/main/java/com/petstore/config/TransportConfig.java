@@ -0,0 +1,111 @@
+package com.petstore.config;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего HTTP транспорта клиентов: пул соединений, keep-alive и таймауты.
+ * <p>
+ * Размер пула и время жизни простаивающих соединений применяются к синхронным клиентам.
+ * Асинхронные клиенты работают через {@link java.net.http.HttpClient}, чей пул настраивается
+ * только глобально, системными свойствами jdk.httpclient.connectionPoolSize и
+ * jdk.httpclient.keepalive.timeout; таймауты и лимит запросов в полете действуют и для них.
+ */
+@Value
+@Builder
+public class TransportConfig {
+    /**
+     * Переиспользовать соединения между запросами. Без пула каждый запрос открывает новое соединение.
+     */
+    @Builder.Default
+    boolean pooling = true;
+
+    @Builder.Default
+    int maxConnectionsPerRoute = 50;
+
+    @Builder.Default
+    int maxConnectionsTotal = 200;
+
+    /**
+     * Простаивающие дольше соединения закрываются фоновой задачей
+     */
+    @Builder.Default
+    Duration idleTimeout = Duration.ofSeconds(30);
+
+    @Builder.Default
+    Duration connectTimeout = Duration.ofSeconds(5);
+
+    @Builder.Default
+    Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Максимум одновременных запросов через транспорт, 0 - без ограничения.
+     * Вызывающий поток ждет, пока не освободится место.
+     */
+    @Builder.Default
+    int maxInFlight = 0;
+
+    /**
+     * Склеивать одновременные одинаковые чтения типизированных методов клиентов (getPetByIdResult,
+     * getInventoryResult и т.п.) в один HTTP запрос. Ждущие получают тот же результат, даже если
+     * их вызов начался после записи, пока первый запрос еще в полете.
+     */
+    @Builder.Default
+    boolean coalesceReads = false;
+
+    /**
+     * Запоминать ETag и Last-Modified типизированных чтений клиентов и повторять их условными
+     * запросами: на 304 возвращается ранее разобранный результат без передачи и разбора тела
+     */
+    @Builder.Default
+    boolean conditionalReads = false;
+
+    /**
+     * Повторы, бюджет повторов и выключатели синхронных клиентов
+     */
+    @Builder.Default
+    ResilienceConfig resilience = ResilienceConfig.defaults();
+
+    /**
+     * Клиентские лимиты запросов по группам путей и операциям, по умолчанию без лимитов
+     */
+    @Builder.Default
+    RateLimitConfig rateLimit = RateLimitConfig.none();
+
+    /**
+     * Хеджирование идемпотентных чтений типизированных методов клиентов, по умолчанию выключено
+     */
+    @Builder.Default
+    HedgingConfig hedging = HedgingConfig.defaults();
+
+    /**
+     * HTTP/2 с мультиплексированием для запросов через {@link java.net.http.HttpClient}, по умолчанию выключен
+     */
+    @Builder.Default
+    Http2Config http2 = Http2Config.disabled();
+
+    /**
+     * Сжатие тел: по умолчанию клиенты принимают сжатые ответы, но запросы не сжимают
+     */
+    @Builder.Default
+    CompressionConfig compression = CompressionConfig.defaults();
+
+    /**
+     * Формат тел запросов клиентов; ответ читается по его Content-Type, так что бэкенд без двоичных
+     * форматов может ответить JSON. Потоковые чтения (streamPetsByStatus и т.п.) всегда идут в JSON.
+     */
+    @Builder.Default
+    WireFormat wireFormat = WireFormat.JSON;
+
+    /**
+     * Логирование HTTP обменов клиентов
+     */
+    @Builder.Default
+    LoggingConfig logging = LoggingConfig.defaults();
+
+    public static TransportConfig defaults() {
+        return TransportConfig.builder().build();
+    }
+}
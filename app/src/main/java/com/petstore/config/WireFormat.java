@@ -0,0 +1,111 @@
+package com.petstore.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.util.Locale;
+
+/**
+ * Формат тел запросов и ответов. JSON - формат публичного Petstore и формат по умолчанию;
+ * Smile и CBOR - двоичные форматы Jackson для обмена с совместимым бэкендом, который их понимает.
+ * Модели одни и те же, меняется только кодек: читатели и писатели JSON переводятся на фабрику формата
+ * через {@link #reader(ObjectReader)} и {@link #writer(ObjectWriter)}. Перевод создает новый объект,
+ * поэтому вызовы берут уже переведенные и кэшированные из {@link JacksonConfig} или {@link JacksonCodecs}.
+ */
+public enum WireFormat {
+    JSON(ApiConfig.CONTENT_TYPE, new JsonFactory()),
+    SMILE("application/x-jackson-smile", new SmileFactory()),
+    CBOR("application/cbor", new CBORFactory());
+
+    private final String contentType;
+    private final JsonFactory factory;
+
+    WireFormat(String contentType, JsonFactory factory) {
+        this.contentType = contentType;
+        this.factory = factory;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Значение Accept: формат и JSON с меньшим весом, чтобы бэкенд без двоичных форматов отвечал JSON
+     */
+    public String getAccept() {
+        return this == JSON ? contentType : contentType + ", " + JSON.contentType + ";q=0.5";
+    }
+
+    /**
+     * Формат тела по Content-Type; без заголовка и для незнакомых типов - JSON
+     */
+    public static WireFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return JSON;
+        }
+        String mediaType = mediaType(contentType);
+        for (WireFormat format : values()) {
+            if (format.contentType.equals(mediaType)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * Формат ответа по Accept: поддерживаемый тип с наибольшим q, при равенстве - указанный раньше.
+     * Без заголовка или без поддерживаемых типов - JSON.
+     */
+    public static WireFormat negotiate(String accept) {
+        if (accept == null) {
+            return JSON;
+        }
+        WireFormat best = JSON;
+        double bestQuality = -1;
+        for (String range : accept.split(",")) {
+            WireFormat format = null;
+            String mediaType = mediaType(range);
+            for (WireFormat candidate : values()) {
+                if (candidate.contentType.equals(mediaType)) {
+                    format = candidate;
+                }
+            }
+            double quality = quality(range);
+            if (format != null && quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return bestQuality > 0 ? best : JSON;
+    }
+
+    public ObjectReader reader(ObjectReader jsonReader) {
+        return this == JSON ? jsonReader : jsonReader.with(factory);
+    }
+
+    public ObjectWriter writer(ObjectWriter jsonWriter) {
+        return this == JSON ? jsonWriter : jsonWriter.with(factory);
+    }
+
+    private static String mediaType(String value) {
+        int parameters = value.indexOf(';');
+        return (parameters < 0 ? value : value.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static double quality(String range) {
+        for (String parameter : range.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
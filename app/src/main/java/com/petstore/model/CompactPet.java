@@ -0,0 +1,240 @@
+package com.petstore.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Неизменяемое компактное представление {@link Pet} для больших выборок: id без упаковки,
+ * фото и теги в массивах точного размера вместо {@link ArrayList}, а категории, теги и адреса
+ * фото при разборе берутся из {@link InternPool}. Сериализуется в тот же JSON, что и {@link Pet}.
+ * <p>
+ * Пул передается атрибутом чтения: {@code reader.withAttribute(InternPool.class, pool)};
+ * без него значения не разделяются, но массивы остаются компактными. Внутри категория и теги
+ * хранятся неизменяемыми {@link Ref}, общими с другими питомцами, а наружу отдаются копиями.
+ */
+@EqualsAndHashCode
+@ToString
+@JsonDeserialize(using = CompactPet.Deserializer.class)
+public final class CompactPet {
+    private static final long NO_ID = Long.MIN_VALUE;
+    private static final String[] NO_PHOTO_URLS = new String[0];
+    private static final Ref[] NO_TAGS = new Ref[0];
+
+    private final long id;
+    private final Ref category;
+    private final String name;
+    private final String[] photoUrls;
+    private final Ref[] tags;
+    private final Pet.PetStatus status;
+
+    private CompactPet(long id, Ref category, String name, String[] photoUrls, Ref[] tags,
+                       Pet.PetStatus status) {
+        this.id = id;
+        this.category = category;
+        this.name = name;
+        this.photoUrls = photoUrls;
+        this.tags = tags;
+        this.status = status;
+    }
+
+    /**
+     * Компактная копия питомца; категория, теги и адреса фото берутся из пула,
+     * {@code pool == null} - без пула
+     */
+    public static CompactPet of(Pet pet, InternPool pool) {
+        String[] photoUrls = pet.getPhotoUrls() == null || pet.getPhotoUrls().isEmpty()
+            ? NO_PHOTO_URLS : pet.getPhotoUrls().toArray(new String[0]);
+        Ref[] tags = pet.getTags() == null || pet.getTags().isEmpty() ? NO_TAGS : new Ref[pet.getTags().size()];
+        if (pool != null) {
+            for (int i = 0; i < photoUrls.length; i++) {
+                photoUrls[i] = pool.intern(photoUrls[i]);
+            }
+        }
+        for (int i = 0; i < tags.length; i++) {
+            Tag tag = pet.getTags().get(i);
+            tags[i] = tag == null ? null : Deserializer.intern(pool, new Ref(tag.getId(), tag.getName()));
+        }
+        Ref category = pet.getCategory() == null ? null
+            : Deserializer.intern(pool, new Ref(pet.getCategory().getId(), pet.getCategory().getName()));
+        return new CompactPet(pet.getId() == null ? NO_ID : pet.getId(), category, pet.getName(), photoUrls, tags,
+            pet.getStatus());
+    }
+
+    public Long getId() {
+        return id == NO_ID ? null : id;
+    }
+
+    /**
+     * Собственная копия категории
+     */
+    public Category getCategory() {
+        return category == null ? null : category.toCategory();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getPhotoUrls() {
+        return Collections.unmodifiableList(Arrays.asList(photoUrls));
+    }
+
+    /**
+     * Неизменяемый список собственных копий тегов
+     */
+    public List<Tag> getTags() {
+        Tag[] copies = new Tag[tags.length];
+        for (int i = 0; i < tags.length; i++) {
+            copies[i] = tags[i] == null ? null : tags[i].toTag();
+        }
+        return Collections.unmodifiableList(Arrays.asList(copies));
+    }
+
+    public Pet.PetStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Обычный изменяемый {@link Pet} с собственными копиями категории, тегов и списков
+     */
+    public Pet toPet() {
+        return Pet.builder()
+            .id(getId())
+            .category(getCategory())
+            .name(name)
+            .photoUrls(new ArrayList<>(Arrays.asList(photoUrls)))
+            .tags(new ArrayList<>(getTags()))
+            .status(status)
+            .build();
+    }
+
+    /**
+     * Неизменяемые id и имя категории или тега; безопасно разделяется между питомцами и служит ключом пула
+     */
+    record Ref(Long id, String name) {
+        Category toCategory() {
+            return new Category(id, name);
+        }
+
+        Tag toTag() {
+            return new Tag(id, name);
+        }
+    }
+
+    /**
+     * Разбирает питомца прямо из токенов, без промежуточного {@link Pet}
+     */
+    static final class Deserializer extends StdDeserializer<CompactPet> {
+        Deserializer() {
+            super(CompactPet.class);
+        }
+
+        @Override
+        public CompactPet deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken() && !p.hasToken(JsonToken.FIELD_NAME)) {
+                return (CompactPet) ctxt.handleUnexpectedToken(CompactPet.class, p);
+            }
+            InternPool pool = (InternPool) ctxt.getAttribute(InternPool.class);
+            long id = NO_ID;
+            Ref category = null;
+            String name = null;
+            String[] photoUrls = NO_PHOTO_URLS;
+            Ref[] tags = NO_TAGS;
+            Pet.PetStatus status = null;
+            if (p.isExpectedStartObjectToken()) {
+                p.nextToken();
+            }
+            for (; p.hasToken(JsonToken.FIELD_NAME); p.nextToken()) {
+                String field = p.currentName();
+                JsonToken token = p.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "id" -> id = p.getValueAsLong();
+                    case "category" -> category = intern(pool, readRef(p, ctxt, Category.class));
+                    case "name" -> name = p.getValueAsString();
+                    case "photoUrls" -> photoUrls = readPhotoUrls(p, ctxt, pool);
+                    case "tags" -> tags = readTags(p, ctxt, pool);
+                    case "status" -> status = Pet.PetStatus.fromValue(p.getValueAsString());
+                    default -> ctxt.handleUnknownProperty(p, this, CompactPet.class, field);
+                }
+            }
+            return new CompactPet(id, category, name, photoUrls, tags, status);
+        }
+
+        private static String[] readPhotoUrls(JsonParser p, DeserializationContext ctxt, InternPool pool)
+            throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (String[]) ctxt.handleUnexpectedToken(String[].class, p);
+            }
+            String[] photoUrls = NO_PHOTO_URLS;
+            int size = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (size == photoUrls.length) {
+                    photoUrls = Arrays.copyOf(photoUrls, Math.max(4, size * 2));
+                }
+                String url = p.getValueAsString();
+                photoUrls[size++] = pool != null ? pool.intern(url) : url;
+            }
+            return size == photoUrls.length ? photoUrls : Arrays.copyOf(photoUrls, size);
+        }
+
+        private Ref[] readTags(JsonParser p, DeserializationContext ctxt, InternPool pool) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (Ref[]) ctxt.handleUnexpectedToken(Tag[].class, p);
+            }
+            Ref[] tags = NO_TAGS;
+            int size = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (size == tags.length) {
+                    tags = Arrays.copyOf(tags, Math.max(4, size * 2));
+                }
+                tags[size++] = p.hasToken(JsonToken.VALUE_NULL) ? null
+                    : intern(pool, readRef(p, ctxt, Tag.class));
+            }
+            return size == tags.length ? tags : Arrays.copyOf(tags, size);
+        }
+
+        /**
+         * Объект вида {@code {"id": 1, "name": "..."}}: категория или тег. Разбирается вручную, без
+         * поиска десериализатора и упаковки на каждый объект.
+         */
+        private Ref readRef(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                Object value = ctxt.handleUnexpectedToken(type, p);
+                return value instanceof Category category ? new Ref(category.getId(), category.getName())
+                    : value instanceof Tag tag ? new Ref(tag.getId(), tag.getName()) : null;
+            }
+            Long id = null;
+            String name = null;
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "id" -> id = p.getValueAsLong();
+                    case "name" -> name = p.getValueAsString();
+                    default -> ctxt.handleUnknownProperty(p, this, type, field);
+                }
+            }
+            return new Ref(id, name);
+        }
+
+        private static Ref intern(InternPool pool, Ref ref) {
+            return pool != null ? pool.intern(ref) : ref;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.petstore.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Ограниченный пул flyweight-значений: равные строки и неизменяемые категории и теги
+ * {@link CompactPet} заменяются одним общим экземпляром. Заполненный пул новые значения не запоминает
+ * и возвращает как есть, поэтому его память ограничена, а уже накопленные значения продолжают
+ * переиспользоваться. Потокобезопасен.
+ */
+public final class InternPool {
+    public static final int DEFAULT_MAXIMUM_SIZE = 65_536;
+
+    private final int maximumSize;
+    private final ConcurrentMap<Object, Object> values = new ConcurrentHashMap<>();
+
+    public InternPool() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public InternPool(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    public String intern(String value) {
+        return internValue(value);
+    }
+
+    CompactPet.Ref intern(CompactPet.Ref value) {
+        return internValue(value);
+    }
+
+    /**
+     * Число запомненных значений, не больше maximumSize
+     */
+    public int size() {
+        return values.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T internValue(T value) {
+        if (value == null) {
+            return null;
+        }
+        Object existing = values.get(value);
+        if (existing != null) {
+            return (T) existing;
+        }
+        // размер проверяется без блокировки, поэтому при гонке пул может превысить предел на число потоков
+        if (values.size() >= maximumSize) {
+            return value;
+        }
+        existing = values.putIfAbsent(value, value);
+        return existing != null ? (T) existing : value;
+    }
+}
@@ -1,11 +1,14 @@
 package com.petstore.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Домашнее животное в магазине
@@ -25,6 +28,24 @@ public class Pet {
     public enum PetStatus {
         AVAILABLE,
         PENDING,
-        SOLD
+        SOLD;
+
+        /**
+         * Значение статуса в формате API (в нижнем регистре)
+         */
+        @JsonValue
+        public String getValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        @JsonCreator
+        public static PetStatus fromValue(String value) {
+            for (PetStatus status : values()) {
+                if (status.name().equalsIgnoreCase(value)) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown pet status: " + value);
+        }
     }
 } 
\ No newline at end of file
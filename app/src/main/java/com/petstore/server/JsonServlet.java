@@ -0,0 +1,196 @@
+package com.petstore.server;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petstore.config.JacksonCodecs;
+import com.petstore.config.JacksonConfig;
+import com.petstore.config.WireFormat;
+import com.petstore.model.ApiResponse;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Общая часть обработчиков stand-in сервера: JSON, ответы об ошибках, CORS и проверка ключей.
+ * Кроме JSON сервер понимает двоичные {@link WireFormat}: тело запроса читается по его
+ * Content-Type, а формат ответа согласуется по Accept.
+ */
+abstract class JsonServlet extends HttpServlet {
+    protected static final ObjectMapper MAPPER = JacksonConfig.getObjectMapper().copy()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    /**
+     * Читатели и писатели MAPPER по формату; писатель тела любого типа - для {@code Object}
+     */
+    private static final JacksonCodecs CODECS = new JacksonCodecs(MAPPER);
+    private static final JavaType ANY = MAPPER.constructType(Object.class);
+
+    /**
+     * Формат ответа текущего запроса; обработчики синхронные, поэтому запрос живет в одном потоке
+     */
+    private static final ThreadLocal<WireFormat> RESPONSE_FORMAT = ThreadLocal.withInitial(() -> WireFormat.JSON);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    protected final PetstoreState state;
+    private final Set<String> apiKeys;
+    private final Set<String> oauthTokens;
+
+    protected JsonServlet(PetstoreState state, Set<String> apiKeys, Set<String> oauthTokens) {
+        this.state = state;
+        this.apiKeys = apiKeys;
+        this.oauthTokens = oauthTokens;
+    }
+
+    @Override
+    protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setHeader("Access-Control-Allow-Origin", "*");
+        resp.setHeader("Access-Control-Allow-Methods", "GET, POST, DELETE, PUT");
+        resp.setHeader("Access-Control-Allow-Headers", "Content-Type, api_key, Authorization");
+        resp.setHeader("Vary", "Accept");
+        RESPONSE_FORMAT.set(WireFormat.negotiate(req.getHeader("Accept")));
+        try {
+            super.service(req, resp);
+        } finally {
+            RESPONSE_FORMAT.remove();
+        }
+    }
+
+    /**
+     * Проверяет переданные учетные данные. Отсутствующий ключ или токен не проверяется,
+     * как и в публичном Petstore; неверный приводит к ответу 401.
+     */
+    protected boolean authorize(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String apiKey = req.getHeader("api_key");
+        if (apiKey != null && !apiKeys.isEmpty() && !apiKeys.contains(apiKey)) {
+            writeError(resp, HttpServletResponse.SC_UNAUTHORIZED, "Invalid API key supplied");
+            return false;
+        }
+        String authorization = req.getHeader("Authorization");
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX) && !oauthTokens.isEmpty()
+                && !oauthTokens.contains(authorization.substring(BEARER_PREFIX.length()))) {
+            writeError(resp, HttpServletResponse.SC_UNAUTHORIZED, "Invalid OAuth2 token supplied");
+            return false;
+        }
+        return true;
+    }
+
+    protected <T> T readBody(HttpServletRequest req, Class<T> type) {
+        return readBody(req, MAPPER.constructType(type));
+    }
+
+    /**
+     * Тело запроса в формате его Content-Type или {@code null}, если его не удалось разобрать
+     */
+    protected <T> T readBody(HttpServletRequest req, JavaType type) {
+        try {
+            return CODECS.readerFor(WireFormat.fromContentType(req.getContentType()), type)
+                .readValue(req.getInputStream());
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    protected static String[] pathSegments(HttpServletRequest req) {
+        String pathInfo = req.getPathInfo();
+        if (pathInfo == null || pathInfo.equals("/")) {
+            return new String[0];
+        }
+        return pathInfo.substring(1).split("/");
+    }
+
+    /**
+     * Разбирает положительный идентификатор из пути, иначе возвращает null.
+     */
+    protected static Long parseId(String value) {
+        try {
+            long id = Long.parseLong(value);
+            return id > 0 ? id : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Ответ в согласованном по Accept формате, по умолчанию JSON
+     */
+    protected void writeJson(HttpServletResponse resp, int status, Object body) throws IOException {
+        WireFormat format = RESPONSE_FORMAT.get();
+        resp.setStatus(status);
+        resp.setContentType(format.getContentType());
+        CODECS.writerFor(format, ANY).writeValue(resp.getOutputStream(), body);
+    }
+
+    /**
+     * Ответ 200 на GET с валидаторами: ETag по содержимому тела и Last-Modified состояния.
+     * Если валидаторы запроса совпадают, отвечает 304 без тела. If-None-Match, как и положено,
+     * важнее If-Modified-Since.
+     * <p>
+     * У HTTP-даты точность секунда, поэтому Last-Modified отдается, только когда секунда последнего
+     * изменения уже закончилась: иначе следующее изменение в ту же секунду получило бы ту же дату
+     * и клиент с ней получил бы ложный 304. Пока секунда не закончилась, остается только ETag.
+     */
+    protected void writeCacheableJson(HttpServletRequest req, HttpServletResponse resp, Object body) throws IOException {
+        long lastModified = state.lastModified();
+        WireFormat format = RESPONSE_FORMAT.get();
+        byte[] content = CODECS.writerFor(format, ANY).writeValueAsBytes(body);
+        String etag = etag(content);
+        resp.setHeader("ETag", etag);
+        if (lastModified / 1000 < System.currentTimeMillis() / 1000) {
+            resp.setDateHeader("Last-Modified", lastModified);
+        }
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        boolean notModified;
+        if (ifNoneMatch != null) {
+            notModified = matches(ifNoneMatch, etag);
+        } else {
+            long ifModifiedSince = req.getDateHeader("If-Modified-Since");
+            notModified = ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        }
+        if (notModified) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(format.getContentType());
+        resp.setContentLength(content.length);
+        resp.getOutputStream().write(content);
+    }
+
+    protected void writeMessage(HttpServletResponse resp, String message) throws IOException {
+        writeJson(resp, HttpServletResponse.SC_OK, new ApiResponse(HttpServletResponse.SC_OK, "unknown", message));
+    }
+
+    protected void writeError(HttpServletResponse resp, int status, String message) throws IOException {
+        writeJson(resp, status, new ApiResponse(status, "error", message));
+    }
+
+    /**
+     * Сильный ETag: 64-битный FNV-1a хеш и длина тела
+     */
+    private static String etag(byte[] content) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : content) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return "\"" + Long.toHexString(hash) + "-" + Integer.toHexString(content.length) + "\"";
+    }
+
+    /**
+     * Совпадает ли {@code etag} с одним из тегов If-None-Match; сравнение слабое, как требует RFC 9110
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,182 @@
+package com.petstore.server;
+
+import com.petstore.model.Pet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Маршруты /pet stand-in сервера.
+ */
+class PetServlet extends JsonServlet {
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "webp");
+
+    PetServlet(PetstoreState state, Set<String> apiKeys, Set<String> oauthTokens) {
+        super(state, apiKeys, oauthTokens);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        if (segments.length == 1 && segments[0].equals("findByStatus")) {
+            findByStatus(req, resp);
+        } else if (segments.length == 1) {
+            Long petId = parseId(segments[0]);
+            if (petId == null) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid ID supplied");
+                return;
+            }
+            Pet pet = state.getPet(petId);
+            if (pet == null) {
+                writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Pet not found");
+                return;
+            }
+            writeCacheableJson(req, resp, pet);
+        } else {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown route");
+        }
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException, ServletException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        if (segments.length == 0) {
+            savePet(req, resp);
+            return;
+        }
+        Long petId = parseId(segments[0]);
+        if (petId == null) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid ID supplied");
+        } else if (segments.length == 1) {
+            updateWithForm(petId, req, resp);
+        } else if (segments.length == 2 && segments[1].equals("uploadImage")) {
+            uploadImage(petId, req, resp);
+        } else {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown route");
+        }
+    }
+
+    @Override
+    protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        if (pathSegments(req).length != 0) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown route");
+            return;
+        }
+        savePet(req, resp);
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        Long petId = segments.length == 1 ? parseId(segments[0]) : null;
+        if (petId == null) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid ID supplied");
+        } else if (!state.deletePet(petId)) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Pet not found");
+        } else {
+            writeMessage(resp, String.valueOf(petId));
+        }
+    }
+
+    private void savePet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Pet pet = readBody(req, Pet.class);
+        if (pet == null || pet.getName() == null || pet.getName().isBlank()) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid pet supplied");
+            return;
+        }
+        writeJson(resp, HttpServletResponse.SC_OK, state.savePet(pet));
+    }
+
+    private void findByStatus(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String[] values = req.getParameterValues("status");
+        if (values == null) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid status value");
+            return;
+        }
+        List<Pet.PetStatus> statuses = new ArrayList<>();
+        try {
+            for (String value : values) {
+                for (String status : value.split(",")) {
+                    statuses.add(Pet.PetStatus.fromValue(status.trim()));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid status value");
+            return;
+        }
+        writeJson(resp, HttpServletResponse.SC_OK, state.findPetsByStatus(statuses));
+    }
+
+    private void updateWithForm(long petId, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Pet existing = state.getPet(petId);
+        if (existing == null) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Pet not found");
+            return;
+        }
+        Pet.PetStatus status = existing.getStatus();
+        String statusValue = req.getParameter("status");
+        if (statusValue != null) {
+            try {
+                status = Pet.PetStatus.fromValue(statusValue);
+            } catch (IllegalArgumentException e) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid input");
+                return;
+            }
+        }
+        String name = req.getParameter("name");
+        state.savePet(Pet.builder()
+            .id(existing.getId())
+            .category(existing.getCategory())
+            .name(name != null ? name : existing.getName())
+            .photoUrls(existing.getPhotoUrls())
+            .tags(existing.getTags())
+            .status(status)
+            .build());
+        writeMessage(resp, String.valueOf(petId));
+    }
+
+    private void uploadImage(long petId, HttpServletRequest req, HttpServletResponse resp)
+            throws IOException, ServletException {
+        if (state.getPet(petId) == null) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Pet not found");
+            return;
+        }
+        Part file = req.getPart("file");
+        if (file == null || !isImage(file.getSubmittedFileName())) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Unsupported image format");
+            return;
+        }
+        String additionalMetadata = req.getParameter("additionalMetadata");
+        long size = file.getSize();
+        file.delete();
+        writeMessage(resp, "additionalMetadata: " + additionalMetadata
+            + "\nFile uploaded to ./" + file.getSubmittedFileName() + ", " + size + " bytes");
+    }
+
+    private static boolean isImage(String fileName) {
+        if (fileName == null) {
+            return false;
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 && IMAGE_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+}
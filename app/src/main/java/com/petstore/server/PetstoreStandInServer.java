@@ -0,0 +1,209 @@
+package com.petstore.server;
+
+import jakarta.servlet.MultipartConfigElement;
+import lombok.Builder;
+import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jetty.http.UriCompliance;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Встраиваемый stand-in сервер Petstore: маршруты /pet, /store и /user поверх состояния в памяти.
+ * Запускается за миллисекунды на свободном порту и позволяет гонять тесты и нагрузку без сети.
+ * Понимает HTTP/1.1 и HTTP/2 без TLS (h2c, через Upgrade или сразу с преамбулы HTTP/2).
+ *
+ * <pre>
+ * try (PetstoreStandInServer server = PetstoreStandInServer.builder().build().start()) {
+ *     PetApiClient client = new PetApiClient(server.getBaseUrl());
+ * }
+ * </pre>
+ */
+public class PetstoreStandInServer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PetstoreStandInServer.class);
+    private static final String CONTEXT_PATH = "/v2";
+    private static final String DEFAULT_HOST = "127.0.0.1";
+    private static final int DEFAULT_MAX_THREADS = 200;
+    private static final int INFLATE_BUFFER_SIZE = 8192;
+    private static final int DEFAULT_MAX_CONCURRENT_STREAMS = 128;
+
+    private final String host;
+    private final int port;
+    private final int maxThreads;
+    private final Set<String> apiKeys;
+    private final Set<String> oauthTokens;
+    private final Duration responseDelay;
+    private final boolean compression;
+    private final int compressionMinSize;
+    private final int maxConcurrentStreams;
+    private volatile Server server;
+    private volatile RequestStatsHandler stats;
+    private volatile ServerConnector connector;
+
+    /**
+     * @param host          адрес для прослушивания, по умолчанию 127.0.0.1
+     * @param port          порт, 0 - свободный порт
+     * @param maxThreads    размер пула потоков обработки запросов
+     * @param apiKeys       допустимые значения заголовка api_key; пустой набор отключает проверку
+     * @param oauthTokens   допустимые OAuth2 Bearer токены; пустой набор отключает проверку
+     * @param responseDelay искусственная задержка перед обработкой каждого запроса, по умолчанию нет
+     * @param compression   сжимать ответы gzip для клиентов с {@code Accept-Encoding} и распаковывать
+     *                      тела запросов с {@code Content-Encoding: gzip}, по умолчанию выключено
+     * @param compressionMinSize ответы короче не сжимаются, 0 - порог Jetty по умолчанию
+     * @param maxConcurrentStreams лимит одновременных потоков HTTP/2 соединения, по умолчанию 128
+     */
+    @Builder
+    private PetstoreStandInServer(String host, int port, int maxThreads, Set<String> apiKeys, Set<String> oauthTokens,
+                                  Duration responseDelay, boolean compression, int compressionMinSize,
+                                  int maxConcurrentStreams) {
+        this.host = host != null ? host : DEFAULT_HOST;
+        this.port = port;
+        this.maxThreads = maxThreads > 0 ? maxThreads : DEFAULT_MAX_THREADS;
+        this.apiKeys = apiKeys != null ? Set.copyOf(apiKeys) : Set.of("special-key");
+        this.oauthTokens = oauthTokens != null ? Set.copyOf(oauthTokens) : Set.of();
+        this.responseDelay = responseDelay != null ? responseDelay : Duration.ZERO;
+        this.compression = compression;
+        this.compressionMinSize = compressionMinSize;
+        this.maxConcurrentStreams = maxConcurrentStreams > 0 ? maxConcurrentStreams : DEFAULT_MAX_CONCURRENT_STREAMS;
+    }
+
+    public synchronized PetstoreStandInServer start() {
+        if (server != null) {
+            throw new IllegalStateException("Stand-in server is already started");
+        }
+        QueuedThreadPool threadPool = new QueuedThreadPool(this.maxThreads);
+        threadPool.setName("petstore-stand-in");
+        threadPool.setDaemon(true);
+        Server jetty = new Server(threadPool);
+
+        HttpConfiguration httpConfig = new HttpConfiguration();
+        httpConfig.setUriCompliance(UriCompliance.UNSAFE);
+        httpConfig.setSendServerVersion(false);
+        HTTP2CServerConnectionFactory h2c = new HTTP2CServerConnectionFactory(httpConfig);
+        h2c.setMaxConcurrentStreams(maxConcurrentStreams);
+        ServerConnector serverConnector = new ServerConnector(jetty, new HttpConnectionFactory(httpConfig), h2c);
+        serverConnector.setHost(host);
+        serverConnector.setPort(port);
+        jetty.addConnector(serverConnector);
+
+        PetstoreState state = new PetstoreState();
+        ServletContextHandler context = new ServletContextHandler(CONTEXT_PATH);
+        context.getServletHandler().setDecodeAmbiguousURIs(true);
+        ServletHolder petHolder = new ServletHolder(new PetServlet(state, apiKeys, oauthTokens));
+        petHolder.getRegistration().setMultipartConfig(
+            new MultipartConfigElement(System.getProperty("java.io.tmpdir")));
+        context.addServlet(petHolder, "/pet/*");
+        context.addServlet(new ServletHolder(new StoreServlet(state, apiKeys, oauthTokens)), "/store/*");
+        context.addServlet(new ServletHolder(new UserServlet(state, apiKeys, oauthTokens)), "/user/*");
+        RequestStatsHandler requestStats = new RequestStatsHandler(context, CONTEXT_PATH, responseDelay);
+        jetty.setHandler(compression ? gzip(requestStats) : requestStats);
+
+        try {
+            jetty.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to start Petstore stand-in server", e);
+        }
+        this.server = jetty;
+        this.connector = serverConnector;
+        this.stats = requestStats;
+        log.info("Petstore stand-in server started at {}", getBaseUrl());
+        return this;
+    }
+
+    private GzipHandler gzip(RequestStatsHandler handler) {
+        GzipHandler gzip = new GzipHandler(handler);
+        gzip.setIncludedMethods("GET", "POST", "PUT", "DELETE");
+        gzip.setInflateBufferSize(INFLATE_BUFFER_SIZE);
+        if (compressionMinSize > 0) {
+            gzip.setMinGzipSize(compressionMinSize);
+        }
+        return gzip;
+    }
+
+    public int getPort() {
+        requireStarted();
+        return connector.getLocalPort();
+    }
+
+    /**
+     * Базовый URL для клиентов, например http://127.0.0.1:54321/v2
+     */
+    public String getBaseUrl() {
+        return "http://" + host + ":" + getPort() + CONTEXT_PATH;
+    }
+
+    /**
+     * Сколько запросов с методом {@code method} пришло на путь {@code path} относительно
+     * базового URL, например {@code getRequestCount("GET", "/pet/1")}
+     */
+    public long getRequestCount(String method, String path) {
+        requireStarted();
+        return stats.count(method, path);
+    }
+
+    /**
+     * Сколько разных клиентских соединений прислали запросы с запуска или последнего сброса счетчиков
+     */
+    public int getConnectionCount() {
+        requireStarted();
+        return stats.connectionCount();
+    }
+
+    /**
+     * Следующие {@code count} запросов с методом {@code method} на путь {@code path} получат
+     * ответ {@code status} вместо обычной обработки
+     */
+    public void injectFailures(String method, String path, int count, int status) {
+        requireStarted();
+        stats.injectFailures(method, path, count, status);
+    }
+
+    /**
+     * Следующие {@code count} запросов с методом {@code method} на путь {@code path} будут
+     * обработаны с задержкой {@code delay}
+     */
+    public void injectLatency(String method, String path, int count, Duration delay) {
+        requireStarted();
+        stats.injectLatency(method, path, count, delay);
+    }
+
+    /**
+     * Сбрасывает счетчики запросов и соединений, внедренные сбои и задержки
+     */
+    public void resetRequestCounts() {
+        requireStarted();
+        stats.reset();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.stop();
+        } catch (Exception e) {
+            log.error("Error stopping Petstore stand-in server: {}", e.getMessage());
+        } finally {
+            server = null;
+            connector = null;
+            stats = null;
+        }
+    }
+
+    private void requireStarted() {
+        if (connector == null) {
+            throw new IllegalStateException("Stand-in server is not started");
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.petstore.server;
+
+import com.petstore.model.Category;
+import com.petstore.model.Order;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import com.petstore.model.User;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Потокобезопасное состояние stand-in сервера: питомцы, заказы и пользователи в памяти.
+ * Хранимые объекты не изменяются на месте, обновление всегда заменяет запись целиком.
+ * Время последнего изменения общее для всего состояния и служит Last-Modified ответов.
+ */
+class PetstoreState {
+    private static final long FIRST_GENERATED_ID = 1000L;
+
+    private final ConcurrentMap<Long, Pet> pets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Order> orders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, User> users = new ConcurrentHashMap<>();
+    private final AtomicLong petIds = new AtomicLong(FIRST_GENERATED_ID);
+    private final AtomicLong orderIds = new AtomicLong(FIRST_GENERATED_ID);
+    private final AtomicLong userIds = new AtomicLong(FIRST_GENERATED_ID);
+    private final AtomicLong lastModified = new AtomicLong(System.currentTimeMillis());
+
+    PetstoreState() {
+        seedPets();
+    }
+
+    Pet getPet(long id) {
+        return pets.get(id);
+    }
+
+    Pet savePet(Pet pet) {
+        if (pet.getId() == null || pet.getId() <= 0) {
+            pet.setId(petIds.incrementAndGet());
+        }
+        pets.put(pet.getId(), pet);
+        touch();
+        return pet;
+    }
+
+    boolean deletePet(long id) {
+        return touched(pets.remove(id) != null);
+    }
+
+    List<Pet> findPetsByStatus(List<Pet.PetStatus> statuses) {
+        return pets.values().stream()
+            .filter(pet -> statuses.contains(pet.getStatus()))
+            .toList();
+    }
+
+    Map<String, Integer> getInventory() {
+        Map<Pet.PetStatus, Integer> counts = new EnumMap<>(Pet.PetStatus.class);
+        for (Pet pet : pets.values()) {
+            if (pet.getStatus() != null) {
+                counts.merge(pet.getStatus(), 1, Integer::sum);
+            }
+        }
+        Map<String, Integer> inventory = new LinkedHashMap<>();
+        counts.forEach((status, count) -> inventory.put(status.getValue(), count));
+        return inventory;
+    }
+
+    Order getOrder(long id) {
+        return orders.get(id);
+    }
+
+    Order saveOrder(Order order) {
+        if (order.getId() == null) {
+            order.setId(orderIds.incrementAndGet());
+        }
+        orders.put(order.getId(), order);
+        touch();
+        return order;
+    }
+
+    boolean deleteOrder(long id) {
+        return touched(orders.remove(id) != null);
+    }
+
+    User getUser(String username) {
+        return users.get(username);
+    }
+
+    User saveUser(User user) {
+        if (user.getId() == null || user.getId() <= 0) {
+            user.setId(userIds.incrementAndGet());
+        }
+        users.put(user.getUsername(), user);
+        touch();
+        return user;
+    }
+
+    boolean replaceUser(String username, User user) {
+        User existing = users.get(username);
+        if (existing == null) {
+            return false;
+        }
+        if (user.getId() == null || user.getId() <= 0) {
+            user.setId(existing.getId());
+        }
+        if (!username.equals(user.getUsername())) {
+            users.remove(username);
+        }
+        users.put(user.getUsername(), user);
+        touch();
+        return true;
+    }
+
+    boolean deleteUser(String username) {
+        return touched(users.remove(username) != null);
+    }
+
+    /**
+     * Время последнего изменения любой записи, мс от эпохи
+     */
+    long lastModified() {
+        return lastModified.get();
+    }
+
+    private void touch() {
+        lastModified.accumulateAndGet(System.currentTimeMillis(), Math::max);
+    }
+
+    private boolean touched(boolean changed) {
+        if (changed) {
+            touch();
+        }
+        return changed;
+    }
+
+    /**
+     * Те же стартовые данные, что и у демонстрационного Swagger Petstore.
+     */
+    private void seedPets() {
+        seedPet(1, "Cat 1", 2, "Cats", Pet.PetStatus.AVAILABLE);
+        seedPet(2, "Cat 2", 2, "Cats", Pet.PetStatus.AVAILABLE);
+        seedPet(3, "Cat 3", 2, "Cats", Pet.PetStatus.PENDING);
+        seedPet(4, "Dog 1", 1, "Dogs", Pet.PetStatus.AVAILABLE);
+        seedPet(5, "Dog 2", 1, "Dogs", Pet.PetStatus.SOLD);
+        seedPet(6, "Dog 3", 1, "Dogs", Pet.PetStatus.PENDING);
+        seedPet(7, "Lion 1", 4, "Lions", Pet.PetStatus.AVAILABLE);
+        seedPet(8, "Lion 2", 4, "Lions", Pet.PetStatus.AVAILABLE);
+        seedPet(9, "Lion 3", 4, "Lions", Pet.PetStatus.AVAILABLE);
+        seedPet(10, "Rabbit 1", 3, "Rabbits", Pet.PetStatus.AVAILABLE);
+    }
+
+    private void seedPet(long id, String name, long categoryId, String categoryName, Pet.PetStatus status) {
+        pets.put(id, Pet.builder()
+            .id(id)
+            .category(Category.builder().id(categoryId).name(categoryName).build())
+            .name(name)
+            .photoUrls(List.of("url1", "url2"))
+            .tags(List.of(Tag.builder().id(1L).name("tag1").build(), Tag.builder().id(2L).name("tag2").build()))
+            .status(status)
+            .build());
+    }
+}
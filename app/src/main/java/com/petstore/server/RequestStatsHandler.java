@@ -0,0 +1,114 @@
+package com.petstore.server;
+
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.Callback;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Считает запросы по методу и пути и при необходимости задерживает каждый ответ,
+ * чтобы тесты и нагрузка могли проверить, сколько запросов на самом деле дошло до сервера.
+ * Также отвечает заданной ошибкой или отвечает с задержкой на несколько следующих запросов
+ * к пути, имитируя сбои и медленные ответы. Запоминает адреса клиентских соединений,
+ * чтобы было видно, сколько соединений открыли клиенты.
+ */
+class RequestStatsHandler extends Handler.Wrapper {
+    private final String contextPath;
+    private final long delayMillis;
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final Map<String, Fault> faults = new ConcurrentHashMap<>();
+    private final Map<String, Slowdown> slowdowns = new ConcurrentHashMap<>();
+    private final Set<SocketAddress> clients = ConcurrentHashMap.newKeySet();
+
+    RequestStatsHandler(Handler handler, String contextPath, Duration delay) {
+        super(handler);
+        this.contextPath = contextPath;
+        this.delayMillis = delay.toMillis();
+    }
+
+    @Override
+    public boolean handle(Request request, Response response, Callback callback) throws Exception {
+        String path = request.getHttpURI().getPath();
+        if (path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        String key = key(request.getMethod(), path);
+        counts.computeIfAbsent(key, k -> new LongAdder()).increment();
+        clients.add(request.getConnectionMetaData().getRemoteSocketAddress());
+        if (delayMillis > 0) {
+            Thread.sleep(delayMillis);
+        }
+        Slowdown slowdown = slowdowns.get(key);
+        if (slowdown != null && slowdown.remaining.getAndDecrement() > 0) {
+            Thread.sleep(slowdown.delayMillis);
+        }
+        Fault fault = faults.get(key);
+        if (fault != null && fault.remaining.getAndDecrement() > 0) {
+            response.setStatus(fault.status);
+            response.getHeaders().put(HttpHeader.CONTENT_TYPE, "application/json");
+            String body = "{\"code\":" + fault.status + ",\"type\":\"error\",\"message\":\"Injected failure\"}";
+            response.write(true, ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)), callback);
+            return true;
+        }
+        return super.handle(request, response, callback);
+    }
+
+    void injectFailures(String method, String path, int count, int status) {
+        faults.put(key(method, path), new Fault(count, status));
+    }
+
+    void injectLatency(String method, String path, int count, Duration delay) {
+        slowdowns.put(key(method, path), new Slowdown(count, delay.toMillis()));
+    }
+
+    long count(String method, String path) {
+        LongAdder count = counts.get(key(method, path));
+        return count != null ? count.sum() : 0;
+    }
+
+    int connectionCount() {
+        return clients.size();
+    }
+
+    void reset() {
+        counts.clear();
+        clients.clear();
+        faults.clear();
+        slowdowns.clear();
+    }
+
+    private static String key(String method, String path) {
+        return method + " " + path;
+    }
+
+    private static final class Fault {
+        private final AtomicInteger remaining;
+        private final int status;
+
+        Fault(int count, int status) {
+            this.remaining = new AtomicInteger(count);
+            this.status = status;
+        }
+    }
+
+    private static final class Slowdown {
+        private final AtomicInteger remaining;
+        private final long delayMillis;
+
+        Slowdown(int count, long delayMillis) {
+            this.remaining = new AtomicInteger(count);
+            this.delayMillis = delayMillis;
+        }
+    }
+}
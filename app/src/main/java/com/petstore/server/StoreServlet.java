@@ -0,0 +1,109 @@
+package com.petstore.server;
+
+import com.petstore.model.Order;
+import com.petstore.model.OrderStatus;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Маршруты /store stand-in сервера.
+ */
+class StoreServlet extends JsonServlet {
+
+    StoreServlet(PetstoreState state, Set<String> apiKeys, Set<String> oauthTokens) {
+        super(state, apiKeys, oauthTokens);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        if (segments.length == 1 && segments[0].equals("inventory")) {
+            writeCacheableJson(req, resp, state.getInventory());
+        } else if (segments.length == 2 && segments[0].equals("order")) {
+            Long orderId = parseId(segments[1]);
+            if (orderId == null) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid ID supplied");
+                return;
+            }
+            Order order = state.getOrder(orderId);
+            if (order == null) {
+                writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Order not found");
+                return;
+            }
+            writeCacheableJson(req, resp, order);
+        } else {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown route");
+        }
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        if (segments.length != 1 || !segments[0].equals("order")) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown route");
+            return;
+        }
+        Order order = readBody(req, Order.class);
+        if (order == null || !isValid(order)) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid Order");
+            return;
+        }
+        writeJson(resp, HttpServletResponse.SC_OK, state.saveOrder(order));
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        if (segments.length != 2 || !segments[0].equals("order")) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown route");
+            return;
+        }
+        Long orderId = parseId(segments[1]);
+        if (orderId == null) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid ID supplied");
+        } else if (!state.deleteOrder(orderId)) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Order not found");
+        } else {
+            writeMessage(resp, String.valueOf(orderId));
+        }
+    }
+
+    private static boolean isValid(Order order) {
+        if (order.getId() != null && order.getId() <= 0) {
+            return false;
+        }
+        if (order.getQuantity() != null && order.getQuantity() < 0) {
+            return false;
+        }
+        if (order.getStatus() != null) {
+            try {
+                OrderStatus.valueOf(order.getStatus().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        if (order.getShipDate() != null) {
+            try {
+                OffsetDateTime.parse(order.getShipDate());
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,142 @@
+package com.petstore.server;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.petstore.model.User;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Маршруты /user stand-in сервера.
+ */
+class UserServlet extends JsonServlet {
+    private static final Pattern USERNAME = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final JavaType USER_LIST = MAPPER.getTypeFactory().constructType(new TypeReference<List<User>>() { });
+
+    UserServlet(PetstoreState state, Set<String> apiKeys, Set<String> oauthTokens) {
+        super(state, apiKeys, oauthTokens);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        if (segments.length != 1) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown route");
+        } else if (segments[0].equals("login")) {
+            login(req, resp);
+        } else if (segments[0].equals("logout")) {
+            writeMessage(resp, "ok");
+        } else if (!isValidUsername(segments[0])) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid username supplied");
+        } else {
+            User user = state.getUser(segments[0]);
+            if (user == null) {
+                writeError(resp, HttpServletResponse.SC_NOT_FOUND, "User not found");
+                return;
+            }
+            writeCacheableJson(req, resp, user);
+        }
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        if (segments.length == 0) {
+            User user = readBody(req, User.class);
+            if (user == null || !isValidUsername(user.getUsername())) {
+                writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid user supplied");
+                return;
+            }
+            writeMessage(resp, String.valueOf(state.saveUser(user).getId()));
+        } else if (segments.length == 1
+                && (segments[0].equals("createWithList") || segments[0].equals("createWithArray"))) {
+            createUsers(req, resp);
+        } else {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown route");
+        }
+    }
+
+    @Override
+    protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        if (segments.length != 1 || !isValidUsername(segments[0])) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid username supplied");
+            return;
+        }
+        User user = readBody(req, User.class);
+        if (user == null) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid user supplied");
+            return;
+        }
+        if (user.getUsername() == null) {
+            user.setUsername(segments[0]);
+        } else if (!isValidUsername(user.getUsername())) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid username supplied");
+            return;
+        }
+        if (!state.replaceUser(segments[0], user)) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "User not found");
+            return;
+        }
+        writeMessage(resp, String.valueOf(user.getId()));
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!authorize(req, resp)) {
+            return;
+        }
+        String[] segments = pathSegments(req);
+        if (segments.length != 1 || !isValidUsername(segments[0])) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid username supplied");
+        } else if (!state.deleteUser(segments[0])) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "User not found");
+        } else {
+            writeMessage(resp, segments[0]);
+        }
+    }
+
+    private void createUsers(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        List<User> users = readBody(req, USER_LIST);
+        if (users == null || users.stream().anyMatch(user -> user == null || !isValidUsername(user.getUsername()))) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid user supplied");
+            return;
+        }
+        users.forEach(state::saveUser);
+        writeMessage(resp, "ok");
+    }
+
+    private void login(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String username = req.getParameter("username");
+        String password = req.getParameter("password");
+        if (!isValidUsername(username) || password == null || password.isEmpty()) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, "Invalid username/password supplied");
+            return;
+        }
+        resp.setHeader("X-Rate-Limit", "5000");
+        resp.setHeader("X-Expires-After", DateTimeFormatter.RFC_1123_DATE_TIME
+            .format(ZonedDateTime.now(ZoneOffset.UTC).plusHours(1)));
+        writeMessage(resp, "logged in user session:" + System.currentTimeMillis());
+    }
+
+    private static boolean isValidUsername(String username) {
+        return username != null && USERNAME.matcher(username).matches();
+    }
+}
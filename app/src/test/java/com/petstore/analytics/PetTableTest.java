@@ -0,0 +1,163 @@
+package com.petstore.analytics;
+
+import com.petstore.client.PetApiClient;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.Category;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PetTableTest {
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
+    private final PetTable table = new PetTable();
+
+    @AfterEach
+    void tearDown() {
+        table.close();
+    }
+
+    private static Pet pet(long id) {
+        return Pet.builder()
+            .id(id)
+            .name("pet " + id)
+            .category(new Category(id % 5, "category " + id % 5))
+            .photoUrls(List.of("https://photos.example.com/" + id + ".jpg"))
+            .tags(List.of(new Tag(id % 7, "tag " + id % 7), new Tag(100 + id % 3, "tag " + (100 + id % 3))))
+            .status(Pet.PetStatus.values()[(int) (id % 3)])
+            .build();
+    }
+
+    private static ByteArrayInputStream json(List<Pet> pets) throws IOException {
+        return new ByteArrayInputStream(JacksonConfig.writerFor(JacksonConfig.PET_LIST).writeValueAsBytes(pets));
+    }
+
+    private static <K> Map<K, Long> count(List<Pet> pets, Function<Pet, K> key) {
+        return pets.stream().collect(Collectors.groupingBy(key, Collectors.counting()));
+    }
+
+    @Test
+    void shouldAggregateLikePojoList() throws IOException {
+        List<Pet> pets = LongStream.range(0, 1_000).mapToObj(PetTableTest::pet).toList();
+
+        assertThat(table.appendJson(json(pets))).isEqualTo(1_000);
+
+        assertThat(table.countByStatus(PetFilter.all())).isEqualTo(count(pets, Pet::getStatus));
+        assertThat(table.countByCategory(PetFilter.all())).isEqualTo(count(pets, pet -> pet.getCategory().getId()));
+        List<Pet> sold = pets.stream().filter(pet -> pet.getStatus() == Pet.PetStatus.SOLD).toList();
+        assertThat(table.countByCategory(PetFilter.all().status(Pet.PetStatus.SOLD)))
+            .isEqualTo(count(sold, pet -> pet.getCategory().getId()));
+        Map<Long, Long> tagsOfCategory2 = pets.stream()
+            .filter(pet -> pet.getCategory().getId() == 2)
+            .flatMap(pet -> pet.getTags().stream())
+            .collect(Collectors.groupingBy(Tag::getId, Collectors.counting()));
+        assertThat(table.countByTag(PetFilter.all().category(2))).isEqualTo(tagsOfCategory2);
+        assertThat(table.categories()).containsEntry(3L, "category 3").hasSize(5);
+    }
+
+    @Test
+    void shouldCombineFilters() throws IOException {
+        List<Pet> pets = LongStream.range(0, 1_000).mapToObj(PetTableTest::pet).toList();
+        table.appendJson(json(pets));
+        PetFilter filter = PetFilter.all().status(Pet.PetStatus.PENDING).category(1).tag(101);
+
+        List<Long> ids = new ArrayList<>();
+        table.forEachId(filter, ids::add);
+
+        List<Long> expected = pets.stream()
+            .filter(pet -> pet.getStatus() == Pet.PetStatus.PENDING && pet.getCategory().getId() == 1)
+            .filter(pet -> pet.getTags().stream().anyMatch(tag -> tag.getId() == 101))
+            .map(Pet::getId)
+            .toList();
+        assertThat(ids).isNotEmpty().isEqualTo(expected);
+        assertThat(table.count(filter)).isEqualTo(expected.size());
+        assertThat(table.count(PetFilter.all().tag(999))).isZero();
+    }
+
+    @Test
+    void shouldKeepMissingValuesAsEmpty() throws IOException {
+        String body = "[{\"id\":7,\"name\":\"bare\",\"extra\":{\"nested\":[1,2]}},"
+            + "{\"name\":\"no id\",\"category\":{\"name\":\"nameless\"},\"tags\":[null,{\"id\":1}],\"status\":\"SOLD\"}]";
+
+        table.appendJson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(table.id(0)).isEqualTo(7);
+        assertThat(table.status(0)).isNull();
+        assertThat(table.categoryId(0)).isEqualTo(PetTable.NO_ID);
+        assertThat(table.tagIds(0)).isEmpty();
+        assertThat(table.id(1)).isEqualTo(PetTable.NO_ID);
+        assertThat(table.status(1)).isEqualTo(Pet.PetStatus.SOLD);
+        assertThat(table.categories()).containsEntry(PetTable.NO_ID, "nameless");
+        assertThat(table.tagIds(1)).containsExactly(1L);
+        assertThat(table.countByStatus(PetFilter.all())).containsOnlyKeys(Pet.PetStatus.SOLD);
+    }
+
+    @Test
+    void shouldNotAddRowThatFailedToParse() {
+        String body = "[{\"id\":1,\"tags\":[{\"id\":1}],\"status\":\"available\"},"
+            + "{\"id\":2,\"tags\":[{\"id\":2}],\"status\":\"lost\"}]";
+
+        assertThatThrownBy(() -> table.appendJson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Unknown pet status: lost");
+        table.add(pet(3));
+
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.tagIds(0)).containsExactly(1L);
+        assertThat(table.tagIds(1)).containsExactly(pet(3).getTags().stream().mapToLong(Tag::getId).toArray());
+    }
+
+    @Test
+    void shouldGrowAcrossColumnChunks() {
+        Pet pet = pet(0);
+        int rows = Column.CHUNK + 10;
+        for (int i = 0; i < rows; i++) {
+            pet.setId((long) i);
+            table.add(pet);
+        }
+
+        assertThat(table.size()).isEqualTo(rows);
+        assertThat(table.id(rows - 1)).isEqualTo(rows - 1);
+        assertThat(table.tagIds(rows - 1)).containsExactly(0L, 100L);
+        assertThat(table.countByTag(PetFilter.all())).containsEntry(100L, (long) rows);
+        assertThat(table.count(PetFilter.all().status(Pet.PetStatus.AVAILABLE))).isEqualTo(rows);
+    }
+
+    @Test
+    void shouldLoadPetsStraightFromFindByStatus() {
+        PetApiClient client = new PetApiClient(TestServer.getBaseUrl());
+        long categoryId = fixtures.id();
+        List<Pet> ours = LongStream.range(0, 5).mapToObj(i -> {
+            Pet pet = pet(i);
+            pet.setCategory(new Category(categoryId, "fixture category"));
+            pet.setStatus(Pet.PetStatus.PENDING);
+            return fixtures.pet(pet);
+        }).toList();
+
+        long added = client.appendPetsByStatus("pending", table);
+
+        assertThat(added).isEqualTo(table.size()).isGreaterThanOrEqualTo(ours.size());
+        List<Long> ids = new ArrayList<>();
+        table.forEachId(PetFilter.all().category(categoryId), ids::add);
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(ours.stream().map(Pet::getId).toList());
+        assertThat(table.count(PetFilter.all().category(categoryId).status(Pet.PetStatus.PENDING))).isEqualTo(5);
+    }
+}
@@ -0,0 +1,185 @@
+package com.petstore.client;
+
+import com.petstore.config.CompressionConfig;
+import com.petstore.config.JacksonConfig;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.Pet;
+import com.petstore.server.PetstoreStandInServer;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressionTest {
+    private static PetstoreStandInServer server;
+
+    private HttpTransport transport;
+    private HttpServer captureServer;
+    private volatile Headers capturedHeaders;
+    private volatile byte[] capturedBody;
+
+    @BeforeAll
+    static void startServer() {
+        server = PetstoreStandInServer.builder().compression(true).build().start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    /**
+     * Сервер, запоминающий заголовки и сырое тело последнего запроса и отвечающий
+     * распакованным телом
+     */
+    @BeforeEach
+    void startCaptureServer() throws IOException {
+        captureServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        captureServer.createContext("/v2/pet", exchange -> {
+            capturedHeaders = exchange.getRequestHeaders();
+            capturedBody = exchange.getRequestBody().readAllBytes();
+            byte[] response = "gzip".equals(capturedHeaders.getFirst("Content-Encoding"))
+                ? gunzip(capturedBody)
+                : capturedBody;
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        captureServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        captureServer.stop(0);
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private HttpTransport transport(CompressionConfig compression) {
+        transport = new HttpTransport(TransportConfig.builder().compression(compression).build());
+        return transport;
+    }
+
+    private String captureUrl() {
+        return "http://127.0.0.1:" + captureServer.getAddress().getPort() + "/v2";
+    }
+
+    private static Pet largePet(long id) {
+        return Pet.builder()
+            .id(id)
+            .name("compressed")
+            .status(Pet.PetStatus.AVAILABLE)
+            .photoUrls(IntStream.range(0, 200).mapToObj(i -> "https://photos.example.com/pets/" + id + "/" + i + ".jpg")
+                .collect(Collectors.toList()))
+            .build();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void shouldGzipLargeSyncRequestBodies() throws IOException {
+        PetApiClient client = new PetApiClient(captureUrl(), transport(CompressionConfig.gzip(1024)));
+        Pet pet = largePet(9_180_001L);
+
+        assertThat(client.createPet(pet).getStatusCode()).isEqualTo(200);
+
+        assertThat(capturedHeaders.getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(capturedHeaders.getFirst("Transfer-Encoding")).isEqualTo("chunked");
+        byte[] json = gunzip(capturedBody);
+        assertThat(capturedBody.length).isLessThan(json.length / 4);
+        assertThat(JacksonConfig.readerFor(Pet.class).<Pet>readValue(json)).isEqualTo(pet);
+    }
+
+    @Test
+    void shouldGzipAsyncRequestBodiesAsStream() throws IOException {
+        PetApiAsyncClient client = new PetApiAsyncClient(captureUrl(), transport(CompressionConfig.gzip(1024)));
+        Pet pet = largePet(9_180_002L);
+
+        assertThat(client.createPet(pet).join()).isEqualTo(pet);
+
+        assertThat(capturedHeaders.getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(JacksonConfig.readerFor(Pet.class).<Pet>readValue(gunzip(capturedBody))).isEqualTo(pet);
+    }
+
+    @Test
+    void shouldNotCompressBodiesBelowThreshold() {
+        PetApiClient client = new PetApiClient(captureUrl(), transport(CompressionConfig.gzip(1024)));
+
+        client.createPet(Pet.builder().id(9_180_003L).name("small").build());
+
+        assertThat(capturedHeaders.containsKey("Content-Encoding")).isFalse();
+    }
+
+    @Test
+    void shouldNotCompressRequestsByDefault() {
+        PetApiAsyncClient client = new PetApiAsyncClient(captureUrl(), transport(CompressionConfig.defaults()));
+
+        client.createPet(largePet(9_180_004L)).join();
+
+        assertThat(capturedHeaders.containsKey("Content-Encoding")).isFalse();
+        assertThat(capturedHeaders.getFirst("Accept-Encoding")).contains("gzip");
+    }
+
+    @Test
+    void shouldNotNegotiateWhenCompressedResponsesAreDisabled() {
+        CompressionConfig identity = CompressionConfig.builder().acceptCompressed(false).build();
+        PetApiClient client = new PetApiClient(captureUrl(), transport(identity));
+
+        client.createPet(Pet.builder().id(9_180_005L).name("identity").build());
+
+        assertThat(capturedHeaders.containsKey("Accept-Encoding")).isFalse();
+    }
+
+    @Test
+    void shouldCompressResponsesOnStandInServer() throws Exception {
+        new PetApiClient(server.getBaseUrl(), transport(CompressionConfig.defaults())).createPet(largePet(9_180_006L));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/pet/9180006"))
+            .header("Accept-Encoding", "gzip")
+            .build();
+
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(JacksonConfig.readerFor(Pet.class).<Pet>readValue(gunzip(response.body()))).isEqualTo(largePet(9_180_006L));
+    }
+
+    @Test
+    void shouldRoundTripCompressedBodiesThroughStandInServer() {
+        HttpTransport gzip = transport(CompressionConfig.gzip(0));
+        PetApiClient client = new PetApiClient(server.getBaseUrl(), gzip);
+        PetApiAsyncClient asyncClient = new PetApiAsyncClient(server.getBaseUrl(), gzip);
+        List<Pet> pets = IntStream.range(0, 20).mapToObj(i -> largePet(9_180_100L + i)).toList();
+        pets.subList(0, 10).forEach(pet -> assertThat(client.createPet(pet).getStatusCode()).isEqualTo(200));
+        pets.subList(10, 20).forEach(pet -> asyncClient.createPet(pet).join());
+
+        assertThat(client.getPetByIdResult(9_180_100L).getBody()).isEqualTo(pets.get(0));
+        assertThat(asyncClient.getPetById(9_180_119L).join()).isEqualTo(pets.get(19));
+        assertThat(asyncClient.findPetsByStatus("available").join()).containsAll(pets);
+        assertThat(client.streamPetsByStatus("available").filter(pets::contains).count()).isEqualTo(pets.size());
+        assertThat(client.findPetsByStatusResult("available").getBody()).containsAll(pets);
+    }
+}
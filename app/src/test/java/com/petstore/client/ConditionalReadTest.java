@@ -0,0 +1,203 @@
+package com.petstore.client;
+
+import com.petstore.config.Http2Config;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.Pet;
+import com.petstore.server.PetstoreStandInServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ConditionalReadTest {
+    private static PetstoreStandInServer server;
+
+    private HttpTransport transport;
+
+    @BeforeAll
+    static void startServer() {
+        server = PetstoreStandInServer.builder().build().start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        server.resetRequestCounts();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private HttpTransport transport(boolean conditionalReads) {
+        transport = new HttpTransport(TransportConfig.builder().conditionalReads(conditionalReads).build());
+        return transport;
+    }
+
+    /**
+     * Last-Modified is only sent once the second of the last change is over
+     */
+    private static void awaitNextSecond() throws InterruptedException {
+        Thread.sleep(1_000 - System.currentTimeMillis() % 1_000 + 10);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedToMatchingValidators() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        URI inventory = URI.create(server.getBaseUrl() + "/store/inventory");
+        awaitNextSecond();
+        HttpResponse<String> first = http.send(HttpRequest.newBuilder(inventory).build(),
+            HttpResponse.BodyHandlers.ofString());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        String lastModified = first.headers().firstValue("Last-Modified").orElseThrow();
+
+        HttpResponse<String> byEtag = http.send(HttpRequest.newBuilder(inventory).header("If-None-Match", etag).build(),
+            HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> byDate = http.send(
+            HttpRequest.newBuilder(inventory).header("If-Modified-Since", lastModified).build(),
+            HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> stale = http.send(
+            HttpRequest.newBuilder(inventory).header("If-None-Match", "\"0-0\"").header("If-Modified-Since", lastModified).build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        assertThat(byEtag.statusCode()).isEqualTo(304);
+        assertThat(byEtag.body()).isEmpty();
+        assertThat(byDate.statusCode()).isEqualTo(304);
+        // If-None-Match важнее If-Modified-Since
+        assertThat(stale.statusCode()).isEqualTo(200);
+        assertThat(stale.body()).isEqualTo(first.body());
+    }
+
+    @Test
+    void shouldNotAnswerNotModifiedToChangeInSameSecond() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        URI inventory = URI.create(server.getBaseUrl() + "/store/inventory");
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport(false));
+        awaitNextSecond();
+        long second = System.currentTimeMillis() / 1_000;
+        pets.createPet(Pet.builder().id(9_200_002L).name("Same second").status(Pet.PetStatus.PENDING).build());
+        HttpResponse<String> changedThisSecond = http.send(HttpRequest.newBuilder(inventory).build(),
+            HttpResponse.BodyHandlers.ofString());
+        assumeTrue(System.currentTimeMillis() / 1_000 == second, "request crossed a second boundary");
+
+        assertThat(changedThisSecond.headers().firstValue("Last-Modified")).isEmpty();
+        assertThat(changedThisSecond.headers().firstValue("ETag")).isPresent();
+
+        awaitNextSecond();
+        HttpResponse<String> settled = http.send(HttpRequest.newBuilder(inventory).build(),
+            HttpResponse.BodyHandlers.ofString());
+        String lastModified = settled.headers().firstValue("Last-Modified").orElseThrow();
+        pets.createPet(Pet.builder().id(9_200_003L).name("Next second").status(Pet.PetStatus.PENDING).build());
+        HttpResponse<String> changed = http.send(
+            HttpRequest.newBuilder(inventory).header("If-Modified-Since", lastModified).build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.body()).isNotEqualTo(settled.body());
+    }
+
+    @Test
+    void shouldReturnPreviouslyDecodedInventoryOnNotModified() {
+        StoreApiClient client = new StoreApiClient(server.getBaseUrl(), transport(true));
+
+        ApiResult<Map<String, Integer>> first = client.getInventoryResult();
+        ApiResult<Map<String, Integer>> second = client.getInventoryResult();
+
+        assertThat(first.getStatusCode()).isEqualTo(200);
+        assertThat(second.getBody()).isEqualTo(first.getBody()).isNotSameAs(first.getBody());
+        assertThat(client.getNotModifiedCount()).isEqualTo(1);
+        assertThat(server.getRequestCount("GET", "/store/inventory")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotShareDecodedResultBetweenCallers() {
+        PetApiClient client = new PetApiClient(server.getBaseUrl(), transport(true));
+
+        ApiResult<Pet> first = client.getPetByIdResult(1L);
+        String name = first.getBody().getName();
+        first.getBody().setName("Changed by caller");
+        ApiResult<Pet> second = client.getPetByIdResult(1L);
+        second.getBody().setName("Changed again");
+        ApiResult<Pet> third = client.getPetByIdResult(1L);
+
+        assertThat(client.getNotModifiedCount()).isEqualTo(2);
+        assertThat(second.getBody().getId()).isEqualTo(1L);
+        assertThat(third.getBody().getName()).isEqualTo(name);
+    }
+
+    @Test
+    void shouldReadChangedInventoryAfterWrite() {
+        StoreApiClient client = new StoreApiClient(server.getBaseUrl(), transport(true));
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        ApiResult<Map<String, Integer>> before = client.getInventoryResult();
+
+        pets.createPet(Pet.builder().id(9_200_001L).name("Conditional").status(Pet.PetStatus.PENDING).build());
+        ApiResult<Map<String, Integer>> after = client.getInventoryResult();
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getBody().get("pending")).isEqualTo(before.getBody().getOrDefault("pending", 0) + 1);
+        assertThat(client.getNotModifiedCount()).isZero();
+        assertThat(client.getInventoryResult().getBody()).isEqualTo(after.getBody());
+        assertThat(client.getNotModifiedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepValidatorsPerCredentials() {
+        StoreApiClient client = new StoreApiClient(server.getBaseUrl(), transport(true));
+
+        ApiResult<Map<String, Integer>> withKey = client.getInventoryWithAuthResult("special-key");
+        ApiResult<Map<String, Integer>> withToken = client.getInventoryWithOAuthResult("token");
+
+        assertThat(withToken).isNotSameAs(withKey);
+        assertThat(client.getNotModifiedCount()).isZero();
+        assertThat(client.getInventoryWithAuthResult("special-key").getBody()).isEqualTo(withKey.getBody());
+        assertThat(client.getInventoryWithOAuthResult("token").getBody()).isEqualTo(withToken.getBody());
+        assertThat(client.getNotModifiedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSendConditionalReadsOverHttp2() {
+        transport = new HttpTransport(TransportConfig.builder()
+            .conditionalReads(true)
+            .http2(Http2Config.of(1, 100))
+            .build());
+        PetApiClient client = new PetApiClient(server.getBaseUrl(), transport);
+
+        ApiResult<Pet> first = client.getPetByIdResult(1L);
+        ApiResult<Pet> second = client.getPetByIdResult(1L);
+
+        assertThat(first.getBody().getId()).isEqualTo(1L);
+        assertThat(second.getBody()).isEqualTo(first.getBody()).isNotSameAs(first.getBody());
+        assertThat(client.getNotModifiedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReadUnconditionallyByDefault() {
+        StoreApiClient client = new StoreApiClient(server.getBaseUrl(), transport(false));
+
+        ApiResult<Map<String, Integer>> first = client.getInventoryResult();
+        ApiResult<Map<String, Integer>> second = client.getInventoryResult();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getStatusCode()).isEqualTo(200);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(client.getNotModifiedCount()).isZero();
+    }
+}
@@ -0,0 +1,178 @@
+package com.petstore.client;
+
+import com.petstore.config.HedgingConfig;
+import com.petstore.config.RateLimit;
+import com.petstore.config.RateLimitConfig;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.User;
+import com.petstore.server.PetstoreStandInServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Isolated
+class HedgingTest {
+    private static final Duration SLOW = Duration.ofSeconds(2);
+    private static final Duration FAST_ENOUGH = Duration.ofSeconds(1);
+
+    private static PetstoreStandInServer server;
+
+    private HttpTransport transport;
+
+    @BeforeAll
+    static void startServer() {
+        server = PetstoreStandInServer.builder().build().start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        server.resetRequestCounts();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private HttpTransport transport(HedgingConfig.HedgingConfigBuilder hedging, int maxInFlight) {
+        transport = new HttpTransport(TransportConfig.builder()
+            .maxInFlight(maxInFlight)
+            .hedging(hedging.enabled(true).build())
+            .build());
+        return transport;
+    }
+
+    private static Duration timed(Runnable call) {
+        long start = System.nanoTime();
+        call.run();
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    @Test
+    void shouldAnswerFromHedgeWhenFirstAttemptIsSlow() {
+        HttpTransport transport = transport(HedgingConfig.builder().initialDelay(Duration.ofMillis(50)), 0);
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        StoreApiClient store = new StoreApiClient(server.getBaseUrl(), transport);
+        server.injectLatency("GET", "/pet/1", 1, SLOW);
+        server.injectLatency("GET", "/store/inventory", 1, SLOW);
+
+        assertThat(timed(() -> assertThat(pets.getPetByIdResult(1L).getBody().getId()).isEqualTo(1L)))
+            .isLessThan(FAST_ENOUGH);
+        assertThat(timed(() -> assertThat(store.getInventoryResult().isSuccessful()).isTrue()))
+            .isLessThan(FAST_ENOUGH);
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(2);
+        assertThat(server.getRequestCount("GET", "/store/inventory")).isEqualTo(2);
+        assertThat(transport.hedger().getHedgesWon()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldWaitForSlowSuccessWhenHedgeFails() {
+        HttpTransport transport = transport(HedgingConfig.builder().initialDelay(Duration.ofMillis(50)), 0);
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        // первый запрос спит и не успевает забрать сбой, его получает хедж
+        server.injectLatency("GET", "/pet/1", 1, Duration.ofMillis(300));
+        server.injectFailures("GET", "/pet/1", 1, 503);
+
+        assertThat(pets.getPetByIdResult(1L).getStatusCode()).isEqualTo(200);
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(2);
+        assertThat(transport.hedger().getHedgesWon()).isZero();
+    }
+
+    @Test
+    void shouldNotHedgeFastResponses() {
+        HttpTransport transport = transport(HedgingConfig.builder().initialDelay(FAST_ENOUGH), 0);
+        UserApiClient users = new UserApiClient(server.getBaseUrl(), transport);
+        users.createUser(User.builder().username("hedged").build());
+        for (int i = 0; i < 5; i++) {
+            assertThat(users.getUserByUsernameResult("hedged").isSuccessful()).isTrue();
+        }
+
+        assertThat(server.getRequestCount("GET", "/user/hedged")).isEqualTo(5);
+        assertThat(transport.hedger().getHedgesSent()).isZero();
+    }
+
+    @Test
+    void shouldDeriveDelayFromObservedLatencies() {
+        HttpTransport transport = transport(HedgingConfig.builder()
+            .initialDelay(Duration.ofSeconds(10))
+            .minSamples(10), 0);
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        for (int i = 0; i < 10; i++) {
+            pets.getPetByIdResult(1L);
+        }
+        server.injectLatency("GET", "/pet/1", 1, SLOW);
+
+        assertThat(timed(() -> pets.getPetByIdResult(1L))).isLessThan(FAST_ENOUGH);
+        assertThat(transport.hedger().getHedgesWon()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStopHedgingWhenBudgetIsSpent() {
+        HttpTransport transport = transport(HedgingConfig.builder()
+            .initialDelay(Duration.ofMillis(50))
+            .budgetMaxTokens(1)
+            .budgetRatio(0), 0);
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        server.injectLatency("GET", "/pet/1", 1, Duration.ofMillis(300));
+        pets.getPetByIdResult(1L);
+        server.injectLatency("GET", "/pet/1", 1, Duration.ofMillis(300));
+
+        assertThat(timed(() -> pets.getPetByIdResult(1L))).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+        assertThat(transport.hedger().getHedgesSent()).isEqualTo(1);
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReleaseCancelledLoserSlot() {
+        // с лимитом в два запроса следующий хедж возможен, только если отмененный проигравший освободил место
+        HttpTransport transport = transport(HedgingConfig.builder().initialDelay(Duration.ofMillis(50)), 2);
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        for (int i = 0; i < 3; i++) {
+            server.injectLatency("GET", "/pet/1", 1, SLOW);
+            assertThat(timed(() -> pets.getPetByIdResult(1L))).isLessThan(FAST_ENOUGH);
+        }
+
+        assertThat(transport.hedger().getHedgesWon()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldSkipHedgeWithoutFreeInFlightSlot() {
+        HttpTransport transport = transport(HedgingConfig.builder().initialDelay(Duration.ofMillis(50)), 1);
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        server.injectLatency("GET", "/pet/1", 1, Duration.ofMillis(300));
+
+        assertThat(pets.getPetByIdResult(1L).isSuccessful()).isTrue();
+        assertThat(transport.hedger().getHedgesSent()).isZero();
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepRateLimitPermitWhenHedgeHasNoInFlightSlot() {
+        transport = new HttpTransport(TransportConfig.builder()
+            .maxInFlight(1)
+            .hedging(HedgingConfig.builder().enabled(true).initialDelay(Duration.ofMillis(50)).build())
+            .rateLimit(RateLimitConfig.builder().limit("GET /pet/{petId}", RateLimit.of(0.001, 2)).build())
+            .build());
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        server.injectLatency("GET", "/pet/1", 1, Duration.ofMillis(300));
+
+        assertThat(pets.getPetByIdResult(1L).isSuccessful()).isTrue();
+        assertThat(transport.hedger().getHedgesSent()).isZero();
+        // из двух разрешений первый запрос взял одно, неотправленный хедж - ни одного
+        assertThat(transport.getRateLimiter().tryAcquire("GET /pet/{petId}")).isTrue();
+    }
+}
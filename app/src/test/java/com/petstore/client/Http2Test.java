@@ -0,0 +1,161 @@
+package com.petstore.client;
+
+import com.petstore.config.Http2Config;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.Order;
+import com.petstore.model.Pet;
+import com.petstore.server.PetstoreStandInServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Isolated
+class Http2Test {
+    private static final Duration LATENCY = Duration.ofMillis(100);
+
+    private static PetstoreStandInServer server;
+
+    private HttpTransport transport;
+
+    @BeforeAll
+    static void startServer() {
+        server = PetstoreStandInServer.builder().build().start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        server.resetRequestCounts();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private HttpTransport transport(Http2Config http2) {
+        transport = new HttpTransport(TransportConfig.builder().http2(http2).build());
+        return transport;
+    }
+
+    /**
+     * Первый запрос каждого соединения поднимает h2c через Upgrade; дальше соединения только переиспользуются
+     */
+    private void warmUp(int connections) {
+        PetApiAsyncClient client = new PetApiAsyncClient(server.getBaseUrl(), transport);
+        for (int i = 0; i < connections; i++) {
+            client.getPetById(1L).join();
+        }
+        server.resetRequestCounts();
+    }
+
+    @Test
+    void shouldUpgradeCleartextConnectionToHttp2() {
+        transport(Http2Config.of(1, 100));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/pet/1")).build();
+
+        HttpResponse<byte[]> response = transport.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+    }
+
+    @Test
+    void shouldMultiplexConcurrentAsyncCallsOverFewConnections() {
+        transport(Http2Config.of(2, 100));
+        warmUp(2);
+        server.injectLatency("GET", "/pet/1", 200, LATENCY);
+        PetApiAsyncClient client = new PetApiAsyncClient(server.getBaseUrl(), transport);
+
+        List<CompletableFuture<Pet>> calls = IntStream.range(0, 200).mapToObj(i -> client.getPetById(1L)).toList();
+
+        assertThat(calls).allSatisfy(call -> assertThat(call.join().getId()).isEqualTo(1L));
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(200);
+        assertThat(server.getConnectionCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void shouldSendSyncTypedReadsOverHttp2() throws Exception {
+        transport(Http2Config.of(2, 100));
+        StoreApiClient client = new StoreApiClient(server.getBaseUrl(), transport);
+        Order order = new Order();
+        order.setId(9_190_001L);
+        order.setPetId(1L);
+        order.setQuantity(1);
+        client.placeOrder(order);
+        warmUp(2);
+        server.injectLatency("GET", "/store/order/9190001", 32, LATENCY);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<ApiResult<Order>>> calls = IntStream.range(0, 32)
+                .mapToObj(i -> executor.submit(() -> client.getOrderByIdResult(9_190_001L)))
+                .toList();
+            for (Future<ApiResult<Order>> call : calls) {
+                assertThat(call.get().getBody().getId()).isEqualTo(9_190_001L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(server.getConnectionCount()).isLessThanOrEqualTo(2);
+        assertThat(client.getMetrics().snapshot().get("store.getOrderById").getRequests()).isEqualTo(32);
+    }
+
+    @Test
+    void shouldQueueCallsBeyondStreamLimit() {
+        transport(Http2Config.of(1, 2));
+        warmUp(1);
+        server.injectLatency("GET", "/pet/1", 6, LATENCY);
+        PetApiAsyncClient client = new PetApiAsyncClient(server.getBaseUrl(), transport);
+        long start = System.nanoTime();
+
+        List<CompletableFuture<Pet>> calls = IntStream.range(0, 6).mapToObj(i -> client.getPetById(1L)).toList();
+        calls.forEach(CompletableFuture::join);
+
+        // шесть запросов по два в полете - не меньше трех задержек подряд
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(LATENCY.multipliedBy(3));
+        assertThat(server.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldQueueWithoutBlockingCallerAndDropCancelledCalls() {
+        transport(Http2Config.of(1, 1));
+        warmUp(1);
+        server.injectLatency("GET", "/pet/1", 1, LATENCY.multipliedBy(3));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/pet/1")).build();
+        long start = System.nanoTime();
+
+        CompletableFuture<HttpResponse<byte[]>> first = transport.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<HttpResponse<byte[]>> queued = transport.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<HttpResponse<byte[]>> cancelled = transport.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(LATENCY);
+        assertThat(cancelled.cancel(true)).isTrue();
+        assertThat(queued.join().statusCode()).isEqualTo(200);
+        assertThat(first.join().statusCode()).isEqualTo(200);
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(2);
+    }
+}
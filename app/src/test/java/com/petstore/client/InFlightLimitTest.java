@@ -0,0 +1,77 @@
+package com.petstore.client;
+
+import com.petstore.config.TransportConfig;
+import com.petstore.model.Pet;
+import com.petstore.server.PetstoreStandInServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Isolated
+class InFlightLimitTest {
+    private static final Duration LATENCY = Duration.ofMillis(200);
+
+    private static PetstoreStandInServer server;
+
+    private HttpTransport transport;
+
+    @BeforeAll
+    static void startServer() {
+        server = PetstoreStandInServer.builder().build().start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        server.resetRequestCounts();
+        transport = new HttpTransport(TransportConfig.builder().maxInFlight(1).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        transport.close();
+    }
+
+    @Test
+    void shouldQueueAsyncCallsWithoutBlockingCaller() {
+        PetApiAsyncClient client = new PetApiAsyncClient(server.getBaseUrl(), transport);
+        server.injectLatency("GET", "/pet/1", 3, LATENCY);
+        long start = System.nanoTime();
+
+        List<CompletableFuture<Pet>> calls = IntStream.range(0, 3).mapToObj(i -> client.getPetById(1L)).toList();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(LATENCY);
+        assertThat(calls).allSatisfy(call -> assertThat(call.join().getId()).isEqualTo(1L));
+        // по одному запросу в полете - не меньше трех задержек подряд
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(LATENCY.multipliedBy(3));
+    }
+
+    @Test
+    void shouldDropCancelledQueuedCall() {
+        PetApiAsyncClient client = new PetApiAsyncClient(server.getBaseUrl(), transport);
+        server.injectLatency("GET", "/pet/1", 1, LATENCY);
+
+        CompletableFuture<Pet> first = client.getPetById(1L);
+        CompletableFuture<Pet> cancelled = client.getPetById(2L);
+        CompletableFuture<Pet> queued = client.getPetById(3L);
+        cancelled.cancel(true);
+
+        assertThat(queued.join().getId()).isEqualTo(3L);
+        assertThat(first.join().getId()).isEqualTo(1L);
+        assertThat(server.getRequestCount("GET", "/pet/2")).isZero();
+    }
+}
@@ -0,0 +1,152 @@
+package com.petstore.client;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.petstore.config.JacksonConfig;
+import com.petstore.config.LoggingConfig;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.User;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Isolated
+class LoggingFilterTest {
+    private final Logger httpLogger = (Logger) LoggerFactory.getLogger("com.petstore.client.http");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+    private Level previousLevel;
+    private HttpTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        previousLevel = httpLogger.getLevel();
+        httpLogger.setLevel(Level.DEBUG);
+        appender.start();
+        httpLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpLogger.detachAppender(appender);
+        httpLogger.setLevel(previousLevel);
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private HttpTransport transport(LoggingConfig logging) {
+        transport = new HttpTransport(TransportConfig.builder().logging(logging).build());
+        return transport;
+    }
+
+    @Test
+    void shouldRedactCredentialsAndTruncateBodies() {
+        HttpTransport transport = transport(LoggingConfig.builder()
+            .mode(LoggingConfig.Mode.ALL)
+            .maxBodyLength(8)
+            .build());
+        new StoreApiClient(TestServer.getBaseUrl(), transport).getInventoryWithAuth("special-key");
+        new UserApiClient(TestServer.getBaseUrl(), transport).login("user1", "secret-password");
+
+        assertThat(appender.list).hasSize(2);
+        String inventory = appender.list.get(0).getFormattedMessage();
+        assertThat(inventory)
+            .contains("GET", "/store/inventory", "-> 200", "api_key=***", "total]")
+            .doesNotContain("special-key");
+        String login = appender.list.get(1).getFormattedMessage();
+        assertThat(login).contains("password=***").doesNotContain("secret-password");
+    }
+
+    @Test
+    void shouldRedactSecretCrossingTruncationLimit() throws Exception {
+        User user = fixtures.unique(User.builder().firstName("Jane").password("straddling-secret").build());
+        String json = JacksonConfig.writerFor(User.class).writeValueAsString(user);
+        HttpTransport transport = transport(LoggingConfig.builder()
+            .mode(LoggingConfig.Mode.ALL)
+            .maxBodyLength(json.indexOf("straddling-secret") + 4)
+            .build());
+        new UserApiClient(TestServer.getBaseUrl(), transport).createUser(user);
+
+        assertThat(appender.list).singleElement().satisfies(event -> assertThat(event.getFormattedMessage())
+            .contains("\"password\":\"***\"", "total]")
+            .doesNotContain("stra"));
+    }
+
+    @Test
+    void shouldTruncateBodiesOnCharacterBoundary() throws Exception {
+        User user = fixtures.unique(User.builder().firstName("Жанна").password("secret").build());
+        String json = JacksonConfig.writerFor(User.class).writeValueAsString(user);
+        String prefix = json.substring(0, json.indexOf("Жанна"));
+        HttpTransport transport = transport(LoggingConfig.builder()
+            .mode(LoggingConfig.Mode.ALL)
+            .maxBodyLength(prefix.getBytes(StandardCharsets.UTF_8).length + 3)
+            .build());
+        new UserApiClient(TestServer.getBaseUrl(), transport).createUser(user);
+
+        assertThat(appender.list).singleElement().satisfies(event -> assertThat(event.getFormattedMessage())
+            .contains("request body: " + prefix + "Ж... [")
+            .doesNotContain("\uFFFD"));
+    }
+
+    @Test
+    void shouldLogOnlyFailedCallsInFailedMode() {
+        HttpTransport transport = transport(LoggingConfig.builder().mode(LoggingConfig.Mode.FAILED).build());
+        StoreApiClient client = new StoreApiClient(TestServer.getBaseUrl(), transport);
+        client.getInventory();
+        client.getOrderById(Long.MAX_VALUE);
+
+        assertThat(appender.list).singleElement().satisfies(event -> {
+            assertThat(event.getLevel()).isEqualTo(Level.WARN);
+            assertThat(event.getFormattedMessage()).contains("-> 404", "Order not found");
+        });
+    }
+
+    @Test
+    void shouldLogSlowCallsInSlowOrFailedMode() {
+        HttpTransport transport = transport(LoggingConfig.builder()
+            .mode(LoggingConfig.Mode.SLOW_OR_FAILED)
+            .slowThreshold(Duration.ZERO)
+            .build());
+        new PetApiAsyncClient(TestServer.getBaseUrl(), transport).getPetById(1L).join();
+
+        assertThat(appender.list).singleElement()
+            .satisfies(event -> assertThat(event.getFormattedMessage()).contains("GET", "/pet/1"));
+    }
+
+    @Test
+    void shouldSampleSuccessfulCalls() {
+        HttpTransport transport = transport(LoggingConfig.builder()
+            .mode(LoggingConfig.Mode.ALL)
+            .sampleRate(1_000_000)
+            .build());
+        StoreApiClient client = new StoreApiClient(TestServer.getBaseUrl(), transport);
+        for (int i = 0; i < 20; i++) {
+            client.getInventory();
+        }
+
+        assertThat(appender.list.size()).isLessThan(20);
+    }
+
+    @Test
+    void shouldNotLogWhenLoggerDisabled() {
+        httpLogger.setLevel(Level.ERROR);
+        HttpTransport transport = transport(LoggingConfig.builder().mode(LoggingConfig.Mode.ALL).build());
+        new StoreApiClient(TestServer.getBaseUrl(), transport).getOrderById(Long.MAX_VALUE);
+
+        assertThat(appender.list).isEmpty();
+    }
+}
@@ -0,0 +1,127 @@
+package com.petstore.client;
+
+import com.petstore.client.metrics.MetricsRegistry;
+import com.petstore.client.metrics.OperationMetrics;
+import com.petstore.client.metrics.OperationSnapshot;
+import com.petstore.config.ResilienceConfig;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.Pet;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class MetricsTest {
+    private HttpTransport transport;
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private HttpTransport transport() {
+        transport = new HttpTransport(TransportConfig.builder().resilience(ResilienceConfig.disabled()).build());
+        return transport;
+    }
+
+    @Test
+    void shouldRecordCallsPerOperation() {
+        PetApiClient client = new PetApiClient(TestServer.getBaseUrl(), transport());
+        client.getPetById(1L);
+        client.getPetByIdResult(1L);
+        client.getPetById(Long.MAX_VALUE);
+        client.createPet(Pet.builder().id(9_160_001L).name("metrics").build());
+
+        Map<String, OperationSnapshot> snapshot = client.getMetrics().snapshot();
+        assertThat(snapshot).containsOnlyKeys("pet.getById", "pet.create");
+        OperationSnapshot getById = snapshot.get("pet.getById");
+        assertThat(getById.getRequests()).isEqualTo(3);
+        assertThat(getById.getErrors()).containsExactly(Map.entry(404, 1L));
+        assertThat(getById.getBytesSent()).isZero();
+        assertThat(getById.getBytesReceived()).isPositive();
+        assertThat(getById.getP50()).isPositive().isLessThanOrEqualTo(getById.getMaxLatency());
+        OperationSnapshot create = snapshot.get("pet.create");
+        assertThat(create.getBytesSent()).isPositive();
+        assertThat(create.getErrorCount()).isZero();
+    }
+
+    @Test
+    void shouldRecordStreamedUploads() {
+        PetApiClient client = new PetApiClient(TestServer.getBaseUrl(), transport());
+        client.uploadImage(1L, "metrics", "metrics.jpg", ByteBuffer.wrap(new byte[1024]), "test:abc123");
+        client.uploadImage(1L, "metrics", "metrics.jpg", new ByteArrayInputStream(new byte[512]), "test:abc123");
+
+        OperationSnapshot upload = client.getMetrics().snapshot().get("pet.uploadImage");
+        assertThat(upload.getRequests()).isEqualTo(2);
+        // поток длины не знает: его байты считаются по мере отправки
+        assertThat(upload.getBytesSent()).isEqualTo(1024 + 512);
+        assertThat(upload.getBytesReceived()).isPositive();
+        assertThat(upload.getErrorCount()).isZero();
+    }
+
+    @Test
+    void shouldRecordCallsWithoutResponse() {
+        UserApiClient client = new UserApiClient("http://127.0.0.1:1/v2", transport());
+
+        assertThatThrownBy(() -> client.login("user", "password")).isInstanceOf(Exception.class);
+        assertThat(client.getMetrics().snapshot().get("user.login").getErrors())
+            .containsExactly(Map.entry(OperationMetrics.NO_RESPONSE, 1L));
+    }
+
+    @Test
+    void shouldEstimateQuantilesWithinHistogramPrecision() {
+        OperationMetrics metrics = new MetricsRegistry().operation("test.op");
+        for (int millis = 1; millis <= 1000; millis++) {
+            metrics.record(200, 0, 0, Duration.ofMillis(millis).toNanos());
+        }
+
+        OperationSnapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.getP50().toMillis()).isCloseTo(500, within(16L));
+        assertThat(snapshot.getP99().toMillis()).isCloseTo(990, within(32L));
+        assertThat(snapshot.getP999().toMillis()).isCloseTo(999, within(32L));
+        assertThat(snapshot.getMaxLatency()).isEqualTo(Duration.ofMillis(1000));
+    }
+
+    @Test
+    void shouldRecordWithoutAllocating() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        OperationMetrics metrics = new MetricsRegistry().operation("test.op");
+        for (int i = 0; i < 10_000; i++) {
+            metrics.record(i % 2 == 0 ? 200 : 503, 100, 200, i * 1000L);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            metrics.record(i % 2 == 0 ? 200 : 503, 100, 200, i * 1000L);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    @Test
+    void shouldExportTextExposition() {
+        StoreApiClient client = new StoreApiClient(TestServer.getBaseUrl(), transport());
+        client.getInventory();
+        client.getOrderById(Long.MAX_VALUE);
+
+        String text = client.getMetrics().toText();
+        assertThat(text)
+            .contains("# TYPE petstore_client_requests_total counter")
+            .contains("petstore_client_requests_total{operation=\"store.getInventory\"} 1")
+            .contains("petstore_client_errors_total{operation=\"store.getOrderById\",status=\"404\"} 1")
+            .contains("petstore_client_latency_seconds{operation=\"store.getInventory\",quantile=\"0.99\"} ")
+            .contains("petstore_client_latency_seconds_count{operation=\"store.getOrderById\"} 1");
+    }
+}
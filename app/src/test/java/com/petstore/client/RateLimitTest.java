@@ -0,0 +1,164 @@
+package com.petstore.client;
+
+import com.petstore.client.resilience.RateLimitExceededException;
+import com.petstore.client.resilience.TokenBucket;
+import com.petstore.config.RateLimit;
+import com.petstore.config.RateLimitConfig;
+import com.petstore.config.TransportConfig;
+import com.petstore.server.PetstoreStandInServer;
+import com.petstore.util.TestOrderLoader;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Isolated
+class RateLimitTest {
+    private static PetstoreStandInServer server;
+
+    private HttpTransport transport;
+
+    @BeforeAll
+    static void startServer() {
+        server = PetstoreStandInServer.builder().build().start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        server.resetRequestCounts();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private HttpTransport transport(RateLimitConfig rateLimit) {
+        transport = new HttpTransport(TransportConfig.builder().rateLimit(rateLimit).build());
+        return transport;
+    }
+
+    private static Duration timed(Runnable call) {
+        long start = System.nanoTime();
+        call.run();
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    @Test
+    void shouldAllowBurstThenRefuse() {
+        TokenBucket bucket = new TokenBucket(RateLimit.of(0.001, 3));
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldRefillAtConfiguredRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(RateLimit.of(100, 1));
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        TimeUnit.MILLISECONDS.sleep(20);
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldNotOverGrantUnderContention() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(RateLimit.of(0.001, 50));
+        int threads = 8;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 1000; j++) {
+                    if (bucket.tryAcquire()) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(granted).hasValue(50);
+    }
+
+    @Test
+    void shouldPaceSyncCallsOfLimitedGroup() {
+        StoreApiClient client = new StoreApiClient(server.getBaseUrl(),
+            transport(RateLimitConfig.builder().limit("/store", RateLimit.of(20, 1)).build()));
+
+        assertThat(timed(() -> {
+            for (int i = 0; i < 5; i++) {
+                assertThat(client.getInventory().getStatusCode()).isEqualTo(200);
+            }
+        })).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    void shouldFailFastInNonBlockingMode() {
+        HttpTransport transport = transport(RateLimitConfig.builder()
+            .limit("POST /store/order", RateLimit.of(0.001, 2))
+            .maxWait(Duration.ZERO)
+            .build());
+        StoreApiClient client = new StoreApiClient(server.getBaseUrl(), transport);
+        client.placeOrder(TestOrderLoader.getTestOrder());
+        client.placeOrder(TestOrderLoader.getTestOrder());
+
+        assertThatThrownBy(() -> client.placeOrder(TestOrderLoader.getTestOrder()))
+            .isInstanceOf(RateLimitExceededException.class)
+            .hasMessageContaining("POST /store/order");
+        assertThat(server.getRequestCount("POST", "/store/order")).isEqualTo(2);
+        assertThat(client.getInventory().getStatusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldDelayAsyncCallsWithoutBlockingCaller() {
+        StoreApiAsyncClient client = new StoreApiAsyncClient(server.getBaseUrl(),
+            transport(RateLimitConfig.builder().limit("/store", RateLimit.of(20, 1)).build()));
+        List<CompletableFuture<Map<String, Integer>>> calls = new ArrayList<>();
+
+        long start = System.nanoTime();
+        assertThat(timed(() -> {
+            for (int i = 0; i < 5; i++) {
+                calls.add(client.getInventory());
+            }
+        })).isLessThan(Duration.ofMillis(150));
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+        assertThat(server.getRequestCount("GET", "/store/inventory")).isEqualTo(5);
+    }
+}
@@ -0,0 +1,111 @@
+package com.petstore.client;
+
+import com.petstore.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadCacheTest {
+    private final ReadCache<Long, StringBuilder> cache =
+        ReadCache.create(CacheConfig.defaults(), Duration.ofMinutes(1), StringBuilder::new);
+
+    @Test
+    void shouldDropLoadRacingWithInvalidate() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ApiResult<StringBuilder>> read = CompletableFuture.supplyAsync(() ->
+            cache.get(1L, key -> {
+                loading.countDown();
+                await(release);
+                return ok("before write");
+            }));
+        loading.await();
+
+        // сброс не ждет загрузку: она идет вне блокировок кэша
+        cache.invalidate(1L);
+        release.countDown();
+
+        assertThat(read.get().getBody()).hasToString("before write");
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.get(1L, key -> {
+            loads.incrementAndGet();
+            return ok("after write");
+        }).getBody()).hasToString("after write");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldNotBlockOtherKeysWhileLoading() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ApiResult<StringBuilder>> slow = CompletableFuture.supplyAsync(() ->
+            cache.get(3L, key -> {
+                loading.countDown();
+                await(release);
+                return ok("slow");
+            }));
+        loading.await();
+
+        try {
+            assertThat(cache.get(4L, key -> ok("fast")).getBody()).hasToString("fast");
+        } finally {
+            release.countDown();
+        }
+        assertThat(slow.get().getBody()).hasToString("slow");
+    }
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<ApiResult<StringBuilder>> leader = CompletableFuture.supplyAsync(() ->
+            cache.get(5L, key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return ok("shared");
+            }));
+        loading.await();
+        CompletableFuture<ApiResult<StringBuilder>> follower = CompletableFuture.supplyAsync(() ->
+            cache.get(5L, key -> {
+                loads.incrementAndGet();
+                return ok("own");
+            }));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(follower.get().getBody()).hasToString("shared");
+        assertThat(leader.get().getBody()).hasToString("shared").isNotSameAs(follower.get().getBody());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldNotCacheErrorsAndCopyBodies() {
+        ApiResult<StringBuilder> error = new ApiResult<>(404, Map.of(), null, null);
+        assertThat(cache.get(2L, key -> error)).isSameAs(error);
+
+        cache.get(2L, key -> ok("cached")).getBody().append(" and mutated");
+
+        assertThat(cache.get(2L, key -> ok("reloaded")).getBody()).hasToString("cached");
+        assertThat(cache.stats().missCount()).isEqualTo(2);
+    }
+
+    private static ApiResult<StringBuilder> ok(String body) {
+        return new ApiResult<>(200, Map.of(), new StringBuilder(body), null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
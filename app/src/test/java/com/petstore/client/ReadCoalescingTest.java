@@ -0,0 +1,128 @@
+package com.petstore.client;
+
+import com.petstore.config.TransportConfig;
+import com.petstore.server.PetstoreStandInServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Isolated
+class ReadCoalescingTest {
+    private static final int CALLERS = 16;
+
+    private static PetstoreStandInServer server;
+
+    private HttpTransport transport;
+    private ExecutorService executor;
+
+    @BeforeAll
+    static void startServer() {
+        server = PetstoreStandInServer.builder()
+            .responseDelay(Duration.ofMillis(300))
+            .build()
+            .start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        server.resetRequestCounts();
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private HttpTransport transport(boolean coalesceReads) {
+        transport = new HttpTransport(TransportConfig.builder().coalesceReads(coalesceReads).build());
+        return transport;
+    }
+
+    private <T> List<T> callConcurrently(Callable<T> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    @Test
+    void shouldSendOneRequestForConcurrentReadsOfSamePet() throws Exception {
+        PetApiClient client = new PetApiClient(server.getBaseUrl(), transport(true));
+
+        List<ApiResult<?>> results = callConcurrently(() -> client.getPetByIdResult(1L));
+
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(1);
+        assertThat(results).hasSize(CALLERS)
+            .allSatisfy(result -> assertThat(result.getBody()).isEqualTo(results.get(0).getBody()));
+        // каждый получает свою копию: изменение тела одним вызывающим не видно другим
+        Set<Object> bodies = Collections.newSetFromMap(new IdentityHashMap<>());
+        results.forEach(result -> bodies.add(result.getBody()));
+        assertThat(bodies).hasSize(CALLERS);
+    }
+
+    @Test
+    void shouldSendOneRequestForConcurrentInventoryReads() throws Exception {
+        StoreApiClient client = new StoreApiClient(server.getBaseUrl(), transport(true));
+
+        List<ApiResult<?>> results = callConcurrently(client::getInventoryResult);
+
+        assertThat(server.getRequestCount("GET", "/store/inventory")).isEqualTo(1);
+        assertThat(results).allSatisfy(result -> assertThat(result.getStatusCode()).isEqualTo(200));
+    }
+
+    @Test
+    void shouldShareFailuresAndRetryAfterCompletion() throws Exception {
+        PetApiClient client = new PetApiClient(server.getBaseUrl(), transport(true));
+
+        List<ApiResult<?>> results = callConcurrently(() -> client.getPetByIdResult(Long.MAX_VALUE));
+        client.getPetByIdResult(Long.MAX_VALUE);
+
+        assertThat(results).allSatisfy(result -> assertThat(result.getStatusCode()).isEqualTo(404));
+        assertThat(server.getRequestCount("GET", "/pet/" + Long.MAX_VALUE)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSendEveryRequestWhenCoalescingDisabled() throws Exception {
+        PetApiClient client = new PetApiClient(server.getBaseUrl(), transport(false));
+
+        callConcurrently(() -> client.getPetByIdResult(2L));
+
+        assertThat(server.getRequestCount("GET", "/pet/2")).isEqualTo(CALLERS);
+    }
+}
@@ -0,0 +1,211 @@
+package com.petstore.client;
+
+import com.petstore.client.resilience.CircuitBreaker;
+import com.petstore.client.resilience.CircuitBreakerOpenException;
+import com.petstore.config.HedgingConfig;
+import com.petstore.config.ResilienceConfig;
+import com.petstore.config.RetryPolicy;
+import com.petstore.config.TransportConfig;
+import com.petstore.model.Pet;
+import com.petstore.server.PetstoreStandInServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilienceTest {
+    private static final RetryPolicy FAST_RETRY = RetryPolicy.builder()
+        .initialBackoff(Duration.ofMillis(1))
+        .maxBackoff(Duration.ofMillis(5))
+        .build();
+
+    private static PetstoreStandInServer server;
+
+    private HttpTransport transport;
+    private final List<String> transitions = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void startServer() {
+        server = PetstoreStandInServer.builder().build().start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        server.resetRequestCounts();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private PetApiClient client(ResilienceConfig.ResilienceConfigBuilder resilience) {
+        return client(resilience, TransportConfig.builder());
+    }
+
+    private PetApiClient client(ResilienceConfig.ResilienceConfigBuilder resilience,
+                                TransportConfig.TransportConfigBuilder config) {
+        transport = new HttpTransport(config
+            .resilience(resilience
+                .breakerListener((operation, from, to) -> transitions.add(operation + ": " + from + " -> " + to))
+                .build())
+            .build());
+        return new PetApiClient(server.getBaseUrl(), transport);
+    }
+
+    @Test
+    void shouldRetryIdempotentReadAfterTransientFailures() {
+        PetApiClient client = client(ResilienceConfig.builder().defaultRetry(FAST_RETRY));
+        server.injectFailures("GET", "/pet/1", 2, 503);
+
+        assertThat(client.getPetById(1L).getStatusCode()).isEqualTo(200);
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(3);
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        PetApiClient client = client(ResilienceConfig.builder().defaultRetry(FAST_RETRY));
+        server.injectFailures("GET", "/pet/1", 5, 503);
+
+        assertThat(client.getPetById(1L).getStatusCode()).isEqualTo(503);
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotRetryNonIdempotentWriteByDefault() {
+        PetApiClient client = client(ResilienceConfig.builder().defaultRetry(FAST_RETRY));
+        server.injectFailures("POST", "/pet", 1, 503);
+
+        assertThat(client.createPet(pet()).getStatusCode()).isEqualTo(503);
+        assertThat(server.getRequestCount("POST", "/pet")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRetryWriteWithPerOperationPolicy() {
+        PetApiClient client = client(ResilienceConfig.builder().operationRetry("POST /pet", FAST_RETRY));
+        server.injectFailures("POST", "/pet", 1, 503);
+
+        assertThat(client.createPet(pet()).getStatusCode()).isEqualTo(200);
+        assertThat(server.getRequestCount("POST", "/pet")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStopRetryingWhenBudgetIsExhausted() {
+        PetApiClient client = client(ResilienceConfig.builder()
+            .defaultRetry(FAST_RETRY)
+            .retryBudgetMaxTokens(4)
+            .breakerMinimumCalls(1000));
+        server.injectFailures("GET", "/pet/1", 100, 503);
+
+        for (int i = 0; i < 5; i++) {
+            client.getPetById(1L);
+        }
+
+        // 4 жетона: после первой неудачи остается 3 и повтор разрешен, после второй - ровно половина,
+        // и дальше каждый вызов делает одну попытку
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(6);
+    }
+
+    @Test
+    void shouldOpenBreakerAndFailFastThenRecover() throws InterruptedException {
+        PetApiClient client = client(ResilienceConfig.builder()
+            .defaultRetry(RetryPolicy.none())
+            .breakerWindowSize(4)
+            .breakerMinimumCalls(4)
+            .breakerOpenDuration(Duration.ofMillis(300)));
+        server.injectFailures("GET", "/pet/2", 4, 503);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(client.getPetById(2L).getStatusCode()).isEqualTo(503);
+        }
+        assertThatThrownBy(() -> client.getPetById(2L))
+            .isInstanceOf(CircuitBreakerOpenException.class)
+            .hasMessageContaining("GET /pet/{petId}");
+        assertThat(server.getRequestCount("GET", "/pet/2")).isEqualTo(4);
+        assertThat(transport.getResilience().getCircuitBreakerState("GET /pet/{petId}"))
+            .isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(400);
+        assertThat(client.getPetById(2L).getStatusCode()).isEqualTo(200);
+        assertThat(transport.getResilience().getCircuitBreakerState("GET /pet/{petId}"))
+            .isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(transitions).containsExactly(
+            "GET /pet/{petId}: CLOSED -> OPEN",
+            "GET /pet/{petId}: OPEN -> HALF_OPEN",
+            "GET /pet/{petId}: HALF_OPEN -> CLOSED");
+    }
+
+    @Test
+    void shouldKeepBreakersPerOperation() {
+        PetApiClient client = client(ResilienceConfig.builder()
+            .defaultRetry(RetryPolicy.none())
+            .breakerWindowSize(2)
+            .breakerMinimumCalls(2));
+        server.injectFailures("GET", "/pet/3", 2, 503);
+        client.getPetById(3L);
+        client.getPetById(3L);
+
+        assertThat(client.findPetsByStatus("available").getStatusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldRetryAsyncReadAfterTransientFailures() {
+        client(ResilienceConfig.builder().defaultRetry(FAST_RETRY));
+        PetApiAsyncClient async = new PetApiAsyncClient(server.getBaseUrl(), transport);
+        server.injectFailures("GET", "/pet/1", 2, 503);
+
+        assertThat(async.getPetById(1L).join().getId()).isEqualTo(1L);
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(3);
+    }
+
+    @Test
+    void shouldShareBreakerBetweenSyncAndAsyncClients() {
+        PetApiClient client = client(ResilienceConfig.builder()
+            .defaultRetry(RetryPolicy.none())
+            .breakerWindowSize(2)
+            .breakerMinimumCalls(2)
+            .breakerOpenDuration(Duration.ofMinutes(1)));
+        PetApiAsyncClient async = new PetApiAsyncClient(server.getBaseUrl(), transport);
+        server.injectFailures("GET", "/pet/2", 2, 503);
+        client.getPetById(2L);
+        client.getPetById(2L);
+
+        assertThatThrownBy(() -> async.getPetById(3L).get())
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(server.getRequestCount("GET", "/pet/3")).isZero();
+    }
+
+    @Test
+    void shouldRetryHedgedRead() {
+        PetApiClient client = client(ResilienceConfig.builder().defaultRetry(FAST_RETRY),
+            TransportConfig.builder().hedging(HedgingConfig.builder()
+                .enabled(true)
+                .initialDelay(Duration.ofSeconds(10))
+                .build()));
+        server.injectFailures("GET", "/pet/1", 2, 503);
+
+        assertThat(client.getPetByIdResult(1L).isSuccessful()).isTrue();
+        assertThat(server.getRequestCount("GET", "/pet/1")).isEqualTo(3);
+    }
+
+    private static Pet pet() {
+        return Pet.builder().name("resilient pet").photoUrls(List.of()).status(Pet.PetStatus.AVAILABLE).build();
+    }
+}
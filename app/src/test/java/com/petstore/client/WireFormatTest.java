@@ -0,0 +1,162 @@
+package com.petstore.client;
+
+import com.petstore.config.JacksonConfig;
+import com.petstore.config.TransportConfig;
+import com.petstore.config.WireFormat;
+import com.petstore.model.Category;
+import com.petstore.model.Order;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import com.petstore.model.User;
+import com.petstore.server.PetstoreStandInServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WireFormatTest {
+    private static PetstoreStandInServer server;
+
+    private HttpTransport transport;
+
+    @BeforeAll
+    static void startServer() {
+        server = PetstoreStandInServer.builder().build().start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+
+    private HttpTransport transport(WireFormat format) {
+        transport = new HttpTransport(TransportConfig.builder().wireFormat(format).build());
+        return transport;
+    }
+
+    private static Pet pet(long id) {
+        return Pet.builder()
+            .id(id)
+            .name("binary " + id)
+            .category(new Category(3L, "Birds"))
+            .photoUrls(List.of("https://photos.example.com/" + id + ".jpg"))
+            .tags(List.of(new Tag(1L, "loud")))
+            .status(Pet.PetStatus.AVAILABLE)
+            .build();
+    }
+
+    @ParameterizedTest
+    @EnumSource(WireFormat.class)
+    void shouldCacheFormatReadersAndWriters(WireFormat format) {
+        assertThat(JacksonConfig.readerFor(format, JacksonConfig.readerFor(Pet.class)))
+            .isSameAs(JacksonConfig.readerFor(format, Pet.class))
+            .isSameAs(JacksonConfig.readerFor(format, Pet.class));
+        assertThat(JacksonConfig.writerFor(format, JacksonConfig.writerFor(JacksonConfig.USER_LIST)))
+            .isSameAs(JacksonConfig.writerFor(format, JacksonConfig.USER_LIST))
+            .isSameAs(JacksonConfig.writerFor(format, JacksonConfig.USER_LIST));
+    }
+
+    @Test
+    void shouldNegotiateFormatByAccept() {
+        assertThat(WireFormat.negotiate(null)).isEqualTo(WireFormat.JSON);
+        assertThat(WireFormat.negotiate("*/*")).isEqualTo(WireFormat.JSON);
+        assertThat(WireFormat.negotiate(WireFormat.SMILE.getAccept())).isEqualTo(WireFormat.SMILE);
+        assertThat(WireFormat.negotiate("application/json;q=0.9, application/cbor")).isEqualTo(WireFormat.CBOR);
+        assertThat(WireFormat.negotiate("application/cbor;q=0, application/json;q=0.1")).isEqualTo(WireFormat.JSON);
+        assertThat(WireFormat.fromContentType("application/x-jackson-smile; charset=ISO-8859-1"))
+            .isEqualTo(WireFormat.SMILE);
+        assertThat(WireFormat.fromContentType("text/plain")).isEqualTo(WireFormat.JSON);
+    }
+
+    @ParameterizedTest
+    @EnumSource(WireFormat.class)
+    void shouldExchangeModelsInFormat(WireFormat format) {
+        transport(format);
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        StoreApiClient store = new StoreApiClient(server.getBaseUrl(), transport);
+        UserApiClient users = new UserApiClient(server.getBaseUrl(), transport);
+        long id = 9_230_000L + format.ordinal();
+        Order order = new Order();
+        order.setId(id);
+        order.setPetId(id);
+        order.setQuantity(2);
+        User user = User.builder().id(id).username("binary" + format.ordinal()).email("binary@example.com").build();
+
+        ApiResult<Pet> created = pets.createPetResult(pet(id));
+        store.placeOrderResult(order);
+        users.createUserResult(user);
+
+        assertThat(created.getHeader("Content-Type")).startsWith(format.getContentType());
+        assertThat(created.getBody()).isEqualTo(pet(id));
+        assertThat(pets.getPetByIdResult(id).getBody()).isEqualTo(pet(id));
+        assertThat(store.getOrderByIdResult(id).getBody().getQuantity()).isEqualTo(2);
+        assertThat(users.getUserByUsernameResult(user.getUsername()).getBody().getEmail()).isEqualTo("binary@example.com");
+        assertThat(store.getInventoryResult().getBody()).containsKey("available");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = WireFormat.class, names = {"SMILE", "CBOR"})
+    void shouldDecodeErrorsInFormat(WireFormat format) {
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport(format));
+
+        ApiResult<Pet> missing = pets.getPetByIdResult(9_239_999L);
+
+        assertThat(missing.getStatusCode()).isEqualTo(404);
+        assertThat(missing.getHeader("Content-Type")).startsWith(format.getContentType());
+        assertThat(missing.getError().getMessage()).isEqualTo("Pet not found");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = WireFormat.class, names = {"SMILE", "CBOR"})
+    void shouldSendRawJsonBodiesAsJson(WireFormat format) {
+        transport(format);
+        PetApiClient pets = new PetApiClient(server.getBaseUrl(), transport);
+        PetApiAsyncClient asyncPets = new PetApiAsyncClient(server.getBaseUrl(), transport);
+        long id = 9_232_000L + format.ordinal();
+        String json = "{\"id\":" + id + ",\"name\":\"raw\",\"photoUrls\":[],\"status\":\"available\"}";
+
+        assertThat(pets.addNewPetWithOAuth(json, "token").getStatusCode()).isEqualTo(200);
+        Pet updated = asyncPets.updatePetWithOAuth(json.replace("available", "sold"), "token").join();
+
+        assertThat(updated.getStatus()).isEqualTo(Pet.PetStatus.SOLD);
+        assertThat(pets.getPetByIdResult(id).getBody().getName()).isEqualTo("raw");
+    }
+
+    @Test
+    void shouldUseFormatInAsyncClient() {
+        PetApiAsyncClient pets = new PetApiAsyncClient(server.getBaseUrl(), transport(WireFormat.CBOR));
+
+        Pet created = pets.createPet(pet(9_231_000L)).join();
+
+        assertThat(created).isEqualTo(pet(9_231_000L));
+        assertThat(pets.getPetById(9_231_000L).join()).isEqualTo(pet(9_231_000L));
+    }
+
+    @Test
+    void shouldAnswerJsonToJsonOnlyClients() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+            HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/pet/1")).header("Accept", "application/json").build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+            contentType -> assertThat(contentType).startsWith("application/json"));
+        assertThat(response.body()).startsWith("{");
+    }
+}
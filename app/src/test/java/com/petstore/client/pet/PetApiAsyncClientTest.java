@@ -0,0 +1,111 @@
+package com.petstore.client.pet;
+
+import com.petstore.client.ApiException;
+import com.petstore.client.PetApiAsyncClient;
+import com.petstore.model.ApiResponse;
+import com.petstore.model.Pet;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PetApiAsyncClientTest {
+    private static final String OAUTH2_TOKEN = "test:abc123";
+
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
+    private PetApiAsyncClient petApiAsyncClient;
+    private long petId;
+
+    @BeforeEach
+    void setUp() {
+        petApiAsyncClient = new PetApiAsyncClient(TestServer.getBaseUrl());
+        petId = fixtures.pet(Pet.builder()
+            .name("doggie")
+            .photoUrls(List.of("http://test.com/photo.jpg"))
+            .status(Pet.PetStatus.AVAILABLE)
+            .build()).getId();
+    }
+
+    @Test
+    void shouldGetPetById() {
+        Pet pet = petApiAsyncClient.getPetById(petId).join();
+        assertThat(pet.getId()).isEqualTo(petId);
+        assertThat(pet.getName()).isEqualTo("doggie");
+        assertThat(pet.getStatus()).isEqualTo(Pet.PetStatus.AVAILABLE);
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWhenPetNotFound() {
+        assertThatThrownBy(() -> petApiAsyncClient.getPetById(Long.MAX_VALUE).join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(ApiException.class)
+            .cause()
+            .satisfies(e -> assertThat(((ApiException) e).getStatusCode()).isEqualTo(404));
+    }
+
+    @Test
+    void shouldCreateFindAndDeletePet() {
+        Pet created = petApiAsyncClient.createPet(Pet.builder()
+            .name("async pet")
+            .photoUrls(List.of())
+            .status(Pet.PetStatus.PENDING)
+            .build()).join();
+        assertThat(created.getId()).isPositive();
+
+        List<Pet> pending = petApiAsyncClient.findPetsByStatus("pending").join();
+        assertThat(pending).extracting(Pet::getId).contains(created.getId());
+
+        ApiResponse deleted = petApiAsyncClient.deletePet(created.getId()).join();
+        assertThat(deleted.getCode()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldUploadImageWithOAuth2() {
+        String imagePath = new File(getClass().getClassLoader().getResource("test-data/test.jpg").getFile())
+            .getAbsolutePath();
+        ApiResponse response = petApiAsyncClient.uploadImageWithOAuth(petId, "test image", imagePath, OAUTH2_TOKEN)
+            .join();
+        assertThat(response.getCode()).isEqualTo(200);
+        assertThat(response.getMessage()).contains("uploaded");
+    }
+
+    @Test
+    void shouldUpdatePetWithFormData() {
+        ApiResponse response = petApiAsyncClient.updatePetWithFormData(petId, "renamed doggie", "sold").join();
+        assertThat(response.getCode()).isEqualTo(200);
+        Pet pet = petApiAsyncClient.getPetById(petId).join();
+        assertThat(pet.getName()).isEqualTo("renamed doggie");
+        assertThat(pet.getStatus()).isEqualTo(Pet.PetStatus.SOLD);
+    }
+
+    @Test
+    void shouldKeepFormFieldsPassedAsNull() {
+        ApiResponse response = petApiAsyncClient.updatePetWithFormData(petId, "renamed doggie", null).join();
+        assertThat(response.getCode()).isEqualTo(200);
+        assertThat(petApiAsyncClient.updatePetWithFormData(petId, null, "pending").join().getCode()).isEqualTo(200);
+        Pet pet = petApiAsyncClient.getPetById(petId).join();
+        assertThat(pet.getName()).isEqualTo("renamed doggie");
+        assertThat(pet.getStatus()).isEqualTo(Pet.PetStatus.PENDING);
+    }
+
+    @Test
+    void shouldKeepManyRequestsInFlightWithoutBlockingCaller() {
+        List<CompletableFuture<Pet>> futures = IntStream.range(0, 500)
+            .mapToObj(i -> petApiAsyncClient.getPetById(petId))
+            .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        assertThat(futures).allSatisfy(future -> assertThat(future.join().getId()).isEqualTo(petId));
+    }
+}
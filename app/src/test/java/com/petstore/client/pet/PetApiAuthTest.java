@@ -1,13 +1,19 @@
 package com.petstore.client.pet;
 
+import com.petstore.client.ApiResult;
 import com.petstore.client.PetApiClient;
+import com.petstore.model.Pet;
+import com.petstore.util.Fixtures;
 import com.petstore.util.TestPetLoader;
+import com.petstore.util.TestServer;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 
 import java.io.File;
 import java.net.URL;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -16,28 +22,42 @@ class PetApiAuthTest {
     private static final String INVALID_API_KEY = "invalid-key";
     private static final String OAUTH2_TOKEN = "test:abc123";
     private static final String INVALID_OAUTH2_TOKEN = "invalid-token";
-    private static final Long TEST_PET_ID = 1L;
     private static final String TEST_IMAGE_PATH = "test-data/test.jpg";
-    
+    private static final String INVALID_IMAGE_PATH = "test-data/invalid.txt";
+
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
     private PetApiClient petApiClient;
     private File testImageFile;
+    private Long petId;
 
     @BeforeEach
     void setUp() {
-        petApiClient = new PetApiClient();
-        URL imageUrl = getClass().getClassLoader().getResource(TEST_IMAGE_PATH);
-        if (imageUrl == null) {
-            throw new IllegalStateException("Test image file not found: " + TEST_IMAGE_PATH);
+        petApiClient = new PetApiClient(TestServer.getBaseUrl());
+        testImageFile = getTestResource(TEST_IMAGE_PATH);
+        petId = fixtures.pet(Pet.builder()
+            .name("doggie")
+            .photoUrls(List.of("http://test.com/photo.jpg"))
+            .status(Pet.PetStatus.AVAILABLE)
+            .build()).getId();
+    }
+
+    private File getTestResource(String path) {
+        URL resourceUrl = getClass().getClassLoader().getResource(path);
+        if (resourceUrl == null) {
+            throw new IllegalStateException("Test file not found: " + path);
         }
-        testImageFile = new File(imageUrl.getFile());
-        if (!testImageFile.exists() || !testImageFile.canRead()) {
-            throw new IllegalStateException("Cannot read test image file: " + testImageFile.getAbsolutePath());
+        File file = new File(resourceUrl.getFile());
+        if (!file.exists() || !file.canRead()) {
+            throw new IllegalStateException("Cannot read test file: " + file.getAbsolutePath());
         }
+        return file;
     }
 
     @Test
     void shouldDeletePetWithValidOAuth2Token() {
-        Response response = petApiClient.deletePetWithOAuth(TEST_PET_ID, OAUTH2_TOKEN);
+        Response response = petApiClient.deletePetWithOAuth(petId, OAUTH2_TOKEN);
         assertThat(response.getStatusCode()).isEqualTo(200);
         assertThat(response.jsonPath().getInt("code")).isEqualTo(200);
         assertThat(response.jsonPath().getString("type")).isEqualTo("unknown");
@@ -46,7 +66,7 @@ class PetApiAuthTest {
 
     @Test
     void shouldReturn401WhenDeletingPetWithInvalidOAuth2Token() {
-        Response response = petApiClient.deletePetWithOAuth(TEST_PET_ID, INVALID_OAUTH2_TOKEN);
+        Response response = petApiClient.deletePetWithOAuth(petId, INVALID_OAUTH2_TOKEN);
         assertThat(response.getStatusCode())
             .as("API should return 401 for invalid OAuth2 token")
             .isEqualTo(401);
@@ -59,7 +79,7 @@ class PetApiAuthTest {
 
     @Test
     void shouldUploadImageWithOAuth2() {
-        Response response = petApiClient.uploadImageWithOAuth(TEST_PET_ID, "test image", testImageFile.getAbsolutePath(), OAUTH2_TOKEN);
+        Response response = petApiClient.uploadImageWithOAuth(petId, "test image", testImageFile.getAbsolutePath(), OAUTH2_TOKEN);
         assertThat(response.getStatusCode()).isEqualTo(200);
         assertThat(response.jsonPath().getInt("code")).isEqualTo(200);
         assertThat(response.jsonPath().getString("type")).isNotEmpty();
@@ -68,7 +88,7 @@ class PetApiAuthTest {
 
     @Test
     void shouldReturn401WhenUploadingImageWithInvalidOAuth2Token() {
-        Response response = petApiClient.uploadImageWithOAuth(TEST_PET_ID, "test image", testImageFile.getAbsolutePath(), INVALID_OAUTH2_TOKEN);
+        Response response = petApiClient.uploadImageWithOAuth(petId, "test image", testImageFile.getAbsolutePath(), INVALID_OAUTH2_TOKEN);
         assertThat(response.getStatusCode())
             .as("API should return 401 for invalid OAuth2 token")
             .isEqualTo(401);
@@ -81,15 +101,23 @@ class PetApiAuthTest {
 
     @Test
     void shouldGetPetByIdWithValidApiKey() {
-        Response response = petApiClient.getPetByIdWithAuth(TEST_PET_ID, VALID_API_KEY);
+        Response response = petApiClient.getPetByIdWithAuth(petId, VALID_API_KEY);
         assertThat(response.getStatusCode()).isEqualTo(200);
         assertThat(response.jsonPath().getLong("id")).isPositive();
         assertThat(response.jsonPath().getString("name")).isNotEmpty();
     }
 
+    @Test
+    void shouldGetTypedPetByIdWithValidApiKey() {
+        ApiResult<Pet> result = petApiClient.getPetByIdWithAuthResult(petId, VALID_API_KEY);
+        assertThat(result.getStatusCode()).isEqualTo(200);
+        assertThat(result.getBody().getId()).isEqualTo(petId);
+        assertThat(result.getBody().getStatus()).isEqualTo(Pet.PetStatus.AVAILABLE);
+    }
+
     @Test
     void shouldReturn401WhenGettingPetWithInvalidApiKey() {
-        Response response = petApiClient.getPetByIdWithAuth(TEST_PET_ID, INVALID_API_KEY);
+        Response response = petApiClient.getPetByIdWithAuth(petId, INVALID_API_KEY);
         assertThat(response.getStatusCode())
             .as("API should return 401 for invalid API key")
             .isEqualTo(401);
@@ -106,6 +134,7 @@ class PetApiAuthTest {
         assertThat(response.getStatusCode()).isEqualTo(200);
         assertThat(response.jsonPath().getLong("id")).isPositive();
         assertThat(response.jsonPath().getString("name")).isEqualTo("test pet");
+        fixtures.deleteAfter(response.as(Pet.class));
     }
 
     @Test
@@ -131,8 +160,8 @@ class PetApiAuthTest {
 
     @Test
     void shouldReturn400WhenUploadingInvalidImageFormat() {
-        String invalidImagePath = "test-data/invalid.txt";
-        Response response = petApiClient.uploadImageWithOAuth(TEST_PET_ID, "invalid image", invalidImagePath, OAUTH2_TOKEN);
+        String invalidImagePath = getTestResource(INVALID_IMAGE_PATH).getAbsolutePath();
+        Response response = petApiClient.uploadImageWithOAuth(petId, "invalid image", invalidImagePath, OAUTH2_TOKEN);
         assertThat(response.getStatusCode())
             .as("API should return 400 for invalid image format")
             .isEqualTo(400);
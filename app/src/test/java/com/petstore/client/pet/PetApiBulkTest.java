@@ -0,0 +1,88 @@
+package com.petstore.client.pet;
+
+import com.petstore.client.ApiException;
+import com.petstore.client.BulkProgress;
+import com.petstore.client.BulkResult;
+import com.petstore.client.PetApiAsyncClient;
+import com.petstore.client.PetApiClient;
+import com.petstore.model.Pet;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PetApiBulkTest {
+    private static final int PET_COUNT = 300;
+
+    private PetApiAsyncClient petApiAsyncClient;
+    private PetApiClient petApiClient;
+
+    @BeforeEach
+    void setUp() {
+        petApiAsyncClient = new PetApiAsyncClient(TestServer.getBaseUrl());
+        petApiClient = new PetApiClient(TestServer.getBaseUrl());
+    }
+
+    private static Pet pet(int i) {
+        return Pet.builder()
+            .name("bulk pet " + i)
+            .photoUrls(List.of())
+            .status(Pet.PetStatus.AVAILABLE)
+            .build();
+    }
+
+    @Test
+    void shouldCreateAllPetsAndReportProgress() {
+        List<Pet> pets = IntStream.range(0, PET_COUNT).mapToObj(PetApiBulkTest::pet).toList();
+        ConcurrentLinkedQueue<BulkProgress> progress = new ConcurrentLinkedQueue<>();
+
+        BulkResult<Pet, Pet> result = petApiAsyncClient.createPets(pets, 16, progress::add).join();
+
+        assertThat(result.getSucceeded()).isEqualTo(PET_COUNT);
+        assertThat(result.getFailed()).isZero();
+        assertThat(result.getThroughput()).isPositive();
+        assertThat(result.getItems()).extracting(BulkResult.Item::getIndex)
+            .containsExactlyElementsOf(IntStream.range(0, PET_COUNT).boxed().toList());
+        assertThat(result.getItems()).allSatisfy(item ->
+            assertThat(item.getValue().getName()).isEqualTo(pets.get(item.getIndex()).getName()));
+        assertThat(result.getItems()).allSatisfy(item -> assertThat(item.getInput()).isNull());
+        assertThat(result.getItems()).extracting(item -> item.getValue().getId()).doesNotHaveDuplicates();
+        assertThat(progress).hasSize(PET_COUNT)
+            .anySatisfy(snapshot -> assertThat(snapshot.getCompleted()).isEqualTo(PET_COUNT));
+    }
+
+    @Test
+    void shouldReportFailedItemsWithoutAbortingBatch() {
+        List<Pet> pets = IntStream.range(0, 20)
+            .mapToObj(i -> i % 5 == 0 ? Pet.builder().photoUrls(List.of()).build() : pet(i))
+            .toList();
+
+        BulkResult<Pet, Pet> result = petApiClient.createPets(pets, 4);
+
+        assertThat(result.getSucceeded()).isEqualTo(16);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.failures()).allSatisfy(item -> {
+            assertThat(item.getIndex() % 5).isZero();
+            assertThat(item.getError()).isInstanceOf(ApiException.class);
+            assertThat(item.getInput()).isSameAs(pets.get(item.getIndex()));
+        });
+    }
+
+    @Test
+    void shouldHandleEmptyInput() {
+        BulkResult<Pet, Pet> result = petApiClient.createPets(List.of(), 8);
+        assertThat(result.getItems()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectNonPositiveConcurrency() {
+        assertThatThrownBy(() -> petApiAsyncClient.createPets(List.of(pet(0)), 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.petstore.client.pet;
+
+import com.petstore.client.ApiResult;
+import com.petstore.client.HttpTransport;
+import com.petstore.client.PetApiClient;
+import com.petstore.config.CacheConfig;
+import com.petstore.model.Pet;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetApiCacheTest {
+    private PetApiClient cachedClient;
+    private PetApiClient otherClient;
+    private Long petId;
+
+    @BeforeEach
+    void setUp() {
+        cachedClient = new PetApiClient(TestServer.getBaseUrl(), HttpTransport.shared(), CacheConfig.defaults());
+        otherClient = new PetApiClient(TestServer.getBaseUrl());
+        petId = otherClient.createPetResult(Pet.builder()
+            .name("cached pet")
+            .photoUrls(List.of())
+            .status(Pet.PetStatus.AVAILABLE)
+            .build()).orElseThrow().getId();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        ApiResult<Pet> first = cachedClient.getPetByIdResult(petId);
+        otherClient.updatePetWithFormData(petId, "renamed elsewhere", "sold");
+        ApiResult<Pet> second = cachedClient.getPetByIdResult(petId);
+
+        assertThat(second.getBody().getName()).isEqualTo("cached pet");
+        assertThat(second.getBody()).isEqualTo(first.getBody()).isNotSameAs(first.getBody());
+        assertThat(cachedClient.getCacheStats().hitCount()).isEqualTo(1);
+        assertThat(cachedClient.getCacheStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHandOutCopiesOfCachedBody() {
+        Pet first = cachedClient.getPetByIdResult(petId).getBody();
+        first.setName("mutated by caller");
+        first.getPhotoUrls().add("https://example.com/mutated.jpg");
+
+        Pet second = cachedClient.getPetByIdResult(petId).getBody();
+
+        assertThat(second.getName()).isEqualTo("cached pet");
+        assertThat(second.getPhotoUrls()).isEmpty();
+        assertThat(cachedClient.getCacheStats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldInvalidateOnWritesThroughSameClient() {
+        cachedClient.getPetByIdResult(petId);
+        cachedClient.updatePetWithFormData(petId, "renamed", "pending");
+        assertThat(cachedClient.getPetByIdResult(petId).getBody().getName()).isEqualTo("renamed");
+
+        cachedClient.updatePet(Pet.builder()
+            .id(petId)
+            .name("updated")
+            .photoUrls(List.of())
+            .status(Pet.PetStatus.SOLD)
+            .build());
+        assertThat(cachedClient.getPetByIdResult(petId).getBody().getName()).isEqualTo("updated");
+
+        cachedClient.deletePet(petId);
+        assertThat(cachedClient.getPetByIdResult(petId).getStatusCode()).isEqualTo(404);
+        assertThat(cachedClient.getCacheStats().hitCount()).isZero();
+    }
+
+    @Test
+    void shouldNotCacheErrors() {
+        cachedClient.getPetByIdResult(Long.MAX_VALUE);
+        cachedClient.getPetByIdResult(Long.MAX_VALUE);
+        assertThat(cachedClient.getCacheStats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReportEmptyStatsWithoutCache() {
+        otherClient.getPetByIdResult(petId);
+        assertThat(otherClient.getCacheStats().requestCount()).isZero();
+    }
+}
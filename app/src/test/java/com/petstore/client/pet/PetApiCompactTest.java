@@ -0,0 +1,118 @@
+package com.petstore.client.pet;
+
+import com.petstore.client.PetApiClient;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.Category;
+import com.petstore.model.CompactPet;
+import com.petstore.model.InternPool;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PetApiCompactTest {
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
+    private PetApiClient petApiClient;
+    private Set<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        petApiClient = new PetApiClient(TestServer.getBaseUrl());
+        ids = LongStream.range(0, 20)
+            .mapToObj(i -> fixtures.pet(pet(i)).getId())
+            .collect(Collectors.toSet());
+    }
+
+    private static Pet pet(long id) {
+        return Pet.builder()
+            .id(id)
+            .name("compact pet " + id)
+            .category(new Category(id % 2, "category-" + id % 2))
+            .photoUrls(List.of("https://photos.example.com/placeholder.jpg"))
+            .tags(List.of(new Tag(1L, "friendly"), new Tag(id % 3, "tag-" + id % 3)))
+            .status(Pet.PetStatus.SOLD)
+            .build();
+    }
+
+    private List<CompactPet> ours() {
+        return petApiClient.findCompactPetsByStatus("sold").stream()
+            .filter(pet -> ids.contains(pet.getId()))
+            .toList();
+    }
+
+    @Test
+    void shouldReadSamePetsAsRegularSearch() {
+        List<Pet> regular = petApiClient.findPetsByStatusResult("sold").orElseThrow().stream()
+            .filter(pet -> ids.contains(pet.getId()))
+            .toList();
+
+        assertThat(ours()).extracting(CompactPet::toPet).containsExactlyInAnyOrderElementsOf(regular);
+    }
+
+    @Test
+    void shouldShareEqualCategoriesTagsAndPhotoUrls() {
+        List<CompactPet> pets = ours();
+        CompactPet first = pets.get(0);
+        CompactPet sameCategory = pets.stream()
+            .filter(pet -> pet != first && pet.getCategory().equals(first.getCategory()))
+            .findFirst().orElseThrow();
+
+        assertThat(sameCategory.getCategory().getName()).isSameAs(first.getCategory().getName());
+        assertThat(sameCategory.getTags().get(0).getName()).isSameAs(first.getTags().get(0).getName());
+        assertThat(sameCategory.getPhotoUrls().get(0)).isSameAs(first.getPhotoUrls().get(0));
+        // пул общий для вызовов клиента
+        CompactPet again = ours().stream().filter(pet -> pet.getId().equals(first.getId())).findFirst().orElseThrow();
+        assertThat(again).isEqualTo(first).isNotSameAs(first);
+        assertThat(again.getCategory().getName()).isSameAs(first.getCategory().getName());
+    }
+
+    @Test
+    void shouldSerializeLikeRegularPet() throws Exception {
+        Pet pet = pet(0);
+        CompactPet compact = CompactPet.of(pet, new InternPool());
+
+        String json = JacksonConfig.writerFor(CompactPet.class).writeValueAsString(compact);
+
+        assertThat(json).isEqualTo(JacksonConfig.writerFor(Pet.class).writeValueAsString(pet));
+        assertThat(JacksonConfig.readerFor(CompactPet.class).<CompactPet>readValue(json)).isEqualTo(compact);
+    }
+
+    @Test
+    void shouldKeepViewImmutable() {
+        CompactPet compact = CompactPet.of(pet(0), null);
+
+        assertThatThrownBy(() -> compact.getTags().set(0, new Tag(2L, "other")))
+            .isInstanceOf(UnsupportedOperationException.class);
+        compact.toPet().getCategory().setName("changed");
+        compact.getCategory().setName("changed");
+        compact.getTags().get(0).setName("changed");
+        assertThat(compact.getCategory().getName()).isEqualTo("category-0");
+        assertThat(compact.getTags().get(0).getName()).isNotEqualTo("changed");
+    }
+
+    @Test
+    void shouldStopInterningWhenPoolIsFull() {
+        InternPool pool = new InternPool(2);
+        String a = pool.intern(new String("a"));
+        pool.intern(new String("b"));
+
+        String c = new String("c");
+        assertThat(pool.intern(new String("a"))).isSameAs(a);
+        assertThat(pool.intern(c)).isSameAs(c);
+        assertThat(pool.intern(new String("c"))).isNotSameAs(c);
+        assertThat(pool.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,128 @@
+package com.petstore.client.pet;
+
+import com.petstore.client.PetApiClient;
+import com.petstore.model.Pet;
+import com.petstore.util.TestIds;
+import com.petstore.util.TestServer;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Stress test for one PetApiClient instance shared by many threads against the stand-in server.
+ */
+@Isolated
+class PetApiConcurrencyTest {
+    private static final Logger log = LoggerFactory.getLogger(PetApiConcurrencyTest.class);
+    private static final int ITERATIONS_PER_THREAD = 20;
+
+    private final PetApiClient petApiClient = new PetApiClient(TestServer.getBaseUrl());
+
+    @Test
+    void shouldKeepPerCallStateIsolatedWhenSharedAcrossThreads() throws Exception {
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        List<String> errors = runWorkload(threads, ITERATIONS_PER_THREAD);
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    void shouldScaleThroughputWithThreadsOnSharedClient() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        assumeTrue(cores >= 2, "Throughput scaling needs at least two cores");
+
+        runWorkload(cores, ITERATIONS_PER_THREAD / 4);
+        double singleThread = measureThroughput(1);
+        double allCores = measureThroughput(cores);
+        log.info("Shared client throughput: 1 thread {} ops/s, {} threads {} ops/s ({}x)",
+            Math.round(singleThread), cores, Math.round(allCores), String.format("%.2f", allCores / singleThread));
+
+        assertThat(allCores)
+            .as("Throughput on %d threads should scale with cores", cores)
+            .isGreaterThan(singleThread * Math.min(cores, 4) * 0.5);
+    }
+
+    private double measureThroughput(int threads) throws Exception {
+        long start = System.nanoTime();
+        List<String> errors = runWorkload(threads, ITERATIONS_PER_THREAD);
+        long elapsed = System.nanoTime() - start;
+        assertThat(errors).isEmpty();
+        return threads * ITERATIONS_PER_THREAD * 1e9 / elapsed;
+    }
+
+    /**
+     * Every iteration creates a pet, reads it back, changes it with form data, checks the change
+     * and deletes it. Each call carries its own body/path/form state, so a leak between threads
+     * shows up as a wrong name, status or id.
+     */
+    private List<String> runWorkload(int threads, int iterations) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    for (int i = 0; i < iterations; i++) {
+                        runIteration(TestIds.nextId(), errors);
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new ArrayList<>(errors);
+    }
+
+    private void runIteration(long petId, ConcurrentLinkedQueue<String> errors) {
+        String name = "pet-" + petId;
+        Pet pet = Pet.builder()
+            .id(petId)
+            .name(name)
+            .photoUrls(List.of("http://test.com/" + name + ".jpg"))
+            .status(Pet.PetStatus.AVAILABLE)
+            .build();
+
+        check(errors, petId, "create", petApiClient.createPet(pet), 200);
+        Response created = petApiClient.getPetById(petId);
+        check(errors, petId, "get", created, 200);
+        if (created.getStatusCode() == 200 && !name.equals(created.jsonPath().getString("name"))) {
+            errors.add("Pet " + petId + " was read back as " + created.jsonPath().getString("name"));
+        }
+
+        check(errors, petId, "form update", petApiClient.updatePetWithFormData(petId, name + "-sold", "sold"), 200);
+        Response updated = petApiClient.getPetById(petId);
+        if (!(name + "-sold").equals(updated.jsonPath().getString("name"))
+                || !"sold".equals(updated.jsonPath().getString("status"))) {
+            errors.add("Pet " + petId + " form update leaked: " + updated.asString());
+        }
+
+        check(errors, petId, "delete", petApiClient.deletePet(petId), 200);
+    }
+
+    private static void check(ConcurrentLinkedQueue<String> errors, long petId, String operation,
+                              Response response, int expectedStatus) {
+        if (response.getStatusCode() != expectedStatus) {
+            errors.add(operation + " of pet " + petId + " returned " + response.getStatusCode());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.petstore.client.pet;
+
+import com.petstore.client.ApiException;
+import com.petstore.client.PetApiClient;
+import com.petstore.model.Pet;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PetApiStreamingTest {
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
+    private PetApiClient petApiClient;
+    private Set<Long> ours;
+
+    @BeforeEach
+    void setUp() {
+        petApiClient = new PetApiClient(TestServer.getBaseUrl());
+        ours = IntStream.range(0, 50)
+            .mapToObj(i -> fixtures.pet(Pet.builder()
+                .name("streamed pet " + i)
+                .photoUrls(List.of())
+                .status(Pet.PetStatus.AVAILABLE)
+                .build()).getId())
+            .collect(Collectors.toSet());
+    }
+
+    @Test
+    void shouldStreamSamePetsAsBufferedSearch() {
+        List<Long> buffered = petApiClient.findPetsByStatusResult("available").orElseThrow()
+            .stream().map(Pet::getId).filter(ours::contains).toList();
+        try (Stream<Pet> pets = petApiClient.streamPetsByStatus("available")) {
+            assertThat(pets.map(Pet::getId).filter(ours::contains).toList())
+                .containsExactlyInAnyOrderElementsOf(buffered)
+                .hasSameSizeAs(ours);
+        }
+    }
+
+    @Test
+    void shouldPassEachPetToCallback() {
+        List<Pet> received = new ArrayList<>();
+        petApiClient.forEachPetByStatus("available", received::add);
+        assertThat(received).hasSizeGreaterThanOrEqualTo(50)
+            .allSatisfy(pet -> assertThat(pet.getStatus()).isEqualTo(Pet.PetStatus.AVAILABLE));
+    }
+
+    @Test
+    void shouldStopReadingWhenStreamClosedEarly() {
+        try (Stream<Pet> pets = petApiClient.streamPetsByStatus("available")) {
+            assertThat(pets.limit(1).toList()).hasSize(1);
+        }
+        try (Stream<Pet> pets = petApiClient.streamPetsByStatus("available")) {
+            assertThat(pets.findFirst()).isPresent();
+        }
+    }
+
+    @Test
+    void shouldThrowApiExceptionForInvalidStatus() {
+        assertThatThrownBy(() -> petApiClient.streamPetsByStatus("unknown"))
+            .isInstanceOf(ApiException.class)
+            .satisfies(e -> assertThat(((ApiException) e).getStatusCode()).isEqualTo(400));
+    }
+}
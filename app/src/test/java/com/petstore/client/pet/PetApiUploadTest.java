@@ -0,0 +1,121 @@
+package com.petstore.client.pet;
+
+import com.petstore.client.BulkResult;
+import com.petstore.client.ImageUpload;
+import com.petstore.client.PetApiClient;
+import com.petstore.model.ApiResponse;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PetApiUploadTest {
+    private static final String OAUTH2_TOKEN = "test:abc123";
+    private static final int LARGE_IMAGE_SIZE = 5 * 1024 * 1024 + 17;
+
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
+    @TempDir
+    Path tempDir;
+
+    private PetApiClient petApiClient;
+    private long petId;
+
+    @BeforeEach
+    void setUp() {
+        petApiClient = new PetApiClient(TestServer.getBaseUrl());
+        petId = fixtures.pet().getId();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private Path image(String name, int size) throws IOException {
+        return Files.write(tempDir.resolve(name), randomBytes(size));
+    }
+
+    @Test
+    void shouldStreamLargeFileFromPath() throws IOException {
+        Path image = image("large.jpg", LARGE_IMAGE_SIZE);
+
+        ApiResponse response = petApiClient.uploadImage(petId, "from path", image, OAUTH2_TOKEN);
+
+        assertThat(response.getCode()).isEqualTo(200);
+        assertThat(response.getMessage()).contains("from path", "large.jpg", LARGE_IMAGE_SIZE + " bytes");
+    }
+
+    @Test
+    void shouldStreamInputStreamChunked() {
+        ApiResponse response = petApiClient.uploadImage(petId, "from stream", "stream.png",
+            new ByteArrayInputStream(randomBytes(LARGE_IMAGE_SIZE)), OAUTH2_TOKEN);
+
+        assertThat(response.getMessage()).contains("stream.png", LARGE_IMAGE_SIZE + " bytes");
+    }
+
+    @Test
+    void shouldUploadDirectBufferWithoutMovingItsPosition() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(LARGE_IMAGE_SIZE);
+        buffer.put(randomBytes(LARGE_IMAGE_SIZE)).flip();
+        buffer.position(1024);
+
+        ApiResponse response = petApiClient.uploadImage(petId, "from buffer", "buffer.jpg", buffer, OAUTH2_TOKEN);
+
+        assertThat(response.getMessage()).contains((LARGE_IMAGE_SIZE - 1024) + " bytes");
+        assertThat(buffer.position()).isEqualTo(1024);
+        assertThat(buffer.remaining()).isEqualTo(LARGE_IMAGE_SIZE - 1024);
+    }
+
+    @Test
+    void shouldEscapeQuotesInFileName() {
+        ApiResponse response = petApiClient.uploadImage(petId, "quoted", "pet \"best\".jpg",
+            new ByteArrayInputStream(randomBytes(16)), OAUTH2_TOKEN);
+
+        assertThat(response.getMessage()).contains("./pet %22best%22.jpg, 16 bytes");
+    }
+
+    @Test
+    void shouldRejectLineBreaksInMultipartFields() {
+        ByteBuffer image = ByteBuffer.wrap(randomBytes(16));
+
+        assertThatThrownBy(() -> petApiClient.uploadImage(petId, "meta", "a.jpg\"\r\nContent-Type: text/html",
+            image, OAUTH2_TOKEN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> petApiClient.uploadImage(petId, "meta\r\n--boundary", "a.jpg", image, OAUTH2_TOKEN))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldUploadBatchWithPerItemFailures() throws IOException {
+        List<ImageUpload> uploads = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            uploads.add(ImageUpload.of(petId, image("batch-" + i + ".jpg", 256 * 1024 + i), "batch " + i));
+        }
+        uploads.add(ImageUpload.of(petId, tempDir.resolve("missing.jpg")));
+
+        BulkResult<ImageUpload, ApiResponse> result = petApiClient.uploadImages(uploads, OAUTH2_TOKEN, 4);
+
+        assertThat(result.getSucceeded()).isEqualTo(20);
+        assertThat(result.getItems().subList(0, 20)).allSatisfy(item -> assertThat(item.getValue().getMessage())
+            .contains((256 * 1024 + item.getIndex()) + " bytes"));
+        assertThat(result.failures()).singleElement()
+            .satisfies(item -> assertThat(item.getError()).isInstanceOf(NoSuchFileException.class));
+    }
+}
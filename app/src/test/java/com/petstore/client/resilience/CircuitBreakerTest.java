@@ -0,0 +1,59 @@
+package com.petstore.client.resilience;
+
+import com.petstore.config.ResilienceConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+    private final CircuitBreaker breaker = new CircuitBreaker("GET /pet/{petId}", ResilienceConfig.builder()
+        .breakerWindowSize(2)
+        .breakerMinimumCalls(2)
+        .breakerOpenDuration(Duration.ofMillis(50))
+        .build(), (operation, from, to) -> { });
+
+    @Test
+    void shouldIgnoreCallStartedBeforeHalfOpen() throws InterruptedException {
+        long slow = breaker.tryAcquire();
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(60);
+        long probe = breaker.tryAcquire();
+        assertThat(probe).isNotNegative();
+        breaker.onSuccess(slow);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isNegative();
+        breaker.onSuccess(probe);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldIgnoreProbeOfEarlierHalfOpen() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("GET /pet/{petId}", ResilienceConfig.builder()
+            .breakerWindowSize(1)
+            .breakerMinimumCalls(1)
+            .breakerOpenDuration(Duration.ofMillis(50))
+            .breakerHalfOpenCalls(2)
+            .build(), (operation, from, to) -> { });
+        breaker.onFailure(breaker.tryAcquire());
+        Thread.sleep(60);
+        long stale = breaker.tryAcquire();
+        breaker.onFailure(breaker.tryAcquire());
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(60);
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        breaker.onFailure(stale);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(first);
+        breaker.onSuccess(second);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
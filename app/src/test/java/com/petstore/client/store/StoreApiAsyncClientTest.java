@@ -0,0 +1,55 @@
+package com.petstore.client.store;
+
+import com.petstore.client.ApiException;
+import com.petstore.client.StoreApiAsyncClient;
+import com.petstore.model.Order;
+import com.petstore.util.TestOrderLoader;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StoreApiAsyncClientTest {
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
+    private StoreApiAsyncClient storeApiAsyncClient;
+
+    @BeforeEach
+    void setUp() {
+        storeApiAsyncClient = new StoreApiAsyncClient(TestServer.getBaseUrl());
+    }
+
+    @Test
+    void shouldGetInventory() {
+        Map<String, Integer> inventory = storeApiAsyncClient.getInventory().join();
+        assertThat(inventory).isNotEmpty();
+    }
+
+    @Test
+    void shouldPlaceAndGetOrder() {
+        Order order = fixtures.unique(TestOrderLoader.getTestOrder());
+        Order placed = storeApiAsyncClient.placeOrder(order).join();
+        assertThat(placed.getId()).isEqualTo(order.getId());
+
+        Order retrieved = storeApiAsyncClient.getOrderById(order.getId()).join();
+        assertThat(retrieved.getPetId()).isEqualTo(order.getPetId());
+        assertThat(retrieved.getStatus()).isEqualTo(order.getStatus());
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWithInvalidApiKey() {
+        assertThatThrownBy(() -> storeApiAsyncClient.getInventoryWithAuth("invalid-key").join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(ApiException.class)
+            .cause()
+            .satisfies(e -> assertThat(((ApiException) e).getStatusCode()).isEqualTo(401));
+    }
+}
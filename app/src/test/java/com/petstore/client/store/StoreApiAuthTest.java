@@ -1,6 +1,7 @@
 package com.petstore.client.store;
 
 import com.petstore.client.StoreApiClient;
+import com.petstore.util.TestServer;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,7 +16,7 @@ class StoreApiAuthTest {
 
     @BeforeEach
     void setUp() {
-        storeApiClient = new StoreApiClient();
+        storeApiClient = new StoreApiClient(TestServer.getBaseUrl());
     }
 
     @Test
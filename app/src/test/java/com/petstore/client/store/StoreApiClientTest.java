@@ -1,20 +1,31 @@
 package com.petstore.client.store;
 
+import com.petstore.client.ApiResult;
+import com.petstore.client.HttpTransport;
 import com.petstore.client.StoreApiClient;
+import com.petstore.config.CacheConfig;
 import com.petstore.model.Order;
 import com.petstore.util.TestOrderLoader;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class StoreApiClientTest {
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
     private StoreApiClient storeApiClient;
 
     @BeforeEach
     void setUp() {
-        storeApiClient = new StoreApiClient();
+        storeApiClient = new StoreApiClient(TestServer.getBaseUrl());
     }
 
     @Test
@@ -26,7 +37,7 @@ class StoreApiClientTest {
 
     @Test
     void shouldPlaceOrder() {
-        Order order = TestOrderLoader.getTestOrder();
+        Order order = fixtures.unique(TestOrderLoader.getTestOrder());
         Response response = storeApiClient.placeOrder(order);
         assertThat(response.getStatusCode()).isEqualTo(200);
         Order createdOrder = response.as(Order.class);
@@ -148,7 +159,7 @@ class StoreApiClientTest {
 
     @Test
     void shouldHandleInvalidShipDate() {
-        Order order = TestOrderLoader.getTestOrder();
+        Order order = fixtures.unique(TestOrderLoader.getTestOrder());
         order.setShipDate(null);
         Response response = storeApiClient.placeOrder(order);
         assertThat(response.getStatusCode())
@@ -181,9 +192,40 @@ class StoreApiClientTest {
         assertThat(getResponse.jsonPath().getString("message")).isEqualTo("Order not found");
     }
 
+    @Test
+    void shouldDecodeTypedInventoryAndOrder() {
+        ApiResult<Map<String, Integer>> inventory = storeApiClient.getInventoryResult();
+        assertThat(inventory.getStatusCode()).isEqualTo(200);
+        assertThat(inventory.getBody()).containsKey("available");
+        assertThat(inventory.getHeader("content-type")).contains("application/json");
+
+        Order order = fixtures.unique(TestOrderLoader.getTestOrder());
+        ApiResult<Order> placed = storeApiClient.placeOrderResult(order);
+        assertThat(placed.orElseThrow().getId()).isEqualTo(order.getId());
+        assertThat(storeApiClient.getOrderByIdResult(order.getId()).getBody().getPetId()).isEqualTo(order.getPetId());
+    }
+
+    @Test
+    void shouldExposeTypedErrorForMissingOrder() {
+        ApiResult<Order> result = storeApiClient.getOrderByIdResult(999999L);
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.getBody()).isNull();
+        assertThat(result.getError().getMessage()).isEqualTo("Order not found");
+    }
+
+    @Test
+    void shouldCacheOrderUntilDeletedThroughSameClient() {
+        StoreApiClient cachedClient = new StoreApiClient(TestServer.getBaseUrl(), HttpTransport.shared(), CacheConfig.defaults());
+        Order order = createAndPlaceTestOrder();
+        assertThat(cachedClient.getOrderByIdResult(order.getId()).getStatusCode()).isEqualTo(200);
+        assertThat(cachedClient.getOrderByIdResult(order.getId()).getStatusCode()).isEqualTo(200);
+        assertThat(cachedClient.getCacheStats().hitCount()).isEqualTo(1);
+
+        cachedClient.deleteOrder(order.getId());
+        assertThat(cachedClient.getOrderByIdResult(order.getId()).getStatusCode()).isEqualTo(404);
+    }
+
     private Order createAndPlaceTestOrder() {
-        Order order = TestOrderLoader.getTestOrder();
-        Response response = storeApiClient.placeOrder(order);
-        return response.as(Order.class);
+        return fixtures.order(TestOrderLoader.getTestOrder());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.petstore.client.user;
+
+import com.petstore.client.ApiException;
+import com.petstore.client.BulkResult;
+import com.petstore.client.UserApiAsyncClient;
+import com.petstore.model.ApiResponse;
+import com.petstore.model.User;
+import com.petstore.util.TestDataLoader;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserApiAsyncClientTest {
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
+    private UserApiAsyncClient userApiAsyncClient;
+
+    @BeforeEach
+    void setUp() {
+        userApiAsyncClient = new UserApiAsyncClient(TestServer.getBaseUrl());
+    }
+
+    @Test
+    void shouldCreateAndGetUser() {
+        User testUser = fixtures.unique(TestDataLoader.getTestUser());
+        userApiAsyncClient.createUser(testUser).join();
+        User user = userApiAsyncClient.getUserByUsername(testUser.getUsername()).join();
+        assertThat(user.getUsername()).isEqualTo(testUser.getUsername());
+        assertThat(user.getEmail()).isEqualTo(testUser.getEmail());
+    }
+
+    @Test
+    void shouldLoginUser() {
+        User testUser = fixtures.unique(TestDataLoader.getTestUser());
+        ApiResponse response = userApiAsyncClient.login(testUser.getUsername(), testUser.getPassword()).join();
+        assertThat(response.getMessage()).startsWith("logged in user session");
+    }
+
+    @Test
+    void shouldCompleteExceptionallyForInvalidUsername() {
+        assertThatThrownBy(() -> userApiAsyncClient.getUserByUsername("@#$%^").join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(ApiException.class)
+            .cause()
+            .satisfies(e -> assertThat(((ApiException) e).getStatusCode()).isEqualTo(400));
+    }
+
+    @Test
+    void shouldReportFailedChunkWithoutAbortingOthers() {
+        String prefix = fixtures.username();
+        List<User> users = IntStream.range(0, 25)
+            .mapToObj(i -> User.builder().username(i == 12 ? "invalid user" : prefix + "_" + i).build())
+            .toList();
+
+        BulkResult<List<User>, ApiResponse> result = userApiAsyncClient
+            .createUsersInChunks(users.iterator(), 10, 2, progress -> { })
+            .join();
+
+        assertThat(result.getItems()).hasSize(3);
+        assertThat(result.failures()).singleElement().satisfies(item -> {
+            assertThat(item.getIndex()).isEqualTo(1);
+            assertThat(item.getInput()).hasSize(10).extracting(User::getUsername).contains("invalid user");
+            assertThat(((ApiException) item.getError()).getStatusCode()).isEqualTo(400);
+        });
+        assertThat(userApiAsyncClient.getUserByUsername(prefix + "_24").join().getUsername()).isEqualTo(prefix + "_24");
+    }
+
+    @Test
+    void shouldReleaseChunksOnceSent() {
+        String prefix = fixtures.username();
+        List<WeakReference<User>> sent = new ArrayList<>();
+        Iterator<User> users = IntStream.range(0, 2_000)
+            .mapToObj(i -> {
+                User user = User.builder().username(prefix + "_" + i).password("x".repeat(1_000)).build();
+                sent.add(new WeakReference<>(user));
+                return user;
+            })
+            .iterator();
+
+        BulkResult<List<User>, ApiResponse> result = userApiAsyncClient
+            .createUsersInChunks(users, 100, 2, progress -> { })
+            .join();
+
+        assertThat(result.getSucceeded()).isEqualTo(20);
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+        }
+        // HttpClient may still reference the last request of each connection, but no more than that
+        assertThat(sent.stream().filter(user -> user.get() != null).count()).isLessThanOrEqualTo(100 * 2);
+        assertThat(result.getItems()).hasSize(20);
+    }
+}
@@ -1,28 +1,40 @@
 package com.petstore.client.user;
 
+import com.petstore.client.ApiResult;
+import com.petstore.client.BulkResult;
+import com.petstore.client.HttpTransport;
 import com.petstore.client.UserApiClient;
+import com.petstore.config.CacheConfig;
+import com.petstore.model.ApiResponse;
 import com.petstore.model.User;
 import com.petstore.util.TestDataLoader;
+import com.petstore.util.Fixtures;
+import com.petstore.util.TestServer;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class UserApiClientTest {
+    @RegisterExtension
+    final Fixtures fixtures = new Fixtures();
+
     private UserApiClient userApiClient;
 
     @BeforeEach
     void setUp() {
-        userApiClient = new UserApiClient();
+        userApiClient = new UserApiClient(TestServer.getBaseUrl());
     }
 
     @Test
     void shouldCreateUser() {
-        User user = TestDataLoader.getTestUser();
+        User user = fixtures.unique(TestDataLoader.getTestUser());
         Response response = userApiClient.createUser(user);
         assertThat(response.getStatusCode()).isEqualTo(200);
     }
@@ -30,8 +42,8 @@ class UserApiClientTest {
     @Test
     void shouldCreateUsersWithArray() {
         User[] users = {
-            TestDataLoader.getTestUser(),
-            TestDataLoader.getAnotherTestUser()
+            fixtures.unique(TestDataLoader.getTestUser()),
+            fixtures.unique(TestDataLoader.getAnotherTestUser())
         };
         Response response = userApiClient.createUsersWithArray(users);
         assertThat(response.getStatusCode()).isEqualTo(200);
@@ -40,8 +52,8 @@ class UserApiClientTest {
     @Test
     void shouldCreateUsersWithList() {
         List<User> users = Arrays.asList(
-            TestDataLoader.getTestUser(),
-            TestDataLoader.getAnotherTestUser()
+            fixtures.unique(TestDataLoader.getTestUser()),
+            fixtures.unique(TestDataLoader.getAnotherTestUser())
         );
         Response response = userApiClient.createUsersWithList(users);
         assertThat(response.getStatusCode()).isEqualTo(200);
@@ -49,7 +61,7 @@ class UserApiClientTest {
 
     @Test
     void shouldGetUserByUsername() {
-        User testUser = TestDataLoader.getTestUser();
+        User testUser = fixtures.unique(TestDataLoader.getTestUser());
         createTestUserInSystem(testUser);
         Response response = userApiClient.getUserByUsername(testUser.getUsername());
         assertThat(response.getStatusCode()).isEqualTo(200);
@@ -85,9 +97,10 @@ class UserApiClientTest {
 
     @Test
     void shouldUpdateUser() {
-        User testUser = TestDataLoader.getTestUser();
+        User testUser = fixtures.unique(TestDataLoader.getTestUser());
         createTestUserInSystem(testUser);
         User updatedUser = TestDataLoader.getUpdatedUser();
+        updatedUser.setUsername(testUser.getUsername());
         Response response = userApiClient.updateUser(testUser.getUsername(), updatedUser);
         assertThat(response.getStatusCode()).isEqualTo(200);
     }
@@ -122,7 +135,7 @@ class UserApiClientTest {
 
     @Test
     void shouldDeleteUser() {
-        User testUser = TestDataLoader.getTestUser();
+        User testUser = fixtures.unique(TestDataLoader.getTestUser());
         createTestUserInSystem(testUser);
         Response response = userApiClient.deleteUser(testUser.getUsername());
         assertThat(response.getStatusCode()).isEqualTo(200);
@@ -159,7 +172,7 @@ class UserApiClientTest {
 
     @Test
     void shouldLoginUserAndReturnSessionHeaders() {
-        User testUser = TestDataLoader.getTestUser();
+        User testUser = fixtures.unique(TestDataLoader.getTestUser());
         createTestUserInSystem(testUser);
         Response response = userApiClient.login(testUser.getUsername(), testUser.getPassword());
         assertThat(response.getStatusCode()).isEqualTo(200);
@@ -195,6 +208,50 @@ class UserApiClientTest {
         assertThat(response.getStatusCode()).isEqualTo(200);
     }
 
+    @Test
+    void shouldGetTypedUserByUsername() {
+        User testUser = fixtures.unique(TestDataLoader.getTestUser());
+        createTestUserInSystem(testUser);
+        ApiResult<User> result = userApiClient.getUserByUsernameResult(testUser.getUsername());
+        assertThat(result.getStatusCode()).isEqualTo(200);
+        assertThat(result.getBody().getUsername()).isEqualTo(testUser.getUsername());
+        assertThat(result.getBody().getEmail()).isEqualTo(testUser.getEmail());
+    }
+
+    @Test
+    void shouldRefreshCachedUserAfterUpdateThroughSameClient() {
+        UserApiClient cachedClient = new UserApiClient(TestServer.getBaseUrl(), HttpTransport.shared(), CacheConfig.defaults());
+        User testUser = fixtures.unique(TestDataLoader.getTestUser());
+        createTestUserInSystem(testUser);
+        assertThat(cachedClient.getUserByUsernameResult(testUser.getUsername()).getBody().getEmail())
+            .isEqualTo(testUser.getEmail());
+
+        testUser.setEmail("cached-update@test.com");
+        cachedClient.updateUser(testUser.getUsername(), testUser);
+        assertThat(cachedClient.getUserByUsernameResult(testUser.getUsername()).getBody().getEmail())
+            .isEqualTo("cached-update@test.com");
+        assertThat(cachedClient.getCacheStats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCreateUsersInChunksFromStream() {
+        String prefix = fixtures.username();
+        BulkResult<List<User>, ApiResponse> result = userApiClient.createUsersInChunks(
+            IntStream.range(0, 1000).mapToObj(i -> User.builder()
+                .username(prefix + "_" + i)
+                .email("chunked" + i + "@test.com")
+                .password("secret")
+                .build()),
+            100, 4);
+
+        assertThat(result.getItems()).hasSize(10);
+        assertThat(result.getFailed()).isZero();
+        assertThat(userApiClient.getUserByUsernameResult(prefix + "_0").getBody().getEmail())
+            .isEqualTo("chunked0@test.com");
+        assertThat(userApiClient.getUserByUsernameResult(prefix + "_999").getBody().getEmail())
+            .isEqualTo("chunked999@test.com");
+    }
+
     private void createTestUserInSystem(User user) {
         userApiClient.createUser(user);
     }
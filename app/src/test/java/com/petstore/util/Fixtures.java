@@ -0,0 +1,113 @@
+package com.petstore.util;
+
+import com.petstore.client.PetApiClient;
+import com.petstore.client.StoreApiClient;
+import com.petstore.client.UserApiClient;
+import com.petstore.model.Order;
+import com.petstore.model.Pet;
+import com.petstore.model.User;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Per-test entities on the shared {@link TestServer}. Register as an instance field,
+ * so every test method gets its own:
+ * <pre>
+ * &#64;RegisterExtension
+ * final Fixtures fixtures = new Fixtures();
+ * </pre>
+ * {@code unique(...)} gives an entity a fresh id or username from {@link TestIds} and schedules it
+ * for deletion; {@code pet/order/user(...)} also create it. Everything scheduled is deleted after
+ * the test, newest first, and a missing entity is not an error, so tests may delete their own.
+ */
+public class Fixtures implements AfterEachCallback {
+    private static final Logger log = LoggerFactory.getLogger(Fixtures.class);
+
+    private final TestDataGenerator generator = new TestDataGenerator();
+    private final PetApiClient pets = new PetApiClient(TestServer.getBaseUrl());
+    private final StoreApiClient store = new StoreApiClient(TestServer.getBaseUrl());
+    private final UserApiClient users = new UserApiClient(TestServer.getBaseUrl());
+    private final ConcurrentLinkedDeque<Runnable> cleanup = new ConcurrentLinkedDeque<>();
+
+    public long id() {
+        return TestIds.nextId();
+    }
+
+    public String username() {
+        return TestIds.nextUsername("user");
+    }
+
+    public Pet unique(Pet pet) {
+        pet.setId(id());
+        deleteAfter(pet);
+        return pet;
+    }
+
+    public Order unique(Order order) {
+        order.setId(id());
+        deleteAfter(order);
+        return order;
+    }
+
+    /**
+     * Also moves the email to the new username, so it stays unique
+     */
+    public User unique(User user) {
+        String username = username();
+        user.setId(null);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        deleteAfter(user);
+        return user;
+    }
+
+    /**
+     * Creates a realistic pet from {@link TestDataGenerator}
+     */
+    public Pet pet() {
+        return pet(generator.pet(id()));
+    }
+
+    public Pet pet(Pet pet) {
+        return pets.createPetResult(unique(pet)).orElseThrow();
+    }
+
+    public Order order(Order order) {
+        return store.placeOrderResult(unique(order)).orElseThrow();
+    }
+
+    public User user(User user) {
+        users.createUserResult(unique(user)).orElseThrow();
+        return user;
+    }
+
+    public void deleteAfter(Pet pet) {
+        long id = pet.getId();
+        cleanup.push(() -> pets.deletePetResult(id));
+    }
+
+    public void deleteAfter(Order order) {
+        long id = order.getId();
+        cleanup.push(() -> store.deleteOrderResult(id));
+    }
+
+    public void deleteAfter(User user) {
+        String username = user.getUsername();
+        cleanup.push(() -> users.deleteUserResult(username));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        for (Runnable delete = cleanup.poll(); delete != null; delete = cleanup.poll()) {
+            try {
+                delete.run();
+            } catch (RuntimeException e) {
+                log.warn("Fixture cleanup after {} failed: {}", context.getDisplayName(), e.getMessage());
+            }
+        }
+    }
+}
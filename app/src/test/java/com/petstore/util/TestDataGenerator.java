@@ -0,0 +1,287 @@
+package com.petstore.util;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.Category;
+import com.petstore.model.Order;
+import com.petstore.model.Pet;
+import com.petstore.model.Tag;
+import com.petstore.model.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Seeded generator of synthetic Pets, Orders and Users for load and soak tests.
+ * Record n depends only on the seed and n, so streams may run in parallel and
+ * two runs with the same seed produce the same data byte for byte.
+ * Ids are {@link #FIRST_ID} + n, usernames end with n and are unique as well.
+ */
+public final class TestDataGenerator {
+    public static final long DEFAULT_SEED = 42L;
+    /**
+     * Clear of the stand-in server seed pets and of the ids hard-coded in tests
+     */
+    public static final long FIRST_ID = 100_000_000L;
+
+    private static final int BLOCK = 8_192;
+    private static final long PET = 0x9E3779B97F4A7C15L;
+    private static final long ORDER = 0xBF58476D1CE4E5B9L;
+    private static final long USER = 0x94D049BB133111EBL;
+    private static final long FIRST_SHIP_DATE = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+    private static final long SHIP_DATE_RANGE = 365L * 24 * 60 * 60;
+
+    private static final List<Category> CATEGORIES = List.of(
+        new Category(1L, "Dogs"), new Category(2L, "Cats"), new Category(3L, "Birds"), new Category(4L, "Fish"),
+        new Category(5L, "Reptiles"), new Category(6L, "Rabbits"), new Category(7L, "Rodents"), new Category(8L, "Horses"));
+    private static final List<Tag> TAGS = List.of(
+        new Tag(1L, "friendly"), new Tag(2L, "vaccinated"), new Tag(3L, "trained"), new Tag(4L, "young"),
+        new Tag(5L, "senior"), new Tag(6L, "hypoallergenic"), new Tag(7L, "indoor"), new Tag(8L, "outdoor"),
+        new Tag(9L, "rescue"), new Tag(10L, "purebred"), new Tag(11L, "playful"), new Tag(12L, "calm"));
+    private static final String[] PET_NAMES = {
+        "Max", "Bella", "Charlie", "Luna", "Cooper", "Daisy", "Rocky", "Molly", "Buddy", "Lucy",
+        "Milo", "Coco", "Oscar", "Nala", "Teddy", "Rosie", "Leo", "Ruby", "Toby", "Pepper"};
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Susan", "Richard", "Jessica", "Joseph", "Sarah", "Thomas", "Karen", "Daniel", "Nancy"};
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee"};
+    private static final char[] PASSWORD_CHARS =
+        "abcdefghijkmnopqrstuvwxyzABCDEFGHJKLMNPQRSTUVWXYZ23456789".toCharArray();
+
+    private final long seed;
+
+    public TestDataGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    public TestDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public Pet pet(long n) {
+        SplittableRandom random = random(PET, n);
+        long id = FIRST_ID + n;
+        int photos = 1 + random.nextInt(3);
+        List<String> photoUrls = new ArrayList<>(photos);
+        for (int i = 1; i <= photos; i++) {
+            photoUrls.add("https://photos.example.com/pets/" + id + "/" + i + ".jpg");
+        }
+        int status = random.nextInt(100);
+        return Pet.builder()
+            .id(id)
+            .category(copy(CATEGORIES.get(random.nextInt(CATEGORIES.size()))))
+            .name(PET_NAMES[random.nextInt(PET_NAMES.length)])
+            .photoUrls(photoUrls)
+            .tags(tags(random))
+            .status(status < 60 ? Pet.PetStatus.AVAILABLE : status < 85 ? Pet.PetStatus.PENDING : Pet.PetStatus.SOLD)
+            .build();
+    }
+
+    /**
+     * The order is for a pet with index at most n, so it refers to an existing pet
+     * whenever at least as many pets as orders were generated with the same seed
+     */
+    public Order order(long n) {
+        SplittableRandom random = random(ORDER, n);
+        Order.OrderStatus status = Order.OrderStatus.values()[random.nextInt(Order.OrderStatus.values().length)];
+        Order order = new Order();
+        order.setId(FIRST_ID + n);
+        order.setPetId(FIRST_ID + random.nextLong(n + 1));
+        order.setQuantity(1 + random.nextInt(5));
+        order.setShipDate(DateTimeFormatter.ISO_INSTANT.format(
+            Instant.ofEpochSecond(FIRST_SHIP_DATE + random.nextLong(SHIP_DATE_RANGE))));
+        order.setStatus(status.name().toLowerCase(Locale.ROOT));
+        order.setComplete(status == Order.OrderStatus.DELIVERED);
+        return order;
+    }
+
+    /**
+     * Names contain no digits, so the trailing n keeps usernames unique
+     */
+    public User user(long n) {
+        SplittableRandom random = random(USER, n);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String username = (firstName + "." + lastName).toLowerCase(Locale.ROOT) + n;
+        char[] password = new char[12];
+        for (int i = 0; i < password.length; i++) {
+            password[i] = PASSWORD_CHARS[random.nextInt(PASSWORD_CHARS.length)];
+        }
+        return User.builder()
+            .id(FIRST_ID + n)
+            .username(username)
+            .firstName(firstName)
+            .lastName(lastName)
+            .email(username + "@example.com")
+            .password(new String(password))
+            .phone(phone(random))
+            .userStatus(random.nextInt(10) == 0 ? 0 : 1)
+            .build();
+    }
+
+    /**
+     * Lazy stream of the first count pets; call parallel() on it to spread generation across cores
+     */
+    public Stream<Pet> pets(long count) {
+        return LongStream.range(0, count).mapToObj(this::pet);
+    }
+
+    public Stream<Order> orders(long count) {
+        return LongStream.range(0, count).mapToObj(this::order);
+    }
+
+    public Stream<User> users(long count) {
+        return LongStream.range(0, count).mapToObj(this::user);
+    }
+
+    /**
+     * Writes the first count pets to file as NDJSON, one object per line
+     *
+     * @return bytes written
+     */
+    public long writePets(Path file, long count) throws IOException {
+        return writeNdjson(file, count, this::pet, JacksonConfig.writerFor(Pet.class));
+    }
+
+    public long writeOrders(Path file, long count) throws IOException {
+        return writeNdjson(file, count, this::order, JacksonConfig.writerFor(Order.class));
+    }
+
+    public long writeUsers(Path file, long count) throws IOException {
+        return writeNdjson(file, count, this::user, JacksonConfig.writerFor(User.class));
+    }
+
+    /**
+     * Blocks of records are encoded on the common pool and written in order by the calling thread.
+     * At most two blocks per core are in flight, so memory stays constant whatever the count.
+     */
+    private static <T> long writeNdjson(Path file, long count, LongFunction<T> record, ObjectWriter writer)
+        throws IOException {
+        ObjectWriter lines = writer.withRootValueSeparator("\n");
+        int window = 2 * ForkJoinPool.getCommonPoolParallelism();
+        ArrayDeque<CompletableFuture<ByteArrayOutputStream>> inFlight = new ArrayDeque<>(window);
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            long from = 0;
+            while (from < count || !inFlight.isEmpty()) {
+                while (from < count && inFlight.size() < window) {
+                    long start = from;
+                    long end = Math.min(count, from + BLOCK);
+                    inFlight.add(CompletableFuture.supplyAsync(() -> encode(lines, record, start, end)));
+                    from = end;
+                }
+                ByteArrayOutputStream block = inFlight.remove().join();
+                block.writeTo(out);
+                written += block.size();
+            }
+        } catch (CompletionException e) {
+            inFlight.forEach(pending -> pending.cancel(false));
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        } catch (IOException e) {
+            inFlight.forEach(pending -> pending.cancel(false));
+            throw e;
+        }
+        return written;
+    }
+
+    private static <T> ByteArrayOutputStream encode(ObjectWriter lines, LongFunction<T> record, long from, long to) {
+        ByteArrayOutputStream block = new ByteArrayOutputStream((int) (to - from) * 256);
+        try (SequenceWriter sequence = lines.writeValues(block)) {
+            for (long n = from; n < to; n++) {
+                sequence.write(record.apply(n));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        block.write('\n');
+        return block;
+    }
+
+    private SplittableRandom random(long kind, long n) {
+        return new SplittableRandom(mix(mix(seed ^ kind) + n));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static List<Tag> tags(SplittableRandom random) {
+        int count = random.nextInt(4);
+        List<Tag> tags = new ArrayList<>(count);
+        int first = random.nextInt(TAGS.size());
+        for (int i = 0; i < count; i++) {
+            Tag tag = TAGS.get((first + i * 5) % TAGS.size());
+            tags.add(new Tag(tag.getId(), tag.getName()));
+        }
+        return tags;
+    }
+
+    /**
+     * +1-NXX-XXX-XXXX without String.format, which alone would halve the user write rate
+     */
+    private static String phone(SplittableRandom random) {
+        char[] phone = "+1-000-000-0000".toCharArray();
+        digits(phone, 3, 3, 200 + random.nextInt(800));
+        digits(phone, 7, 3, random.nextInt(1_000));
+        digits(phone, 11, 4, random.nextInt(10_000));
+        return new String(phone);
+    }
+
+    private static void digits(char[] target, int offset, int length, int value) {
+        for (int i = offset + length - 1; i >= offset; i--, value /= 10) {
+            target[i] = (char) ('0' + value % 10);
+        }
+    }
+
+    private static Category copy(Category category) {
+        return new Category(category.getId(), category.getName());
+    }
+
+    /**
+     * Usage: pets|orders|users &lt;count&gt; &lt;file&gt; [seed]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: pets|orders|users <count> <file> [seed]");
+            System.exit(2);
+        }
+        long count = Long.parseLong(args[1].replace("_", ""));
+        Path file = Path.of(args[2]);
+        TestDataGenerator generator = new TestDataGenerator(args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED);
+        long started = System.nanoTime();
+        long bytes = switch (args[0]) {
+            case "pets" -> generator.writePets(file, count);
+            case "orders" -> generator.writeOrders(file, count);
+            case "users" -> generator.writeUsers(file, count);
+            default -> throw new IllegalArgumentException("Unknown record kind: " + args[0]);
+        };
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%d %s, %d MB to %s in %.1f s (%.0f MB/s)%n", count, args[0], bytes >> 20,
+            file.toAbsolutePath(), seconds, bytes / seconds / (1 << 20));
+    }
+}
@@ -0,0 +1,90 @@
+package com.petstore.util;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.petstore.config.JacksonConfig;
+import com.petstore.model.Order;
+import com.petstore.model.Pet;
+import com.petstore.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TestDataGeneratorTest {
+    private final TestDataGenerator generator = new TestDataGenerator();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldGenerateSameRecordsForSameSeedInAnyOrder() {
+        List<Pet> sequential = generator.pets(10_000).toList();
+        List<Pet> parallel = new TestDataGenerator().pets(10_000).parallel().toList();
+
+        assertThat(parallel).isEqualTo(sequential);
+        assertThat(generator.pet(1_234)).isEqualTo(sequential.get(1_234));
+        assertThat(new TestDataGenerator(7).pet(1_234)).isNotEqualTo(sequential.get(1_234));
+        assertThat(generator.user(5).getUsername()).isEqualTo(new TestDataGenerator().user(5).getUsername());
+    }
+
+    @Test
+    void shouldGenerateUniqueValidRecords() {
+        int count = 50_000;
+
+        assertThat(generator.pets(count).map(Pet::getId).distinct().count()).isEqualTo(count);
+        assertThat(generator.users(count).parallel().map(User::getUsername).distinct().count()).isEqualTo(count);
+        assertThat(generator.pets(count).map(Pet::getStatus).collect(Collectors.toSet()))
+            .containsExactlyInAnyOrder(Pet.PetStatus.values());
+        generator.orders(count).forEach(order -> {
+            assertThat(order.getPetId()).isBetween(TestDataGenerator.FIRST_ID, order.getId());
+            assertThat(order.getQuantity()).isBetween(1, 5);
+            assertThat(Order.OrderStatus.valueOf(order.getStatus().toUpperCase())).isNotNull();
+            assertThat(Instant.parse(order.getShipDate())).isBetween(
+                Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2025-01-01T00:00:00Z"));
+        });
+    }
+
+    @Test
+    void shouldWriteNdjsonInRecordOrder() throws IOException {
+        Path pets = dir.resolve("pets.ndjson");
+        Path again = dir.resolve("pets-again.ndjson");
+        int count = 20_000;
+
+        long bytes = generator.writePets(pets, count);
+        generator.writePets(again, count);
+
+        assertThat(Files.size(pets)).isEqualTo(bytes);
+        assertThat(Files.mismatch(pets, again)).isEqualTo(-1);
+        try (Stream<String> lines = Files.lines(pets)) {
+            assertThat(lines.count()).isEqualTo(count);
+        }
+        try (MappingIterator<Pet> lines = JacksonConfig.readerFor(Pet.class).readValues(pets.toFile())) {
+            assertThat(lines.readAll()).isEqualTo(generator.pets(count).toList());
+        }
+    }
+
+    @Test
+    void shouldWriteOrdersAndUsers() throws IOException {
+        Path orders = dir.resolve("orders.ndjson");
+        Path users = dir.resolve("users.ndjson");
+
+        generator.writeOrders(orders, 100);
+        generator.writeUsers(users, 100);
+
+        try (MappingIterator<Order> lines = JacksonConfig.readerFor(Order.class).readValues(orders.toFile())) {
+            assertThat(lines.readAll()).extracting(Order::getShipDate)
+                .isEqualTo(generator.orders(100).map(Order::getShipDate).toList());
+        }
+        try (MappingIterator<User> lines = JacksonConfig.readerFor(User.class).readValues(users.toFile())) {
+            assertThat(lines.readAll()).isEqualTo(generator.users(100).toList());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.petstore.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collision-free ids and usernames for tests that run concurrently against a shared Petstore.
+ * Each test JVM starts at a random block of a million ids above 2^40, far from the stand-in
+ * server seed data, the ids hard-coded in tests and {@link TestDataGenerator#FIRST_ID},
+ * so parallel forks and repeated runs against a real instance do not meet either.
+ */
+public final class TestIds {
+    private static final long BLOCK = 1L << 20;
+    private static final AtomicLong next = new AtomicLong((1L << 40) + ThreadLocalRandom.current().nextLong(BLOCK) * BLOCK);
+
+    private TestIds() {
+    }
+
+    public static long nextId() {
+        return next.getAndIncrement();
+    }
+
+    /**
+     * Fits the Petstore username pattern [A-Za-z0-9._-]
+     */
+    public static String nextUsername(String prefix) {
+        return prefix + "_" + Long.toString(nextId(), 36);
+    }
+}
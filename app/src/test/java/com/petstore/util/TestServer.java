@@ -0,0 +1,33 @@
+package com.petstore.util;
+
+import com.petstore.server.PetstoreStandInServer;
+
+import java.util.Set;
+
+/**
+ * Shared target for API tests. Starts one embedded stand-in server per test JVM,
+ * unless -Dpetstore.baseUrl points the suite at a real Petstore instance.
+ */
+public class TestServer {
+    public static final String BASE_URL_PROPERTY = "petstore.baseUrl";
+    private static final String baseUrl;
+
+    static {
+        String configured = System.getProperty(BASE_URL_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            baseUrl = configured;
+        } else {
+            PetstoreStandInServer server = PetstoreStandInServer.builder()
+                .apiKeys(Set.of("special-key", "api-key"))
+                .oauthTokens(Set.of("test:abc123"))
+                .build()
+                .start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            baseUrl = server.getBaseUrl();
+        }
+    }
+
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+}